@@ -21,6 +21,7 @@ package com.boardgamefiesta.api.domain;
 import lombok.NonNull;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
 
@@ -99,6 +100,18 @@ public interface State {
 
     int getScore(@NonNull Player player);
 
+    /**
+     * Players whose score may have changed since the previous call, so the scores of other players do not have to be
+     * calculated again after every change. Resets the tracking.
+     * <p>A state that was just started must return all players. A deserialized state may return none, because the
+     * scores of the stored state are already known.</p>
+     *
+     * @return players whose score may have changed, or empty if the implementation does not keep track of this.
+     */
+    default Optional<Set<Player>> pollChangedScores() {
+        return Optional.empty();
+    }
+
     /**
      * Gets a ranking of the players based on their game result, because games may have different tiebreakers.
      *
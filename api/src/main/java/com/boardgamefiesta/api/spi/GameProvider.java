@@ -51,5 +51,15 @@ public interface GameProvider<T extends State> {
 
     boolean hasAutoma();
 
+    /**
+     * Creates a snapshot of a state, that is not affected by changes made to the state afterwards (and vice versa).
+     *
+     * <p>This is called for every change of a state, so implementations must make a cheap (deep) copy in memory
+     * instead of a serialization round trip. They may share immutable structures between the state and the snapshot.</p>
+     *
+     * @param state The state to create a snapshot of.
+     * @return a state that is equal to, but independent of the given state.
+     */
+    T snapshot(T state);
 
 }
\ No newline at end of file
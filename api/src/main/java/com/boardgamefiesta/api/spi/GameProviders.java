@@ -20,13 +20,18 @@ package com.boardgamefiesta.api.spi;
 
 import com.boardgamefiesta.api.domain.State;
 
-import javax.swing.text.html.Option;
 import java.util.Map;
 import java.util.Optional;
 import java.util.ServiceLoader;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+/**
+ * Registry of the games that are on the class path.
+ *
+ * <p>Providers are instantiated for all games, so they must be cheap to create. Static data of a game, like its board,
+ * must only be loaded when the game is used, so a process that only serves some games does not pay for the others.</p>
+ */
 public class GameProviders {
 
     private static final GameProviders INSTANCE = new GameProviders();
@@ -20,6 +20,7 @@ package com.boardgamefiesta.server.cognito;
 
 import com.boardgamefiesta.domain.exception.DomainException;
 import com.boardgamefiesta.domain.user.User;
+import io.micrometer.core.annotation.Timed;
 import lombok.NonNull;
 import org.eclipse.microprofile.jwt.JsonWebToken;
 import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
@@ -46,6 +47,7 @@ class CognitoUserUpdater {
     }
 
     // Observe event during transaction, so if Cognito request fails, we fail the transaction as well
+    @Timed("bgf.observer")
     void changeEmail(@Observes(during = TransactionPhase.IN_PROGRESS) User.EmailChanged event) {
         cognitoIdentityProviderClient.adminUpdateUserAttributes(AdminUpdateUserAttributesRequest.builder()
                 .userPoolId(getUserPoolId())
@@ -63,6 +65,7 @@ class CognitoUserUpdater {
     }
 
     // Observe event during transaction, so if Cognito request fails, we fail the transaction as well
+    @Timed("bgf.observer")
     void changePassword(@Observes(during = TransactionPhase.IN_PROGRESS) User.PasswordChanged event) {
         cognitoIdentityProviderClient.adminSetUserPassword(AdminSetUserPasswordRequest.builder()
                 .userPoolId(getUserPoolId())
@@ -73,6 +76,7 @@ class CognitoUserUpdater {
     }
 
     // Observe event during transaction, so if Cognito request fails, we fail the transaction as well
+    @Timed("bgf.observer")
     void changeUsername(@Observes(during = TransactionPhase.IN_PROGRESS) User.UsernameChanged event) throws DomainException {
         try {
             cognitoIdentityProviderClient.adminUpdateUserAttributes(AdminUpdateUserAttributesRequest.builder()
@@ -90,6 +94,7 @@ class CognitoUserUpdater {
     }
 
     // Observe event during transaction, so if Cognito request fails, we fail the transaction as well
+    @Timed("bgf.observer")
     void deleted(@Observes(during = TransactionPhase.IN_PROGRESS) User.Deleted event) {
         cognitoIdentityProviderClient.adminDeleteUser(AdminDeleteUserRequest.builder()
                 .userPoolId(getUserPoolId())
@@ -21,6 +21,7 @@ package com.boardgamefiesta.dynamodb;
 import lombok.RequiredArgsConstructor;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.*;
 
@@ -71,6 +72,48 @@ public class Item {
         return values != null ? AttributeValue.builder().l(values).build() : NUL;
     }
 
+    /**
+     * Estimates the size of an item as DynamoDB calculates it, which determines the consumed capacity.
+     */
+    public static int sizeOf(Map<String, AttributeValue> item) {
+        return item.entrySet().stream()
+                .mapToInt(entry -> utf8Length(entry.getKey()) + sizeOf(entry.getValue()))
+                .sum();
+    }
+
+    private static int sizeOf(AttributeValue value) {
+        if (value.s() != null) {
+            return utf8Length(value.s());
+        } else if (value.n() != null) {
+            return numberSize(value.n());
+        } else if (value.b() != null) {
+            return value.b().asByteArray().length;
+        } else if (value.bool() != null || Boolean.TRUE.equals(value.nul())) {
+            return 1;
+        } else if (value.hasM()) {
+            return 3 + sizeOf(value.m()) + value.m().size();
+        } else if (value.hasL()) {
+            return 3 + value.l().stream().mapToInt(element -> sizeOf(element) + 1).sum();
+        } else if (value.hasSs()) {
+            return value.ss().stream().mapToInt(Item::utf8Length).sum();
+        } else if (value.hasNs()) {
+            return value.ns().stream().mapToInt(Item::numberSize).sum();
+        } else if (value.hasBs()) {
+            return value.bs().stream().mapToInt(bytes -> bytes.asByteArray().length).sum();
+        }
+        return 0;
+    }
+
+    private static int numberSize(String number) {
+        // Numbers are stored with 2 significant digits per byte, plus 1 byte
+        var digits = (int) number.chars().filter(Character::isDigit).count();
+        return (digits + 1) / 2 + 1;
+    }
+
+    private static int utf8Length(String str) {
+        return str.getBytes(StandardCharsets.UTF_8).length;
+    }
+
     private static AttributeValue ss(Collection<String> value) {
         return AttributeValue.builder().ss(value).build();
     }
@@ -0,0 +1,91 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.dynamodb;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public final class BatchGetItems {
+
+    /**
+     * Maximum number of keys in a single BatchGetItem request.
+     */
+    public static final int MAX_KEYS = 100;
+
+    private static final int MAX_ATTEMPTS = 5;
+    private static final Duration BASE_DELAY = Duration.ofMillis(50);
+
+    private BatchGetItems() {
+    }
+
+    /**
+     * Gets the items of a single table, retrying unprocessed keys with exponential backoff, as recommended for BatchGetItem.
+     *
+     * <p>Items are returned in no particular order, and items that do not exist are not returned.</p>
+     *
+     * @param keysAndAttributes at most {@link #MAX_KEYS} keys, optionally with a projection
+     * @throws IllegalStateException if there are still unprocessed keys after a number of attempts
+     */
+    public static List<Map<String, AttributeValue>> batchGetItems(DynamoDbClient client, String tableName,
+                                                                  KeysAndAttributes keysAndAttributes) {
+        var items = new ArrayList<Map<String, AttributeValue>>(keysAndAttributes.keys().size());
+
+        var remaining = keysAndAttributes;
+        for (int attempt = 0; remaining != null && !remaining.keys().isEmpty(); attempt++) {
+            if (attempt == MAX_ATTEMPTS) {
+                throw new IllegalStateException("Unprocessed keys after " + attempt + " attempts: " + remaining.keys().size());
+            }
+
+            if (attempt > 0) {
+                backoff(attempt);
+            }
+
+            var response = client.batchGetItem(BatchGetItemRequest.builder()
+                    .requestItems(Map.of(tableName, remaining))
+                    .build());
+
+            if (response.hasResponses()) {
+                items.addAll(response.responses().getOrDefault(tableName, Collections.emptyList()));
+            }
+
+            // Unprocessed keys keep the projection of the request
+            remaining = response.hasUnprocessedKeys() ? response.unprocessedKeys().get(tableName) : null;
+        }
+
+        return items;
+    }
+
+    private static void backoff(int attempt) {
+        try {
+            Thread.sleep(BASE_DELAY.toMillis() << (attempt - 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying unprocessed keys", e);
+        }
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.dynamodb;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records latency, consumed capacity and retries of every DynamoDB request.
+ *
+ * <p>Requests are changed to return the consumed capacity, so repositories do not have to ask for it.
+ * Configured with {@code quarkus.dynamodb.interceptors}. The AWS SDK creates this interceptor, not CDI,
+ * so the meters are registered in the global registry.</p>
+ */
+public class DynamoDbMetricsInterceptor implements ExecutionInterceptor {
+
+    private static final ExecutionAttribute<Long> START = new ExecutionAttribute<>("bgf.metrics.start");
+    private static final ExecutionAttribute<AtomicInteger> ATTEMPTS = new ExecutionAttribute<>("bgf.metrics.attempts");
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        executionAttributes.putAttribute(START, System.nanoTime());
+        executionAttributes.putAttribute(ATTEMPTS, new AtomicInteger());
+    }
+
+    @Override
+    public SdkRequest modifyRequest(Context.ModifyRequest context, ExecutionAttributes executionAttributes) {
+        var request = context.request();
+
+        if (request instanceof GetItemRequest) {
+            return ((GetItemRequest) request).toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        } else if (request instanceof PutItemRequest) {
+            return ((PutItemRequest) request).toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        } else if (request instanceof UpdateItemRequest) {
+            return ((UpdateItemRequest) request).toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        } else if (request instanceof DeleteItemRequest) {
+            return ((DeleteItemRequest) request).toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        } else if (request instanceof QueryRequest) {
+            return ((QueryRequest) request).toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        } else if (request instanceof ScanRequest) {
+            return ((ScanRequest) request).toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        } else if (request instanceof BatchGetItemRequest) {
+            return ((BatchGetItemRequest) request).toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        } else if (request instanceof BatchWriteItemRequest) {
+            return ((BatchWriteItemRequest) request).toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        } else if (request instanceof TransactGetItemsRequest) {
+            return ((TransactGetItemsRequest) request).toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        } else if (request instanceof TransactWriteItemsRequest) {
+            return ((TransactWriteItemsRequest) request).toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        return request;
+    }
+
+    @Override
+    public void beforeTransmission(Context.BeforeTransmission context, ExecutionAttributes executionAttributes) {
+        // Called for every attempt, including retries by the SDK
+        executionAttributes.getAttribute(ATTEMPTS).incrementAndGet();
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        var operation = executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+
+        record(operation, "success", executionAttributes);
+
+        var capacityUnits = consumedCapacityUnits(context);
+        if (capacityUnits > 0) {
+            DistributionSummary.builder("bgf.dynamodb.consumed.capacity")
+                    .baseUnit("capacityunits")
+                    .tag("operation", operation)
+                    .publishPercentileHistogram()
+                    .register(Metrics.globalRegistry)
+                    .record(capacityUnits);
+        }
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        var operation = executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+
+        record(operation, context.exception().getClass().getSimpleName(), executionAttributes);
+    }
+
+    private void record(String operation, String outcome, ExecutionAttributes executionAttributes) {
+        var start = executionAttributes.getAttribute(START);
+        if (start != null) {
+            Timer.builder("bgf.dynamodb.requests")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(Metrics.globalRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        var attempts = executionAttributes.getAttribute(ATTEMPTS);
+        if (attempts != null && attempts.get() > 1) {
+            Metrics.counter("bgf.dynamodb.retries", "operation", operation).increment(attempts.get() - 1);
+        }
+    }
+
+    private static double consumedCapacityUnits(Context.AfterExecution context) {
+        var response = context.response();
+
+        if (response instanceof GetItemResponse) {
+            return capacityUnits(((GetItemResponse) response).consumedCapacity());
+        } else if (response instanceof PutItemResponse) {
+            return capacityUnits(((PutItemResponse) response).consumedCapacity());
+        } else if (response instanceof UpdateItemResponse) {
+            return capacityUnits(((UpdateItemResponse) response).consumedCapacity());
+        } else if (response instanceof DeleteItemResponse) {
+            return capacityUnits(((DeleteItemResponse) response).consumedCapacity());
+        } else if (response instanceof QueryResponse) {
+            return capacityUnits(((QueryResponse) response).consumedCapacity());
+        } else if (response instanceof ScanResponse) {
+            return capacityUnits(((ScanResponse) response).consumedCapacity());
+        } else if (response instanceof BatchGetItemResponse) {
+            return capacityUnits(((BatchGetItemResponse) response).consumedCapacity());
+        } else if (response instanceof BatchWriteItemResponse) {
+            return capacityUnits(((BatchWriteItemResponse) response).consumedCapacity());
+        } else if (response instanceof TransactGetItemsResponse) {
+            return capacityUnits(((TransactGetItemsResponse) response).consumedCapacity());
+        } else if (response instanceof TransactWriteItemsResponse) {
+            return capacityUnits(((TransactWriteItemsResponse) response).consumedCapacity());
+        }
+        return 0;
+    }
+
+    private static double capacityUnits(List<ConsumedCapacity> consumedCapacities) {
+        // Batches and transactions return the consumed capacity per table
+        return consumedCapacities.stream()
+                .mapToDouble(DynamoDbMetricsInterceptor::capacityUnits)
+                .sum();
+    }
+
+    private static double capacityUnits(ConsumedCapacity consumedCapacity) {
+        return consumedCapacity != null && consumedCapacity.capacityUnits() != null ? consumedCapacity.capacityUnits() : 0;
+    }
+
+}
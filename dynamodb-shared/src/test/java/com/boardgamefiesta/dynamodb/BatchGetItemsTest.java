@@ -0,0 +1,97 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.dynamodb;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchGetItemsTest {
+
+    static final String TABLE_NAME = "boardgamefiesta";
+
+    static final Map<String, AttributeValue> A = key("A");
+    static final Map<String, AttributeValue> B = key("B");
+
+    @Mock
+    DynamoDbClient client;
+
+    @Test
+    void retriesUnprocessedKeys() {
+        var unprocessed = KeysAndAttributes.builder()
+                .keys(B)
+                .projectionExpression("PK")
+                .build();
+        when(client.batchGetItem(any(BatchGetItemRequest.class)))
+                .thenReturn(BatchGetItemResponse.builder()
+                        .responses(Map.of(TABLE_NAME, List.of(A)))
+                        .unprocessedKeys(Map.of(TABLE_NAME, unprocessed))
+                        .build())
+                .thenReturn(BatchGetItemResponse.builder()
+                        .responses(Map.of(TABLE_NAME, List.of(B)))
+                        .build());
+
+        var items = BatchGetItems.batchGetItems(client, TABLE_NAME, KeysAndAttributes.builder()
+                .keys(A, B)
+                .projectionExpression("PK")
+                .build());
+
+        assertThat(items).containsExactlyInAnyOrder(A, B);
+
+        var captor = ArgumentCaptor.forClass(BatchGetItemRequest.class);
+        verify(client, times(2)).batchGetItem(captor.capture());
+        assertThat(captor.getAllValues().get(1).requestItems()).isEqualTo(Map.of(TABLE_NAME, unprocessed));
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        when(client.batchGetItem(any(BatchGetItemRequest.class)))
+                .thenReturn(BatchGetItemResponse.builder()
+                        .unprocessedKeys(Map.of(TABLE_NAME, KeysAndAttributes.builder().keys(A).build()))
+                        .build());
+
+        assertThatThrownBy(() -> BatchGetItems.batchGetItems(client, TABLE_NAME, KeysAndAttributes.builder()
+                .keys(A)
+                .build()))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(client, times(5)).batchGetItem(any(BatchGetItemRequest.class));
+    }
+
+    static Map<String, AttributeValue> key(String pk) {
+        return Map.of("PK", AttributeValue.builder().s(pk).build());
+    }
+
+}
@@ -30,4 +30,6 @@ public interface EmailTemplates {
     Message createInvitedMessage(Table.Invited event, User user, User host);
 
     Message createEndedMessage(Table table, Player player, Map<User.Id, User> userMap);
+
+    Message createTurnDigestMessage(TurnDigest digest, User user);
 }
@@ -21,6 +21,7 @@ package com.boardgamefiesta.domain.email;
 import com.boardgamefiesta.domain.table.Table;
 import com.boardgamefiesta.domain.user.User;
 import com.boardgamefiesta.domain.user.Users;
+import io.micrometer.core.annotation.Timed;
 import lombok.NonNull;
 
 import javax.enterprise.context.ApplicationScoped;
@@ -44,6 +45,7 @@ public class InviteEmailer {
         this.sender = sender;
     }
 
+    @Timed("bgf.observer")
     void invited(@Observes(during = TransactionPhase.AFTER_SUCCESS) Table.Invited event) {
         if (event.getType() == Table.Type.TURN_BASED) { // TODO Change this to send e-mail only when user is offline
             users.findById(event.getUserId())
@@ -20,6 +20,7 @@ package com.boardgamefiesta.domain.email;
 
 import com.boardgamefiesta.domain.user.User;
 import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import software.amazon.awssdk.services.ses.SesClient;
 import software.amazon.awssdk.services.ses.model.Body;
@@ -27,21 +28,72 @@ import software.amazon.awssdk.services.ses.model.Content;
 import software.amazon.awssdk.services.ses.model.Destination;
 import software.amazon.awssdk.services.ses.model.SendEmailRequest;
 
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @ApplicationScoped
+@Slf4j
 public class SesEmailSender {
 
     private final String from;
     private final SesClient sesClient;
+    private final ExecutorService executorService;
 
     @Inject
     public SesEmailSender(@ConfigProperty(name = "bgf.from") String from,
-                          @NonNull SesClient sesClient) {
+                          @NonNull SesClient sesClient,
+                          @ConfigProperty(name = "bgf.email.max-concurrency", defaultValue = "10") int maxConcurrency) {
         this.from = from;
         this.sesClient = sesClient;
+
+        var threadNumber = new AtomicInteger();
+        this.executorService = Executors.newFixedThreadPool(maxConcurrency, runnable -> {
+            var thread = new Thread(runnable, "ses-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void destroy() {
+        executorService.shutdown();
+    }
+
+    /**
+     * Sends a batch of emails concurrently, and waits until all are sent.
+     * An email that could not be sent is logged, and does not stop the others.
+     */
+    public void sendEmailsToUsers(List<Map.Entry<Message, User>> emails) {
+        if (emails.isEmpty()) {
+            return;
+        }
+
+        if (emails.size() == 1) {
+            // No need to hand off to another thread
+            sendEmailToUserLogged(emails.get(0).getKey(), emails.get(0).getValue());
+            return;
+        }
+
+        CompletableFuture.allOf(emails.stream()
+                        .map(email -> CompletableFuture.runAsync(() -> sendEmailToUserLogged(email.getKey(), email.getValue()), executorService))
+                        .toArray(CompletableFuture[]::new))
+                .join();
+    }
+
+    private void sendEmailToUserLogged(Message message, User user) {
+        try {
+            sendEmailToUser(message, user);
+        } catch (RuntimeException e) {
+            log.error("Error sending email to user {}", user.getId().getId(), e);
+        }
     }
 
     public void sendEmailToUser(Message message, User user) {
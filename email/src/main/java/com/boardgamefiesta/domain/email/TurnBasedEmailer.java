@@ -21,78 +21,210 @@ package com.boardgamefiesta.domain.email;
 import com.boardgamefiesta.domain.table.Player;
 import com.boardgamefiesta.domain.table.Table;
 import com.boardgamefiesta.domain.table.Tables;
+import com.boardgamefiesta.domain.table.TransactionCollector;
 import com.boardgamefiesta.domain.user.User;
 import com.boardgamefiesta.domain.user.Users;
+import io.micrometer.core.annotation.Timed;
 import lombok.NonNull;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
-import javax.enterprise.event.TransactionPhase;
+import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @ApplicationScoped
 public class TurnBasedEmailer {
 
+    /**
+     * Number of past periods to look back for digests that are due, in case a flush was missed.
+     */
+    private static final int DIGEST_LOOK_BACK_PERIODS = 4;
+
     private final Tables tables;
     private final Users users;
     private final EmailTemplates emailTemplates;
     private final SesEmailSender sender;
+    private final TurnDigests turnDigests;
+    private final Instance<TransactionSynchronizationRegistry> transactionSynchronizationRegistry;
+    private final Duration digestPeriod;
+    private final TransactionCollector<TurnEmails> turnEmails = new TransactionCollector<>(TurnEmails::new, this::send);
 
     @Inject
     public TurnBasedEmailer(@NonNull Tables tables,
                             @NonNull Users users,
                             @NonNull EmailTemplates emailTemplates,
-                            @NonNull SesEmailSender sender) {
+                            @NonNull SesEmailSender sender,
+                            @NonNull TurnDigests turnDigests,
+                            @NonNull Instance<TransactionSynchronizationRegistry> transactionSynchronizationRegistry,
+                            @ConfigProperty(name = "bgf.email.turn-digest-period", defaultValue = "PT15M") Duration digestPeriod) {
         this.tables = tables;
         this.users = users;
         this.emailTemplates = emailTemplates;
         this.sender = sender;
+        this.turnDigests = turnDigests;
+        this.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+        this.digestPeriod = digestPeriod;
     }
 
-    void beginTurn(@Observes(during = TransactionPhase.AFTER_SUCCESS) Table.BeginTurn event) {
-        if (event.getType() != Table.Type.TURN_BASED) {
+    @Timed("bgf.observer")
+    void beginTurn(@Observes Table.BeginTurn event) {
+        if (event.getType() != Table.Type.TURN_BASED || event.getUserId().isEmpty()) {
             return;
         }
 
-        event.getUserId()
-                .flatMap(users::findById)
-                .filter(user -> user.getEmailPreferences().getTurnBasedPreferences().isSendTurnEmail())
-                .ifPresent(user -> sendEmail(event, user));
+        collect(turnEmails -> turnEmails.beginTurns.add(event));
     }
 
-    void ended(@Observes(during = TransactionPhase.AFTER_SUCCESS) Table.Ended event) {
+    @Timed("bgf.observer")
+    void ended(@Observes Table.Ended event) {
         var table = event.getTable().get();
 
         if (table.getType() != Table.Type.TURN_BASED) {
             return;
         }
 
+        collect(turnEmails -> turnEmails.ended.put(table.getId(), table));
+    }
+
+    /**
+     * Sends the digests that are due at the given time, including the ones of a few periods before that were missed.
+     */
+    public void sendTurnDigests(@NonNull Instant now) {
+        var due = floor(now);
+
+        for (int i = 0; i <= DIGEST_LOOK_BACK_PERIODS; i++) {
+            var digests = turnDigests.findByDue(due.minus(digestPeriod.multipliedBy(i)))
+                    .collect(Collectors.toList());
+
+            if (!digests.isEmpty()) {
+                var userMap = findUsers(digests.stream().map(TurnDigest::getUserId));
+                var tableMap = findTables(digests.stream()
+                        .flatMap(digest -> digest.getTurns().stream())
+                        .map(TurnDigest.Turn::getTableId));
+
+                sender.sendEmailsToUsers(digests.stream()
+                        .filter(digest -> userMap.containsKey(digest.getUserId()))
+                        .map(digest -> pendingTurns(digest, tableMap))
+                        .filter(digest -> !digest.getTurns().isEmpty())
+                        .map(digest -> email(emailTemplates.createTurnDigestMessage(digest, userMap.get(digest.getUserId())), userMap.get(digest.getUserId())))
+                        .collect(Collectors.toList()));
+
+                digests.forEach(turnDigests::remove);
+            }
+        }
+    }
+
+    /**
+     * Turns may have ended already since they were added to the digest, so only keeps the ones that are still pending.
+     */
+    private static TurnDigest pendingTurns(TurnDigest digest, Map<Table.Id, Table> tableMap) {
+        return new TurnDigest(digest.getUserId(), digest.getDue(), digest.getTurns().stream()
+                .filter(turn -> isTurn(tableMap.get(turn.getTableId()), digest.getUserId()))
+                .collect(Collectors.toSet()));
+    }
+
+    private static boolean isTurn(Table table, User.Id userId) {
+        return table != null
+                && table.getStatus() == Table.Status.STARTED
+                && table.getPlayerByUserId(userId).map(Player::isTurn).orElse(false);
+    }
+
+    private Map<Table.Id, Table> findTables(Stream<Table.Id> tableIds) {
+        return tables.findByIds(tableIds.distinct())
+                .collect(Collectors.toMap(Table::getId, Function.identity()));
+    }
+
+    private void send(TurnEmails turnEmails) {
+        var userMap = findUsers(Stream.concat(
+                turnEmails.beginTurns.stream().map(event -> event.getUserId().get()),
+                turnEmails.ended.values().stream()
+                        .flatMap(this::humanPlayersToNotify)
+                        .map(player -> player.getUserId().get())));
+
+        var emails = new ArrayList<Map.Entry<Message, User>>();
+
+        for (var event : turnEmails.beginTurns) {
+            var user = userMap.get(event.getUserId().get());
+            if (user == null) {
+                continue;
+            }
+
+            var turnBasedPreferences = user.getEmailPreferences().getTurnBasedPreferences();
+            if (!turnBasedPreferences.isSendTurnEmail()) {
+                continue;
+            }
+
+            if (turnBasedPreferences.isDigestTurnEmails()) {
+                turnDigests.add(user.getId(), ceil(event.getStarted()), new TurnDigest.Turn(event.getTableId(), event.getGameId()));
+            } else {
+                emails.add(email(emailTemplates.createBeginTurnMessage(event, user), user));
+            }
+        }
+
+        for (var table : turnEmails.ended.values()) {
+            humanPlayersToNotify(table).forEach(player -> {
+                var user = userMap.get(player.getUserId().get());
+                if (user != null && user.getEmailPreferences().getTurnBasedPreferences().isSendEndedEmail()) {
+                    emails.add(email(emailTemplates.createEndedMessage(table, player, userMap), user));
+                }
+            });
+        }
+
+        sender.sendEmailsToUsers(emails);
+    }
+
+    /**
+     * Ended emails are only sent when more than one human was playing.
+     */
+    private Stream<Player> humanPlayersToNotify(Table table) {
         var humanPlayers = table.getPlayers().stream()
                 .filter(Player::isPlaying)
                 .filter(Player::isUser)
                 .collect(Collectors.toList());
 
-        if (humanPlayers.size() > 1) {
-            var userMap = humanPlayers.stream()
-                    .flatMap(player -> player.getUserId().stream())
-                    .flatMap(userId -> users.findById(userId).stream())
-                    .collect(Collectors.toMap(User::getId, Function.identity()));
+        return humanPlayers.size() > 1 ? humanPlayers.stream() : Stream.empty();
+    }
 
-            humanPlayers.forEach(player -> users.findById(player.getUserId().get())
-                    .filter(user -> user.getEmailPreferences().getTurnBasedPreferences().isSendEndedEmail())
-                    .ifPresent(user -> sendEmail(table, player, userMap)));
+    private Map<User.Id, User> findUsers(Stream<User.Id> userIds) {
+        var distinct = userIds.distinct().collect(Collectors.toList());
+        if (distinct.isEmpty()) {
+            return Map.of();
         }
+        return users.findByIds(distinct.stream())
+                .collect(Collectors.toMap(User::getId, Function.identity(), (a, b) -> a));
+    }
+
+    private Instant floor(Instant instant) {
+        var period = digestPeriod.toMillis();
+        return Instant.ofEpochMilli(Math.floorDiv(instant.toEpochMilli(), period) * period);
+    }
+
+    private Instant ceil(Instant instant) {
+        var floor = floor(instant);
+        return floor.equals(instant) ? floor : floor.plus(digestPeriod);
     }
 
-    private void sendEmail(Table table, Player player, Map<User.Id, User> userMap) {
-        sender.sendEmailToUser(emailTemplates.createEndedMessage(table, player, userMap), userMap.get(player.getUserId().get()));
+    private static Map.Entry<Message, User> email(Message message, User user) {
+        return new AbstractMap.SimpleImmutableEntry<>(message, user);
     }
 
-    private void sendEmail(Table.BeginTurn event, User user) {
-        sender.sendEmailToUser(emailTemplates.createBeginTurnMessage(event, user), user);
+    /**
+     * Collects emails until the current transaction is committed, so users can be looked up at once
+     * and emails sent in a batch.
+     */
+    private void collect(Consumer<TurnEmails> collector) {
+        turnEmails.collect(transactionSynchronizationRegistry, collector);
     }
 
 }
@@ -0,0 +1,45 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.domain.email;
+
+import com.boardgamefiesta.domain.game.Game;
+import com.boardgamefiesta.domain.table.Table;
+import com.boardgamefiesta.domain.user.User;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Turns of a user that began within a period, to be sent in one email when the period is over.
+ */
+@Value
+public class TurnDigest {
+
+    @NonNull User.Id userId;
+    @NonNull Instant due;
+    @NonNull Set<Turn> turns;
+
+    @Value
+    public static class Turn {
+        @NonNull Table.Id tableId;
+        @NonNull Game.Id gameId;
+    }
+}
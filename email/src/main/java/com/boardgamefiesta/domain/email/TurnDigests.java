@@ -0,0 +1,43 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.domain.email;
+
+import com.boardgamefiesta.domain.Repository;
+import com.boardgamefiesta.domain.user.User;
+import lombok.NonNull;
+
+import java.time.Instant;
+import java.util.stream.Stream;
+
+public interface TurnDigests extends Repository {
+
+    /**
+     * Adds the turn to the digest of the user that is due at the given time, creating the digest if needed.
+     */
+    void add(@NonNull User.Id userId, @NonNull Instant due, @NonNull TurnDigest.Turn turn);
+
+    Stream<TurnDigest> findByDue(@NonNull Instant due);
+
+    /**
+     * Removes the turns of the digest. The digest itself is only removed if no turns were added to it in the meantime,
+     * otherwise those remain to be sent later.
+     */
+    void remove(@NonNull TurnDigest turnDigest);
+
+}
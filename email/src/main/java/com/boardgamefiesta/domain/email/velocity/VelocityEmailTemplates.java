@@ -21,10 +21,13 @@ package com.boardgamefiesta.domain.email.velocity;
 import com.boardgamefiesta.domain.email.EmailTemplates;
 import com.boardgamefiesta.domain.email.Message;
 import com.boardgamefiesta.domain.email.Translations;
+import com.boardgamefiesta.domain.email.TurnDigest;
 import com.boardgamefiesta.domain.table.Player;
 import com.boardgamefiesta.domain.table.Table;
 import com.boardgamefiesta.domain.user.User;
 import lombok.NonNull;
+import lombok.Value;
+import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
 import org.apache.velocity.app.VelocityEngine;
 import org.apache.velocity.runtime.RuntimeConstants;
@@ -33,97 +36,193 @@ import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import javax.enterprise.context.ApplicationScoped;
 import java.io.StringWriter;
+import java.time.Instant;
 import java.time.ZoneId;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
 @ApplicationScoped
 public class VelocityEmailTemplates implements EmailTemplates {
 
+    private static final Pattern TITLE_PATTERN = Pattern.compile("<title>(.*?)</title>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private static final int MAX_CACHED_MESSAGES = 1000;
+
     private final Translations translations;
     private final String url;
 
-    private final VelocityEngine velocityEngine;
+    private final Template beginTurnTemplate;
+    private final Template invitedTemplate;
+    private final Template endedTemplate;
+    private final Template turnDigestTemplate;
+
+    // Number of distinct locale and time zone combinations of users is small
+    private final Map<LocaleAndTimeZone, Tools> tools = new ConcurrentHashMap<>();
+
+    /**
+     * Messages about a table are the same for all recipients with the same locale and time zone, except for the username.
+     * So they are rendered once with a placeholder, that is replaced by the username of each recipient.
+     */
+    private final Map<MessageKey, Message> messages = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<MessageKey, Message> eldest) {
+            return size() > MAX_CACHED_MESSAGES;
+        }
+    });
+    final String usernamePlaceholder = "bgf-username-" + UUID.randomUUID();
 
     public VelocityEmailTemplates(@NonNull Translations translations,
                                   @ConfigProperty(name = "bgf.url") String url) {
         this.translations = translations;
         this.url = url;
 
-        velocityEngine = new VelocityEngine();
+        var velocityEngine = new VelocityEngine();
         velocityEngine.setProperty(RuntimeConstants.RESOURCE_LOADER, "classpath");
         velocityEngine.setProperty("classpath." + RuntimeConstants.RESOURCE_LOADER + "." + RuntimeConstants.RESOURCE_LOADER_CLASS, ClasspathResourceLoader.class.getName());
         velocityEngine.init();
+
+        // Parse once, instead of for every message
+        beginTurnTemplate = velocityEngine.getTemplate("/templates/begin_turn.vm");
+        invitedTemplate = velocityEngine.getTemplate("/templates/invited.vm");
+        endedTemplate = velocityEngine.getTemplate("/templates/ended.vm");
+        turnDigestTemplate = velocityEngine.getTemplate("/templates/turn_digest.vm");
     }
 
     @Override
     public Message createBeginTurnMessage(Table.BeginTurn event, User user) {
+        return renderForRecipient(beginTurnTemplate, user, event.getTableId(), event.getStarted(),
+                context -> context.put("event", event));
+    }
+
+    @Override
+    public Message createInvitedMessage(Table.Invited event, User user, User host) {
         var context = createDefaultContext(user.getLocale(), user.getTimeZone());
         context.put("event", event);
         context.put("user", user);
+        context.put("host", host);
+
+        return render(invitedTemplate, context);
+    }
+
+    @Override
+    public Message createEndedMessage(Table table, Player player, Map<User.Id, User> userMap) {
+        var user = userMap.get(player.getUserId().get());
+
+        return renderForRecipient(endedTemplate, user, table.getId(), table.getEnded(),
+                context -> context.put("table", table));
+    }
+
+    @Override
+    public Message createTurnDigestMessage(TurnDigest digest, User user) {
+        var context = createDefaultContext(user.getLocale(), user.getTimeZone());
+        context.put("digest", digest);
+        context.put("user", user);
+
+        return render(turnDigestTemplate, context);
+    }
 
-        var template = velocityEngine.getTemplate("/templates/begin_turn.vm");
+    /**
+     * Renders a message about a table, that only differs per recipient in locale, time zone and username.
+     *
+     * <p>The rendered message is cached per template, locale, time zone, table and timestamp,
+     * so the context initializer must only put values that are the same for every recipient.</p>
+     */
+    private Message renderForRecipient(Template template, User user, Table.Id tableId, Instant timestamp,
+                                       Consumer<VelocityContext> contextInitializer) {
+        var locale = user.getLocale();
+        var timeZone = user.getTimeZone();
+        var username = user.getUsername();
+
+        if (username == null || username.contains(usernamePlaceholder)) {
+            var context = createDefaultContext(locale, timeZone);
+            contextInitializer.accept(context);
+            context.put("user", user);
+            return render(template, context);
+        }
+
+        var key = new MessageKey(template.getName(), locale, timeZone, tableId, timestamp);
+
+        // Not rendering while holding the lock, rendering twice in a race is harmless
+        var message = messages.get(key);
+        if (message == null) {
+            var context = createDefaultContext(locale, timeZone);
+            contextInitializer.accept(context);
+            context.put("user", new Recipient(usernamePlaceholder));
+            message = render(template, context);
+
+            messages.put(key, message);
+        }
+
+        return Message.builder()
+                .subject(message.getSubject().replace(usernamePlaceholder, username))
+                .body(message.getBody().replace(usernamePlaceholder, username))
+                .build();
+    }
+
+    private Message render(Template template, VelocityContext context) {
         var writer = new StringWriter();
         template.merge(context, writer);
 
+        var html = writer.toString();
+
         return Message.builder()
-                .subject(extractTitle(writer.toString()))
-                .body(writer.toString())
+                .subject(extractTitle(html))
+                .body(html)
                 .build();
     }
 
     private VelocityContext createDefaultContext(Locale locale, ZoneId timeZone) {
+        var tools = this.tools.computeIfAbsent(new LocaleAndTimeZone(locale, timeZone), key ->
+                new Tools(new DateTimeTool(locale, timeZone), new TranslationsTool(translations, locale)));
+
         var context = new VelocityContext();
         context.put("url", url);
-        context.put("dateTime", new DateTimeTool(locale, timeZone));
-        context.put("translations", new TranslationsTool(translations, locale));
+        context.put("dateTime", tools.getDateTime());
+        context.put("translations", tools.getTranslations());
         return context;
     }
 
     private String extractTitle(String html) {
-        var matcher = Pattern.compile("<title>(.*?)</title>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL).matcher(html);
+        var matcher = TITLE_PATTERN.matcher(html);
         if (matcher.find()) {
             return matcher.group(1).trim();
         }
         throw new IllegalStateException("No title tag found in HTML: " + html);
     }
 
-    @Override
-    public Message createInvitedMessage(Table.Invited event, User user, User host) {
-        var context = createDefaultContext(user.getLocale(), user.getTimeZone());
-        context.put("event", event);
-        context.put("user", user);
-        context.put("host", host);
-
-        var template = velocityEngine.getTemplate("/templates/invited.vm");
-        var writer = new StringWriter();
-        template.merge(context, writer);
-
-        return Message.builder()
-                .subject(extractTitle(writer.toString()))
-                .body(writer.toString())
-                .build();
+    @Value
+    private static class LocaleAndTimeZone {
+        Locale locale;
+        ZoneId timeZone;
     }
 
-    @Override
-    public Message createEndedMessage(Table table, Player player, Map<User.Id, User> userMap) {
-        var user = userMap.get(player.getUserId().get());
-
-        var context = createDefaultContext(user.getLocale(), user.getTimeZone());
-        context.put("table", table);
-        context.put("player", player);
-        context.put("user", user);
-        context.put("userMap", userMap);
+    @Value
+    private static class Tools {
+        DateTimeTool dateTime;
+        TranslationsTool translations;
+    }
 
-        var template = velocityEngine.getTemplate("/templates/ended.vm");
-        var writer = new StringWriter();
-        template.merge(context, writer);
+    @Value
+    private static class MessageKey {
+        String template;
+        Locale locale;
+        ZoneId timeZone;
+        Table.Id tableId;
+        Instant timestamp;
+    }
 
-        return Message.builder()
-                .subject(extractTitle(writer.toString()))
-                .body(writer.toString())
-                .build();
+    /**
+     * Stands in for the user in the templates, when rendering a message that is cached.
+     */
+    @Value
+    public static class Recipient {
+        String username;
     }
 
 }
@@ -0,0 +1,157 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.dynamodb;
+
+import com.boardgamefiesta.domain.email.TurnDigest;
+import com.boardgamefiesta.domain.email.TurnDigests;
+import com.boardgamefiesta.domain.game.Game;
+import com.boardgamefiesta.domain.table.Table;
+import com.boardgamefiesta.domain.user.User;
+import lombok.NonNull;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * PK=TurnDigest#<due>
+ * SK=User#<ID>
+ * <p>
+ * Partitioned by the time the digest is due, so the digests that are due can be queried without an index.
+ */
+@ApplicationScoped
+public class TurnDigestDynamoDbRepository implements TurnDigests {
+
+    private static final String PK = "PK";
+    private static final String SK = "SK";
+
+    private static final String TURN_DIGEST_PREFIX = "TurnDigest#";
+    private static final String USER_PREFIX = "User#";
+
+    private static final String TURNS = "Turns";
+    private static final String TTL = "TTL";
+
+    // Digests that were not sent by then, are not relevant anymore
+    private static final Duration RETENTION = Duration.ofDays(7);
+
+    private final DynamoDbClient client;
+    private final DynamoDbConfiguration config;
+
+    @Inject
+    public TurnDigestDynamoDbRepository(@NonNull DynamoDbClient client,
+                                        @NonNull DynamoDbConfiguration config) {
+        this.client = client;
+        this.config = config;
+    }
+
+    @Override
+    public void add(@NonNull User.Id userId, @NonNull Instant due, @NonNull TurnDigest.Turn turn) {
+        client.updateItem(UpdateItemRequest.builder()
+                .tableName(config.tableName())
+                .key(key(userId, due))
+                .updateExpression("ADD " + TURNS + " :Turn SET #TTL=:TTL")
+                .expressionAttributeNames(Map.of("#TTL", TTL))
+                .expressionAttributeValues(Map.of(
+                        ":Turn", AttributeValue.builder().ss(turn(turn)).build(),
+                        ":TTL", Item.ttl(due.plus(RETENTION))))
+                .build());
+    }
+
+    @Override
+    public Stream<TurnDigest> findByDue(@NonNull Instant due) {
+        return client.queryPaginator(QueryRequest.builder()
+                        .tableName(config.tableName())
+                        .keyConditionExpression(PK + "=:PK")
+                        .expressionAttributeValues(Map.of(":PK", Item.s(TURN_DIGEST_PREFIX + due)))
+                        .build())
+                .stream()
+                .filter(QueryResponse::hasItems)
+                .flatMap(response -> response.items().stream())
+                .map(item -> new TurnDigest(
+                        User.Id.of(item.get(SK).s().replace(USER_PREFIX, "")),
+                        due,
+                        item.get(TURNS).ss().stream()
+                                .map(turn -> {
+                                    var parts = turn.split("#");
+                                    return new TurnDigest.Turn(Table.Id.of(parts[1]), Game.Id.of(parts[0]));
+                                })
+                                .collect(Collectors.toSet())));
+    }
+
+    @Override
+    public void remove(@NonNull TurnDigest turnDigest) {
+        var key = key(turnDigest.getUserId(), turnDigest.getDue());
+
+        // Only removes the turns that were read, because turns may have been added after that
+        UpdateItemResponse response;
+        try {
+            response = client.updateItem(UpdateItemRequest.builder()
+                    .tableName(config.tableName())
+                    .key(key)
+                    .updateExpression("DELETE " + TURNS + " :Turns")
+                    .conditionExpression("attribute_exists(" + PK + ")")
+                    .expressionAttributeValues(Map.of(":Turns", AttributeValue.builder().ss(turnDigest.getTurns().stream()
+                            .map(TurnDigestDynamoDbRepository::turn)
+                            .collect(Collectors.toList())).build()))
+                    .returnValues(ReturnValue.ALL_NEW)
+                    .build());
+        } catch (ConditionalCheckFailedException e) {
+            // Already removed
+            return;
+        }
+
+        if (response.hasAttributes() && response.attributes().containsKey(TURNS)) {
+            // Turns were added after the digest was read
+            return;
+        }
+
+        try {
+            client.deleteItem(DeleteItemRequest.builder()
+                    .tableName(config.tableName())
+                    .key(key)
+                    .conditionExpression("attribute_not_exists(" + TURNS + ")")
+                    .build());
+        } catch (ConditionalCheckFailedException e) {
+            // Turn was added in the meantime
+        }
+    }
+
+    private static String turn(TurnDigest.Turn turn) {
+        return turn.getGameId().getId() + "#" + turn.getTableId().getId();
+    }
+
+    private static Map<String, AttributeValue> key(User.Id userId, Instant due) {
+        return Map.of(
+                PK, Item.s(TURN_DIGEST_PREFIX + due),
+                SK, Item.s(USER_PREFIX + userId.getId()));
+    }
+}
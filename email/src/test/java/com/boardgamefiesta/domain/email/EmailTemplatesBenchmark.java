@@ -0,0 +1,83 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.domain.email;
+
+import com.boardgamefiesta.domain.email.velocity.VelocityEmailTemplates;
+import com.boardgamefiesta.domain.game.Game;
+import com.boardgamefiesta.domain.table.Lazy;
+import com.boardgamefiesta.domain.table.Table;
+import com.boardgamefiesta.domain.user.User;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.IntFunction;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Manual microbenchmark of rendering turn emails. Compares rendering a new message for every table (nothing cached)
+ * with a burst of messages for the same table (cached, only the username is replaced).
+ */
+@Disabled
+class EmailTemplatesBenchmark {
+
+    static final int WARMUP = 20_000;
+    static final int ITERATIONS = 100_000;
+
+    @Test
+    void beginTurn() {
+        var emailTemplates = new VelocityEmailTemplates(new Translations(), "https://boardgamefiesta.com");
+
+        var user = mock(User.class);
+        when(user.getLocale()).thenReturn(Locale.ENGLISH);
+        when(user.getTimeZone()).thenReturn(ZoneId.of("Europe/Amsterdam"));
+        when(user.getUsername()).thenReturn("wetgos");
+
+        var started = Instant.now();
+        IntFunction<Table.BeginTurn> distinctTables = i -> event(Table.Id.of("table" + i), started);
+        var sameTable = event(Table.Id.of("table"), started);
+
+        measure("distinct tables", i -> emailTemplates.createBeginTurnMessage(distinctTables.apply(i), user));
+        measure("same table", i -> emailTemplates.createBeginTurnMessage(sameTable, user));
+    }
+
+    private static Table.BeginTurn event(Table.Id tableId, Instant started) {
+        return new Table.BeginTurn(Lazy.of(null), Game.Id.of("gwt"), tableId, Table.Type.TURN_BASED,
+                Optional.of(User.Id.of("userId")), started.plusSeconds(3600), started);
+    }
+
+    private static void measure(String name, IntFunction<Message> render) {
+        for (var i = 0; i < WARMUP; i++) {
+            render.apply(i);
+        }
+
+        var start = System.nanoTime();
+        for (var i = 0; i < ITERATIONS; i++) {
+            render.apply(WARMUP + i);
+        }
+        var nanos = System.nanoTime() - start;
+
+        System.out.printf("%s: %d ns/op%n", name, nanos / ITERATIONS);
+    }
+}
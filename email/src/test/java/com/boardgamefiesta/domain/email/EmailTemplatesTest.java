@@ -37,6 +37,7 @@ import java.time.ZoneOffset;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockito.Mockito.mock;
@@ -119,6 +120,42 @@ class EmailTemplatesTest {
         assertThat(message.getSubject()).isEqualTo("Ranchers Of The Old West has ended at 3/23/21, 12:46 PM");
     }
 
+    @Test
+    void endedOtherRecipient() {
+        when(user.getLocale()).thenReturn(Locale.forLanguageTag("en-US"));
+        when(user.getTimeZone()).thenReturn(ZoneId.of("America/New_York"));
+        when(user.getUsername()).thenReturn("alice");
+
+        var otherUser = mock(User.class);
+        when(otherUser.getLocale()).thenReturn(Locale.forLanguageTag("en-US"));
+        when(otherUser.getTimeZone()).thenReturn(ZoneId.of("America/New_York"));
+        when(otherUser.getUsername()).thenReturn("bob");
+
+        var game = mock(Game.class);
+        when(game.getId()).thenReturn(GAME_ID);
+
+        var player = mock(Player.class);
+        when(player.getUserId()).thenReturn(Optional.of(USER_ID));
+
+        var otherPlayer = mock(Player.class);
+        when(otherPlayer.getUserId()).thenReturn(Optional.of(OTHER_USER_ID));
+
+        var table = mock(Table.class);
+        when(table.getId()).thenReturn(TABLE_ID);
+        when(table.getGame()).thenReturn(game);
+        when(table.getEnded()).thenReturn(Instant.parse("2021-03-23T16:46:00.000Z"));
+
+        var userMap = Map.of(USER_ID, user, OTHER_USER_ID, otherUser);
+
+        var message = emailTemplates.createEndedMessage(table, player, userMap);
+        var otherMessage = emailTemplates.createEndedMessage(table, otherPlayer, userMap);
+
+        assertThat(otherMessage.getSubject()).isEqualTo(message.getSubject());
+        assertThat(message.getBody()).contains("alice").doesNotContain("bob").doesNotContain("bgf-username");
+        assertThat(otherMessage.getBody()).contains("bob").doesNotContain("alice").doesNotContain("bgf-username");
+        assertThat(otherMessage.getBody().replace("bob", "alice")).isEqualTo(message.getBody());
+    }
+
     @Test
     void endedMissingTranslations() {
         when(user.getLocale()).thenReturn(Locale.forLanguageTag("it-IT"));
@@ -154,4 +191,18 @@ class EmailTemplatesTest {
 
         assertThat(message.getSubject()).isEqualTo("You're invited to play Ranchers Of The Old West with wetgos");
     }
-}
\ No newline at end of file
+    @Test
+    void turnDigest() {
+        when(user.getLocale()).thenReturn(Locale.forLanguageTag("en-US"));
+        when(user.getTimeZone()).thenReturn(ZoneId.of("America/New_York"));
+
+        var message = emailTemplates.createTurnDigestMessage(new TurnDigest(USER_ID, Instant.parse("2021-03-23T16:45:00.000Z"), Set.of(
+                new TurnDigest.Turn(TABLE_ID, GAME_ID),
+                new TurnDigest.Turn(Table.Id.of("otherTableId"), GAME_ID))), user);
+
+        assertThat(message.getSubject()).isEqualTo("It is your turn in 2 games");
+        assertThat(message.getBody()).contains("https://boardgamefiesta.com/gwt/tableId");
+        assertThat(message.getBody()).contains("https://boardgamefiesta.com/gwt/otherTableId");
+    }
+
+}
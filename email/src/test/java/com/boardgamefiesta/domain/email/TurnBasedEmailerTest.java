@@ -0,0 +1,227 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.domain.email;
+
+import com.boardgamefiesta.domain.game.Game;
+import com.boardgamefiesta.domain.table.Lazy;
+import com.boardgamefiesta.domain.table.Player;
+import com.boardgamefiesta.domain.table.Table;
+import com.boardgamefiesta.domain.table.Tables;
+import com.boardgamefiesta.domain.user.EmailPreferences;
+import com.boardgamefiesta.domain.user.User;
+import com.boardgamefiesta.domain.user.Users;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.enterprise.inject.Instance;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TurnBasedEmailerTest {
+
+    static final User.Id USER_ID = User.Id.of("A");
+    static final Game.Id GAME_ID = Game.Id.of("gwt");
+    static final Table.Id TABLE_ID = Table.Id.of("tableId");
+    static final Table.Id OTHER_TABLE_ID = Table.Id.of("otherTableId");
+    static final Instant DUE = Instant.parse("2021-03-23T16:45:00.000Z");
+    static final Message MESSAGE = Message.builder().subject("subject").body("body").build();
+
+    @Mock
+    Tables tables;
+
+    @Mock
+    Users users;
+
+    @Mock
+    EmailTemplates emailTemplates;
+
+    @Mock
+    SesEmailSender sender;
+
+    @Mock
+    TurnDigests turnDigests;
+
+    @Mock
+    Instance<TransactionSynchronizationRegistry> transactionSynchronizationRegistry;
+
+    @Mock
+    TransactionSynchronizationRegistry registry;
+
+    @Mock
+    User user;
+
+    TurnBasedEmailer turnBasedEmailer;
+
+    @BeforeEach
+    void setUp() {
+        turnBasedEmailer = new TurnBasedEmailer(tables, users, emailTemplates, sender, turnDigests,
+                transactionSynchronizationRegistry, Duration.ofMinutes(15));
+    }
+
+    @Nested
+    class SendTurnDigests {
+
+        TurnDigest.Turn turn = new TurnDigest.Turn(TABLE_ID, GAME_ID);
+        TurnDigest.Turn otherTurn = new TurnDigest.Turn(OTHER_TABLE_ID, GAME_ID);
+
+        @BeforeEach
+        void setUp() {
+            when(turnDigests.findByDue(any())).thenAnswer(invocation -> Stream.empty());
+            when(user.getId()).thenReturn(USER_ID);
+            when(users.findByIds(any())).thenReturn(Stream.of(user));
+        }
+
+        @Test
+        void onlyPendingTurns() {
+            var digest = new TurnDigest(USER_ID, DUE, Set.of(turn, otherTurn));
+            when(turnDigests.findByDue(DUE)).thenReturn(Stream.of(digest));
+            findByIds(table(TABLE_ID, true), table(OTHER_TABLE_ID, false));
+            when(emailTemplates.createTurnDigestMessage(any(), eq(user))).thenReturn(MESSAGE);
+
+            turnBasedEmailer.sendTurnDigests(DUE.plusSeconds(60));
+
+            verify(emailTemplates).createTurnDigestMessage(new TurnDigest(USER_ID, DUE, Set.of(turn)), user);
+            verify(sender).sendEmailsToUsers(List.of(Map.entry(MESSAGE, user)));
+            verify(turnDigests).remove(digest);
+        }
+
+        @Test
+        void noPendingTurns() {
+            var digest = new TurnDigest(USER_ID, DUE, Set.of(turn));
+            when(turnDigests.findByDue(DUE)).thenReturn(Stream.of(digest));
+            findByIds(table(TABLE_ID, false));
+
+            turnBasedEmailer.sendTurnDigests(DUE.plusSeconds(60));
+
+            verify(emailTemplates, never()).createTurnDigestMessage(any(), any());
+            verify(sender).sendEmailsToUsers(List.of());
+            verify(turnDigests).remove(digest);
+        }
+
+        @Test
+        void tableNoLongerExists() {
+            var digest = new TurnDigest(USER_ID, DUE, Set.of(turn, otherTurn));
+            when(turnDigests.findByDue(DUE)).thenReturn(Stream.of(digest));
+            findByIds(table(OTHER_TABLE_ID, true));
+            when(emailTemplates.createTurnDigestMessage(any(), eq(user))).thenReturn(MESSAGE);
+
+            turnBasedEmailer.sendTurnDigests(DUE.plusSeconds(60));
+
+            verify(emailTemplates).createTurnDigestMessage(new TurnDigest(USER_ID, DUE, Set.of(otherTurn)), user);
+            verify(turnDigests).remove(digest);
+        }
+
+        /**
+         * Tables are looked up in a single batch, only returning the ones that (still) exist.
+         */
+        void findByIds(Table... existing) {
+            when(tables.findByIds(any())).thenAnswer(invocation -> {
+                var tableIds = invocation.<Stream<Table.Id>>getArgument(0).collect(Collectors.toSet());
+                return Arrays.stream(existing).filter(table -> tableIds.contains(table.getId()));
+            });
+        }
+
+        Table table(Table.Id tableId, boolean turn) {
+            var player = mock(Player.class);
+            when(player.isTurn()).thenReturn(turn);
+
+            var table = mock(Table.class);
+            when(table.getId()).thenReturn(tableId);
+            when(table.getStatus()).thenReturn(Table.Status.STARTED);
+            when(table.getPlayerByUserId(USER_ID)).thenReturn(Optional.of(player));
+            return table;
+        }
+    }
+
+    @Nested
+    class BeginTurn {
+
+        Table.BeginTurn event = new Table.BeginTurn(Lazy.of(null), GAME_ID, TABLE_ID, Table.Type.TURN_BASED,
+                Optional.of(USER_ID), DUE.plus(Duration.ofDays(1)), DUE);
+
+        @BeforeEach
+        void setUp() {
+            when(transactionSynchronizationRegistry.isResolvable()).thenReturn(true);
+            when(transactionSynchronizationRegistry.get()).thenReturn(registry);
+        }
+
+        @Test
+        void noTransaction() {
+            when(registry.getTransactionStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+            expectBeginTurnMessage();
+
+            turnBasedEmailer.beginTurn(event);
+
+            verify(sender).sendEmailsToUsers(List.of(Map.entry(MESSAGE, user)));
+        }
+
+        @Test
+        void afterCommit() {
+            when(registry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE);
+            expectBeginTurnMessage();
+
+            turnBasedEmailer.beginTurn(event);
+
+            verify(sender, never()).sendEmailsToUsers(any());
+
+            var synchronization = ArgumentCaptor.forClass(Synchronization.class);
+            verify(registry).registerInterposedSynchronization(synchronization.capture());
+            synchronization.getValue().afterCompletion(Status.STATUS_COMMITTED);
+
+            verify(sender).sendEmailsToUsers(List.of(Map.entry(MESSAGE, user)));
+        }
+
+        @Test
+        void markedRollback() {
+            when(registry.getTransactionStatus()).thenReturn(Status.STATUS_MARKED_ROLLBACK);
+
+            turnBasedEmailer.beginTurn(event);
+
+            verify(registry, never()).registerInterposedSynchronization(any());
+            verifyNoInteractions(users, sender);
+        }
+
+        void expectBeginTurnMessage() {
+            when(user.getId()).thenReturn(USER_ID);
+            when(user.getEmailPreferences()).thenReturn(new EmailPreferences());
+            when(users.findByIds(any())).thenReturn(Stream.of(user));
+            when(emailTemplates.createBeginTurnMessage(event, user)).thenReturn(MESSAGE);
+        }
+    }
+}
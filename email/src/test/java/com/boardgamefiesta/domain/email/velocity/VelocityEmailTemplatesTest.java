@@ -0,0 +1,133 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.domain.email.velocity;
+
+import com.boardgamefiesta.domain.email.Translations;
+import com.boardgamefiesta.domain.game.Game;
+import com.boardgamefiesta.domain.table.Lazy;
+import com.boardgamefiesta.domain.table.Table;
+import com.boardgamefiesta.domain.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Locale;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Messages are cached per template, locale, time zone, table and timestamp, with a placeholder for the username.
+ * The username of one recipient must never end up in the message of another.
+ */
+class VelocityEmailTemplatesTest {
+
+    static final Instant STARTED = Instant.parse("2021-01-24T14:00:00Z");
+    static final Table.BeginTurn EVENT = new Table.BeginTurn(Lazy.of(null), Game.Id.of("gwt"),
+            Table.Id.of("tableId"), Table.Type.TURN_BASED, Optional.of(User.Id.of("userId")),
+            STARTED.plusSeconds(3600), STARTED);
+
+    VelocityEmailTemplates emailTemplates;
+
+    @BeforeEach
+    void setUp() {
+        // Default salutation does not include the username, so use one that does
+        var translations = new Translations() {
+            @Override
+            public String getTranslation(String key, Locale locale, Object... arguments) {
+                return "email.salutation".equals(key) ? "Howdy " + arguments[0] + "!" : super.getTranslation(key, locale, arguments);
+            }
+        };
+
+        emailTemplates = new VelocityEmailTemplates(translations, "https://boardgamefiesta.com");
+    }
+
+    @Test
+    void cachedPerRecipient() {
+        var alice = emailTemplates.createBeginTurnMessage(EVENT, user("alice"));
+        var bob = emailTemplates.createBeginTurnMessage(EVENT, user("bob"));
+        var aliceAgain = emailTemplates.createBeginTurnMessage(EVENT, user("alice"));
+
+        assertThat(alice.getBody()).contains("alice").doesNotContain("bob").doesNotContain(emailTemplates.usernamePlaceholder);
+        assertThat(bob.getBody()).contains("bob").doesNotContain("alice").doesNotContain(emailTemplates.usernamePlaceholder);
+        assertThat(aliceAgain.getBody()).isEqualTo(alice.getBody());
+
+        // Otherwise identical
+        assertThat(bob.getBody().replace("bob", "alice")).isEqualTo(alice.getBody());
+        assertThat(bob.getSubject()).isEqualTo(alice.getSubject());
+    }
+
+    @Test
+    void usernameContainsPlaceholderAfterCached() {
+        var bob = emailTemplates.createBeginTurnMessage(EVENT, user("bob"));
+
+        var username = "x" + emailTemplates.usernamePlaceholder + "x";
+        var message = emailTemplates.createBeginTurnMessage(EVENT, user(username));
+
+        assertThat(message.getBody()).contains(username).doesNotContain("bob");
+        assertThat(emailTemplates.createBeginTurnMessage(EVENT, user("bob")).getBody())
+                .isEqualTo(bob.getBody())
+                .doesNotContain(username);
+    }
+
+    @Test
+    void usernameContainsPlaceholderBeforeCached() {
+        var username = "x" + emailTemplates.usernamePlaceholder + "x";
+        var message = emailTemplates.createBeginTurnMessage(EVENT, user(username));
+
+        var bob = emailTemplates.createBeginTurnMessage(EVENT, user("bob"));
+
+        assertThat(message.getBody()).contains(username).doesNotContain("bob");
+        // Not rendered from a message that was cached for the other recipient
+        assertThat(bob.getBody()).contains("bob").doesNotContain(username).doesNotContain(emailTemplates.usernamePlaceholder);
+        assertThat(bob.getBody().replace("bob", username)).isEqualTo(message.getBody());
+    }
+
+    @Test
+    void noUsername() {
+        var message = emailTemplates.createBeginTurnMessage(EVENT, user(null));
+        var bob = emailTemplates.createBeginTurnMessage(EVENT, user("bob"));
+
+        assertThat(message.getBody()).doesNotContain("bob").doesNotContain(emailTemplates.usernamePlaceholder);
+        assertThat(bob.getBody()).contains("bob");
+    }
+
+    @Test
+    void distinctPerLocaleAndTimeZone() {
+        var amsterdam = emailTemplates.createBeginTurnMessage(EVENT, user("alice", Locale.ENGLISH, ZoneId.of("Europe/Amsterdam")));
+        var newYork = emailTemplates.createBeginTurnMessage(EVENT, user("alice", Locale.ENGLISH, ZoneId.of("America/New_York")));
+
+        assertThat(newYork.getSubject()).isNotEqualTo(amsterdam.getSubject());
+    }
+
+    private static User user(String username) {
+        return user(username, Locale.ENGLISH, ZoneId.of("Europe/Amsterdam"));
+    }
+
+    private static User user(String username, Locale locale, ZoneId timeZone) {
+        var user = mock(User.class);
+        when(user.getLocale()).thenReturn(locale);
+        when(user.getTimeZone()).thenReturn(timeZone);
+        when(user.getUsername()).thenReturn(username);
+        return user;
+    }
+}
@@ -55,14 +55,22 @@ public class Game {
         return provider.start(players, options, eventListener, random);
     }
 
+    public void perform(State state, Player player, Action action, Random random) {
+        GameMetrics.timer(id, "perform").record(() -> state.perform(player, action, random));
+    }
+
     public void executeAutoma(State state, Player player, Random random) {
-        provider.executeAutoma(state, player, random);
+        GameMetrics.timer(id, "executeAutoma").record(() -> provider.executeAutoma(state, player, random));
     }
 
     public boolean hasAutoma() {
         return provider.hasAutoma();
     }
 
+    public State snapshot(State state) {
+        return provider.snapshot(state);
+    }
+
     @Value(staticConstructor = "fromString")
     public static class Id {
         String id;
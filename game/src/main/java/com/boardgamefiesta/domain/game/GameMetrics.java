@@ -0,0 +1,41 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.domain.game;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Timers for calls into the implementation of a game, tagged with the game.
+ *
+ * <p>Registered in the global registry, because games are not CDI beans.</p>
+ */
+public final class GameMetrics {
+
+    private GameMetrics() {
+    }
+
+    public static Timer timer(Game.Id gameId, String operation) {
+        return Timer.builder("bgf.game." + operation)
+                .tag("game", gameId.getId())
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry);
+    }
+
+}
@@ -155,6 +155,11 @@ public class DominantSpeciesProvider implements GameProvider<DominantSpecies> {
         return true;
     }
 
+    @Override
+    public DominantSpecies snapshot(DominantSpecies state) {
+        return state.copy();
+    }
+
     private static class DominantSpeciesSerializer implements StateSerializer<DominantSpecies> {
         @Override
         public JsonObject serialize(DominantSpecies state, JsonBuilderFactory factory) {
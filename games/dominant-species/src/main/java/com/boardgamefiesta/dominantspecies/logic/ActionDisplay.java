@@ -83,6 +83,16 @@ public class ActionDisplay {
         return this;
     }
 
+    ActionDisplay copy() {
+        return new ActionDisplay(
+                actionPawns.entrySet().stream()
+                        .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().clone())),
+                elements.entrySet().stream()
+                        .collect(Collectors.toMap(Map.Entry::getKey, entry -> new ArrayList<>(entry.getValue()))),
+                executing,
+                index);
+    }
+
     private Optional<ActionPawn> getNextActionPawn(ActionType actionType, Integer startAtIndex) {
         var spaces = actionPawns.get(actionType);
 
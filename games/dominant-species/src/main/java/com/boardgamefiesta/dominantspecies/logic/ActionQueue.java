@@ -38,6 +38,13 @@ public class ActionQueue {
         return new ActionQueue(new LinkedList<>());
     }
 
+    /**
+     * Possible actions are immutable and shared.
+     */
+    ActionQueue copy() {
+        return new ActionQueue(new LinkedList<>(actions));
+    }
+
     Optional<AnimalType> getNextAnimal() {
         return getNextPossibleAction().map(PossibleAction::getAnimal);
     }
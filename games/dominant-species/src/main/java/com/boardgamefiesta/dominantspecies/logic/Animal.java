@@ -59,6 +59,10 @@ public class Animal {
                 .build();
     }
 
+    Animal copy() {
+        return new Animal(player, type, genePool, eliminatedSpecies, actionPawns, score, new ArrayList<>(elements));
+    }
+
     static int initialActionPawns(int playerCount) {
         switch (playerCount) {
             case 2:
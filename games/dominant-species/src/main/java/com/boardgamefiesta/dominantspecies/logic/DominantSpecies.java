@@ -151,6 +151,34 @@ public class DominantSpecies implements State {
         return game;
     }
 
+    /**
+     * Makes a deep copy in memory, which is much cheaper than a serialization round trip.
+     * Players, hexes, corners and possible actions are immutable and shared. Event listeners are not copied.
+     */
+    public DominantSpecies copy() {
+        return builder()
+                .round(round)
+                .phase(phase)
+                .animals(animals.entrySet().stream()
+                        .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().copy())))
+                .initiativeTrack(new ArrayList<>(initiativeTrack))
+                .tiles(tiles.entrySet().stream()
+                        .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().clone())))
+                .elements(new HashMap<>(elements))
+                .actionDisplay(actionDisplay.copy())
+                .drawBag(drawBag.copy())
+                .currentAnimal(currentAnimal)
+                .actionQueue(actionQueue.copy())
+                .scoredTiles(new ArrayList<>(scoredTiles))
+                .deck(new LinkedList<>(deck))
+                .availableCards(new HashSet<>(availableCards))
+                .availableTundraTiles(availableTundraTiles)
+                .wanderlustTiles(wanderlustTiles.copy())
+                .lastPlacedTile(lastPlacedTile)
+                .canUndo(canUndo)
+                .build();
+    }
+
     private static Map<AnimalType, Animal> initialAnimals(Map<AnimalType, Player> animalTypes) {
         return animalTypes.entrySet().stream()
                 .collect(Collectors.toMap(Map.Entry::getKey, entry -> Animal.initial(entry.getValue(), entry.getKey(), animalTypes.size())));
@@ -54,6 +54,10 @@ public class DrawBag {
         throw new DominantSpeciesException(DominantSpeciesError.NO_ELEMENTS_IN_DRAW_BAG);
     }
 
+    DrawBag copy() {
+        return new DrawBag(new HashMap<>(elements));
+    }
+
     private int getTotal() {
         return elements.values().stream().mapToInt(i -> i).sum();
     }
@@ -70,6 +70,10 @@ public class WanderlustTiles {
             return faceDown.size() + (faceUp != null ? 1 : 0);
         }
 
+        Stack copy() {
+            return new Stack(new LinkedList<>(faceDown), faceUp);
+        }
+
     }
 
     static WanderlustTiles initial(Random random) {
@@ -81,6 +85,12 @@ public class WanderlustTiles {
                 .toArray(Stack[]::new));
     }
 
+    WanderlustTiles copy() {
+        return new WanderlustTiles(Arrays.stream(stacks)
+                .map(Stack::copy)
+                .toArray(Stack[]::new));
+    }
+
     public Stack getStack(int index) {
         return stacks[index];
     }
@@ -105,6 +105,54 @@ class DominantSpeciesProviderTest {
         }
     }
 
+    @Nested
+    class Snapshot {
+
+        @Test
+        void snapshot() {
+            var ds = DominantSpecies.start(Set.of(playerA, playerB), new Random(0));
+
+            var snapshot = provider.snapshot(ds);
+
+            assertThat(snapshot).isNotSameAs(ds);
+            assertThat(snapshot.getRound()).isEqualTo(ds.getRound());
+            assertThat(snapshot.getPhase()).isEqualTo(ds.getPhase());
+            assertThat(snapshot.getCurrentAnimal()).isEqualTo(ds.getCurrentAnimal());
+            assertThat(snapshot.getInitiativeTrack()).isEqualTo(ds.getInitiativeTrack());
+            assertThat(snapshot.getElements()).isEqualTo(ds.getElements());
+            assertThat(snapshot.getTiles()).isEqualTo(ds.getTiles());
+            assertThat(snapshot.getAvailableCards()).isEqualTo(ds.getAvailableCards());
+            assertThat(snapshot.getActionDisplay().getElements()).isEqualTo(ds.getActionDisplay().getElements());
+            assertThat(snapshot.getAnimals()).containsOnlyKeys(ds.getAnimals().keySet());
+            ds.getAnimals().forEach((animalType, animal) -> {
+                assertThat(snapshot.getAnimals().get(animalType).getGenePool()).isEqualTo(animal.getGenePool());
+                assertThat(snapshot.getAnimals().get(animalType).getElements()).isEqualTo(animal.getElements());
+            });
+        }
+
+        @Test
+        void independent() {
+            var ds = DominantSpecies.start(Set.of(playerA, playerB), new Random(0));
+            var before = serialize(ds);
+
+            var snapshot = provider.snapshot(ds);
+
+            var random = new Random(0);
+            for (int i = 0; i < 20 && !snapshot.getCurrentPlayers().isEmpty(); i++) {
+                provider.executeAutoma(snapshot, snapshot.getCurrentPlayers().iterator().next(), random);
+            }
+
+            assertThat(serialize(snapshot)).isNotEqualTo(before);
+            assertThat(serialize(ds)).isEqualTo(before);
+        }
+
+        private JsonObject serialize(DominantSpecies ds) {
+            var jsonGenerator = new JsonGeneratorToStructureAdapter(JsonProvider.provider());
+            provider.getStateSerializer().serialize(ds, jsonGenerator);
+            return (JsonObject) jsonGenerator.getRootStructure();
+        }
+    }
+
     @Nested
     class ActionMapper {
 
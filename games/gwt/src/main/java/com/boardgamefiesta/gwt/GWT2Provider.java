@@ -107,4 +107,9 @@ public class GWT2Provider implements GameProvider<GWT> {
         return true;
     }
 
+    @Override
+    public GWT snapshot(GWT state) {
+        return state.copy();
+    }
+
 }
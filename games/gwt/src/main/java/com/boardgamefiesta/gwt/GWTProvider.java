@@ -109,4 +109,9 @@ public class GWTProvider implements GameProvider<GWT> {
         return true;
     }
 
+    @Override
+    public GWT snapshot(GWT state) {
+        return state.copy();
+    }
+
 }
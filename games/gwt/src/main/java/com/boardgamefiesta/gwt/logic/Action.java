@@ -1464,6 +1464,7 @@ public abstract class Action implements com.boardgamefiesta.api.domain.Action {
                                 // Pay to other player
                                 currentPlayerState.payDollars(amount);
                                 game.playerState(recipient).gainDollars(amount);
+                                game.scoreMayHaveChanged(recipient);
 
                                 game.fireEvent(game.getCurrentPlayer(), GWTEvent.Type.PAY_FEE_PLAYER, List.of(Integer.toString(amount), recipient.getName()));
                             }
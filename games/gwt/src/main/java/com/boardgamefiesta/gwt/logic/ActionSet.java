@@ -0,0 +1,229 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.boardgamefiesta.gwt.logic;
+
+import java.lang.reflect.Modifier;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Set of action classes, like an {@link java.util.EnumSet} but for {@link Action} classes.
+ *
+ * <p>Every action class gets a dense ordinal the first time it is used, so a set is just a few words of bits.
+ * Checking, combining and copying sets of possible actions is then much cheaper than with hash sets.</p>
+ */
+final class ActionSet extends AbstractSet<Class<? extends Action>> {
+
+    private static final ClassValue<Integer> ORDINALS = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return register(type);
+        }
+    };
+
+    @SuppressWarnings("unchecked")
+    private static volatile Class<? extends Action>[] classes = new Class[0];
+
+    static {
+        // Give the actions of the game the lowest ordinals, so that most sets fit in a single word
+        for (var type : Action.class.getDeclaredClasses()) {
+            if (Action.class.isAssignableFrom(type) && !Modifier.isAbstract(type.getModifiers())) {
+                ORDINALS.get(type);
+            }
+        }
+    }
+
+    private long[] words;
+
+    ActionSet() {
+        this.words = new long[wordsNeeded(classes.length)];
+    }
+
+    ActionSet(Collection<? extends Class<? extends Action>> actions) {
+        this();
+        addAll(actions);
+    }
+
+    static ActionSet of(Class<? extends Action> action) {
+        var actionSet = new ActionSet();
+        actionSet.add(action);
+        return actionSet;
+    }
+
+    static int ordinal(Class<? extends Action> action) {
+        return ORDINALS.get(action);
+    }
+
+    @Override
+    public boolean add(Class<? extends Action> action) {
+        var ordinal = ordinal(action);
+        var index = ordinal >>> 6;
+
+        if (index >= words.length) {
+            words = Arrays.copyOf(words, wordsNeeded(ordinal + 1));
+        }
+
+        var before = words[index];
+        words[index] |= 1L << ordinal;
+        return words[index] != before;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Class<? extends Action>> actions) {
+        if (!(actions instanceof ActionSet)) {
+            return super.addAll(actions);
+        }
+
+        var other = ((ActionSet) actions).words;
+        if (other.length > words.length) {
+            words = Arrays.copyOf(words, other.length);
+        }
+
+        var changed = false;
+        for (int i = 0; i < other.length; i++) {
+            var before = words[i];
+            words[i] |= other[i];
+            changed |= words[i] != before;
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof Class) || !Action.class.isAssignableFrom((Class<?>) o)) {
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        var ordinal = ordinal((Class<? extends Action>) o);
+        var index = ordinal >>> 6;
+        return index < words.length && (words[index] & (1L << ordinal)) != 0;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!contains(o)) {
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        var ordinal = ordinal((Class<? extends Action>) o);
+        words[ordinal >>> 6] &= ~(1L << ordinal);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(words, 0L);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (var word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        var size = 0;
+        for (var word : words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    @Override
+    public Iterator<Class<? extends Action>> iterator() {
+        return new Iterator<>() {
+            private int next = nextOrdinal(0);
+            private int last = -1;
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public Class<? extends Action> next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+
+                last = next;
+                next = nextOrdinal(next + 1);
+                return classes[last];
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) {
+                    throw new IllegalStateException();
+                }
+                if ((words[last >>> 6] & (1L << last)) == 0) {
+                    throw new ConcurrentModificationException();
+                }
+
+                words[last >>> 6] &= ~(1L << last);
+                last = -1;
+            }
+        };
+    }
+
+    private int nextOrdinal(int from) {
+        var index = from >>> 6;
+        if (index >= words.length) {
+            return -1;
+        }
+
+        var word = words[index] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (index << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++index == words.length) {
+                return -1;
+            }
+            word = words[index];
+        }
+    }
+
+    private static int wordsNeeded(int ordinals) {
+        return Math.max(1, (ordinals + 63) >>> 6);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static synchronized int register(Class<?> type) {
+        var ordinal = classes.length;
+
+        var newClasses = Arrays.copyOf(classes, ordinal + 1);
+        newClasses[ordinal] = (Class<? extends Action>) type;
+        classes = newClasses;
+
+        return ordinal;
+    }
+}
@@ -34,8 +34,29 @@ class ActionStack {
     private final Deque<PossibleAction> actions;
     private final Deque<PossibleAction> immediateActions;
 
+    /**
+     * Possible actions of the top of the stack, because these are checked many times before the stack changes.
+     * Cleared on every change.
+     */
+    private ActionSet possibleActions;
+
     static ActionStack initial(Collection<PossibleAction> startActions) {
-        return new ActionStack(new LinkedList<>(startActions), new LinkedList<>());
+        return new ActionStack(new ArrayDeque<>(startActions), new ArrayDeque<>());
+    }
+
+    /**
+     * Makes a deep copy.
+     */
+    ActionStack copy() {
+        return new ActionStack(copy(actions), copy(immediateActions));
+    }
+
+    private static Deque<PossibleAction> copy(Deque<PossibleAction> stack) {
+        var copy = new ArrayDeque<PossibleAction>(stack.size());
+        for (var possibleAction : stack) {
+            copy.add(possibleAction.clone());
+        }
+        return copy;
     }
 
     JsonObject serialize(JsonBuilderFactory factory) {
@@ -50,30 +71,33 @@ class ActionStack {
                 jsonObject.getJsonArray("actions").stream()
                         .map(JsonValue::asJsonObject)
                         .map(PossibleAction::deserialize)
-                        .collect(Collectors.toCollection(LinkedList::new)),
-                !jsonObject.containsKey("immediateActions") ? new LinkedList<>()
+                        .collect(Collectors.toCollection(ArrayDeque::new)),
+                !jsonObject.containsKey("immediateActions") ? new ArrayDeque<>()
                         : jsonObject.getJsonArray("immediateActions").stream()
                         .map(JsonValue::asJsonObject)
                         .map(PossibleAction::deserialize)
-                        .collect(Collectors.toCollection(LinkedList::new)));
+                        .collect(Collectors.toCollection(ArrayDeque::new)));
     }
 
     void perform(Class<? extends Action> action) {
         PossibleAction element = check(action);
 
+        possibleActions = null;
+
         element.perform(action);
 
         if (element.isFinal()) {
+            // Element is always the top of the stack
             if (immediateActions.isEmpty()) {
-                actions.remove(element);
+                actions.poll();
             } else {
-                immediateActions.remove(element);
+                immediateActions.poll();
             }
         }
     }
 
     boolean canPerform(Class<? extends Action> action) {
-        return !isEmpty() && peek().canPerform(action);
+        return !isEmpty() && possibleActions().contains(action);
     }
 
     public boolean canSkip() {
@@ -81,17 +105,24 @@ class ActionStack {
     }
 
     Set<Class<? extends Action>> getPossibleActions() {
-        return !immediateActions.isEmpty()
-                ? immediateActions.peek().getPossibleActions()
-                : !actions.isEmpty()
-                ? actions.peek().getPossibleActions()
-                : Collections.emptySet();
+        return Collections.unmodifiableSet(possibleActions());
+    }
+
+    private ActionSet possibleActions() {
+        if (possibleActions == null) {
+            possibleActions = !immediateActions.isEmpty()
+                    ? immediateActions.peek().getPossibleActions()
+                    : !actions.isEmpty()
+                    ? actions.peek().getPossibleActions()
+                    : new ActionSet();
+        }
+        return possibleActions;
     }
 
     private PossibleAction check(Class<? extends Action> action) {
         PossibleAction element = peek();
 
-        if (!element.canPerform(action)) {
+        if (!possibleActions().contains(action)) {
             throw new GWTException(GWTError.NOT_FIRST_ACTION);
         }
 
@@ -113,6 +144,8 @@ class ActionStack {
     }
 
     public void skipAll() {
+        possibleActions = null;
+
         skipAll(immediateActions);
         skipAll(actions);
     }
@@ -124,6 +157,8 @@ class ActionStack {
     }
 
     public void skip() {
+        possibleActions = null;
+
         if (!immediateActions.isEmpty()) {
             skip(immediateActions);
         } else {
@@ -150,6 +185,8 @@ class ActionStack {
     }
 
     void clear() {
+        possibleActions = null;
+
         actions.clear();
         immediateActions.clear();
     }
@@ -159,6 +196,8 @@ class ActionStack {
     }
 
     void addImmediateActions(ImmediateActions immediateActions) {
+        possibleActions = null;
+
         // Pushes on top of stack, but keeps relative order.
         for (int i = immediateActions.getActions().size() - 1; i >= 0; i--) {
             this.immediateActions.addFirst(immediateActions.getActions().get(i));
@@ -173,6 +212,8 @@ class ActionStack {
     }
 
     void addAction(PossibleAction action) {
+        possibleActions = null;
+
         actions.addFirst(action);
     }
 
@@ -28,7 +28,6 @@ import javax.json.JsonBuilderFactory;
 import javax.json.JsonObject;
 import javax.json.JsonValue;
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -71,6 +70,49 @@ public class CattleMarket {
                     Cost.pair(24, 4)
             ));
 
+    private static final int MAX_VALUE = 5;
+
+    private static final int SINGLE = 0;
+    private static final int PAIR = 1;
+
+    /**
+     * {@link #COSTS} indexed by breeding value, then {@link #SINGLE} or {@link #PAIR}.
+     */
+    private static final Cost[][][] COSTS_BY_VALUE = new Cost[MAX_VALUE + 1][2][0];
+
+    /**
+     * All possible buys, indexed like {@link #COSTS_BY_VALUE}, so they do not have to be created on every call.
+     */
+    private static final PossibleBuy[][][] POSSIBLE_BUYS_BY_VALUE = new PossibleBuy[MAX_VALUE + 1][2][0];
+
+    /**
+     * Only the possible buys for which there is no other option that costs at most the same dollars and cowboys.
+     * When an option is affordable, the options that are at least as cheap are also affordable, so filtering this
+     * by cowboys and balance gives the Pareto-optimal buys.
+     */
+    private static final PossibleBuy[][][] OPTIMAL_BUYS_BY_VALUE = new PossibleBuy[MAX_VALUE + 1][2][0];
+
+    static {
+        COSTS.forEach((value, costs) -> {
+            index(value, SINGLE, costs.stream().filter(cost -> !cost.isPair()).toArray(Cost[]::new));
+            index(value, PAIR, costs.stream().filter(Cost::isPair).toArray(Cost[]::new));
+        });
+    }
+
+    private static void index(int value, int pair, Cost[] costs) {
+        Arrays.sort(costs, Comparator.comparingInt(Cost::getCowboys).thenComparingInt(Cost::getDollars));
+
+        COSTS_BY_VALUE[value][pair] = costs;
+
+        POSSIBLE_BUYS_BY_VALUE[value][pair] = Arrays.stream(costs)
+                .map(cost -> new PossibleBuy(value, cost.isPair(), cost.getDollars(), cost.getCowboys()))
+                .toArray(PossibleBuy[]::new);
+
+        OPTIMAL_BUYS_BY_VALUE[value][pair] = Arrays.stream(POSSIBLE_BUYS_BY_VALUE[value][pair])
+                .filter(possibleBuy -> Arrays.stream(costs).noneMatch(cost -> cost.isCheaperThan(possibleBuy)))
+                .toArray(PossibleBuy[]::new);
+    }
+
     static CattleMarket original(int playerCount, boolean simmental, Random random) {
         return forDrawStack(playerCount, createDrawStack(4, simmental, random), simmental);
     }
@@ -109,26 +151,61 @@ public class CattleMarket {
                 jsonObject.getBoolean("simmental", false));
     }
 
+    /**
+     * Makes a copy. Cattle cards are immutable and therefore shared.
+     */
+    CattleMarket copy() {
+        return new CattleMarket(new LinkedList<>(drawStack), new HashSet<>(market), simmental);
+    }
+
     public Set<Card.CattleCard> getMarket() {
         return Collections.unmodifiableSet(market);
     }
 
     public Stream<PossibleBuy> possibleBuys(int numberOfCowboys, int balance) {
+        return possibleBuys(numberOfCowboys, balance, POSSIBLE_BUYS_BY_VALUE);
+    }
+
+    /**
+     * Like {@link #possibleBuys(int, int)}, but leaves out options for which a cheaper option exists for the same cards.
+     */
+    public Stream<PossibleBuy> optimalBuys(int numberOfCowboys, int balance) {
+        return possibleBuys(numberOfCowboys, balance, OPTIMAL_BUYS_BY_VALUE);
+    }
+
+    private Stream<PossibleBuy> possibleBuys(int numberOfCowboys, int balance, PossibleBuy[][][] buysByValue) {
         if (numberOfCowboys == 0 || balance < 3) {
             return Stream.empty();
         }
 
-        return market.stream()
-                .mapToInt(Card.CattleCard::getValue)
-                .boxed()
-                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
-                .entrySet().stream()
-                .filter(count -> count.getValue() > 0)
-                .flatMap(count -> COSTS.get(count.getKey()).stream()
-                        .filter(cost -> cost.getCowboys() <= numberOfCowboys)
-                        .filter(cost -> cost.getDollars() <= balance)
-                        .filter(cost -> !cost.isPair() || count.getValue() >= 2)
-                        .map(cost -> new PossibleBuy(count.getKey(), cost.isPair(), cost.getDollars(), cost.getCowboys())));
+        var counts = new int[MAX_VALUE + 1];
+        for (var card : market) {
+            counts[card.getValue()]++;
+        }
+
+        var result = Stream.<PossibleBuy>builder();
+        for (var value = 0; value <= MAX_VALUE; value++) {
+            if (counts[value] > 0) {
+                addPossibleBuys(buysByValue[value][SINGLE], numberOfCowboys, balance, result);
+
+                if (counts[value] >= 2) {
+                    addPossibleBuys(buysByValue[value][PAIR], numberOfCowboys, balance, result);
+                }
+            }
+        }
+        return result.build();
+    }
+
+    private static void addPossibleBuys(PossibleBuy[] possibleBuys, int numberOfCowboys, int balance, Stream.Builder<PossibleBuy> result) {
+        // Sorted by cowboys
+        for (var possibleBuy : possibleBuys) {
+            if (possibleBuy.getCowboys() > numberOfCowboys) {
+                break;
+            }
+            if (possibleBuy.getDollars() <= balance) {
+                result.add(possibleBuy);
+            }
+        }
     }
 
     public int getDrawStackSize() {
@@ -152,6 +229,11 @@ public class CattleMarket {
         static Cost single(int dollars, int cowboys) {
             return new Cost(dollars, cowboys, false);
         }
+
+        private boolean isCheaperThan(PossibleBuy possibleBuy) {
+            return cowboys <= possibleBuy.getCowboys() && dollars <= possibleBuy.getDollars()
+                    && (cowboys < possibleBuy.getCowboys() || dollars < possibleBuy.getDollars());
+        }
     }
 
     Cost buy(@NonNull Card.CattleCard card, Card.CattleCard secondCard, int cowboys, int dollars) {
@@ -159,11 +241,7 @@ public class CattleMarket {
             throw new GWTException(GWTError.NOT_PAIR);
         }
 
-        var result = COSTS.get(card.getValue()).stream()
-                .filter(cost -> cost.isPair() == (secondCard != null))
-                .filter(cost -> cost.getCowboys() == cowboys)
-                .filter(cost -> cost.getDollars() == dollars)
-                .findAny()
+        var result = cost(card.getValue(), secondCard != null, cowboys, dollars)
                 .orElseThrow(() -> new GWTException(GWTError.CANNOT_PERFORM_ACTION));
 
         take(card);
@@ -175,6 +253,19 @@ public class CattleMarket {
         return result;
     }
 
+    static Optional<Cost> cost(int value, boolean pair, int cowboys, int dollars) {
+        if (value < 0 || value > MAX_VALUE) {
+            return Optional.empty();
+        }
+
+        for (var cost : COSTS_BY_VALUE[value][pair ? PAIR : SINGLE]) {
+            if (cost.getCowboys() == cowboys && cost.getDollars() == dollars) {
+                return Optional.of(cost);
+            }
+        }
+        return Optional.empty();
+    }
+
     void take(Card.CattleCard card) {
         if (!market.remove(card)) {
             throw new GWTException(GWTError.CATTLE_CARD_NOT_AVAILABLE);
@@ -82,6 +82,14 @@ public class Foresights {
                         .toArray(KansasCitySupply.Tile[][]::new), 3));
     }
 
+    Foresights copy() {
+        var copyOfSpaces = new KansasCitySupply.Tile[spaces.length][];
+        for (int columnIndex = 0; columnIndex < spaces.length; columnIndex++) {
+            copyOfSpaces[columnIndex] = spaces[columnIndex].clone();
+        }
+        return new Foresights(copyOfSpaces);
+    }
+
     KansasCitySupply.Tile take(int columnIndex, int rowIndex) {
         KansasCitySupply.Tile tile = spaces[columnIndex][rowIndex];
 
@@ -32,6 +32,7 @@ import javax.json.JsonString;
 import javax.json.JsonValue;
 import java.util.*;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -85,6 +86,17 @@ public class GWT implements State {
 
     private transient Set<InGameEventListener> eventListeners;
 
+    /**
+     * Players whose score may have changed since the last {@link #pollChangedScores()}.
+     * Not serialized, because the scores of a stored state have already been assigned.
+     */
+    private transient Set<Player> changedScores;
+
+    /**
+     * Scores for as long as the state does not change. Cleared by every public method that changes the state.
+     */
+    private transient ScoreMemo scoreMemo;
+
     @Getter
     private Player currentPlayer;
 
@@ -147,6 +159,7 @@ public class GWT implements State {
                 .canUndo(false)
                 .status(Status.BIDDING)
                 .startingObjectiveCards(ObjectiveCards.createStartingObjectiveCardsDrawStack(random, players.size()))
+                .changedScores(new HashSet<>(players))
                 .build();
 
         if (eventListener != null) {
@@ -302,6 +315,8 @@ public class GWT implements State {
             throw new GWTException(GWTError.GAME_ENDED);
         }
 
+        stateChanging();
+
         if (action instanceof Action.PlayObjectiveCard && !canPlayObjectiveCard()) {
             throw new GWTException(GWTError.CANNOT_PERFORM_ACTION);
         }
@@ -325,6 +340,8 @@ public class GWT implements State {
         actionStack.addActions(actionResult.getNewActions());
 
         canUndo = actionResult.canUndo();
+
+        stateChanging();
     }
 
     private static boolean isAnytimeAction(Action action) {
@@ -357,6 +374,11 @@ public class GWT implements State {
     }
 
     void fireActionEvent(Class<? extends Action> actionClass, List<String> params) {
+        if (eventListeners == null) {
+            // Nobody is listening, for example in copies that are played out by the automa
+            return;
+        }
+
         fireActionEvent(GWTEvent.Type.ACTION, Stream.concat(Stream.of(ActionType.of(actionClass).name()), params.stream()).collect(Collectors.toList()));
     }
 
@@ -369,11 +391,15 @@ public class GWT implements State {
             throw new GWTException(GWTError.GAME_ENDED);
         }
 
+        stateChanging();
+
         if (actionStack.canPerform(Action.UpgradeSimmental.class)) {
             currentPlayerState().discardHand(this);
         }
 
         actionStack.skip();
+
+        stateChanging();
     }
 
     @Override
@@ -395,6 +421,8 @@ public class GWT implements State {
             throw new GWTException(GWTError.NOT_CURRENT_PLAYER);
         }
 
+        stateChanging();
+
         var playerState = playerState(player);
 
         if (actionStack.canPerform(Action.UpgradeSimmental.class)) {
@@ -412,6 +440,8 @@ public class GWT implements State {
         canUndo = false;
 
         afterEndTurn(random);
+
+        stateChanging();
     }
 
     @Override
@@ -593,7 +623,7 @@ public class GWT implements State {
             return Collections.emptySet();
         }
 
-        var possibleActions = new HashSet<>(actionStack.getPossibleActions());
+        var possibleActions = new ActionSet(actionStack.getPossibleActions());
 
         if (status == Status.STARTED) {
             if (canPlayObjectiveCard()) {
@@ -625,11 +655,56 @@ public class GWT implements State {
     }
 
     public Score scoreDetails(Player player) {
-        var playerState = playerState(player);
+        return scoreMemo().scores.computeIfAbsent(player, k -> {
+            var playerState = playerState(player);
+
+            return playerState.score(this)
+                    .add(trail.score(player))
+                    .add(railroadTrack.score(this, player, playerState));
+        });
+    }
+
+    ObjectiveCard.Score scoreObjectives(Player player, Supplier<ObjectiveCard.Score> calculate) {
+        return scoreMemo().objectives.computeIfAbsent(player, k -> calculate.get());
+    }
+
+    private ScoreMemo scoreMemo() {
+        if (scoreMemo == null) {
+            scoreMemo = new ScoreMemo();
+        }
+        return scoreMemo;
+    }
 
-        return playerState.score(this)
-                .add(trail.score(player))
-                .add(railroadTrack.score(this, player, playerState));
+    /**
+     * Outside of bidding, only the current player can change their own score, except for fees paid to other players.
+     * Bidding ends by giving all players their starting balance.
+     */
+    private void stateChanging() {
+        if (status == Status.STARTED) {
+            scoreMayHaveChanged(currentPlayer);
+        } else {
+            allScoresChanged();
+        }
+    }
+
+    void scoreMayHaveChanged(Player player) {
+        scoreMemo = null;
+
+        if (changedScores == null) {
+            changedScores = new HashSet<>();
+        }
+        changedScores.add(player);
+    }
+
+    private void allScoresChanged() {
+        players.forEach(this::scoreMayHaveChanged);
+    }
+
+    @Override
+    public Optional<Set<Player>> pollChangedScores() {
+        var result = changedScores != null ? changedScores : Collections.<Player>emptySet();
+        changedScores = null;
+        return Optional.of(result);
     }
 
     @Override
@@ -823,6 +898,38 @@ public class GWT implements State {
                 .build();
     }
 
+    /**
+     * Makes a deep copy in memory, which is much cheaper than a serialization round trip.
+     * Immutable parts of the state, like cards and buildings, are shared. Event listeners are not copied.
+     */
+    public GWT copy() {
+        var trail = this.trail.copy();
+
+        var playerStates = new HashMap<Player, PlayerState>();
+        this.playerStates.forEach((player, playerState) -> playerStates.put(player, playerState.copy(trail)));
+
+        return builder()
+                .edition(edition)
+                .mode(mode)
+                .railsToTheNorth(railsToTheNorth)
+                .players(new ArrayList<>(players))
+                .playerOrder(new LinkedList<>(playerOrder))
+                .playerStates(playerStates)
+                .currentPlayer(currentPlayer)
+                .railroadTrack(railroadTrack.copy())
+                .kansasCitySupply(kansasCitySupply.copy())
+                .trail(trail)
+                .jobMarket(jobMarket.copy())
+                .foresights(foresights.copy())
+                .cattleMarket(cattleMarket.copy())
+                .objectiveCards(objectiveCards.copy())
+                .actionStack(actionStack.copy())
+                .status(status)
+                .startingObjectiveCards(new ArrayList<>(startingObjectiveCards))
+                .canUndo(canUndo)
+                .build();
+    }
+
     private static Map<Player, PlayerState> deserializePlayerStates(GWT.Edition edition, Map<String, Player> playerMap, RailroadTrack railroadTrack, Trail trail, JsonObject jsonObject) {
         return jsonObject.keySet().stream()
                 .filter(playerMap::containsKey)
@@ -866,6 +973,8 @@ public class GWT implements State {
 
     @Override
     public void leave(@NonNull Player player, @NonNull Random random) {
+        allScoresChanged();
+
         if (status == Status.BIDDING) {
             playerOrder.remove(player);
 
@@ -887,6 +996,8 @@ public class GWT implements State {
         } else {
             throw new GWTException(GWTError.GAME_ENDED);
         }
+
+        allScoresChanged();
     }
 
     ImmediateActions deliverToCity(City city) {
@@ -981,10 +1092,19 @@ public class GWT implements State {
     }
 
     public void executeAutoma(Player player, Random random) {
+        scoreMayHaveChanged(player);
+
         playerStates.get(player)
                 .getAutomaState()
                 .orElseThrow(() -> new GWTException(GWTError.NO_AUTOMA_STATE))
                 .execute(this, random);
+
+        stateChanging();
+    }
+
+    private static final class ScoreMemo {
+        private final Map<Player, Score> scores = new HashMap<>();
+        private final Map<Player, ObjectiveCard.Score> objectives = new HashMap<>();
     }
 
     public enum Status {
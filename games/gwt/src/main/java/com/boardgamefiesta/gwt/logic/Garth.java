@@ -26,9 +26,10 @@ import javax.json.JsonBuilderFactory;
 import javax.json.JsonObject;
 import javax.json.JsonObjectBuilder;
 import javax.json.JsonString;
+import java.time.Duration;
 import java.util.*;
-import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -96,14 +97,24 @@ public class Garth {
     @AllArgsConstructor(access = AccessLevel.PRIVATE)
     public enum Difficulty {
 
-        EASY(List.of(City.WICHITA, City.ST_LOUIS), List.of(City.CHICAGO)),
-        MEDIUM(List.of(City.COLORADO_SPRINGS, City.BLOOMINGTON), List.of(City.CHICAGO, City.CLEVELAND)),
-        HARD(List.of(City.ALBUQUERQUE, City.CHICAGO_2), List.of(City.CLEVELAND)),
-        VERY_HARD(List.of(City.ALBUQUERQUE, City.CHICAGO_2), List.of(City.CLEVELAND));
+        EASY(List.of(City.WICHITA, City.ST_LOUIS), List.of(City.CHICAGO), 0, Duration.ZERO),
+        MEDIUM(List.of(City.COLORADO_SPRINGS, City.BLOOMINGTON), List.of(City.CHICAGO, City.CLEVELAND), 0, Duration.ZERO),
+        HARD(List.of(City.ALBUQUERQUE, City.CHICAGO_2), List.of(City.CLEVELAND), 2, Duration.ofMillis(250)),
+        VERY_HARD(List.of(City.ALBUQUERQUE, City.CHICAGO_2), List.of(City.CLEVELAND), 8, Duration.ofMillis(500));
 
         List<City> startCities;
         List<City> startCitiesRailsToTheNorth;
 
+        /**
+         * Number of playouts per candidate, when searching for the best move or choice. 0 means no search.
+         */
+        int playouts;
+
+        /**
+         * Safeguard for the time spent on one search, in case playouts are slower than expected.
+         */
+        Duration searchTimeLimit;
+
         List<City> getStartCities(GWT game) {
             return game.isRailsToTheNorth() ? startCitiesRailsToTheNorth : startCities;
         }
@@ -119,6 +130,13 @@ public class Garth {
         return new Garth(playerState.getPlayer(), drawStack, new LinkedList<>(), difficulty, specialization);
     }
 
+    /**
+     * Automa that plays for a human player in the playouts of a search, as a simple default policy.
+     */
+    static Garth standIn(@NonNull PlayerState playerState, Random random) {
+        return create(playerState, random, Difficulty.EASY);
+    }
+
     private static Worker randomDifferentWorker(Random random, Worker differentThan) {
         Worker worker;
         do {
@@ -157,7 +175,18 @@ public class Garth {
                 Worker.valueOf(jsonObject.getString("specialization")));
     }
 
+    Garth copy() {
+        return new Garth(player, new LinkedList<>(drawStack), new LinkedList<>(discardPile), difficulty, specialization);
+    }
+
     public void execute(GWT game, Random random) {
+        execute(game, random, true);
+    }
+
+    /**
+     * @param search whether choices may be searched, which is not done during the playouts of a search itself
+     */
+    void execute(GWT game, Random random, boolean search) {
         var playerState = game.playerState(player);
         var possibleActions = game.possibleActions();
 
@@ -175,23 +204,19 @@ public class Garth {
                 discardPile.clear();
             }
             var action = drawStack.poll();
+            var steps = action.getSteps(this, game, player);
 
-            game.perform(new Action.Move(calculateMove(game, action.getSteps(game, player))), random);
-
-            action.perform(this, game, player, random);
+            game.perform(new Action.Move(canSearch(search)
+                    ? searchMove(game, action, steps, random)
+                    : calculateMove(game, steps)), random);
 
-            if (!game.getTrail().atKansasCity(player)) {
-                // Garth ignores all normal location actions
-                game.getActionStack().clear();
-            }
-
-            discardPile.add(action);
+            afterMove(action, game, random);
         } else if (possibleActions.contains(Action.ChooseForesight1.class)) {
-            game.perform(new Action.ChooseForesight1(chooseForesight(game.getForesights().choices(0), random)), random);
+            game.perform(chooseForesight(game, 0, Action.ChooseForesight1::new, search, random), random);
         } else if (possibleActions.contains(Action.ChooseForesight2.class)) {
-            game.perform(new Action.ChooseForesight2(chooseForesight(game.getForesights().choices(1), random)), random);
+            game.perform(chooseForesight(game, 1, Action.ChooseForesight2::new, search, random), random);
         } else if (possibleActions.contains(Action.ChooseForesight3.class)) {
-            game.perform(new Action.ChooseForesight3(chooseForesight(game.getForesights().choices(2), random)), random);
+            game.perform(chooseForesight(game, 2, Action.ChooseForesight3::new, search, random), random);
         } else if (possibleActions.contains(Action.DeliverToCity.class)) {
             game.perform(new Action.DeliverToCity(calculateDelivery(game, player), 0), random);
         } else if (possibleActions.contains(Action.UnlockWhite.class)) {
@@ -199,11 +224,23 @@ public class Garth {
         } else if (possibleActions.contains(Action.UnlockBlackOrWhite.class)) {
             game.perform(new Action.UnlockBlackOrWhite(randomBlackOrWhiteDisc(playerState, game)), random);
         } else if (possibleActions.contains(Action.TakeObjectiveCard.class) && !game.getObjectiveCards().getAvailable().isEmpty()) {
-            var objectiveCard = randomObjectiveCard(game, random);
-            game.perform(new Action.TakeObjectiveCard(objectiveCard), random);
+            if (canSearch(search)) {
+                game.perform(search(game, game.getObjectiveCards().getAvailable().stream()
+                        .map(Action.TakeObjectiveCard::new)
+                        .collect(Collectors.toList()), random), random);
+            } else {
+                var objectiveCard = randomObjectiveCard(game, random);
+                game.perform(new Action.TakeObjectiveCard(objectiveCard), random);
+            }
         } else if (possibleActions.contains(Action.TakeBonusStationMaster.class)) {
             var bonusStationMasters = new ArrayList<>(game.getRailroadTrack().getBonusStationMasters());
-            game.perform(new Action.TakeBonusStationMaster(bonusStationMasters.get(random.nextInt(bonusStationMasters.size()))), random);
+            if (canSearch(search)) {
+                game.perform(search(game, bonusStationMasters.stream()
+                        .map(Action.TakeBonusStationMaster::new)
+                        .collect(Collectors.toList()), random), random);
+            } else {
+                game.perform(new Action.TakeBonusStationMaster(bonusStationMasters.get(random.nextInt(bonusStationMasters.size()))), random);
+            }
         } else if (possibleActions.contains(Action.GainExchangeToken.class)) {
             game.perform(new Action.GainExchangeToken(), random);
         } else {
@@ -211,6 +248,17 @@ public class Garth {
         }
     }
 
+    private void afterMove(GarthAction action, GWT game, Random random) {
+        action.perform(this, game, player, random);
+
+        if (!game.getTrail().atKansasCity(player)) {
+            // Garth ignores all normal location actions
+            game.getActionStack().clear();
+        }
+
+        discardPile.add(action);
+    }
+
     private City calculateDelivery(GWT game, Player player) {
         var startCities = difficulty.getStartCities(game);
         var highestStartCity = startCities.get(startCities.size() - 1);
@@ -237,39 +285,38 @@ public class Garth {
     @AllArgsConstructor(access = AccessLevel.PRIVATE)
     private enum GarthAction {
 
-        GARTH_1((game, player) -> game.getPlayers().size() == 4 ? 3 : 1, Garth::hireCheapestWorkerOfAnyType),
+        GARTH_1((garth, game, player) -> game.getPlayers().size() == 4 ? 3 : 1, Garth::hireCheapestWorkerOfAnyType),
 
-        GARTH_2((game, player) -> 1, Garth::placeBranchletAndMoveEngineForward),
+        GARTH_2((garth, game, player) -> 1, Garth::placeBranchletAndMoveEngineForward),
 
-        GARTH_3((game, player) -> 1, Garth::placeBranchletAndTakeObjectiveCard),
+        GARTH_3((garth, game, player) -> 1, Garth::placeBranchletAndTakeObjectiveCard),
 
-        GARTH_4((game, player) -> game.getPlayers().size() == 2 ? 1 : 3, Garth::removeHighestValueTeepee),
+        GARTH_4((garth, game, player) -> game.getPlayers().size() == 2 ? 1 : 3, Garth::removeHighestValueTeepee),
 
-        GARTH_5((game, player) -> game.getPlayers().size() == 2 ? 1 : 3, Garth::removeHighestHazardOfTypeWithMostHazards),
+        GARTH_5((garth, game, player) -> game.getPlayers().size() == 2 ? 1 : 3, Garth::removeHighestHazardOfTypeWithMostHazards),
 
-        GARTH_6((game, player) -> game.getPlayers().size() == 4 ? 3 : 1, Garth::hireSpecializedOrMostNumerous),
+        GARTH_6((garth, game, player) -> game.getPlayers().size() == 4 ? 3 : 1, Garth::hireSpecializedOrMostNumerous),
 
-        GARTH_7((game, player) -> 2, Garth::placeBranchletAndMoveEngineForward),
+        GARTH_7((garth, game, player) -> 2, Garth::placeBranchletAndMoveEngineForward),
 
-        GARTH_8((game, player) -> 2, Garth::buyCattleCards),
+        GARTH_8((garth, game, player) -> 2, Garth::buyCattleCards),
 
-        GARTH_9((game, player) -> 2, Garth::placeBranchletAndPlaceBuilding),
+        GARTH_9((garth, game, player) -> 2, Garth::placeBranchletAndPlaceBuilding),
 
-        GARTH_10((game, player) -> Math.max(1, highestNumberOfBuildingsAmongPlayers(game)), Garth::placeBuildingIfSpecializedInCraftsmen),
+        GARTH_10((garth, game, player) -> Math.max(1, highestNumberOfBuildingsAmongPlayers(game)), Garth::placeBuildingIfSpecializedInCraftsmen),
 
-        GARTH_11((game, player) -> Math.max(1, highestNumberOfBuildingsAmongPlayers(game)), Garth::hireEngineerAndMoveEngineForwardIfSpecializedInEngineers),
+        GARTH_11((garth, game, player) -> Math.max(1, highestNumberOfBuildingsAmongPlayers(game)), Garth::hireEngineerAndMoveEngineForwardIfSpecializedInEngineers),
 
-        GARTH_12((game, player) -> game.playerState(player).getNumberOfCowboys(), Garth::drawCattleCardsAndBuyCattleCardsIfSpecializedInCowboys),
+        GARTH_12((garth, game, player) -> game.playerState(player).getNumberOfCowboys(), Garth::drawCattleCardsAndBuyCattleCardsIfSpecializedInCowboys),
 
-        GARTH_13((game, player) -> game.playerState(player).getNumberOfCowboys(), Garth::buyCattleCardsIfSpecializedInCowboys),
+        GARTH_13((garth, game, player) -> game.playerState(player).getNumberOfCowboys(), Garth::buyCattleCardsIfSpecializedInCowboys),
 
         GARTH_14(GarthAction::numberOfSpecializedWorkers, Garth::moveEngineForwardIfSpecializedInEngineers),
 
         GARTH_15(GarthAction::numberOfSpecializedWorkers, Garth::placeBuildingIfSpecializedInCraftsmen);
 
-        private static int numberOfSpecializedWorkers(GWT game, Player player) {
-            var playerState = game.playerState(player);
-            return playerState.getNumberOfWorkers(playerState.getAutomaState().orElseThrow().specialization);
+        private static int numberOfSpecializedWorkers(Garth garth, GWT game, Player player) {
+            return game.playerState(player).getNumberOfWorkers(garth.specialization);
         }
 
         private static int highestNumberOfBuildingsAmongPlayers(GWT game) {
@@ -278,19 +325,24 @@ public class Garth {
                     .max().orElse(0);
         }
 
-        BiFunction<GWT, Player, Integer> steps;
+        GarthActionSteps steps;
 
         @Getter
         GarthActionLogic logic;
 
-        int getSteps(GWT game, Player player) {
-            return steps.apply(game, player);
+        int getSteps(Garth garth, GWT game, Player player) {
+            return steps.apply(garth, game, player);
         }
 
         void perform(Garth garth, GWT game, Player player, Random random) {
             logic.accept(garth, game, player, random);
         }
 
+        @FunctionalInterface
+        private interface GarthActionSteps {
+            int apply(Garth garth, GWT game, Player player);
+        }
+
         @FunctionalInterface
         private interface GarthActionLogic {
             void accept(Garth garth, GWT game, Player player, Random random);
@@ -454,7 +506,7 @@ public class Garth {
     private void buyCattleCards(GWT game, Player player, int numberOfCowboys) {
         var playerState = game.playerState(player);
 
-        game.getCattleMarket().possibleBuys(numberOfCowboys, 8)
+        game.getCattleMarket().optimalBuys(numberOfCowboys, 8)
                 .flatMap(possibleBuy -> bestCattleCards(game, possibleBuy).stream())
                 .max(Comparator.comparingInt(Buy::getPoints))
                 .ifPresent(buy -> {
@@ -849,6 +901,67 @@ public class Garth {
                 .orElseThrow(() -> new GWTException(GWTError.NO_ACTIONS));
     }
 
+    private Action chooseForesight(GWT game, int columnIndex, IntFunction<Action> action, boolean search, Random random) {
+        var choices = game.getForesights().choices(columnIndex);
+
+        if (canSearch(search)) {
+            var candidates = IntStream.range(0, choices.size())
+                    .filter(rowIndex -> choices.get(rowIndex) != null)
+                    .mapToObj(action)
+                    .collect(Collectors.toList());
+
+            if (!candidates.isEmpty()) {
+                return search(game, candidates, random);
+            }
+        }
+
+        return action.apply(chooseForesight(choices, random));
+    }
+
+    /**
+     * Searches among the farthest moves, one for each location, for the one that plays out best together with the
+     * Garth action that follows it.
+     */
+    private List<Location> searchMove(GWT game, GarthAction action, int steps, Random random) {
+        if (game.getTrail().getCurrentLocation(player).isEmpty()) {
+            return calculateMove(game, steps);
+        }
+
+        var possibleMoves = game.possibleMoves(player, steps, true);
+        var farthest = possibleMoves.stream()
+                .mapToInt(PossibleMove::getNumberOfSteps)
+                .max()
+                .orElseThrow(() -> new GWTException(GWTError.NO_ACTIONS));
+
+        var candidates = possibleMoves.stream()
+                .filter(possibleMove -> possibleMove.getNumberOfSteps() == farthest)
+                // Ordered by name, so the search does not depend on the iteration order of the possible moves
+                .collect(Collectors.groupingBy(possibleMove -> possibleMove.getTo().getName(), TreeMap::new,
+                        Collectors.minBy(Comparator.comparingInt(PossibleMove::getCost))))
+                .values().stream()
+                .flatMap(Optional::stream)
+                .map(PossibleMove::getSteps)
+                .collect(Collectors.toList());
+
+        return new MonteCarloSearch(difficulty.playouts, difficulty.searchTimeLimit)
+                .choose(game, player, candidates, (copy, move, r) -> {
+                    // Locations belong to the trail of the original game
+                    copy.perform(new Action.Move(move.stream()
+                            .map(location -> copy.getTrail().getLocation(location.getName()))
+                            .collect(Collectors.toList())), r);
+
+                    copy.playerState(player).getAutomaState().orElseThrow().afterMove(action, copy, r);
+                }, random);
+    }
+
+    private boolean canSearch(boolean search) {
+        return search && difficulty.playouts > 0;
+    }
+
+    private <T extends Action> T search(GWT game, List<T> candidates, Random random) {
+        return new MonteCarloSearch(difficulty.playouts, difficulty.searchTimeLimit).choose(game, player, candidates, random);
+    }
+
     private int chooseForesight(List<KansasCitySupply.Tile> choices, Random random) {
         var index = random.nextInt(choices.size());
         if (choices.get(index) != null) {
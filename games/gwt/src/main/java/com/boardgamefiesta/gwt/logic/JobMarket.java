@@ -73,6 +73,14 @@ public class JobMarket {
         return jobMarket;
     }
 
+    JobMarket copy() {
+        var copyOfRows = new ArrayList<Row>(rows.size());
+        for (var row : rows) {
+            copyOfRows.add(new Row(new ArrayList<>(row.workers)));
+        }
+        return new JobMarket(copyOfRows, currentRowIndex);
+    }
+
     /**
      * @return <code>true</code> if the cattle market should be filled because of this action.
      */
@@ -127,6 +127,17 @@ public class KansasCitySupply {
                 .build();
     }
 
+    /**
+     * Makes a deep copy. Tiles are immutable and therefore shared.
+     */
+    KansasCitySupply copy() {
+        var copyOfDrawPiles = new ArrayList<DrawPile>(drawPiles.size());
+        for (var drawPile : drawPiles) {
+            copyOfDrawPiles.add(new DrawPile(new LinkedList<>(drawPile.tiles)));
+        }
+        return new KansasCitySupply(copyOfDrawPiles);
+    }
+
     Optional<Tile> draw(int drawPileIndex) {
         return drawPiles.get(drawPileIndex).draw();
     }
@@ -0,0 +1,155 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.gwt.logic;
+
+import com.boardgamefiesta.api.domain.Player;
+import lombok.NonNull;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Flat Monte Carlo search, for the automa to evaluate choices by lookahead instead of choosing at random.
+ *
+ * <p>Each candidate is performed on a copy of the game, after which the game is played out to the end with the automa
+ * for computer players, and a stand-in automa as default policy for human players.
+ * Every candidate gets the same number of playouts, and the candidate with the best average margin over the best
+ * other player wins. With the same random, the same choice is made, unless the time limit is reached first.</p>
+ */
+final class MonteCarloSearch {
+
+    /**
+     * Guards against playouts that do not come to an end.
+     */
+    private static final int MAX_PLAYOUT_STEPS = 10_000;
+
+    private final int playoutsPerCandidate;
+    private final long timeLimitNanos;
+
+    /**
+     * @param timeLimit only a safeguard, checked between rounds of playouts, after at least one round
+     */
+    MonteCarloSearch(int playoutsPerCandidate, @NonNull Duration timeLimit) {
+        if (playoutsPerCandidate < 1) {
+            throw new IllegalArgumentException("Playouts per candidate must be >=1, but was: " + playoutsPerCandidate);
+        }
+
+        this.playoutsPerCandidate = playoutsPerCandidate;
+        this.timeLimitNanos = timeLimit.toNanos();
+    }
+
+    <T extends Action> T choose(GWT game, Player player, List<T> candidates, Random random) {
+        return choose(game, player, candidates, (copy, candidate, r) -> copy.perform(candidate, r), random);
+    }
+
+    /**
+     * @param perform performs a candidate on a copy of the game, so must not use objects of the original game
+     */
+    <T> T choose(GWT game, Player player, List<T> candidates, Performer<T> perform, Random random) {
+        if (candidates.isEmpty()) {
+            throw new GWTException(GWTError.NO_ACTIONS);
+        }
+
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+
+        var totals = new long[candidates.size()];
+        var counts = new int[candidates.size()];
+
+        var deadline = System.nanoTime() + timeLimitNanos;
+        for (var round = 0; round < playoutsPerCandidate && (round == 0 || System.nanoTime() < deadline); round++) {
+            for (var index = 0; index < candidates.size(); index++) {
+                totals[index] += evaluate(game, player, candidates.get(index), perform, random);
+                counts[index]++;
+            }
+        }
+
+        var best = 0;
+        for (var index = 1; index < candidates.size(); index++) {
+            if ((double) totals[index] / counts[index] > (double) totals[best] / counts[best]) {
+                best = index;
+            }
+        }
+        return candidates.get(best);
+    }
+
+    private static <T> int evaluate(GWT game, Player player, T candidate, Performer<T> perform, Random random) {
+        var copy = game.copy();
+
+        try {
+            perform.perform(copy, candidate, random);
+        } catch (GWTException e) {
+            // Not possible after all
+            return Integer.MIN_VALUE / 2;
+        }
+
+        playout(copy, random);
+
+        return margin(copy, player);
+    }
+
+    /**
+     * Plays the game to the end, or as far as possible.
+     *
+     * @return number of steps performed
+     */
+    static int playout(GWT game, Random random) {
+        // Human players do not have an automa, so they are played by a stand-in that moves and scores like one
+        var standIns = new HashMap<Player, Garth>();
+
+        var steps = 0;
+        while (!game.isEnded() && steps < MAX_PLAYOUT_STEPS) {
+            var player = game.getCurrentPlayer();
+            var playerState = game.playerState(player);
+
+            // Like GWT.executeAutoma, because the automa changes the state directly
+            game.scoreMayHaveChanged(player);
+
+            try {
+                playerState.getAutomaState()
+                        .orElseGet(() -> standIns.computeIfAbsent(player, p -> Garth.standIn(playerState, random)))
+                        .execute(game, random, false);
+            } catch (GWTException e) {
+                // Default moves can get stuck in rare situations, then evaluate the game as it is
+                break;
+            }
+
+            steps++;
+        }
+        return steps;
+    }
+
+    private static int margin(GWT game, Player player) {
+        var bestOther = Integer.MIN_VALUE;
+        for (var other : game.getPlayers()) {
+            if (!other.equals(player)) {
+                bestOther = Math.max(bestOther, game.getScore(other));
+            }
+        }
+        return game.getScore(player) - bestOther;
+    }
+
+    @FunctionalInterface
+    interface Performer<T> {
+        void perform(GWT copy, T candidate, Random random);
+    }
+}
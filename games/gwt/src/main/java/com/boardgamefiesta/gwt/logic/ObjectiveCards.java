@@ -60,6 +60,10 @@ public class ObjectiveCards {
                         .collect(Collectors.toSet()));
     }
 
+    ObjectiveCards copy() {
+        return new ObjectiveCards(new LinkedList<>(drawStack), new HashSet<>(available));
+    }
+
     static List<ObjectiveCard> createStartingObjectiveCardsDrawStack(@NonNull Random random, int playerCount) {
         List<ObjectiveCard> deck = new ArrayList<>(ObjectiveCard.STARTING_CARDS);
         Collections.shuffle(deck, random);
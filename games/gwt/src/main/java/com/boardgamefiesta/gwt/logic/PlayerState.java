@@ -213,6 +213,52 @@ public class PlayerState {
                 jsonObject.containsKey("stops") ? JsonDeserializer.forObject(jsonObject.getJsonObject("stops")).asIntegerMap(trail::getLocation) : new HashMap<>());
     }
 
+    /**
+     * Makes a deep copy, with locations resolved in the given (copied) trail.
+     * Cards, buildings, hazards and stations are immutable and therefore shared.
+     */
+    PlayerState copy(Trail trail) {
+        var copyOfWorkers = new EnumMap<Worker, Integer>(Worker.class);
+        copyOfWorkers.putAll(workers);
+
+        var copyOfUnlocked = new EnumMap<Unlockable, Integer>(Unlockable.class);
+        copyOfUnlocked.putAll(unlocked);
+
+        var copyOfLocationsActivatedInTurn = new LinkedList<Location>();
+        for (var location : locationsActivatedInTurn) {
+            copyOfLocationsActivatedInTurn.add(trail.getLocation(location.getName()));
+        }
+
+        var copyOfStops = new HashMap<Location, Integer>();
+        stops.forEach((location, count) -> copyOfStops.put(trail.getLocation(location.getName()), count));
+
+        return new PlayerState(player,
+                new LinkedList<>(drawStack),
+                new HashSet<>(hand),
+                new LinkedList<>(discardPile),
+                copyOfWorkers,
+                new HashSet<>(buildings),
+                copyOfUnlocked,
+                new HashSet<>(objectives),
+                new HashSet<>(stationMasters),
+                new LinkedList<>(teepees),
+                new HashSet<>(hazards),
+                bid,
+                tempCertificates,
+                balance,
+                jobMarketToken,
+                numberOfCowboysUsedInTurn,
+                copyOfLocationsActivatedInTurn,
+                lastEngineMove,
+                lastUpgradedStation,
+                lastPlacedBranchlet,
+                exchangeTokens,
+                branchlets,
+                automaState != null ? automaState.copy() : null,
+                turns,
+                copyOfStops);
+    }
+
     void placeBid(Bid bid) {
         this.bid = bid;
     }
@@ -685,7 +731,7 @@ public class PlayerState {
     }
 
     Score score(GWT game) {
-        var objectives = scoreObjectives(game);
+        var objectives = calculateObjectives(game);
         var score = new Score(Map.of(
                 ScoreCategory.BID, bid != null ? -bid.getPoints() : 0,
                 ScoreCategory.DOLLARS, balance / 5,
@@ -705,6 +751,10 @@ public class PlayerState {
     }
 
     public ObjectiveCard.Score scoreObjectives(GWT game) {
+        return game.scoreObjectives(player, () -> calculateObjectives(game));
+    }
+
+    private ObjectiveCard.Score calculateObjectives(GWT game) {
         return ObjectiveCard.score(objectives, getOptionalObjectives().collect(Collectors.toSet()), game, player,
                 stationMasters.contains(StationMaster.REMOVE_HAZARD_OR_TEEPEE_POINTS_FOR_EACH_2_OBJECTIVE_CARDS));
     }
@@ -171,7 +171,41 @@ abstract class PossibleAction {
      * Returns all possible actions that a player can perform next.
      * E.g. if it is a choice, all possible choices, or if it is a repeating action the action that can be performed once more.
      */
-    abstract Set<Class<? extends Action>> getPossibleActions();
+    abstract ActionSet getPossibleActions();
+
+    private static PossibleAction find(List<PossibleAction> possibleActions, Class<? extends Action> action) {
+        for (var possibleAction : possibleActions) {
+            if (possibleAction.canPerform(action)) {
+                return possibleAction;
+            }
+        }
+        throw new GWTException(GWTError.CANNOT_PERFORM_ACTION);
+    }
+
+    private static boolean canPerformAny(List<PossibleAction> possibleActions, Class<? extends Action> action) {
+        for (var possibleAction : possibleActions) {
+            if (possibleAction.canPerform(action)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ActionSet possibleActions(List<PossibleAction> possibleActions) {
+        var result = new ActionSet();
+        for (var possibleAction : possibleActions) {
+            result.addAll(possibleAction.getPossibleActions());
+        }
+        return result;
+    }
+
+    private static List<PossibleAction> cloneAll(List<PossibleAction> possibleActions) {
+        var result = new ArrayList<PossibleAction>(possibleActions.size());
+        for (var possibleAction : possibleActions) {
+            result.add(possibleAction.clone());
+        }
+        return result;
+    }
 
     private static final class Mandatory extends PossibleAction {
 
@@ -223,8 +257,8 @@ abstract class PossibleAction {
         }
 
         @Override
-        Set<Class<? extends Action>> getPossibleActions() {
-            return action != null ? Collections.singleton(action) : Collections.emptySet();
+        ActionSet getPossibleActions() {
+            return action != null ? ActionSet.of(action) : new ActionSet();
         }
 
         @Override
@@ -276,10 +310,7 @@ abstract class PossibleAction {
         }
 
         private PossibleAction check(Class<? extends Action> action) {
-            return actions.stream()
-                    .filter(fa -> fa.canPerform(action))
-                    .findAny()
-                    .orElseThrow(() -> new GWTException(GWTError.CANNOT_PERFORM_ACTION));
+            return find(actions, action);
         }
 
         @Override
@@ -289,7 +320,7 @@ abstract class PossibleAction {
 
         @Override
         boolean canPerform(Class<? extends Action> action) {
-            return actions.stream().anyMatch(possibleAction -> possibleAction.canPerform(action));
+            return canPerformAny(actions, action);
         }
 
         @Override
@@ -298,15 +329,13 @@ abstract class PossibleAction {
         }
 
         @Override
-        Set<Class<? extends Action>> getPossibleActions() {
-            return actions.stream()
-                    .flatMap(action -> action.getPossibleActions().stream())
-                    .collect(Collectors.toUnmodifiableSet());
+        ActionSet getPossibleActions() {
+            return possibleActions(actions);
         }
 
         @Override
         public PossibleAction clone() {
-            return new Any(actions.stream().map(PossibleAction::clone).collect(Collectors.toList()));
+            return new Any(cloneAll(actions));
         }
 
         @Override
@@ -370,10 +399,7 @@ abstract class PossibleAction {
         }
 
         private PossibleAction check(Class<? extends Action> action) {
-            return actions.stream()
-                    .filter(fa -> fa.canPerform(action))
-                    .findAny()
-                    .orElseThrow(() -> new GWTException(GWTError.CANNOT_PERFORM_ACTION));
+            return find(actions, action);
         }
 
         @Override
@@ -383,7 +409,7 @@ abstract class PossibleAction {
 
         @Override
         boolean canPerform(Class<? extends Action> action) {
-            return actions.stream().anyMatch(fa -> fa.canPerform(action));
+            return canPerformAny(actions, action);
         }
 
         @Override
@@ -392,16 +418,14 @@ abstract class PossibleAction {
         }
 
         @Override
-        Set<Class<? extends Action>> getPossibleActions() {
+        ActionSet getPossibleActions() {
             // List all choices as possible. When one is performed, the others are removed
-            return actions.stream()
-                    .flatMap(action -> action.getPossibleActions().stream())
-                    .collect(Collectors.toUnmodifiableSet());
+            return possibleActions(actions);
         }
 
         @Override
         public PossibleAction clone() {
-            return new Choice(actions.stream().map(PossibleAction::clone).collect(Collectors.toList()));
+            return new Choice(cloneAll(actions));
         }
     }
 
@@ -478,14 +502,12 @@ abstract class PossibleAction {
         }
 
         @Override
-        Set<Class<? extends Action>> getPossibleActions() {
+        ActionSet getPossibleActions() {
+            var possibleActions = super.getPossibleActions();
             if (thens > 0) {
-                return Stream.concat(
-                        super.getPossibleActions().stream(),
-                        Stream.of(then)
-                ).collect(Collectors.toSet());
+                possibleActions.add(then);
             }
-            return super.getPossibleActions();
+            return possibleActions;
         }
 
         @Override
@@ -538,7 +560,7 @@ abstract class PossibleAction {
 
         @Override
         public PossibleAction clone() {
-            return new Repeat(atLeast, atMost, repeatingAction, current);
+            return new Repeat(atLeast, atMost, repeatingAction, current != null ? current.clone() : null);
         }
 
         @Override
@@ -591,9 +613,9 @@ abstract class PossibleAction {
         }
 
         @Override
-        Set<Class<? extends Action>> getPossibleActions() {
+        ActionSet getPossibleActions() {
             return current != null ? current.getPossibleActions()
-                    : (atMost > 0 ? repeatingAction.getPossibleActions() : Collections.emptySet());
+                    : (atMost > 0 ? repeatingAction.getPossibleActions() : new ActionSet());
         }
     }
 }
@@ -76,6 +76,7 @@ public class RailroadTrack {
 
     private static final int MAX_SPACE = 39;
     private static final Map<String, Space> SPACES = new HashMap<>();
+    private static final List<Space> SPACES_BY_INDEX = new ArrayList<>();
     private static final Map<String, Town> TOWNS = new HashMap<>();
     private static final Map<String, MediumTown> MEDIUM_TOWNS = new HashMap<>();
     private static final Map<City, BigTown> BIG_TOWNS = new HashMap<>();
@@ -166,6 +167,15 @@ public class RailroadTrack {
             .next(Space.numbered("38"))
             .next(Space.turnout("39", STATIONS.get(9)));
 
+    /*
+     * Railroad track compiled into arrays that are indexed by space index,
+     * so engine moves and branchlets do not have to walk the object graph.
+     */
+    private static final int SPACE_COUNT = SPACES_BY_INDEX.size();
+    private static final int[][] FORWARD = adjacency(Space::getNext, false); // Engine cannot move to the north
+    private static final int[][] BACKWARDS = adjacency(Space::getPrevious, false);
+    private static final int[][] NEXT_INCLUDING_TOWNS = adjacency(Space::getNext, true);
+
     private static final List<City> ORIGINAL_CITY_STRIP = List.of(
             City.KANSAS_CITY,
             City.TOPEKA,
@@ -221,6 +231,8 @@ public class RailroadTrack {
     @Builder.Default
     private final Map<Town, List<Player>> branchlets = new HashMap<>();
 
+    private final Occupancy occupancy = new Occupancy();
+
     static RailroadTrack initial(@NonNull GWT.Edition edition, @NonNull Set<Player> players, @NonNull GWT.Options options, @NonNull Random random) {
         var engines = players.stream().collect(Collectors.toMap(Function.identity(), player -> START));
 
@@ -372,6 +384,31 @@ public class RailroadTrack {
                 branchlets);
     }
 
+    /**
+     * Makes a deep copy. Spaces, stations and towns are immutable and therefore shared.
+     */
+    RailroadTrack copy() {
+        var copyOfDeliveries = new EnumMap<City, List<Player>>(City.class);
+        deliveries.forEach((city, players) -> copyOfDeliveries.put(city, new ArrayList<>(players)));
+
+        return new RailroadTrack(
+                cityStrip,
+                new HashMap<>(engines),
+                copyOfDeliveries,
+                new HashMap<>(stationMasters),
+                new HashSet<>(bonusStationMasters),
+                new HashMap<>(workers),
+                copyOfLists(upgrades),
+                new HashMap<>(mediumTownTiles),
+                copyOfLists(branchlets));
+    }
+
+    private static <K> Map<K, List<Player>> copyOfLists(Map<K, List<Player>> map) {
+        var copy = new HashMap<K, List<Player>>();
+        map.forEach((key, players) -> copy.put(key, new ArrayList<>(players)));
+        return copy;
+    }
+
     private static Map<Player, Space> deserializeEngines(Map<String, Player> playerMap, JsonObject jsonObject) {
         return jsonObject.keySet().stream()
                 .filter(playerMap::containsKey)
@@ -456,14 +493,14 @@ public class RailroadTrack {
     }
 
     EngineMove moveEngineForward(@NonNull Player player, @NonNull Space to, int atLeast, int atMost) {
-        return moveEngine(player, to, atLeast, atMost, Space::getNext);
+        return moveEngine(player, to, atLeast, atMost, FORWARD);
     }
 
     EngineMove moveEngineBackwards(@NonNull Player player, @NonNull Space to, int atLeast, int atMost) {
-        return moveEngine(player, to, atLeast, atMost, Space::getPrevious);
+        return moveEngine(player, to, atLeast, atMost, BACKWARDS);
     }
 
-    private EngineMove moveEngine(@NonNull Player player, @NonNull Space to, int atLeast, int atMost, Function<Space, Set<Space>> direction) {
+    private EngineMove moveEngine(@NonNull Player player, @NonNull Space to, int atLeast, int atMost, int[][] direction) {
         if (atLeast < 0 || atLeast > 6) {
             throw new IllegalArgumentException("Must move at least 0..6, but was: " + atLeast);
         }
@@ -472,7 +509,7 @@ public class RailroadTrack {
             throw new IllegalArgumentException("Must be able to move >=1");
         }
 
-        if (to != START && playerAt(to).isPresent()) {
+        if (to != START && isOccupied(to)) {
             throw new GWTException(GWTError.ALREADY_PLAYER_ON_SPACE);
         }
 
@@ -482,14 +519,12 @@ public class RailroadTrack {
             throw new GWTException(GWTError.ALREADY_AT_SPACE);
         }
 
-        Set<ReachableSpace> reachableSpaces = reachableSpacesEngine(from, from, atLeast, atMost, 0, direction);
-
-        ReachableSpace reachableSpace = reachableSpaces.stream()
-                .filter(rs -> rs.space == to)
-                .min(Comparator.comparingInt(ReachableSpace::getSteps))
-                .orElseThrow(() -> new GWTException(GWTError.SPACE_NOT_REACHABLE));
+        var steps = reachableSpacesEngine(from, atLeast, atMost, direction)[to.index];
+        if (steps < 0) {
+            throw new GWTException(GWTError.SPACE_NOT_REACHABLE);
+        }
 
-        engines.put(player, to);
+        occupancy.move(engines.put(player, to), to);
 
         var immediateActions = ImmediateActions.none();
 
@@ -505,7 +540,7 @@ public class RailroadTrack {
             }
         }
 
-        return new EngineMove(from, to, immediateActions, reachableSpace.getSteps());
+        return new EngineMove(from, to, immediateActions, steps);
     }
 
     public Space getSpace(Station station) {
@@ -557,36 +592,45 @@ public class RailroadTrack {
         if (!isRailsToTheNorth()) {
             return Stream.empty();
         }
-        return accessibleTowns(START, player, new HashSet<>(Set.of(START)), "")
+        return accessibleTowns(START, player).stream()
                 .filter(town -> !hasBranchlet(town, player));
     }
 
-    private Stream<Town> accessibleTowns(Space from, Player player, Set<Space> visited, String indent) {
-        return from.next.stream()
-                .filter(next -> !visited.contains(next))
-                .flatMap(next -> {
-                    if (next instanceof Town) {
-                        if (from instanceof Town || from == START || getCity(from).map(city -> hasMadeDelivery(player, city)).orElse(true)) {
-                            var branchlet = hasBranchlet((Town) next, player);
-                            if (branchlet) {
-                                visited.add(next);
-                                return Stream.concat(Stream.of((Town) next), accessibleTowns(next, player, visited, indent + "  "));
-                            } else {
-                                visited.add(next);
-                                return Stream.of((Town) next);
-                            }
-                        } else {
-                            return Stream.empty();
-                        }
-                    } else {
-                        if (next.getName().equals("16")) {
-                            // Early exit, no need to search after space 15
-                            return Stream.empty();
+    private List<Town> accessibleTowns(Space from, Player player) {
+        var accessible = new ArrayList<Town>();
+
+        var visited = new boolean[SPACE_COUNT];
+        visited[from.index] = true;
+
+        var queue = new ArrayDeque<Space>();
+        queue.add(from);
+
+        while (!queue.isEmpty()) {
+            var current = queue.poll();
+
+            for (var nextIndex : NEXT_INCLUDING_TOWNS[current.index]) {
+                if (visited[nextIndex]) {
+                    continue;
+                }
+
+                var next = SPACES_BY_INDEX.get(nextIndex);
+                if (next instanceof Town) {
+                    if (current instanceof Town || current == START || getCity(current).map(city -> hasMadeDelivery(player, city)).orElse(true)) {
+                        visited[nextIndex] = true;
+                        accessible.add((Town) next);
+
+                        if (hasBranchlet((Town) next, player)) {
+                            queue.add(next);
                         }
-                        visited.add(next);
-                        return accessibleTowns(next, player, visited, indent + "  ");
                     }
-                });
+                } else if (!next.getName().equals("16")) { // Early exit, no need to search after space 15
+                    visited[nextIndex] = true;
+                    queue.add(next);
+                }
+            }
+        }
+
+        return accessible;
     }
 
     void takeBonusStationMaster(StationMaster stationMaster) {
@@ -613,55 +657,84 @@ public class RailroadTrack {
     }
 
     public Set<Space> reachableSpacesForward(@NonNull Space from, int atLeast, int atMost) {
-        return reachableSpacesEngine(from, from, atLeast, atMost, 0, Space::getNext).stream()
-                .map(ReachableSpace::getSpace)
-                .collect(Collectors.toSet());
+        return toSpaces(reachableSpacesEngine(from, atLeast, atMost, FORWARD));
     }
 
     public Set<Space> reachableSpacesBackwards(@NonNull Space from, int atLeast, int atMost) {
-        return reachableSpacesEngine(from, from, atLeast, atMost, 0, Space::getPrevious).stream()
-                .map(ReachableSpace::getSpace)
-                .collect(Collectors.toSet());
+        return toSpaces(reachableSpacesEngine(from, atLeast, atMost, BACKWARDS));
     }
 
-    private Set<ReachableSpace> reachableSpacesEngine(@NonNull Space from, @NonNull Space current, int atLeast, int atMost, int steps, Function<Space, Set<Space>> direction) {
-        Set<ReachableSpace> reachable = new HashSet<>();
+    private static Set<Space> toSpaces(int[] steps) {
+        var spaces = new HashSet<Space>();
+        for (var i = 0; i < steps.length; i++) {
+            if (steps[i] >= 0) {
+                spaces.add(SPACES_BY_INDEX.get(i));
+            }
+        }
+        return spaces;
+    }
 
-        boolean available = current != from && (current == START || playerAt(current).isEmpty());
-        boolean possible = available && atLeast <= 1 && atMost > 0;
+    /**
+     * Searches all spaces an engine can move to, in a single pass over the track.
+     * Occupied spaces are jumped over and do not count as a step.
+     *
+     * @return minimum number of steps to each space (by index) that can be reached in the given range, or -1 if not reachable
+     */
+    private int[] reachableSpacesEngine(@NonNull Space from, int atLeast, int atMost, int[][] direction) {
+        var occupied = occupancy.get(engines);
 
-        if (possible) {
-            reachable.add(new ReachableSpace(current, steps + 1));
-        }
+        var result = new int[SPACE_COUNT];
+        Arrays.fill(result, -1);
 
-        if (!available) {
-            // Space is not empty, jump over
-            reachable.addAll(direction.apply(current).stream()
-                    .filter(next -> !(next instanceof Town)) // Engine cannot move to the north
-                    .flatMap(next -> reachableSpacesEngine(from, next, atLeast, atMost, steps, direction).stream())
-                    .collect(Collectors.toSet()));
-        } else if (atMost > 1) {
-            // Space is possible so count as step
-            reachable.addAll(direction.apply(current).stream()
-                    .filter(next -> !(next instanceof Town)) // Engine cannot move to the north
-                    .flatMap(next -> reachableSpacesEngine(from, next, Math.max(atLeast - 1, 0), atMost - 1, steps + 1, direction).stream())
-                    .collect(Collectors.toSet()));
+        if (atMost < 1) {
+            return result;
         }
 
-        return reachable;
-    }
+        // Same space can be reached with different number of steps (e.g. through a turnout or not),
+        // so search state is (space, steps taken before entering the space)
+        var maxSteps = Math.min(atMost, SPACE_COUNT);
+        var visited = new boolean[SPACE_COUNT * maxSteps];
+        var queue = new int[SPACE_COUNT * maxSteps];
+        var head = 0;
+        var tail = 0;
 
-    @Value
-    private static class ReachableSpace {
-        Space space;
-        int steps;
+        visited[from.index] = true;
+        queue[tail++] = from.index;
+
+        while (head < tail) {
+            var state = queue[head++];
+            var current = state % SPACE_COUNT;
+            var steps = state / SPACE_COUNT;
+
+            var available = current != from.index && (current == START.index || occupied[current] == 0);
+
+            if (available) {
+                steps++;
+
+                if (steps >= atLeast && (result[current] < 0 || steps < result[current])) {
+                    result[current] = steps;
+                }
+
+                if (steps >= atMost) {
+                    continue;
+                }
+            }
+            // else space is not empty, jump over
+
+            for (var next : direction[current]) {
+                var nextState = steps * SPACE_COUNT + next;
+                if (!visited[nextState]) {
+                    visited[nextState] = true;
+                    queue[tail++] = nextState;
+                }
+            }
+        }
+
+        return result;
     }
 
-    private Optional<Player> playerAt(@NonNull Space space) {
-        return engines.entrySet().stream()
-                .filter(entry -> entry.getValue() == space)
-                .map(Map.Entry::getKey)
-                .findAny();
+    private boolean isOccupied(@NonNull Space space) {
+        return occupancy.get(engines)[space.index] > 0;
     }
 
     Set<PossibleDelivery> possibleDeliveries(Player player, int handValue, int certificates) {
@@ -1126,6 +1199,8 @@ public class RailroadTrack {
         @Getter
         private final String name;
 
+        private final int index;
+
         @Getter(AccessLevel.PRIVATE)
         protected final Set<Space> next;
 
@@ -1136,8 +1211,10 @@ public class RailroadTrack {
             this.name = name;
             this.next = new HashSet<>(next);
             this.previous = new HashSet<>(previous);
+            this.index = SPACES_BY_INDEX.size();
 
             SPACES.put(name, this);
+            SPACES_BY_INDEX.add(this);
         }
 
         static Space numbered(String name) {
@@ -1244,7 +1321,7 @@ public class RailroadTrack {
         if (from == to) {
             return true;
         }
-        return accessibleTowns(from, player, new HashSet<>(Set.of(from)), "").anyMatch(accessible -> accessible == to);
+        return accessibleTowns(from, player).contains(to);
     }
 
     public static abstract class Town extends Space {
@@ -1388,6 +1465,42 @@ public class RailroadTrack {
         return ImmediateActions.none();
     }
 
+    private static int[][] adjacency(Function<Space, Set<Space>> direction, boolean includeTowns) {
+        var adjacency = new int[SPACE_COUNT][];
+        for (var space : SPACES_BY_INDEX) {
+            adjacency[space.index] = direction.apply(space).stream()
+                    .filter(next -> includeTowns || !(next instanceof Town))
+                    .mapToInt(next -> next.index)
+                    .toArray();
+        }
+        return adjacency;
+    }
+
+    /**
+     * Number of engines on each space (by index), maintained alongside the engines so checking whether
+     * a space is occupied does not have to search all engines.
+     */
+    private static final class Occupancy {
+        private int[] engines;
+
+        int[] get(Map<Player, Space> engines) {
+            if (this.engines == null) {
+                this.engines = new int[SPACE_COUNT];
+                engines.values().forEach(space -> this.engines[space.index]++);
+            }
+            return this.engines;
+        }
+
+        void move(Space from, Space to) {
+            if (engines != null) {
+                if (from != null) {
+                    engines[from.index]--;
+                }
+                engines[to.index]++;
+            }
+        }
+    }
+
     public List<Player> getBranchlets(Town town) {
         return Collections.unmodifiableList(branchlets.getOrDefault(town, Collections.emptyList()));
     }
@@ -34,9 +34,16 @@ import java.util.stream.Stream;
 
 public class Trail {
 
+    private final GWT.Edition edition;
+
     @Getter
     private final Location.Start start;
 
+    /**
+     * All locations by name, because finding them by walking the trail is expensive.
+     */
+    private final Map<String, Location> locations = new HashMap<>();
+
     private final Map<HazardType, List<Location.HazardLocation>> hazardLocations;
     private final Map<String, Location.TeepeeLocation> teepeeLocations;
     private final Map<String, Location.BuildingLocation> buildingLocations;
@@ -48,6 +55,8 @@ public class Trail {
     private final Map<Player, Location> playerLocations = new HashMap<>();
 
     Trail(@NonNull GWT.Edition edition) {
+        this.edition = edition;
+
         kansasCity = new Location.KansasCity();
 
         var g1 = new Location.BuildingLocation("G-1", false, kansasCity);
@@ -143,6 +152,14 @@ public class Trail {
                 .collect(Collectors.groupingBy(Location.HazardLocation::getType));
 
         start = new Location.Start(a);
+
+        index(start);
+    }
+
+    private void index(Location location) {
+        if (locations.putIfAbsent(location.getName(), location) == null) {
+            location.getNext().forEach(this::index);
+        }
     }
 
     public Trail(GWT.Edition edition, boolean beginner, @NonNull Random random) {
@@ -225,6 +242,31 @@ public class Trail {
         return trail;
     }
 
+    /**
+     * Makes a deep copy. Buildings, teepees and hazards are immutable and therefore shared.
+     */
+    Trail copy() {
+        var trail = new Trail(edition);
+
+        playerLocations.forEach((player, location) -> trail.playerLocations.put(player, trail.getLocation(location.getName())));
+
+        buildingLocations.values().forEach(buildingLocation -> buildingLocation.getBuilding()
+                .ifPresent(building -> trail.buildingLocations.get(buildingLocation.getName()).placeBuilding(building)));
+
+        teepeeLocations.values().forEach(teepeeLocation -> teepeeLocation.getTeepee()
+                .ifPresent(teepee -> trail.teepeeLocations.get(teepeeLocation.getName()).placeTeepee(teepee)));
+
+        hazardLocations.forEach((hazardType, hazardLocations) -> {
+            var copies = trail.hazardLocations.get(hazardType);
+            for (int i = 0; i < hazardLocations.size(); i++) {
+                var copy = copies.get(i);
+                hazardLocations.get(i).getHazard().ifPresent(copy::placeHazard);
+            }
+        });
+
+        return trail;
+    }
+
     private static List<NeutralBuilding> createNeutralBuildingSet() {
         return Arrays.asList(
                 new NeutralBuilding.A(),
@@ -238,11 +280,7 @@ public class Trail {
     }
 
     public Set<Location> getLocations() {
-        return getLocations(start).collect(Collectors.toSet());
-    }
-
-    private Stream<Location> getLocations(Location from) {
-        return Stream.concat(Stream.of(from), from.getNext().stream().flatMap(this::getLocations));
+        return new HashSet<>(locations.values());
     }
 
     public List<Location.HazardLocation> getHazardLocations(HazardType hazardType) {
@@ -270,10 +308,11 @@ public class Trail {
     }
 
     public Location getLocation(String name) {
-        return getLocations().stream()
-                .filter(location -> location.getName().equals(name))
-                .findAny()
-                .orElseThrow(() -> new GWTException(GWTError.NO_SUCH_LOCATION));
+        var location = locations.get(name);
+        if (location == null) {
+            throw new GWTException(GWTError.NO_SUCH_LOCATION);
+        }
+        return location;
     }
 
     public Optional<Location.BuildingLocation> getBuildingLocation(String name) {
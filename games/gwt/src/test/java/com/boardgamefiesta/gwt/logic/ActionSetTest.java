@@ -0,0 +1,58 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.boardgamefiesta.gwt.logic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActionSetTest {
+
+    @Test
+    void addRemove() {
+        var actionSet = new ActionSet();
+
+        assertThat(actionSet.add(Action.Gain2Dollars.class)).isTrue();
+        assertThat(actionSet.add(Action.Gain2Dollars.class)).isFalse();
+        assertThat(actionSet.add(Action.DrawCard.class)).isTrue();
+
+        assertThat(actionSet).containsExactlyInAnyOrder(Action.Gain2Dollars.class, Action.DrawCard.class);
+        assertThat(actionSet.contains(Action.Move.class)).isFalse();
+        assertThat(actionSet.contains("DrawCard")).isFalse();
+
+        assertThat(actionSet.remove(Action.DrawCard.class)).isTrue();
+        assertThat(actionSet.remove(Action.DrawCard.class)).isFalse();
+
+        assertThat(actionSet).containsExactly(Action.Gain2Dollars.class);
+    }
+
+    @Test
+    void addAll() {
+        var actionSet = ActionSet.of(Action.Gain2Dollars.class);
+
+        assertThat(actionSet.addAll(ActionSet.of(Action.Move.class))).isTrue();
+        assertThat(actionSet.addAll(ActionSet.of(Action.Move.class))).isFalse();
+        assertThat(actionSet.addAll(Set.of(Action.DrawCard.class))).isTrue();
+
+        assertThat(actionSet).isEqualTo(Set.of(Action.Gain2Dollars.class, Action.Move.class, Action.DrawCard.class));
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.boardgamefiesta.gwt.logic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActionStackTest {
+
+    @Test
+    void perform() {
+        var actionStack = ActionStack.initial(List.of(PossibleAction.choice(Action.Gain2Dollars.class, Action.DrawCard.class)));
+
+        assertThat(actionStack.canPerform(Action.Gain2Dollars.class)).isTrue();
+        assertThat(actionStack.canPerform(Action.DrawCard.class)).isTrue();
+        assertThat(actionStack.canPerform(Action.Move.class)).isFalse();
+
+        actionStack.addAction(PossibleAction.mandatory(Action.Move.class));
+
+        assertThat(actionStack.getPossibleActions()).containsExactly(Action.Move.class);
+
+        actionStack.perform(Action.Move.class);
+
+        assertThat(actionStack.getPossibleActions()).containsExactlyInAnyOrder(Action.Gain2Dollars.class, Action.DrawCard.class);
+    }
+
+    @Test
+    void copy() {
+        var actionStack = ActionStack.initial(List.of(PossibleAction.repeat(0, 2, Action.DrawCard.class)));
+
+        var copy = actionStack.copy();
+        copy.perform(Action.DrawCard.class);
+        copy.perform(Action.DrawCard.class);
+
+        assertThat(copy.isEmpty()).isTrue();
+        assertThat(actionStack.canPerform(Action.DrawCard.class)).isTrue();
+    }
+}
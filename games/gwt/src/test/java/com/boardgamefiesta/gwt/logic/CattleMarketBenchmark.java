@@ -0,0 +1,128 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.gwt.logic;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Manual microbenchmark of computing the possible cattle buys. Compares the lookup tables with the stream based
+ * implementation they replaced, on markets of a 4 player game with Simmental.
+ *
+ * <p>Not a unit test. Run from the IDE, or with:
+ * <code>mvn test-compile exec:java -Dexec.mainClass=com.boardgamefiesta.gwt.logic.CattleMarketBenchmark -Dexec.classpathScope=test</code></p>
+ */
+public class CattleMarketBenchmark {
+
+    static final int MARKETS = 1_000;
+    static final int WARMUP = 200_000;
+    static final int ITERATIONS = 1_000_000;
+
+    public static void main(String[] args) {
+        var random = new Random(0);
+        var markets = Stream.generate(() -> CattleMarket.balanced(4, true, random))
+                .limit(MARKETS)
+                .toArray(CattleMarket[]::new);
+
+        for (var cattleMarket : markets) {
+            for (var cowboys = 0; cowboys <= 6; cowboys++) {
+                if (!cattleMarket.possibleBuys(cowboys, 20).collect(Collectors.toSet())
+                        .equals(streamBased(cattleMarket, cowboys, 20))) {
+                    throw new IllegalStateException("Lookup tables differ from stream based for: " + cattleMarket.getMarket());
+                }
+            }
+        }
+
+        measure("stream based", i -> streamBased(markets[i % MARKETS], 1 + i % 6, 3 + i % 20));
+        measure("lookup tables", i -> markets[i % MARKETS].possibleBuys(1 + i % 6, 3 + i % 20).collect(Collectors.toSet()));
+        measure("lookup tables, optimal only", i -> markets[i % MARKETS].optimalBuys(1 + i % 6, 3 + i % 20).collect(Collectors.toSet()));
+    }
+
+    /**
+     * Implementation before the lookup tables.
+     */
+    private static Set<CattleMarket.PossibleBuy> streamBased(CattleMarket cattleMarket, int numberOfCowboys, int balance) {
+        if (numberOfCowboys == 0 || balance < 3) {
+            return Set.of();
+        }
+
+        return cattleMarket.getMarket().stream()
+                .mapToInt(Card.CattleCard::getValue)
+                .boxed()
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+                .entrySet().stream()
+                .filter(count -> count.getValue() > 0)
+                .flatMap(count -> COSTS.get(count.getKey()).stream()
+                        .filter(cost -> cost.getCowboys() <= numberOfCowboys)
+                        .filter(cost -> cost.getDollars() <= balance)
+                        .filter(cost -> !cost.isPair() || count.getValue() >= 2)
+                        .map(cost -> new CattleMarket.PossibleBuy(count.getKey(), cost.isPair(), cost.getDollars(), cost.getCowboys())))
+                .collect(Collectors.toSet());
+    }
+
+    private static final Map<Integer, Set<CattleMarket.Cost>> COSTS = Map.of(
+            2, Set.of(
+                    CattleMarket.Cost.single(8, 1),
+                    CattleMarket.Cost.single(5, 2)
+            ),
+            3, Set.of(
+                    CattleMarket.Cost.single(6, 1),
+                    CattleMarket.Cost.single(3, 2),
+                    CattleMarket.Cost.pair(5, 3),
+                    CattleMarket.Cost.pair(12, 2),
+                    CattleMarket.Cost.pair(9, 3),
+                    CattleMarket.Cost.pair(6, 4)
+            ),
+            4, Set.of(
+                    CattleMarket.Cost.single(12, 1),
+                    CattleMarket.Cost.single(6, 3),
+                    CattleMarket.Cost.pair(8, 5),
+                    CattleMarket.Cost.pair(12, 6),
+                    CattleMarket.Cost.pair(24, 2),
+                    CattleMarket.Cost.pair(18, 4)
+            ),
+            5, Set.of(
+                    CattleMarket.Cost.single(12, 2),
+                    CattleMarket.Cost.single(6, 4),
+                    CattleMarket.Cost.pair(18, 6),
+                    CattleMarket.Cost.pair(24, 4)
+            ));
+
+    private static void measure(String name, IntFunction<Set<CattleMarket.PossibleBuy>> possibleBuys) {
+        // Consume the results, so the JIT cannot eliminate the work
+        var sink = 0;
+
+        for (var i = 0; i < WARMUP; i++) {
+            sink += possibleBuys.apply(i).size();
+        }
+
+        var start = System.nanoTime();
+        for (var i = 0; i < ITERATIONS; i++) {
+            sink += possibleBuys.apply(WARMUP + i).size();
+        }
+        var nanos = System.nanoTime() - start;
+
+        System.out.printf("%s: %d ns/op (%d)%n", name, nanos / ITERATIONS, sink);
+    }
+}
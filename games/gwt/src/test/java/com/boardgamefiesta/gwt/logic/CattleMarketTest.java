@@ -24,6 +24,7 @@ import javax.json.Json;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class CattleMarketTest {
 
@@ -105,4 +106,45 @@ class CattleMarketTest {
         assertThat(cost.getCowboys()).isEqualTo(2);
         assertThat(cost.getDollars()).isEqualTo(5);
     }
+
+    @Test
+    void possibleBuys() {
+        var cattleMarket = new CattleMarket(new LinkedList<>(), new HashSet<>(Set.of(
+                new Card.CattleCard(CattleType.WEST_HIGHLAND, 4, 4),
+                new Card.CattleCard(CattleType.WEST_HIGHLAND, 5, 4),
+                new Card.CattleCard(CattleType.TEXAS_LONGHORN, 6, 5)
+        )), false);
+
+        assertThat(cattleMarket.possibleBuys(4, 18)).containsExactlyInAnyOrder(
+                new CattleMarket.PossibleBuy(4, false, 12, 1),
+                new CattleMarket.PossibleBuy(4, false, 6, 3),
+                new CattleMarket.PossibleBuy(4, true, 18, 4),
+                new CattleMarket.PossibleBuy(5, false, 12, 2),
+                new CattleMarket.PossibleBuy(5, false, 6, 4));
+    }
+
+    @Test
+    void optimalBuys() {
+        var cattleMarket = new CattleMarket(new LinkedList<>(), new HashSet<>(Set.of(
+                new Card.CattleCard(CattleType.AYRSHIRE, 3, 3),
+                new Card.CattleCard(CattleType.AYRSHIRE, 3, 3)
+        )), false);
+
+        assertThat(cattleMarket.possibleBuys(4, 12)).hasSize(6);
+        assertThat(cattleMarket.optimalBuys(4, 12)).containsExactlyInAnyOrder(
+                new CattleMarket.PossibleBuy(3, false, 6, 1),
+                new CattleMarket.PossibleBuy(3, false, 3, 2),
+                new CattleMarket.PossibleBuy(3, true, 12, 2),
+                new CattleMarket.PossibleBuy(3, true, 5, 3));
+    }
+
+    @Test
+    void buyWithUnknownCost() {
+        var ayrshire = new Card.CattleCard(CattleType.AYRSHIRE, 3, 3);
+        var cattleMarket = new CattleMarket(new LinkedList<>(), new HashSet<>(Set.of(ayrshire)), false);
+
+        assertThatThrownBy(() -> cattleMarket.buy(ayrshire, null, 1, 5))
+                .isInstanceOf(GWTException.class);
+        assertThat(cattleMarket.getMarket()).contains(ayrshire);
+    }
 }
@@ -28,6 +28,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import javax.json.Json;
+import javax.json.JsonBuilderFactory;
 import java.util.*;
 import java.util.stream.IntStream;
 
@@ -142,6 +144,79 @@ class GWTTest {
         }
     }
 
+    @Nested
+    class Copy {
+
+        private final JsonBuilderFactory factory = Json.createBuilderFactory(Collections.emptyMap());
+
+        @Test
+        void copy() {
+            GWT game = GWT.start(GWT.Edition.FIRST, new LinkedHashSet<>(Arrays.asList(playerA, playerB)), BEGINNER, eventListener, new Random(0));
+
+            var copy = game.copy();
+
+            assertThat(copy.serialize(factory)).isEqualTo(game.serialize(factory));
+        }
+
+        @Test
+        void midGame() {
+            var computerA = new Player("Computer A", PlayerColor.WHITE, Player.Type.COMPUTER);
+            var computerB = new Player("Computer B", PlayerColor.YELLOW, Player.Type.COMPUTER);
+            GWT game = GWT.start(GWT.Edition.FIRST, new LinkedHashSet<>(Arrays.asList(computerA, computerB)), BEGINNER, eventListener, new Random(0));
+
+            var random = new Random(0);
+            for (var steps = 0; steps < 10_000 && !game.isEnded() && !buildingsTeepeesAndStationMastersInPlay(game); steps++) {
+                game.executeAutoma(game.getCurrentPlayer(), random);
+            }
+            assertThat(buildingsTeepeesAndStationMastersInPlay(game)).isTrue();
+
+            var copy = game.copy();
+
+            assertThat(copy.serialize(factory)).isEqualTo(game.serialize(factory));
+        }
+
+        private boolean buildingsTeepeesAndStationMastersInPlay(GWT game) {
+            return game.getPlayers().stream().anyMatch(player -> !game.getTrail().getBuildings(player).isEmpty())
+                    && game.getPlayers().stream().anyMatch(player -> !game.playerState(player).getTeepees().isEmpty())
+                    && game.getPlayers().stream().anyMatch(player -> !game.playerState(player).getStationMasters().isEmpty());
+        }
+
+        @Test
+        void independent() {
+            GWT game = GWT.start(GWT.Edition.FIRST, new LinkedHashSet<>(Arrays.asList(playerA, playerB)), BEGINNER, eventListener, new Random(0));
+            var before = game.serialize(factory);
+
+            var copy = game.copy();
+            MonteCarloSearch.playout(copy, new Random(0));
+
+            assertThat(copy.serialize(factory)).isNotEqualTo(before);
+            assertThat(game.serialize(factory)).isEqualTo(before);
+        }
+    }
+
+    @Nested
+    class PollChangedScores {
+
+        @Test
+        void start() {
+            GWT game = GWT.start(GWT.Edition.FIRST, new LinkedHashSet<>(Arrays.asList(playerA, playerB)), BEGINNER, eventListener, new Random(0));
+
+            assertThat(game.pollChangedScores()).contains(Set.of(playerA, playerB));
+            assertThat(game.pollChangedScores()).contains(Collections.emptySet());
+        }
+
+        @Test
+        void perform() {
+            GWT game = GWT.start(GWT.Edition.FIRST, new LinkedHashSet<>(Arrays.asList(playerA, playerB)), BEGINNER, eventListener, new Random(0));
+            game.pollChangedScores();
+
+            var currentPlayer = game.getCurrentPlayer();
+            game.perform(new Action.Move(List.of(game.getTrail().getLocation("A"))), new Random(0));
+
+            assertThat(game.pollChangedScores()).contains(Set.of(currentPlayer));
+        }
+    }
+
     @Nested
     class GetPossibleActions {
 
@@ -0,0 +1,98 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.boardgamefiesta.gwt.logic;
+
+import com.boardgamefiesta.api.domain.Player;
+import com.boardgamefiesta.api.domain.PlayerColor;
+
+import javax.json.Json;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+/**
+ * Manual benchmark of the automa search: the cost of copying a game in memory compared to a serialization round
+ * trip, and the number of playouts per second on a single core.
+ *
+ * <p>Not a unit test. Run from the IDE, or with:
+ * <code>mvn test-compile exec:java -Dexec.mainClass=com.boardgamefiesta.gwt.logic.MonteCarloSearchBenchmark -Dexec.classpathScope=test</code></p>
+ */
+public class MonteCarloSearchBenchmark {
+
+    static final int WARMUP = 2_000;
+    static final int ITERATIONS = 10_000;
+
+    static final int PLAYOUT_SECONDS = 10;
+
+    public static void main(String[] args) {
+        copy();
+
+        playouts("human and computer", start(Player.Type.HUMAN));
+        playouts("computers only", start(Player.Type.COMPUTER));
+    }
+
+    private static void copy() {
+        var game = start(Player.Type.HUMAN);
+        var factory = Json.createBuilderFactory(Collections.emptyMap());
+
+        measure("serialization round trip", i -> GWT.deserialize(game.serialize(factory)));
+        measure("copy", i -> game.copy());
+    }
+
+    private static GWT start(Player.Type type) {
+        return GWT.start(GWT.Edition.FIRST, new LinkedHashSet<>(List.of(
+                new Player("Player A", PlayerColor.RED, type),
+                new Player("Player B", PlayerColor.BLUE, Player.Type.COMPUTER))), GWT.Options.builder()
+                .difficulty(Garth.Difficulty.VERY_HARD)
+                .build(), null, new Random(0));
+    }
+
+    private static void playouts(String name, GWT game) {
+        var random = new Random(0);
+
+        var deadline = System.nanoTime() + PLAYOUT_SECONDS * 1_000_000_000L;
+        var playouts = 0;
+        var steps = 0L;
+        var start = System.nanoTime();
+        while (System.nanoTime() < deadline) {
+            steps += MonteCarloSearch.playout(game.copy(), random);
+            playouts++;
+        }
+        var nanos = System.nanoTime() - start;
+
+        System.out.printf("%s: %.1f playouts/s, %d steps/playout%n", name, playouts * 1e9 / nanos, steps / playouts);
+    }
+
+    private static void measure(String name, IntConsumer operation) {
+        for (var i = 0; i < WARMUP; i++) {
+            operation.accept(i);
+        }
+
+        var start = System.nanoTime();
+        for (var i = 0; i < ITERATIONS; i++) {
+            operation.accept(WARMUP + i);
+        }
+        var nanos = System.nanoTime() - start;
+
+        System.out.printf("%s: %d ns/op%n", name, nanos / ITERATIONS);
+    }
+}
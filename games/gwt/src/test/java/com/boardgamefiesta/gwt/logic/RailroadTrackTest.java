@@ -165,6 +165,26 @@ class RailroadTrackTest {
         assertThat(railroadTrack.currentSpace(playerD).getName()).isEqualTo("4");
     }
 
+    @Test
+    void reachableSpacesForwardJumpOver() {
+        // Given
+        railroadTrack.moveEngineForward(playerA, railroadTrack.getSpace("1"), 1, 1);
+
+        // When
+        var reachableSpaces = railroadTrack.reachableSpacesForward(railroadTrack.getStart(), 1, 2);
+
+        // Then
+        assertThat(reachableSpaces).containsExactlyInAnyOrder(railroadTrack.getSpace("2"), railroadTrack.getSpace("3"));
+    }
+
+    @Test
+    void reachableSpacesForwardUnlimited() {
+        var reachableSpaces = railroadTrack.reachableSpacesForward(railroadTrack.getStart(), 1, Integer.MAX_VALUE);
+
+        assertThat(reachableSpaces).contains(railroadTrack.getSpace("4.5"), railroadTrack.getEnd());
+        assertThat(reachableSpaces).noneMatch(space -> space instanceof RailroadTrack.Town);
+    }
+
     @Test
     void moveEngineForwardAlreadyPlayerOnSpace() {
         // Given
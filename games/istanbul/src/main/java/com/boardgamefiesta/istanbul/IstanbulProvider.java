@@ -101,6 +101,11 @@ public class IstanbulProvider implements GameProvider<Istanbul> {
         return this::toAction;
     }
 
+    @Override
+    public Istanbul snapshot(Istanbul state) {
+        return state.copy();
+    }
+
     private Action toAction(JsonObject jsonObject, Istanbul state) {
         var type = ActionView.valueOf(jsonObject.getString("type"));
         return type.toAction(jsonObject, state);
@@ -75,6 +75,33 @@ public class ActionQueue {
         }
     }
 
+    /**
+     * Makes a deep copy, keeping the current action pointing to its copy.
+     */
+    ActionQueue copy() {
+        var anyTime = new LinkedList<PossibleAction>();
+        var queue = new LinkedList<PossibleAction>();
+        PossibleAction current = null;
+
+        for (var possibleAction : this.anyTime) {
+            var copy = possibleAction.clone();
+            if (possibleAction == this.current) {
+                current = copy;
+            }
+            anyTime.add(copy);
+        }
+
+        for (var possibleAction : this.queue) {
+            var copy = possibleAction.clone();
+            if (possibleAction == this.current) {
+                current = copy;
+            }
+            queue.add(copy);
+        }
+
+        return new ActionQueue(anyTime, queue, current);
+    }
+
     private static <T> T safeGet(List<T> list, int index) {
         if (index < 0 || index >= list.size()) {
             return null;
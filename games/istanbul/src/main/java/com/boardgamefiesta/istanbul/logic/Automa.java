@@ -19,27 +19,311 @@
 package com.boardgamefiesta.istanbul.logic;
 
 import com.boardgamefiesta.api.domain.Player;
+import lombok.NonNull;
 
-import java.util.Collections;
-import java.util.Random;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
+/**
+ * Computer player that plays a whole turn per execution.
+ *
+ * <p>Every decision is made by trying each possible action on a copy of the game, and looking ahead at the best
+ * follow-up actions within the same turn. Because many actions involve dice or drawing cards, the candidates are
+ * sampled round robin with different random outcomes until the time budget is spent, and the best average wins.</p>
+ */
 public class Automa {
 
+    /**
+     * Time budget for a whole turn, small enough to run many turns in a single request.
+     */
+    static final Duration DEFAULT_TIME_BUDGET = Duration.ofMillis(250);
+
+    /**
+     * Time budget for a single decision within a turn.
+     */
+    private static final Duration DECISION_TIME_BUDGET = Duration.ofMillis(50);
+
+    /**
+     * Number of follow-up actions within the same turn that are looked ahead.
+     */
+    private static final int LOOKAHEAD_DEPTH = 3;
+
+    private static final int MAX_SAMPLES = 16;
+
+    /**
+     * Safety net in case the game does not progress.
+     */
+    private static final int MAX_ACTIONS_PER_TURN = 50;
+
+    private static final int[] GUESSES = {4, 5, 6, 7, 8, 9, 10};
+
+    private static final Map<Class<? extends Action>, Supplier<Action>> ACTIONS = Map.ofEntries(
+            entry(Action.LeaveAssistant.class, Action.LeaveAssistant::new),
+            entry(Action.PayOtherMerchants.class, Action.PayOtherMerchants::new),
+            entry(Action.Governor.class, Action.Governor::new),
+            entry(Action.Smuggler.class, Action.Smuggler::new),
+            entry(Action.MoveSmuggler.class, Action.MoveSmuggler::new),
+            entry(Action.BuyWheelbarrowExtension.class, Action.BuyWheelbarrowExtension::new),
+            entry(Action.MaxFabric.class, Action.MaxFabric::new),
+            entry(Action.MaxSpice.class, Action.MaxSpice::new),
+            entry(Action.MaxFruit.class, Action.MaxFruit::new),
+            entry(Action.Pay2LiraFor1AdditionalGood.class, Action.Pay2LiraFor1AdditionalGood::new),
+            entry(Action.UsePostOffice.class, Action.UsePostOffice::new),
+            entry(Action.BonusCardUsePostOffice.class, Action.BonusCardUsePostOffice::new),
+            entry(Action.CatchFamilyMemberForBonusCard.class, Action.CatchFamilyMemberForBonusCard::new),
+            entry(Action.CatchFamilyMemberFor3Lira.class, Action.CatchFamilyMemberFor3Lira::new),
+            entry(Action.Pay2Lira.class, Action.Pay2Lira::new),
+            entry(Action.ReturnAllAssistants.class, Action.ReturnAllAssistants::new),
+            entry(Action.Take1Fabric.class, Action.Take1Fabric::new),
+            entry(Action.Take1Spice.class, Action.Take1Spice::new),
+            entry(Action.Take1Blue.class, Action.Take1Blue::new),
+            entry(Action.Take1Fruit.class, Action.Take1Fruit::new),
+            entry(Action.RollForBlueGoods.class, Action.RollForBlueGoods::new),
+            entry(Action.RerollForBlueGoods.class, Action.RerollForBlueGoods::new),
+            entry(Action.NoRerollForBlueGoods.class, Action.NoRerollForBlueGoods::new),
+            entry(Action.DeliverToSultan.class, Action.DeliverToSultan::new),
+            entry(Action.BonusCardDeliverToSultan.class, Action.BonusCardDeliverToSultan::new),
+            entry(Action.BuyRuby.class, Action.BuyRuby::new),
+            entry(Action.BonusCardBuyRuby.class, Action.BonusCardBuyRuby::new),
+            entry(Action.BonusCardTake5Lira.class, Action.BonusCardTake5Lira::new),
+            entry(Action.BonusCardGain1Good.class, Action.BonusCardGain1Good::new),
+            entry(Action.PlaceFamilyMemberOnPoliceStation.class, Action.PlaceFamilyMemberOnPoliceStation::new),
+            entry(Action.TakeBonusCard.class, Action.TakeBonusCard::new),
+            entry(Action.Take3Lira.class, Action.Take3Lira::new),
+            entry(Action.Pay1Fabric.class, Action.Pay1Fabric::new),
+            entry(Action.Pay1Fruit.class, Action.Pay1Fruit::new),
+            entry(Action.Pay1Spice.class, Action.Pay1Spice::new),
+            entry(Action.Pay1Blue.class, Action.Pay1Blue::new));
+
+    private final Duration timeBudget;
+    private final LongSupplier nanoTime;
+
+    public Automa() {
+        this(DEFAULT_TIME_BUDGET);
+    }
+
+    public Automa(@NonNull Duration timeBudget) {
+        this(timeBudget, System::nanoTime);
+    }
+
+    /**
+     * @param nanoTime clock like {@link System#nanoTime()}
+     */
+    Automa(@NonNull Duration timeBudget, @NonNull LongSupplier nanoTime) {
+        this.timeBudget = timeBudget;
+        this.nanoTime = nanoTime;
+    }
+
     public void execute(Istanbul state, Player player, Random random) {
-        var possibleActions = state.getPossibleActions();
+        var deadline = nanoTime.getAsLong() + timeBudget.toNanos();
+
+        for (int i = 0; i < MAX_ACTIONS_PER_TURN && isTurn(state, player); i++) {
+            var decisionDeadline = Math.min(deadline, nanoTime.getAsLong() + DECISION_TIME_BUDGET.toNanos());
 
-        if (possibleActions.contains(Action.Move.class)) {
-            state.perform(player, bestPossibleMove(state, random), random);
-        } else {
-            // For now just end turn
+            var action = bestAction(state, player, random, decisionDeadline);
+
+            if (action.isEmpty() || !tryPerform(state, action.get(), random)) {
+                state.endTurn(player, random);
+                return;
+            }
+        }
+
+        if (isTurn(state, player)) {
             state.endTurn(player, random);
         }
     }
 
-    private Action.Move bestPossibleMove(Istanbul state, Random random) {
-        var possiblePlaces = state.possiblePlaces();
-        // TODO Make smarter. Just random for now
-        Collections.shuffle(possiblePlaces, random);
-        return new Action.Move(possiblePlaces.get(0));
+    /**
+     * @return the best action to perform, or empty if ending the turn is best
+     */
+    private Optional<Action> bestAction(Istanbul state, Player player, Random random, long deadline) {
+        var candidates = candidates(state);
+        if (candidates.isEmpty()) {
+            return Optional.empty();
+        }
+
+        var totals = new double[candidates.size()];
+
+        // Round robin, so every candidate gets sampled at least once and about equally often
+        var sample = 0;
+        do {
+            var simulation = new Random(random.nextLong());
+            for (int i = 0; i < candidates.size(); i++) {
+                totals[i] += evaluate(state, player, candidates.get(i), simulation, deadline);
+            }
+            sample++;
+        } while (sample < MAX_SAMPLES && nanoTime.getAsLong() < deadline);
+
+        var best = -1;
+        var bestValue = mustAct(state) ? Double.NEGATIVE_INFINITY : value(state, player);
+        for (int i = 0; i < candidates.size(); i++) {
+            var value = totals[i] / sample;
+            if (value > bestValue) {
+                best = i;
+                bestValue = value;
+            }
+        }
+
+        return best >= 0 ? Optional.of(candidates.get(best)) : Optional.empty();
+    }
+
+    private double evaluate(Istanbul state, Player player, Action action, Random random, long deadline) {
+        var copy = state.copy();
+        if (!tryPerform(copy, forCopy(action, copy), random)) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return lookahead(copy, player, random, LOOKAHEAD_DEPTH, deadline);
+    }
+
+    /**
+     * @return value of the best sequence of actions the player can still perform in the current turn,
+     * or only the value of the current position when the deadline has passed
+     */
+    private double lookahead(Istanbul game, Player player, Random random, int depth, long deadline) {
+        var value = value(game, player);
+
+        if (depth == 0 || !isTurn(game, player) || nanoTime.getAsLong() >= deadline) {
+            return value;
+        }
+
+        var best = mustAct(game) ? Double.NEGATIVE_INFINITY : value;
+        for (var action : candidates(game)) {
+            var copy = game.copy();
+            if (tryPerform(copy, forCopy(action, copy), random)) {
+                best = Math.max(best, lookahead(copy, player, random, depth - 1, deadline));
+            }
+        }
+
+        return best != Double.NEGATIVE_INFINITY ? best : value;
+    }
+
+    /**
+     * Actions that refer to places must refer to the places of the copy they are performed on.
+     */
+    private static Action forCopy(Action action, Istanbul copy) {
+        if (action instanceof Action.Move) {
+            var move = (Action.Move) action;
+            return new Action.Move(samePlace(copy, move.getTo()), move.getBonusCard());
+        } else if (action instanceof Action.SendFamilyMember) {
+            return new Action.SendFamilyMember(samePlace(copy, ((Action.SendFamilyMember) action).getTo()));
+        } else if (action instanceof Action.BonusCardReturnAssistant) {
+            return new Action.BonusCardReturnAssistant(samePlace(copy, ((Action.BonusCardReturnAssistant) action).getFrom()));
+        }
+        return action;
+    }
+
+    private static Place samePlace(Istanbul copy, Place place) {
+        return copy.place(p -> p.getNumber() == place.getNumber());
+    }
+
+    private static boolean tryPerform(Istanbul game, Action action, Random random) {
+        try {
+            game.perform(action, random);
+            return true;
+        } catch (IstanbulException e) {
+            return false;
+        }
+    }
+
+    private static boolean isTurn(Istanbul game, Player player) {
+        return !game.isEnded() && game.getCurrentPlayer().equals(player);
+    }
+
+    /**
+     * The player must move at the start of the turn, and must finish an action once started.
+     */
+    private static boolean mustAct(Istanbul game) {
+        return game.getActionQueue().canPerform(Action.Move.class)
+                || game.getActionQueue().getCurrent().isPresent();
+    }
+
+    /**
+     * Heuristic value of the position of a player, in lira.
+     */
+    static double value(Istanbul game, Player player) {
+        var playerState = game.getPlayerState(player);
+
+        var value = playerState.getRubies() * 25
+                + playerState.getLira()
+                + playerState.getTotalGoods() * 2
+                + playerState.getCapacity() * 8
+                + playerState.getBonusCards().size() * 3
+                + playerState.getMosqueTiles().size() * 8
+                + assistants(game, player) * 3;
+
+        if (game.isEnded() && game.getRanking().get(0).equals(player)) {
+            value += 1000;
+        }
+
+        return value;
+    }
+
+    private static int assistants(Istanbul game, Player player) {
+        var merchant = game.getCurrentPlace(player.getColor()).getMerchant(player.getColor());
+        return merchant.getAssistants();
+    }
+
+    private static List<Action> candidates(Istanbul game) {
+        var result = new ArrayList<Action>();
+
+        for (var type : game.getPossibleActions()) {
+            var supplier = ACTIONS.get(type);
+            if (supplier != null) {
+                result.add(supplier.get());
+            } else if (type == Action.Move.class) {
+                for (var place : game.possiblePlaces()) {
+                    result.add(new Action.Move(place));
+                }
+            } else if (type == Action.TakeMosqueTile.class) {
+                for (var mosqueTile : MosqueTile.values()) {
+                    result.add(new Action.TakeMosqueTile(mosqueTile));
+                }
+            } else if (type == Action.SellGoods.class) {
+                result.add(new Action.SellGoods(new HashMap<>(game.currentPlayerState().getGoods()), null));
+            } else if (type == Action.GuessAndRollForLira.class) {
+                for (var guess : GUESSES) {
+                    result.add(new Action.GuessAndRollForLira(guess));
+                }
+            } else if (type == Action.DiscardBonusCard.class) {
+                for (var bonusCard : new LinkedHashSet<>(game.currentPlayerState().getBonusCards())) {
+                    result.add(new Action.DiscardBonusCard(bonusCard));
+                }
+            } else if (type == Action.TakeBonusCardCaravansary.class) {
+                result.add(new Action.TakeBonusCardCaravansary(true));
+                result.add(new Action.TakeBonusCardCaravansary(false));
+            } else if (type == Action.SendFamilyMember.class) {
+                for (var place : game.getLayout().getPlaces()) {
+                    if (place != game.getPoliceStation()) {
+                        result.add(new Action.SendFamilyMember(place));
+                    }
+                }
+            } else if (type == Action.Pay2LiraToReturnAssistant.class) {
+                for (int x = 0; x < game.getLayout().width(); x++) {
+                    for (int y = 0; y < game.getLayout().height(); y++) {
+                        if (hasAssistant(game.place(x, y), game.getCurrentPlayer())) {
+                            result.add(new Action.Pay2LiraToReturnAssistant(x, y));
+                        }
+                    }
+                }
+            } else if (type == Action.BonusCardReturnAssistant.class) {
+                for (var place : game.getLayout().getPlaces()) {
+                    if (hasAssistant(place, game.getCurrentPlayer())) {
+                        result.add(new Action.BonusCardReturnAssistant(place));
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private static boolean hasAssistant(Place place, Player player) {
+        return place.getAssistants().getOrDefault(player.getColor(), 0) > 0;
+    }
+
+    private static <T extends Action> Map.Entry<Class<? extends Action>, Supplier<Action>> entry(Class<T> type, Supplier<T> supplier) {
+        return Map.entry(type, supplier::get);
     }
 }
@@ -200,6 +200,25 @@ public class Istanbul implements State {
                 null);
     }
 
+    /**
+     * Makes a deep copy in memory, which is much cheaper than a serialization round trip.
+     * Players, bonus cards and mosque tiles are immutable and shared. Event listeners are not copied.
+     */
+    public Istanbul copy() {
+        return new Istanbul(
+                new ArrayList<>(players),
+                new ArrayList<>(playerOrder),
+                playerStates.entrySet().stream()
+                        .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().copy())),
+                layout.copy(),
+                new LinkedList<>(bonusCards),
+                actionQueue.copy(),
+                currentPlayer,
+                status,
+                canUndo,
+                null);
+    }
+
     private static List<Player> tryToReconstructOriginalOrder(Collection<Player> players, List<Player> playerOrder, Player startPlayer) {
         if (startPlayer == null) {
             // Newer game, where the original players are always stored in order
@@ -621,14 +640,8 @@ public class Istanbul implements State {
     }
 
     public List<Place> possiblePlaces() {
-        var from = getCurrentPlace();
-        return layout.getPlaces().stream()
-                .filter(to -> {
-                    var distance = layout.distance(from, to);
-                    // TODO Take into account any bonus cards the player may have
-                    return distance >= 1 && distance <= 2;
-                })
-                .collect(Collectors.toList());
+        // TODO Take into account any bonus cards the player may have
+        return layout.placesWithinDistance(getCurrentPlace(), 1, 2);
     }
 
     public void takeBonusCard(Random random) {
@@ -39,6 +39,13 @@ public class Layout {
 
     private final Place[][] layout;
 
+    /**
+     * Places indexed by place number, with their coordinates, so lookups do not have to scan the layout.
+     */
+    private final Place[] places = new Place[WIDTH * HEIGHT + 1];
+    private final int[] xs = new int[WIDTH * HEIGHT + 1];
+    private final int[] ys = new int[WIDTH * HEIGHT + 1];
+
     Layout(@NonNull Place... places) {
         this(Arrays.asList(places));
     }
@@ -57,6 +64,8 @@ public class Layout {
                 this.layout[x][y] = iterator.next();
             }
         }
+
+        index();
     }
 
     /**
@@ -65,6 +74,32 @@ public class Layout {
      */
     Layout(@NonNull Place[][] layout) {
         this.layout = layout;
+
+        index();
+    }
+
+    private void index() {
+        for (int x = 0; x < WIDTH; x++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                var place = layout[x][y];
+                places[place.getNumber()] = place;
+                xs[place.getNumber()] = x;
+                ys[place.getNumber()] = y;
+            }
+        }
+    }
+
+    /**
+     * Makes a deep copy of the layout and all places on it.
+     */
+    Layout copy() {
+        var copy = new Place[WIDTH][HEIGHT];
+        for (int x = 0; x < WIDTH; x++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                copy[x][y] = layout[x][y].copy();
+            }
+        }
+        return new Layout(copy);
     }
 
     Place randomPlace(@NonNull Random random) {
@@ -85,38 +120,47 @@ public class Layout {
     }
 
     Place place(Predicate<Place> predicate) {
-        for (Place[] places : layout) {
-            for (Place place : places) {
-                if (predicate.test(place)) {
-                    return place;
-                }
+        for (int number = 1; number < places.length; number++) {
+            if (predicate.test(places[number])) {
+                return places[number];
             }
         }
         throw new IllegalArgumentException("Place not found");
     }
 
     int distance(Place from, Place to) {
-        for (int x1 = 0; x1 < WIDTH; x1++) {
-            for (int y1 = 0; y1 < HEIGHT; y1++) {
-                if (layout[x1][y1] == from) {
-                    for (int x2 = 0; x2 < WIDTH; x2++) {
-                        for (int y2 = 0; y2 < HEIGHT; y2++) {
-                            if (layout[x2][y2] == to) {
-                                return Math.abs(x1 - x2) + Math.abs(y1 - y2);
-                            }
-                        }
-                    }
-                }
+        var a = indexOf(from);
+        var b = indexOf(to);
+        return Math.abs(xs[a] - xs[b]) + Math.abs(ys[a] - ys[b]);
+    }
+
+    /**
+     * @return places that are at least and at most the given distance away from the given place
+     */
+    List<Place> placesWithinDistance(Place from, int atLeast, int atMost) {
+        var result = new ArrayList<Place>();
+        for (int number = 1; number < places.length; number++) {
+            var distance = distance(from, places[number]);
+            if (distance >= atLeast && distance <= atMost) {
+                result.add(places[number]);
             }
         }
-        throw new IllegalArgumentException("Place not found");
+        return result;
+    }
+
+    private int indexOf(Place place) {
+        var number = place.getNumber();
+        if (number < 1 || number >= places.length || places[number] != place) {
+            throw new IllegalArgumentException("Place not found");
+        }
+        return number;
     }
 
     Place currentPlaceOfMerchant(PlayerColor playerColor) {
-        for (Place[] places : layout) {
-            for (Place place : places) {
-                if (place.getMerchants().stream().anyMatch(merchant -> merchant.getColor() == playerColor)) {
-                    return place;
+        for (int number = 1; number < places.length; number++) {
+            for (Merchant merchant : places[number].getMerchants()) {
+                if (merchant.getColor() == playerColor) {
+                    return places[number];
                 }
             }
         }
@@ -124,22 +168,18 @@ public class Layout {
     }
 
     Place currentPlaceOfFamilyMember(Player player) {
-        for (Place[] places : layout) {
-            for (Place place : places) {
-                if (place.getFamilyMembers().contains(player)) {
-                    return place;
-                }
+        for (int number = 1; number < places.length; number++) {
+            if (places[number].getFamilyMembers().contains(player)) {
+                return places[number];
             }
         }
         throw new IstanbulException(IstanbulError.NOT_AT_PLACE);
     }
 
     private <T extends Place> T place(Class<T> clazz) {
-        for (Place[] places : layout) {
-            for (Place place : places) {
-                if (clazz == place.getClass()) {
-                    return clazz.cast(place);
-                }
+        for (int number = 1; number < places.length; number++) {
+            if (clazz == places[number].getClass()) {
+                return clazz.cast(places[number]);
             }
         }
         throw new IllegalArgumentException("Place not found: " + clazz);
@@ -210,7 +250,7 @@ public class Layout {
     }
 
     public Set<Place> getPlaces() {
-        return Arrays.stream(layout).flatMap(Arrays::stream).collect(Collectors.toSet());
+        return Arrays.stream(places, 1, places.length).collect(Collectors.toSet());
     }
 
     JsonObject serialize(JsonBuilderFactory factory) {
@@ -47,6 +47,10 @@ public class Merchant {
         return new Merchant(player.getColor(), player, 4);
     }
 
+    Merchant copy() {
+        return new Merchant(color, player, assistants);
+    }
+
     void returnAssistants(int amount) {
         this.assistants += amount;
     }
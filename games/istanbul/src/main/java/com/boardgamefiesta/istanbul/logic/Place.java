@@ -54,6 +54,22 @@ public abstract class Place {
 
     protected abstract Optional<PossibleAction> getPossibleAction(Istanbul game);
 
+    /**
+     * Makes a deep copy of this place, including the merchants on it.
+     */
+    abstract Place copy();
+
+    protected <T extends Place> T copyTo(T place) {
+        for (Merchant merchant : merchants) {
+            place.merchants.add(merchant.copy());
+        }
+        place.assistants.putAll(assistants);
+        place.familyMembers.addAll(familyMembers);
+        place.governor = governor;
+        place.smuggler = smuggler;
+        return place;
+    }
+
     ActionResult placeMerchant(@NonNull Merchant merchant, @NonNull Istanbul game) {
         if (!merchants.add(merchant)) {
             throw new IstanbulException(IstanbulError.ALREADY_AT_PLACE);
@@ -327,6 +343,11 @@ public abstract class Place {
             super(1);
         }
 
+        @Override
+        Wainwright copy() {
+            return copyTo(new Wainwright());
+        }
+
         @Override
         protected Optional<PossibleAction> getPossibleAction(Istanbul game) {
             return Optional.of(PossibleAction.optional(Action.BuyWheelbarrowExtension.class));
@@ -340,6 +361,11 @@ public abstract class Place {
             super(2);
         }
 
+        @Override
+        FabricWarehouse copy() {
+            return copyTo(new FabricWarehouse());
+        }
+
         @Override
         protected Optional<PossibleAction> getPossibleAction(Istanbul game) {
             return Optional.of(PossibleAction.optional(Action.MaxFabric.class));
@@ -353,6 +379,11 @@ public abstract class Place {
             super(3);
         }
 
+        @Override
+        SpiceWarehouse copy() {
+            return copyTo(new SpiceWarehouse());
+        }
+
         @Override
         protected Optional<PossibleAction> getPossibleAction(Istanbul game) {
             return Optional.of(PossibleAction.optional(Action.MaxSpice.class));
@@ -366,6 +397,11 @@ public abstract class Place {
             super(4);
         }
 
+        @Override
+        FruitWarehouse copy() {
+            return copyTo(new FruitWarehouse());
+        }
+
         @Override
         protected Optional<PossibleAction> getPossibleAction(Istanbul game) {
             return Optional.of(PossibleAction.optional(Action.MaxFruit.class));
@@ -386,6 +422,11 @@ public abstract class Place {
             this.indicators = indicators;
         }
 
+        @Override
+        PostOffice copy() {
+            return copyTo(new PostOffice(new ArrayList<>(indicators)));
+        }
+
         @Override
         protected Optional<PossibleAction> getPossibleAction(Istanbul game) {
             return Optional.of(PossibleAction.optional(Action.UsePostOffice.class));
@@ -458,6 +499,11 @@ public abstract class Place {
             this(new LinkedList<>());
         }
 
+        @Override
+        Caravansary copy() {
+            return copyTo(new Caravansary(new LinkedList<>(discardPile)));
+        }
+
         @Override
         protected Optional<PossibleAction> getPossibleAction(Istanbul game) {
             return Optional.of(PossibleAction.whenThen(
@@ -512,6 +558,11 @@ public abstract class Place {
             return placeActions(game);
         }
 
+        @Override
+        Fountain copy() {
+            return copyTo(new Fountain());
+        }
+
         @Override
         protected Optional<PossibleAction> getPossibleAction(Istanbul game) {
             return Optional.of(PossibleAction.optional(Action.ReturnAllAssistants.class));
@@ -607,6 +658,11 @@ public abstract class Place {
             game.currentPlayerState().addGoods(GoodsType.BLUE, amount);
         }
 
+        @Override
+        BlackMarket copy() {
+            return copyTo(new BlackMarket());
+        }
+
         @Override
         protected Optional<PossibleAction> getPossibleAction(Istanbul game) {
             return Optional.of(PossibleAction.any(Set.of(
@@ -624,6 +680,11 @@ public abstract class Place {
             super(9);
         }
 
+        @Override
+        TeaHouse copy() {
+            return copyTo(new TeaHouse());
+        }
+
         @Override
         protected Optional<PossibleAction> getPossibleAction(Istanbul game) {
             return Optional.of(PossibleAction.optional(Action.GuessAndRollForLira.class));
@@ -672,7 +733,7 @@ public abstract class Place {
 
     }
 
-    public static class Market extends Place {
+    public abstract static class Market extends Place {
 
         private final List<Map<GoodsType, Integer>> demands;
         private final List<Integer> rewards;
@@ -692,6 +753,10 @@ public abstract class Place {
             Collections.shuffle(this.demands, random);
         }
 
+        protected List<Map<GoodsType, Integer>> copyOfDemands() {
+            return new ArrayList<>(demands);
+        }
+
         public Map<GoodsType, Integer> getDemand() {
             return demands.get(0);
         }
@@ -767,6 +832,11 @@ public abstract class Place {
             super(NUMBER, demands, REWARDS);
         }
 
+        @Override
+        SmallMarket copy() {
+            return copyTo(new SmallMarket(copyOfDemands()));
+        }
+
         private SmallMarket(Random random) {
             super(NUMBER, List.of(
                     Map.of(GoodsType.FABRIC, 1, GoodsType.SPICE, 2, GoodsType.FRUIT, 1, GoodsType.BLUE, 1),
@@ -803,6 +873,11 @@ public abstract class Place {
             super(NUMBER, demands, REWARDS);
         }
 
+        @Override
+        LargeMarket copy() {
+            return copyTo(new LargeMarket(copyOfDemands()));
+        }
+
         private LargeMarket(Random random) {
             super(NUMBER, List.of(
                     Map.of(GoodsType.FABRIC, 1, GoodsType.SPICE, 1, GoodsType.FRUIT, 1, GoodsType.BLUE, 2),
@@ -824,6 +899,11 @@ public abstract class Place {
             super(12);
         }
 
+        @Override
+        PoliceStation copy() {
+            return copyTo(new PoliceStation());
+        }
+
         @Override
         protected Optional<PossibleAction> getPossibleAction(Istanbul game) {
             if (getFamilyMembers().contains(game.getCurrentPlayer())) {
@@ -839,7 +919,7 @@ public abstract class Place {
         }
     }
 
-    public static class Mosque extends Place {
+    public abstract static class Mosque extends Place {
 
         private final MosqueTileStack a;
         private final MosqueTileStack b;
@@ -859,6 +939,10 @@ public abstract class Place {
                 return new MosqueTileStack(mosqueTile, goodsCounts);
             }
 
+            MosqueTileStack copy() {
+                return new MosqueTileStack(mosqueTile, new LinkedList<>(goodsCounts));
+            }
+
             boolean isAvailable() {
                 return !goodsCounts.isEmpty();
             }
@@ -927,6 +1011,14 @@ public abstract class Place {
             return Optional.empty();
         }
 
+        protected MosqueTileStack copyOfA() {
+            return a.copy();
+        }
+
+        protected MosqueTileStack copyOfB() {
+            return b.copy();
+        }
+
         public Optional<Integer> getA() {
             return a.getGoodsCount();
         }
@@ -986,6 +1078,11 @@ public abstract class Place {
             super(NUMBER, a, b);
         }
 
+        @Override
+        SmallMosque copy() {
+            return copyTo(new SmallMosque(copyOfA(), copyOfB()));
+        }
+
         static SmallMosque forPlayerCount(int playerCount) {
             return new SmallMosque(
                     MosqueTileStack.forPlayerCount(A, playerCount),
@@ -1009,6 +1106,11 @@ public abstract class Place {
             super(NUMBER, a, b);
         }
 
+        @Override
+        GreatMosque copy() {
+            return copyTo(new GreatMosque(copyOfA(), copyOfB()));
+        }
+
         static GreatMosque forPlayerCount(int playerCount) {
             return new GreatMosque(
                     MosqueTileStack.forPlayerCount(A, playerCount),
@@ -1068,6 +1170,11 @@ public abstract class Place {
                     .add("uncovered", uncovered);
         }
 
+        @Override
+        SultansPalace copy() {
+            return copyTo(new SultansPalace(uncovered));
+        }
+
         @Override
         protected Optional<PossibleAction> getPossibleAction(Istanbul game) {
             return Optional.of(PossibleAction.optional(Action.DeliverToSultan.class));
@@ -1161,6 +1268,11 @@ public abstract class Place {
                     .add("cost", cost);
         }
 
+        @Override
+        GemstoneDealer copy() {
+            return copyTo(new GemstoneDealer(cost));
+        }
+
         @Override
         protected Optional<PossibleAction> getPossibleAction(Istanbul game) {
             return Optional.of(PossibleAction.optional(Action.BuyRuby.class));
@@ -91,6 +91,18 @@ public class PlayerState {
         return new PlayerState(2 + playerIndex, 2, 0, Collections.emptyList(), Collections.emptySet(), Collections.emptyMap(), new PlayerStats(), null);
     }
 
+    PlayerState copy() {
+        return new PlayerState(
+                new LinkedList<>(bonusCards),
+                new HashSet<>(mosqueTiles),
+                new HashMap<>(goods),
+                lira,
+                capacity,
+                rubies,
+                stats.copy(),
+                roll != null ? roll.copy() : null);
+    }
+
     void beginTurn() {
         stats.beginTurn();
 
@@ -341,6 +353,23 @@ public class PlayerState {
                     .add("liraPaidToOtherMerchants", liraPaidToOtherMerchants);
         }
 
+        private PlayerStats copy() {
+            return new PlayerStats(
+                    turns,
+                    new HashMap<>(playedBonusCards),
+                    new HashMap<>(placeUses),
+                    liraGained,
+                    distanceMoved,
+                    assistantsLeft,
+                    assistantsPickedUp,
+                    caughtFamilyMembers,
+                    placedFamilyMembers,
+                    governorUses,
+                    smugglerUses,
+                    new HashMap<>(goodsGained),
+                    liraPaidToOtherMerchants);
+        }
+
         private void beginTurn() {
             turns++;
         }
@@ -237,9 +237,16 @@ public abstract class PossibleAction {
 
         @Override
         protected PossibleAction clone() {
-            return new Any(possibleActions.stream()
-                    .map(PossibleAction::clone)
-                    .collect(Collectors.toSet()), current);
+            var clones = new HashSet<PossibleAction>();
+            PossibleAction currentClone = null;
+            for (var possibleAction : possibleActions) {
+                var clone = possibleAction.clone();
+                if (possibleAction == current) {
+                    currentClone = clone;
+                }
+                clones.add(clone);
+            }
+            return new Any(clones, currentClone);
         }
 
         @Override
@@ -514,7 +521,7 @@ public abstract class PossibleAction {
 
         @Override
         protected PossibleAction clone() {
-            return new WhenThen(when.clone(), then.clone(), atLeast, atMost, whens, thens, current.clone());
+            return new WhenThen(when.clone(), then.clone(), atLeast, atMost, whens, thens, current != null ? current.clone() : null);
         }
 
         @Override
@@ -45,6 +45,10 @@ class Roll {
                 .add("die2", die2);
     }
 
+    Roll copy() {
+        return new Roll(die1, die2);
+    }
+
     static Roll random(Random random) {
         var die1 = random.nextInt(6) + 1;
         var die2 = random.nextInt(6) + 1;
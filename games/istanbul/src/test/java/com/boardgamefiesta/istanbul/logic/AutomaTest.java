@@ -0,0 +1,103 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.istanbul.logic;
+
+import com.boardgamefiesta.api.domain.Player;
+import com.boardgamefiesta.api.domain.PlayerColor;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AutomaTest {
+
+    private static final Duration ROUND_OF_SAMPLES = Duration.ofMillis(5);
+
+    private long nanoTime;
+
+    private Player playerRed = new Player("Red", PlayerColor.RED, Player.Type.COMPUTER);
+    private Player playerGreen = new Player("Green", PlayerColor.GREEN, Player.Type.COMPUTER);
+    private Player playerBlue = new Player("Blue", PlayerColor.BLUE, Player.Type.COMPUTER);
+
+    @Test
+    void playsWholeTurn() {
+        // Given
+        var game = Istanbul.start(new LinkedHashSet<>(List.of(playerRed, playerGreen)), LayoutType.SHORT_PATHS, null, new Random(0));
+        var player = game.getCurrentPlayer();
+
+        // When
+        new Automa(Duration.ZERO).execute(game, player, new Random(0));
+
+        // Then
+        assertThat(game.getCurrentPlayer()).isNotEqualTo(player);
+        assertThat(game.getPlayerState(player).getStats().getDistanceMoved()).isPositive();
+    }
+
+    @Test
+    void respectsTimeBudget() {
+        // Given
+        var game = Istanbul.start(new LinkedHashSet<>(List.of(playerRed, playerGreen)), LayoutType.SHORT_PATHS, null, new Random(0));
+        var timeBudget = Duration.ofMillis(100);
+        var automa = new Automa(timeBudget, () -> nanoTime);
+        var random = new Random(0) {
+            @Override
+            public long nextLong() {
+                // The automa draws once per round of samples, let every round take the same amount of time
+                nanoTime += ROUND_OF_SAMPLES.toNanos();
+                return super.nextLong();
+            }
+        };
+
+        // When
+        var slowest = Duration.ZERO;
+        for (int turn = 0; turn < 10 && !game.isEnded(); turn++) {
+            var start = nanoTime;
+            automa.execute(game, game.getCurrentPlayer(), random);
+            var elapsed = Duration.ofNanos(nanoTime - start);
+
+            slowest = elapsed.compareTo(slowest) > 0 ? elapsed : slowest;
+        }
+
+        // Then
+        // Once the budget is spent, the remaining decisions of the turn only get a single round of samples
+        assertThat(slowest).isGreaterThanOrEqualTo(timeBudget);
+        assertThat(slowest).isLessThan(timeBudget.multipliedBy(2));
+    }
+
+    @Test
+    void playsGameUntilEnd() {
+        // Given
+        var game = Istanbul.start(new LinkedHashSet<>(List.of(playerRed, playerGreen, playerBlue)), LayoutType.SHORT_PATHS, null, new Random(0));
+        var automa = new Automa(Duration.ZERO);
+        var random = new Random(0);
+
+        // When
+        for (int turn = 0; turn < 1000 && !game.isEnded(); turn++) {
+            automa.execute(game, game.getCurrentPlayer(), random);
+        }
+
+        // Then
+        assertThat(game.isEnded()).isTrue();
+        assertThat(game.getPlayerState(game.getRanking().get(0)).hasMaxRubies(3)).isTrue();
+    }
+}
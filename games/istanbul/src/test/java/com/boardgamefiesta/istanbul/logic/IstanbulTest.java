@@ -27,9 +27,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import javax.json.Json;
+import javax.json.JsonBuilderFactory;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Random;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -510,6 +514,57 @@ class IstanbulTest {
         assertThat(game.getScore(playerGreen)).isEqualTo(3);
     }
 
+    @Nested
+    class Copy {
+
+        private final JsonBuilderFactory factory = Json.createBuilderFactory(Collections.emptyMap());
+
+        @Test
+        void copy() {
+            // Given
+            var game = Istanbul.start(new LinkedHashSet<>(List.of(playerRed, playerGreen)), LayoutType.SHORT_PATHS, eventListener, new Random(0));
+            game.perform(new Action.Move(game.getPoliceStation()), new Random(0));
+
+            // When
+            var copy = game.copy();
+
+            // Then
+            assertThat(copy.getCurrentPlayer()).isEqualTo(game.getCurrentPlayer());
+            assertThat(copy.getPossibleActions()).isEqualTo(game.getPossibleActions());
+            assertThat(copy.getPlayerState(playerRed).serialize(factory)).isEqualTo(game.getPlayerState(playerRed).serialize(factory));
+            assertThat(copy.getPlayerState(playerGreen).serialize(factory)).isEqualTo(game.getPlayerState(playerGreen).serialize(factory));
+            for (int x = 0; x < game.getLayout().width(); x++) {
+                for (int y = 0; y < game.getLayout().height(); y++) {
+                    var place = game.place(x, y);
+                    var placeCopy = copy.place(x, y);
+                    assertThat(placeCopy).isNotSameAs(place);
+                    assertThat(placeCopy.getNumber()).isEqualTo(place.getNumber());
+                    assertThat(placeCopy.getMerchants()).extracting(Merchant::getColor)
+                            .containsExactlyInAnyOrderElementsOf(place.getMerchants().stream().map(Merchant::getColor).collect(Collectors.toList()));
+                    assertThat(placeCopy.getAssistants()).isEqualTo(place.getAssistants());
+                    assertThat(placeCopy.getFamilyMembers()).isEqualTo(place.getFamilyMembers());
+                }
+            }
+        }
+
+        @Test
+        void independent() {
+            // Given
+            var game = Istanbul.start(new LinkedHashSet<>(List.of(playerRed, playerGreen)), LayoutType.SHORT_PATHS, eventListener, new Random(0));
+            var before = game.serialize(factory);
+
+            // When
+            var copy = game.copy();
+            copy.perform(new Action.Move(copy.getPoliceStation()), new Random(0));
+            copy.perform(new Action.LeaveAssistant(), new Random(0));
+            copy.endTurn(new Random(0));
+
+            // Then
+            assertThat(game.serialize(factory)).isEqualTo(before);
+            assertThat(game.getCurrentPlayer()).isNotEqualTo(copy.getCurrentPlayer());
+        }
+    }
+
     @Nested
     class Winners {
 
@@ -100,4 +100,9 @@ public class PowerGridProvider implements GameProvider<PowerGrid> {
         return true;
     }
 
+    @Override
+    public PowerGrid snapshot(PowerGrid state) {
+        return state.copy();
+    }
+
 }
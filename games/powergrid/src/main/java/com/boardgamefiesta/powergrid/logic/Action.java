@@ -35,7 +35,7 @@ public interface Action extends com.boardgamefiesta.api.domain.Action {
 
         @Override
         public void perform(PowerGrid powerGrid, Player player, Random random) {
-
+            powerGrid.connectCity(city);
         }
     }
 
@@ -45,7 +45,7 @@ public interface Action extends com.boardgamefiesta.api.domain.Action {
 
         @Override
         public void perform(PowerGrid powerGrid, Player player, Random random) {
-            powerGrid.placeBid(bid);
+            powerGrid.placeBid(bid, random);
         }
     }
 
@@ -67,7 +67,7 @@ public interface Action extends com.boardgamefiesta.api.domain.Action {
 
         @Override
         public void perform(PowerGrid powerGrid, Player player, Random random) {
-
+            powerGrid.producePower(player, resources, random);
         }
     }
 
@@ -77,7 +77,7 @@ public interface Action extends com.boardgamefiesta.api.domain.Action {
 
         @Override
         public void perform(PowerGrid powerGrid, Player player, Random random) {
-
+            powerGrid.removePowerPlant(powerPlant);
         }
     }
 
@@ -87,7 +87,7 @@ public interface Action extends com.boardgamefiesta.api.domain.Action {
 
         @Override
         public void perform(PowerGrid powerGrid, Player player, Random random) {
-            powerGrid.startAuction(powerPlant);
+            powerGrid.startAuction(powerPlant, random);
         }
     }
 }
@@ -66,6 +66,10 @@ public class Auction {
                 .add("bid", bid);
     }
 
+    Auction copy() {
+        return new Auction(powerPlant, bid, new ArrayList<>(biddingPlayers));
+    }
+
     Player getNextBiddingPlayer(Player currentPlayer) {
         return biddingPlayers.get((biddingPlayers.indexOf(currentPlayer) + 1) % biddingPlayers.size());
     }
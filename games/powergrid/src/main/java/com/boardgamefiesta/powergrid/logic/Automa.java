@@ -19,66 +19,213 @@
 package com.boardgamefiesta.powergrid.logic;
 
 import com.boardgamefiesta.api.domain.Player;
+import com.boardgamefiesta.powergrid.logic.map.City;
 
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Random;
 import java.util.stream.Collectors;
 
+/**
+ * Computer player that decides greedily on the current state. Every decision is a cheap calculation,
+ * such as a single pass over the network or a few subsets of power plants, so it takes milliseconds.
+ */
 public class Automa {
+
+    /**
+     * Money kept aside when buying resources, to be able to connect a city in the same round.
+     */
+    private static final int RESERVE = 10;
+
+    /**
+     * Number of cities the automa expects to connect per round, on top of the cities it is already connected to.
+     */
+    private static final int EXPECTED_GROWTH = 2;
+
+    /**
+     * How much the automa is willing to bid over the cost of a power plant, per city it powers.
+     */
+    private static final int BID_PER_CITY = 3;
+
     public void execute(PowerGrid state, Player player, Random random) {
         var actions = state.getActions(player);
 
         var playerState = state.getPlayerStates().get(player);
         if (actions.contains(Action.StartAuction.class)) {
-            var shouldStartAuction = state.getRound() == 1 || random.nextFloat() <= 0.5;
-
-            if (shouldStartAuction) {
-                var afforablePowerPlants = state.getPowerPlantMarket().getActual().stream()
-                        .filter(p -> p.getCost() <= playerState.getBalance())
-                        .collect(Collectors.toList());
-
-                if (!afforablePowerPlants.isEmpty()) {
-                    var powerPlant = afforablePowerPlants.get(random.nextInt(afforablePowerPlants.size()));
-
-                    state.perform(player, new Action.StartAuction(powerPlant), random);
-                } else {
-                    state.skip(player, random);
-                }
-            } else {
-                state.skip(player, random);
-            }
+            startAuction(state, player, playerState, random);
         } else if (actions.contains(Action.PlaceBid.class)) {
-            var auction = state.getAuction().orElseThrow();
-            var balance = playerState.getBalance();
-            var bidToPlace = Math.min(balance, auction.getMinPlaceBid() + random.nextInt(auction.getMinPlaceBid() / 4));
-            var shouldPlaceBid = bidToPlace <= balance
-                    && random.nextFloat() <= 0.5;
-
-            if (shouldPlaceBid) {
-                state.perform(player, new Action.PlaceBid(bidToPlace), random);
-            } else {
-                state.skip(player, random);
-            }
+            placeBid(state, player, playerState, random);
         } else if (actions.contains(Action.RemovePowerPlant.class)) {
             var powerPlant = playerState.getPowerPlants().stream()
-                    .min(Comparator.comparingInt(PowerPlant::getCost))
+                    .min(Comparator.comparingInt(PowerPlant::getPowers).thenComparingInt(PowerPlant::getCost))
                     .orElseThrow();
 
             state.perform(player, new Action.RemovePowerPlant(powerPlant), random);
         } else if (actions.contains(Action.BuyResource.class)) {
-            var powerPlants = playerState.getPowerPlants();
-
-            var powerPlantsThatNeedResources = powerPlants.stream()
-                    .filter(p -> p.getRequires() > playerState.getResources(p).size())
-                    .collect(Collectors.toSet());
-
-            throw new IllegalStateException("Not implemented action: " + actions);
+            buyResources(state, player, playerState, random);
         } else if (actions.contains(Action.ConnectCity.class)) {
-            throw new IllegalStateException("Not implemented action: " + actions);
+            connectCities(state, player, playerState, random);
         } else if (actions.contains(Action.ProducePower.class)) {
-            throw new IllegalStateException("Not implemented action: " + actions);
+            var production = playerState.maximizePowered(playerState.getResources(), state.getCities(player).size());
+
+            state.perform(player, new Action.ProducePower(production.getResources()), random);
         } else {
             throw new IllegalStateException("Unsupported action: " + actions);
         }
     }
+
+    private void startAuction(PowerGrid state, Player player, PlayerState playerState, Random random) {
+        var powerPlant = state.getPowerPlantMarket().getActual().stream()
+                .filter(candidate -> candidate.getCost() <= playerState.getBalance())
+                .filter(candidate -> isUpgrade(state, player, playerState, candidate))
+                .max(Comparator.comparingInt(PowerPlant::getPowers)
+                        .thenComparing(Comparator.comparingInt(PowerPlant::getCost).reversed()));
+
+        if (powerPlant.isPresent()) {
+            state.perform(player, new Action.StartAuction(powerPlant.get()), random);
+        } else {
+            state.skip(player, random);
+        }
+    }
+
+    private void placeBid(PowerGrid state, Player player, PlayerState playerState, Random random) {
+        var auction = state.getAuction().orElseThrow();
+        var powerPlant = auction.getPowerPlant();
+        var bid = auction.getMinPlaceBid();
+
+        var maxBid = isUpgrade(state, player, playerState, powerPlant)
+                ? Math.min(playerState.getBalance(), powerPlant.getCost() + powerPlant.getPowers() * BID_PER_CITY)
+                : 0;
+
+        if (bid <= maxBid) {
+            state.perform(player, new Action.PlaceBid(bid), random);
+        } else {
+            state.skip(player, random);
+        }
+    }
+
+    /**
+     * A power plant is worth buying when the player has none, when the player cannot power the cities it expects
+     * to have yet and has room for another power plant, or when it powers more than the weakest power plant.
+     */
+    private static boolean isUpgrade(PowerGrid state, Player player, PlayerState playerState, PowerPlant powerPlant) {
+        var powerPlants = playerState.getPowerPlants();
+
+        if (powerPlants.isEmpty()) {
+            return true;
+        }
+
+        if (powerPlants.size() < PowerGrid.MAX_POWER_PLANTS
+                && capacity(playerState) < state.getCities(player).size() + EXPECTED_GROWTH) {
+            return true;
+        }
+
+        return powerPlants.stream().anyMatch(owned -> owned.getPowers() < powerPlant.getPowers());
+    }
+
+    private static int capacity(PlayerState playerState) {
+        return playerState.getPowerPlants().stream().mapToInt(PowerPlant::getPowers).sum();
+    }
+
+    /**
+     * Buys one resource at a time, always the cheapest one that a power plant still needs to be fired.
+     * Prices in the market only go up as resources are bought, so buying the cheapest first gives the cheapest total.
+     */
+    private void buyResources(PowerGrid state, Player player, PlayerState playerState, Random random) {
+        var fueling = fueling(state, player, playerState);
+
+        Optional<ResourceType> cheapest;
+        while ((cheapest = cheapestNeeded(state.getResourceMarket(), playerState, fueling)).isPresent()) {
+            state.perform(player, new Action.BuyResource(cheapest.get(), 1), random);
+        }
+
+        state.skip(player, random);
+    }
+
+    /**
+     * Selects the most powerful power plants, until they can power the cities the automa expects to be connected to
+     * in the next bureaucracy.
+     */
+    private static List<PowerPlant> fueling(PowerGrid state, Player player, PlayerState playerState) {
+        var target = state.getCities(player).size() + EXPECTED_GROWTH;
+
+        var powerPlants = playerState.getPowerPlants().stream()
+                .sorted(Comparator.comparingInt(PowerPlant::getPowers).reversed())
+                .collect(Collectors.toList());
+
+        var result = new ArrayList<PowerPlant>();
+        var powers = 0;
+        for (var powerPlant : powerPlants) {
+            if (powers >= target) {
+                break;
+            }
+
+            result.add(powerPlant);
+            powers += powerPlant.getPowers();
+        }
+        return result;
+    }
+
+    private static Optional<ResourceType> cheapestNeeded(ResourceMarket resourceMarket, PlayerState playerState, List<PowerPlant> fueling) {
+        ResourceType cheapest = null;
+        var lowestCost = Integer.MAX_VALUE;
+
+        for (var powerPlant : fueling) {
+            if (playerState.getResources(powerPlant).size() < powerPlant.getRequires()) {
+                for (var resourceType : powerPlant.getConsumes()) {
+                    if (resourceMarket.getAvailable(resourceType) > 0 && playerState.getCapacity(resourceType) > 0) {
+                        var cost = resourceMarket.calculateCost(resourceType, 1);
+
+                        if (cost < lowestCost && cost <= playerState.getBalance() - RESERVE) {
+                            cheapest = resourceType;
+                            lowestCost = cost;
+                        }
+                    }
+                }
+            }
+        }
+
+        return Optional.ofNullable(cheapest);
+    }
+
+    /**
+     * Connects the cheapest city each time, until the player is connected to as many cities as its power plants
+     * can power. The connection costs are calculated again after every city, since the network changed.
+     */
+    private void connectCities(PowerGrid state, Player player, PlayerState playerState, Random random) {
+        var target = Math.max(1, capacity(playerState));
+
+        while (state.getCities(player).size() < target) {
+            var cheapest = cheapestCity(state, player);
+
+            if (cheapest.isEmpty() || cheapest.get().getValue() > playerState.getBalance()) {
+                break;
+            }
+
+            state.perform(player, new Action.ConnectCity(cheapest.get().getKey()), random);
+        }
+
+        state.skip(player, random);
+    }
+
+    private static Optional<Map.Entry<City, Integer>> cheapestCity(PowerGrid state, Player player) {
+        Map.Entry<City, Integer> cheapest = null;
+
+        for (var entry : state.getConnectionCosts(player).entrySet()) {
+            var connected = state.getCities().getOrDefault(entry.getKey(), List.of());
+
+            if (connected.size() < state.getStep() && !connected.contains(player)) {
+                var cost = entry.getValue() + PowerGrid.CITY_COSTS.get(connected.size());
+
+                if (cheapest == null || cost < cheapest.getValue()) {
+                    cheapest = Map.entry(entry.getKey(), cost);
+                }
+            }
+        }
+
+        return Optional.ofNullable(cheapest);
+    }
 }
@@ -64,6 +64,11 @@ public class PlayerState {
                 .build();
     }
 
+    PlayerState copy() {
+        return new PlayerState(balance, powerPlants.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> new ArrayList<>(entry.getValue()))));
+    }
+
     void pay(int amount) {
         if (amount > balance) {
             throw new PowerGridException(PowerGridError.BALANCE_TOO_LOW);
@@ -77,20 +82,78 @@ public class PlayerState {
     }
 
     void removePowerPlant(PowerPlant powerPlant) {
-        // TODO
+        if (powerPlants.remove(powerPlant) == null) {
+            throw new PowerGridException(PowerGridError.POWER_PLANT_NOT_AVAILABLE);
+        }
+    }
+
+    /**
+     * Fires the power plants that power the most cities, up to the given maximum, with the given resources.
+     *
+     * @return number of cities powered
+     */
+    int producePower(Map<ResourceType, Integer> resources, int max) {
+        var production = maximizePowered(resources, max);
+
+        production.getBurned().forEach((powerPlant, burned) -> {
+            var stored = powerPlants.get(powerPlant);
+            burned.forEach(stored::remove);
+        });
+
+        return production.getPowered();
     }
 
-    int producePower(Map<ResourceType, Integer> resources) {
-        // TODO
-        return 0;
+    PowerPlant.Production maximizePowered(Map<ResourceType, Integer> resources, int max) {
+        return PowerPlant.maximizePowered(powerPlants, resources, max);
     }
 
     void earn(int amount) {
         balance += amount;
     }
 
-    void removeResource(ResourceType resourceType, int amount) {
+    /**
+     * Stores resources on the power plants that consume them. Power plants that do not have enough to be fired are
+     * filled first, and hybrid power plants last, so they keep space for either resource.
+     */
+    void addResource(ResourceType resourceType, int amount) {
+        if (amount > getCapacity(resourceType)) {
+            throw new PowerGridException(PowerGridError.NOT_ENOUGH_CAPACITY);
+        }
+
+        var candidates = powerPlants.keySet().stream()
+                .filter(powerPlant -> powerPlant.getConsumes().contains(resourceType))
+                .sorted(Comparator.comparingInt((PowerPlant powerPlant) -> powerPlants.get(powerPlant).size() < powerPlant.getRequires() ? 0 : 1)
+                        .thenComparingInt(powerPlant -> powerPlant.getConsumes().size()))
+                .collect(Collectors.toList());
+
+        for (var powerPlant : candidates) {
+            var stored = powerPlants.get(powerPlant);
+            while (amount > 0 && stored.size() < powerPlant.getRequires() * 2) {
+                stored.add(resourceType);
+                amount--;
+            }
+        }
+    }
+
+    /**
+     * Number of resources of the given type that can still be stored on the power plants, which can each store
+     * twice what they require.
+     */
+    public int getCapacity(ResourceType resourceType) {
+        return powerPlants.entrySet().stream()
+                .filter(entry -> entry.getKey().getConsumes().contains(resourceType))
+                .mapToInt(entry -> entry.getKey().getRequires() * 2 - entry.getValue().size())
+                .sum();
+    }
 
+    /**
+     * Total number of resources stored on all power plants, per type.
+     */
+    public Map<ResourceType, Integer> getResources() {
+        var resources = new EnumMap<ResourceType, Integer>(ResourceType.class);
+        powerPlants.values().forEach(stored -> stored.forEach(resourceType ->
+                resources.merge(resourceType, 1, Integer::sum)));
+        return resources;
     }
 
     public Set<PowerPlant> getPowerPlants() {
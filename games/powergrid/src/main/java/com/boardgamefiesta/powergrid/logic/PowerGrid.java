@@ -45,6 +45,13 @@ public class PowerGrid implements State {
 
     private static final List<Integer> PAYOUTS = List.of(10, 22, 33, 44, 54, 64, 73, 82, 90, 98, 105, 112, 118, 124, 129, 134, 138, 142, 145, 148, 150);
 
+    /**
+     * Cost of connecting a city, by the number of players already connected to it.
+     */
+    static final List<Integer> CITY_COSTS = List.of(10, 15, 20);
+
+    static final int MAX_POWER_PLANTS = 3;
+
     @Getter
     private final NetworkMap map;
     @Getter
@@ -198,6 +205,31 @@ public class PowerGrid implements State {
         );
     }
 
+    /**
+     * Makes a deep copy in memory, which is much cheaper than a serialization round trip.
+     * The map, areas and players are immutable and shared. Event listeners are not copied.
+     */
+    public PowerGrid copy() {
+        return new PowerGrid(
+                map,
+                areas,
+                new ArrayList<>(players),
+                new ArrayList<>(playerOrder),
+                resourceMarket.copy(),
+                powerPlantMarket.copy(),
+                cities.entrySet().stream()
+                        .collect(Collectors.toMap(Map.Entry::getKey, entry -> new ArrayList<>(entry.getValue()))),
+                playerStates.entrySet().stream()
+                        .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().copy())),
+                step,
+                round,
+                phase,
+                currentPlayer,
+                auctioningPlayers != null ? new ArrayList<>(auctioningPlayers) : null,
+                producingPlayers != null ? new HashSet<>(producingPlayers) : null,
+                auction != null ? auction.copy() : null);
+    }
+
     public JsonObject serialize(JsonBuilderFactory jsonBuilderFactory) {
         var jsonSerializer = JsonSerializer.forFactory(jsonBuilderFactory);
 
@@ -233,10 +265,74 @@ public class PowerGrid implements State {
     }
 
     public void buyResource(@NonNull ResourceType resourceType, int amount) {
+        if (phase != Phase.RESOURCES) {
+            throw new PowerGridException(PowerGridError.NOT_RESOURCES_PHASE);
+        }
 
+        if (amount <= 0) {
+            throw new PowerGridException(PowerGridError.INVALID_ACTION);
+        }
+
+        var playerState = playerStates.get(currentPlayer);
+
+        if (amount > playerState.getCapacity(resourceType)) {
+            throw new PowerGridException(PowerGridError.NOT_ENOUGH_CAPACITY);
+        }
+
+        playerState.pay(resourceMarket.calculateCost(resourceType, amount));
+        resourceMarket.remove(resourceType, amount);
+        playerState.addResource(resourceType, amount);
     }
 
-    public void startAuction(@NonNull PowerPlant powerPlant) {
+    public void connectCity(@NonNull City city) {
+        if (phase != Phase.BUILD) {
+            throw new PowerGridException(PowerGridError.NOT_BUILD_PHASE);
+        }
+
+        var connected = cities.getOrDefault(city, Collections.emptyList());
+
+        if (connected.contains(currentPlayer)) {
+            throw new PowerGridException(PowerGridError.ALREADY_CONNECTED);
+        }
+
+        if (connected.size() >= step) {
+            throw new PowerGridException(PowerGridError.CITY_NOT_AVAILABLE);
+        }
+
+        var connectionCost = getConnectionCosts(currentPlayer).get(city);
+        if (connectionCost == null) {
+            throw new PowerGridException(PowerGridError.CITY_NOT_AVAILABLE);
+        }
+
+        playerStates.get(currentPlayer).pay(connectionCost + CITY_COSTS.get(connected.size()));
+
+        cities.computeIfAbsent(city, k -> new ArrayList<>()).add(currentPlayer);
+    }
+
+    /**
+     * Cheapest cost of connecting each city in play to the network of the given player, excluding the cost of the
+     * city itself. When the player is not connected to any city yet, every city in play can be connected for free.
+     */
+    public Map<City, Integer> getConnectionCosts(@NonNull Player player) {
+        var connected = getCities(player);
+
+        if (connected.isEmpty()) {
+            return map.getCities().stream()
+                    .filter(city -> areas.contains(city.getArea()))
+                    .collect(Collectors.toMap(city -> city, city -> 0));
+        }
+
+        return map.connectionCosts(connected, areas);
+    }
+
+    public Set<City> getCities(@NonNull Player player) {
+        return cities.entrySet().stream()
+                .filter(entry -> entry.getValue().contains(player))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    public void startAuction(@NonNull PowerPlant powerPlant, @NonNull Random random) {
         if (phase != Phase.AUCTION) {
             throw new PowerGridException(PowerGridError.NOT_AUCTION_PHASE);
         }
@@ -249,41 +345,66 @@ public class PowerGrid implements State {
             throw new PowerGridException(PowerGridError.POWER_PLANT_NOT_AVAILABLE);
         }
 
-        auction = Auction.start(powerPlant, auctioningPlayers);
-        if (auctioningPlayers.size() > 1) {
-            nextBiddingPlayer();
-        } else {
-            passPlaceBid();
+        if (powerPlant.getCost() > playerStates.get(currentPlayer).getBalance()) {
+            throw new PowerGridException(PowerGridError.BALANCE_TOO_LOW);
         }
+
+        auction = Auction.start(powerPlant, auctioningPlayers);
+        nextBiddingPlayer(random);
     }
 
     private boolean isAuctionInProgress() {
         return auction != null;
     }
 
-    private void nextBiddingPlayer() {
-        do {
-            currentPlayer = auction.getNextBiddingPlayer(currentPlayer);
+    private void nextBiddingPlayer(Random random) {
+        currentPlayer = auction.getNextBiddingPlayer(currentPlayer);
 
-            if (playerStates.get(currentPlayer).getBalance() < auction.getMinPlaceBid()) {
-                // Auto pass
-                passPlaceBid();
-            }
-        } while (isAuctionInProgress() && !auction.isBiddingPlayer(currentPlayer));
+        autoPassBid(random);
     }
 
-    private void nextAuctioningPlayer() {
-        do {
-            currentPlayer = auctioningPlayers.get((auctioningPlayers.indexOf(currentPlayer) + 1) % auctioningPlayers.size());
+    private void autoPassBid(Random random) {
+        while (!auction.isEnded() && playerStates.get(currentPlayer).getBalance() < auction.getMinPlaceBid()) {
+            // Auto pass
+            var passingPlayer = currentPlayer;
+            currentPlayer = auction.getNextBiddingPlayer(passingPlayer);
+            auction.passBid(passingPlayer);
+        }
+
+        if (auction.isEnded()) {
+            endAuction(random);
+        }
+    }
+
+    private void endAuction(Random random) {
+        // Last bidding player left is the highest bidder
+        var playerState = playerStates.get(currentPlayer);
+        playerState.pay(auction.getBid().orElseThrow());
+        playerState.addPowerPlant(auction.getPowerPlant());
+
+        powerPlantMarket.take(auction.getPowerPlant(), random);
 
-            if (!canStartAuction(currentPlayer)) {
-                auctioningPlayers.remove(currentPlayer);
-            }
-        } while (!canStartAuction(currentPlayer) && !auctioningPlayers.isEmpty());
+        auctioningPlayers.remove(currentPlayer);
+
+        auction = null;
+
+        if (playerState.getPowerPlants().size() <= MAX_POWER_PLANTS) {
+            nextAuctioningPlayer();
+        }
+        // Else current player must remove a power plant first
+    }
+
+    /**
+     * Continues with the first player in player order that did not buy a power plant yet this round.
+     */
+    private void nextAuctioningPlayer() {
+        auctioningPlayers.removeIf(player -> !canStartAuction(player));
 
         if (auctioningPlayers.isEmpty()) {
             phase = Phase.RESOURCES;
-            currentPlayer = playerOrder.get(playerOrder.size() - 1);
+            startPlayerReverseOrder();
+        } else {
+            currentPlayer = auctioningPlayers.get(0);
         }
     }
 
@@ -292,7 +413,7 @@ public class PowerGrid implements State {
                 powerPlant.getCost() <= playerStates.get(player).getBalance());
     }
 
-    public void placeBid(int bid) {
+    public void placeBid(int bid, @NonNull Random random) {
         if (phase != Phase.AUCTION) {
             throw new PowerGridException(PowerGridError.NOT_AUCTION_PHASE);
         }
@@ -306,7 +427,21 @@ public class PowerGrid implements State {
         }
 
         auction.placeBid(bid);
-        nextBiddingPlayer();
+        nextBiddingPlayer(random);
+    }
+
+    public void removePowerPlant(@NonNull PowerPlant powerPlant) {
+        if (phase != Phase.AUCTION) {
+            throw new PowerGridException(PowerGridError.NOT_AUCTION_PHASE);
+        }
+
+        if (isAuctionInProgress() || auctioningPlayers.contains(currentPlayer)) {
+            throw new PowerGridException(PowerGridError.INVALID_ACTION);
+        }
+
+        playerStates.get(currentPlayer).removePowerPlant(powerPlant);
+
+        nextAuctioningPlayer();
     }
 
     @Override
@@ -315,7 +450,7 @@ public class PowerGrid implements State {
     }
 
     public void perform(@NonNull Player player, @NonNull Action action, @NonNull Random random) {
-        if (!currentPlayer.equals(player) && !producingPlayers.contains(player)) {
+        if (phase == Phase.BUREAUCRACY ? !producingPlayers.contains(player) : !currentPlayer.equals(player)) {
             throw new PowerGridException(PowerGridError.NOT_PLAYERS_TURN);
         }
 
@@ -391,7 +526,7 @@ public class PowerGrid implements State {
                 if (!isAuctionInProgress()) {
                     passStartAuction();
                 } else {
-                    passPlaceBid();
+                    passPlaceBid(random);
                 }
                 break;
             case RESOURCES:
@@ -401,12 +536,12 @@ public class PowerGrid implements State {
                 passConnectCity();
                 break;
             case BUREAUCRACY:
-                passProducePower();
+                passProducePower(player, random);
                 break;
         }
     }
 
-    public void passPlaceBid() {
+    public void passPlaceBid(@NonNull Random random) {
         if (phase != Phase.AUCTION) {
             throw new PowerGridException(PowerGridError.NOT_AUCTION_PHASE);
         }
@@ -416,20 +551,10 @@ public class PowerGrid implements State {
         }
 
         var passingPlayer = currentPlayer;
-        nextBiddingPlayer();
+        currentPlayer = auction.getNextBiddingPlayer(passingPlayer);
         auction.passBid(passingPlayer);
 
-        if (auction.isEnded()) {
-            var playerState = playerStates.get(currentPlayer);
-            playerState.pay(auction.getBid().orElseThrow());
-            playerState.addPowerPlant(auction.getPowerPlant());
-
-            auctioningPlayers.remove(currentPlayer);
-
-            auction = null;
-
-            nextAuctioningPlayer();
-        }
+        autoPassBid(random);
     }
 
     public Set<Class<? extends Action>> getActions(Player player) {
@@ -446,18 +571,22 @@ public class PowerGrid implements State {
                         return Collections.singleton(com.boardgamefiesta.powergrid.logic.Action.PlaceBid.class);
                     }
                 }
+                break;
             case RESOURCES:
                 if (currentPlayer.equals(player)) {
                     return Collections.singleton(com.boardgamefiesta.powergrid.logic.Action.BuyResource.class);
                 }
+                break;
             case BUILD:
                 if (currentPlayer.equals(player)) {
                     return Collections.singleton(com.boardgamefiesta.powergrid.logic.Action.ConnectCity.class);
                 }
+                break;
             case BUREAUCRACY:
                 if (producingPlayers.contains(player)) {
                     return Collections.singleton(com.boardgamefiesta.powergrid.logic.Action.ProducePower.class);
                 }
+                break;
         }
 
         return Collections.emptySet();
@@ -476,13 +605,8 @@ public class PowerGrid implements State {
             throw new PowerGridException(PowerGridError.MUST_START_AUCTION);
         }
 
-        nextAuctioningPlayer();
         auctioningPlayers.remove(currentPlayer);
-
-        if (auctioningPlayers.isEmpty()) {
-            phase = Phase.RESOURCES;
-            startPlayerReverseOrder();
-        }
+        nextAuctioningPlayer();
     }
 
     private void startPlayerReverseOrder() {
@@ -490,17 +614,32 @@ public class PowerGrid implements State {
     }
 
     private void passBuyResources() {
-    }
+        var index = playerOrder.indexOf(currentPlayer);
 
-    private void passProducePower() {
+        if (index > 0) {
+            currentPlayer = playerOrder.get(index - 1);
+        } else {
+            phase = Phase.BUILD;
+            startPlayerReverseOrder();
+        }
+    }
 
+    private void passProducePower(Player player, Random random) {
+        producePower(player, Collections.emptyMap(), random);
     }
 
     private void passConnectCity() {
+        var index = playerOrder.indexOf(currentPlayer);
 
+        if (index > 0) {
+            currentPlayer = playerOrder.get(index - 1);
+        } else {
+            phase = Phase.BUREAUCRACY;
+            producingPlayers = new HashSet<>(playerOrder);
+        }
     }
 
-    public void producePower(Player player, Map<ResourceType, Integer> resources) {
+    public void producePower(@NonNull Player player, @NonNull Map<ResourceType, Integer> resources, @NonNull Random random) {
         if (phase != Phase.BUREAUCRACY) {
             throw new PowerGridException(PowerGridError.NOT_BUREAUCRACY_PHASE);
         }
@@ -511,29 +650,48 @@ public class PowerGrid implements State {
 
         var playerState = playerStates.get(player);
 
-        var produced = playerState.producePower(resources);
-        var connected = numberOfCities(player);
-        var powered = Math.min(produced, connected);
+        var powered = playerState.producePower(resources, Math.min(numberOfCities(player), PAYOUTS.size() - 1));
 
-        resources.forEach(playerState::removeResource);
         playerState.earn(PAYOUTS.get(powered));
 
         producingPlayers.remove(player);
 
         if (producingPlayers.isEmpty()) {
-            nextRound();
+            nextRound(random);
         }
     }
 
-    private void nextRound() {
+    private void nextRound(Random random) {
         round++;
         resourceMarket.fillUp(playerOrder.size(), step);
         if (step == 3) {
             powerPlantMarket.removeLowestWithoutReplacement();
         } else {
-            // TODO
-            //powerPlantMarket.removeHighestFuture(random);
+            powerPlantMarket.removeHighestFuture(random);
         }
+
+        determinePlayerOrder();
+
+        phase = Phase.AUCTION;
+        producingPlayers = null;
+        auctioningPlayers = new ArrayList<>(playerOrder);
+        nextAuctioningPlayer();
+    }
+
+    /**
+     * Player with the most connected cities goes first. When tied, the player with the highest power plant goes first.
+     */
+    private void determinePlayerOrder() {
+        playerOrder.sort(Comparator.<Player>comparingInt(this::numberOfCities)
+                .thenComparingInt(this::highestPowerPlant)
+                .reversed());
+    }
+
+    private int highestPowerPlant(Player player) {
+        return playerStates.get(player).getPowerPlants().stream()
+                .mapToInt(PowerPlant::getCost)
+                .max()
+                .orElse(0);
     }
 
     private int numberOfCities(Player player) {
@@ -22,12 +22,8 @@ import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Value;
-import org.eclipse.collections.api.factory.Maps;
-import org.eclipse.collections.api.map.ImmutableMap;
-import org.eclipse.collections.api.set.ImmutableSet;
 
 import java.util.*;
-import java.util.stream.Stream;
 
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
 public enum PowerPlant {
@@ -90,43 +86,92 @@ public enum PowerPlant {
     @Getter
     private final int powers;
 
-    static PossibleProduce maximizePowered(ImmutableSet<PowerPlant> powerPlants, ImmutableMap<ResourceType, Integer> resources) {
-        return possibleProduce(powerPlants, new Resources(resources))
-                .max(Comparator.comparingInt(PossibleProduce::getPowered))
-                .orElse(PossibleProduce.ZERO);
-    }
-
-    @Value
-    static class Resources {
-
-        static final Resources ZERO = new Resources(Maps.immutable.empty());
-
-        ImmutableMap<ResourceType, Integer> map;
-
-        Resources minus(Resources b) {
-            return null;
+    private static final ResourceType[] RESOURCE_TYPES = ResourceType.values();
+
+    /**
+     * Selects the power plants to fire that power the most cities, up to the given maximum, by trying every subset of
+     * power plants as a bit mask. A player never has more than a few power plants, so there are only a few subsets.
+     * Every power plant burns the resources stored on it, as far as the given resources allow.
+     * When subsets power the same number of cities, the one that burns the fewest resources is selected.
+     */
+    static Production maximizePowered(Map<PowerPlant, List<ResourceType>> stored, Map<ResourceType, Integer> resources, int max) {
+        var powerPlants = new ArrayList<>(stored.keySet());
+
+        var best = Production.NONE;
+        var bestBurned = 0;
+
+        for (var mask = 1; mask < 1 << powerPlants.size(); mask++) {
+            var remaining = new int[RESOURCE_TYPES.length];
+            resources.forEach((resourceType, amount) -> remaining[resourceType.ordinal()] = amount);
+
+            var burned = new HashMap<PowerPlant, List<ResourceType>>();
+            var powered = 0;
+            var total = 0;
+
+            for (var i = 0; i < powerPlants.size() && burned != null; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    var powerPlant = powerPlants.get(i);
+                    var burning = powerPlant.burn(stored.get(powerPlant), remaining);
+
+                    if (burning != null) {
+                        burned.put(powerPlant, burning);
+                        powered += powerPlant.powers;
+                        total += burning.size();
+                    } else {
+                        burned = null;
+                    }
+                }
+            }
+
+            if (burned != null) {
+                powered = Math.min(powered, max);
+
+                if (powered > best.powered || (powered == best.powered && total < bestBurned)) {
+                    best = new Production(powered, burned);
+                    bestBurned = total;
+                }
+            }
         }
+
+        return best;
     }
 
-    static Stream<PossibleProduce> possibleProduce(ImmutableSet<PowerPlant> powerPlants,Resources resources) {
-        if (powerPlants.isEmpty()) {
-            return Stream.empty();
+    /**
+     * Takes the resources this power plant needs from the given stored resources, as far as the remaining resources
+     * allow, and subtracts them from the remaining resources.
+     *
+     * @return the resources burned, or <code>null</code> if this power plant cannot be fired
+     */
+    private List<ResourceType> burn(List<ResourceType> stored, int[] remaining) {
+        var burned = new ArrayList<ResourceType>(requires);
+
+        for (var resourceType : stored) {
+            if (burned.size() == requires) {
+                break;
+            }
+
+            if (remaining[resourceType.ordinal()] > 0) {
+                remaining[resourceType.ordinal()]--;
+                burned.add(resourceType);
+            }
         }
 
-// TODO
-        return null;
+        return burned.size() == requires ? burned : null;
     }
 
     @Value
-    static class PossibleProduce {
+    static class Production {
 
-        static final PossibleProduce ZERO = new PossibleProduce(0, Resources.ZERO);
+        static final Production NONE = new Production(0, Collections.emptyMap());
 
         int powered;
-        Resources consumed;
+        Map<PowerPlant, List<ResourceType>> burned;
 
-        PossibleProduce add(PossibleProduce b) {
-            return null;
+        Map<ResourceType, Integer> getResources() {
+            var resources = new EnumMap<ResourceType, Integer>(ResourceType.class);
+            burned.values().forEach(resourceTypes -> resourceTypes.forEach(resourceType ->
+                    resources.merge(resourceType, 1, Integer::sum)));
+            return resources;
         }
     }
 }
@@ -108,6 +108,10 @@ public class PowerPlantMarket {
     }
 
 
+    PowerPlantMarket copy() {
+        return new PowerPlantMarket(new LinkedList<>(deck), new ArrayList<>(actual), new ArrayList<>(future), drawsUntilStep3);
+    }
+
     /**
      * Takes a power plant from the actual offering and replaces it with one from the deck.
      */
@@ -116,11 +120,13 @@ public class PowerPlantMarket {
     }
 
     private void removeAndReplace(PowerPlant powerPlant, Random random) {
-        removeAndReplace(powerPlant, drawsUntilStep3 == 1 ? null : deck.getFirst(), random);
+        removeAndReplace(powerPlant, drawsUntilStep3 == 1 || deck.isEmpty() ? null : deck.removeFirst(), random);
     }
 
     private void removeAndReplace(PowerPlant powerPlant, PowerPlant replacement, Random random) {
-        if (!actual.remove(powerPlant)) {
+        var actualSize = actual.size();
+
+        if (!actual.remove(powerPlant) && !future.remove(powerPlant)) {
             throw new PowerGridException(PowerGridError.POWER_PLANT_NOT_AVAILABLE);
         }
 
@@ -134,8 +140,8 @@ public class PowerPlantMarket {
 
         newActualAndFuture.sort(Comparator.comparingInt(PowerPlant::getCost));
 
-        actual = new ArrayList<>(newActualAndFuture.subList(0, Math.min(actual.size(), newActualAndFuture.size())));
-        future = new ArrayList<>(newActualAndFuture.subList(newActualAndFuture.size(), newActualAndFuture.size() - 1));
+        actual = new ArrayList<>(newActualAndFuture.subList(0, Math.min(actualSize, newActualAndFuture.size())));
+        future = new ArrayList<>(newActualAndFuture.subList(actual.size(), newActualAndFuture.size()));
 
         if (drawsUntilStep3 == 1) {
             step3(random);
@@ -99,6 +99,10 @@ public class ResourceMarket {
         return jsonSerializer.fromIntegerMap(available, ResourceType::name);
     }
 
+    ResourceMarket copy() {
+        return new ResourceMarket(new HashMap<>(available));
+    }
+
     public int getCapacity(ResourceType resourceType) {
         return resourceType == ResourceType.URANIUM ? 12 : 24;
     }
@@ -134,7 +138,7 @@ public class ResourceMarket {
 
     void fillUp(int numberOfPlayers, int step) {
         FILL_UP.forEach((resourceType, amounts) -> {
-            add(resourceType, amounts.get(numberOfPlayers - 1).get(step - 1));
+            add(resourceType, amounts.get(numberOfPlayers - 2).get(step - 1));
         });
     }
 
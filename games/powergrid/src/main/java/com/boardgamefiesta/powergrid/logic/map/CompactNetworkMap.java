@@ -0,0 +1,202 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2021 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.powergrid.logic.map;
+
+import lombok.Getter;
+import lombok.Value;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Network map that is read from a simple tab separated format, with the connections indexed by city.
+ *
+ * <p>Reading this format does not need a YAML parser, which is relatively expensive to load when the map is
+ * first used. The files are generated from the YAML sources, see {@code CompactNetworkMapTest}.</p>
+ *
+ * <pre>
+ * name        germany
+ * area        NE
+ * city        Flensburg   NW
+ * connection  Flensburg   Kiel    4
+ * </pre>
+ */
+public class CompactNetworkMap implements NetworkMap {
+
+    static final String SEPARATOR = "\t";
+
+    @Getter
+    private final String name;
+    private final Map<String, CompactArea> areas;
+    private final Map<String, CompactCity> cities;
+    private final Map<City, Set<Connection>> connections;
+
+    private final Set<Area> areaSet;
+    private final Set<City> citySet;
+
+    private CompactNetworkMap(String name, Map<String, CompactArea> areas, Map<String, CompactCity> cities, Map<City, Set<Connection>> connections) {
+        this.name = name;
+        this.areas = areas;
+        this.cities = cities;
+        this.connections = connections;
+        this.areaSet = Collections.unmodifiableSet(new LinkedHashSet<>(areas.values()));
+        this.citySet = Collections.unmodifiableSet(new LinkedHashSet<>(cities.values()));
+    }
+
+    static NetworkMap load(String resource) {
+        try (var inputStream = CompactNetworkMap.class.getResourceAsStream(resource)) {
+            if (inputStream == null) {
+                throw new IllegalArgumentException("Network map not found: " + resource);
+            }
+            return read(inputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static NetworkMap read(InputStream inputStream) throws IOException {
+        var reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+
+        String name = null;
+        var areas = new LinkedHashMap<String, CompactArea>();
+        var cities = new LinkedHashMap<String, CompactCity>();
+        var connections = new HashMap<City, Set<Connection>>();
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+
+            var fields = line.split(SEPARATOR);
+            switch (fields[0]) {
+                case "name":
+                    name = fields[1];
+                    break;
+                case "area":
+                    areas.put(fields[1], new CompactArea(fields[1]));
+                    break;
+                case "city":
+                    cities.put(fields[1], new CompactCity(fields[1], get(areas, fields[2])));
+                    break;
+                case "connection":
+                    var from = get(cities, fields[1]);
+                    var to = get(cities, fields[2]);
+                    var cost = Integer.parseInt(fields[3]);
+                    // Connections go both ways
+                    connections.computeIfAbsent(from, k -> new LinkedHashSet<>()).add(new CompactConnection(from, to, cost));
+                    connections.computeIfAbsent(to, k -> new LinkedHashSet<>()).add(new CompactConnection(to, from, cost));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unexpected line in network map: " + line);
+            }
+        }
+
+        if (name == null) {
+            throw new IllegalArgumentException("Network map has no name");
+        }
+
+        return new CompactNetworkMap(name, areas, cities, connections);
+    }
+
+    private static <T> T get(Map<String, T> map, String name) {
+        var value = map.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Unknown name in network map: " + name);
+        }
+        return value;
+    }
+
+    @Override
+    public Set<? extends Area> getAreas() {
+        return areaSet;
+    }
+
+    @Override
+    public Set<? extends City> getCities() {
+        return citySet;
+    }
+
+    @Override
+    public Stream<? extends Connection> getConnections(City from) {
+        return connections.getOrDefault(from, Collections.emptySet()).stream();
+    }
+
+    @Override
+    public City getCity(String name) {
+        var city = cities.get(name);
+        if (city == null) {
+            throw new IllegalArgumentException("city not found: " + name);
+        }
+        return city;
+    }
+
+    @Override
+    public Area getArea(String name) {
+        var area = areas.get(name);
+        if (area == null) {
+            throw new IllegalArgumentException("area not found: " + name);
+        }
+        return area;
+    }
+
+    @Value
+    private static class CompactArea implements Area {
+        String name;
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    @Value
+    private static class CompactCity implements City {
+        String name;
+        CompactArea area;
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    @Value
+    private static class CompactConnection implements Connection {
+        CompactCity from;
+        CompactCity to;
+        int cost;
+
+        @Override
+        public String toString() {
+            return from + "-(" + cost + ")->" + to;
+        }
+    }
+}
@@ -18,21 +18,13 @@
 
 package com.boardgamefiesta.powergrid.logic.map;
 
-import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-import org.yaml.snakeyaml.LoaderOptions;
-import org.yaml.snakeyaml.Yaml;
-
-import java.io.InputStream;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public interface NetworkMap {
 
-    NetworkMap GERMANY = NetworkMap.load(NetworkMap.class.getResourceAsStream("/germany.yaml"));
+    NetworkMap GERMANY = CompactNetworkMap.load("/germany.map");
 
     String getName();
 
@@ -42,16 +34,6 @@ public interface NetworkMap {
 
     Stream<? extends Connection> getConnections(City from);
 
-    private static NetworkMap load(InputStream inputStream) {
-        var loadingConfig = new LoaderOptions();
-        loadingConfig.setMaxAliasesForCollections(1000);
-
-        var yamlNetworkMap = new Yaml(loadingConfig).loadAs(inputStream, YamlNetworkMap.class);
-        yamlNetworkMap.createInverseConnections();
-
-        return yamlNetworkMap;
-    }
-
     default Path shortestPath(City source, City target, Set<? extends Area> areas) {
         var unvisited = getCities().stream()
                 .filter(city -> areas.contains(city.getArea()))
@@ -97,6 +79,44 @@ public interface NetworkMap {
         throw new IllegalStateException("no path from " + source + " to " + target);
     }
 
+    /**
+     * Calculates the cheapest cost of connecting every city in the given areas to any of the source cities,
+     * in a single pass of Dijkstra's algorithm that starts from all sources at once.
+     * Source cities have cost 0, cities that cannot be reached are not in the result.
+     */
+    default Map<City, Integer> connectionCosts(Collection<? extends City> sources, Set<? extends Area> areas) {
+        var costs = new HashMap<City, Integer>();
+        var queue = new PriorityQueue<Map.Entry<City, Integer>>(Map.Entry.comparingByValue());
+
+        for (var source : sources) {
+            costs.put(source, 0);
+            queue.add(Map.entry(source, 0));
+        }
+
+        while (!queue.isEmpty()) {
+            var entry = queue.poll();
+            var current = entry.getKey();
+            var cost = entry.getValue();
+
+            if (cost > costs.get(current)) {
+                // Already found a cheaper way to this city
+                continue;
+            }
+
+            getConnections(current)
+                    .filter(connection -> areas.contains(connection.getTo().getArea()))
+                    .forEach(connection -> {
+                        var alt = cost + connection.getCost();
+                        if (alt < costs.getOrDefault(connection.getTo(), Integer.MAX_VALUE)) {
+                            costs.put(connection.getTo(), alt);
+                            queue.add(Map.entry(connection.getTo(), alt));
+                        }
+                    });
+        }
+
+        return costs;
+    }
+
     default boolean isReachable(City source, City target) {
         return isReachable(source, target, new HashSet<>());
     }
@@ -157,60 +177,4 @@ public interface NetworkMap {
                 .map(Connection::getTo)
                 .map(City::getArea);
     }
-
-    @Data
-    class YamlNetworkMap implements NetworkMap {
-        String name;
-        Set<YamlArea> areas;
-        Set<YamlCity> cities;
-        Set<YamlConnection> connections;
-
-        void createInverseConnections() {
-            new HashSet<>(connections).forEach(connection -> connections.add(connection.inverse()));
-        }
-
-        @Override
-        public Stream<? extends Connection> getConnections(City from) {
-            return connections.stream().filter(connection -> connection.getFrom() == from);
-        }
-    }
-
-    @Data
-    class YamlArea implements Area {
-        String name;
-
-        @Override
-        public String toString() {
-            return name;
-        }
-    }
-
-    @Data
-    class YamlCity implements City {
-        String name;
-        YamlArea area;
-
-        @Override
-        public String toString() {
-            return name;
-        }
-    }
-
-    @Data
-    @AllArgsConstructor(access = AccessLevel.PRIVATE)
-    @NoArgsConstructor
-    class YamlConnection implements Connection {
-        YamlCity from;
-        YamlCity to;
-        int cost;
-
-        YamlConnection inverse() {
-            return new YamlConnection(to, from, cost);
-        }
-
-        @Override
-        public String toString() {
-            return from + "-(" + cost + ")->" + to;
-        }
-    }
 }
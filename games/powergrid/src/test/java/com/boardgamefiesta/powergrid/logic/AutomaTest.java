@@ -0,0 +1,57 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.powergrid.logic;
+
+import com.boardgamefiesta.api.domain.Player;
+import com.boardgamefiesta.api.domain.PlayerColor;
+import com.boardgamefiesta.powergrid.logic.map.NetworkMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AutomaTest {
+
+    Player playerRed = new Player("Red", PlayerColor.RED, Player.Type.COMPUTER);
+    Player playerGreen = new Player("Green", PlayerColor.GREEN, Player.Type.COMPUTER);
+
+    @Test
+    void playsRounds() {
+        // Given
+        var random = new Random(0);
+        var game = PowerGrid.start(new LinkedHashSet<>(List.of(playerRed, playerGreen)), NetworkMap.GERMANY,
+                Set.of(NetworkMap.GERMANY.getArea("NW"), NetworkMap.GERMANY.getArea("NE")), null, random);
+        var automa = new Automa();
+
+        // When
+        for (int i = 0; i < 1000 && game.getRound() <= 5; i++) {
+            automa.execute(game, game.getCurrentPlayers().iterator().next(), random);
+        }
+
+        // Then
+        assertThat(game.getRound()).isGreaterThan(5);
+        assertThat(game.getPlayerStates().get(playerRed).getPowerPlants()).isNotEmpty();
+        assertThat(game.getCities(playerRed)).isNotEmpty();
+        assertThat(game.getCities(playerGreen)).isNotEmpty();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.powergrid.logic;
+
+import com.boardgamefiesta.api.domain.Player;
+import com.boardgamefiesta.api.domain.PlayerColor;
+import com.boardgamefiesta.powergrid.logic.map.NetworkMap;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PowerGridTest {
+
+    Player playerRed = new Player("Red", PlayerColor.RED, Player.Type.COMPUTER);
+    Player playerGreen = new Player("Green", PlayerColor.GREEN, Player.Type.COMPUTER);
+
+    Random random = new Random(0);
+
+    PowerGrid start() {
+        return PowerGrid.start(new LinkedHashSet<>(List.of(playerRed, playerGreen)), NetworkMap.GERMANY,
+                Set.of(NetworkMap.GERMANY.getArea("NW"), NetworkMap.GERMANY.getArea("NE")), null, random);
+    }
+
+    void playUntilRound(PowerGrid game, int round) {
+        var automa = new Automa();
+        for (int i = 0; i < 1000 && game.getRound() < round; i++) {
+            automa.execute(game, game.getCurrentPlayers().iterator().next(), random);
+        }
+    }
+
+    JsonObject serialize(PowerGrid game) {
+        return game.serialize(Json.createBuilderFactory(Collections.emptyMap()));
+    }
+
+    @Nested
+    class Copy {
+
+        @Test
+        void copy() {
+            var game = start();
+            playUntilRound(game, 3);
+
+            var copy = game.copy();
+
+            assertThat(serialize(copy)).isEqualTo(serialize(game));
+        }
+
+        @Test
+        void independent() {
+            var game = start();
+            playUntilRound(game, 2);
+            var before = serialize(game);
+
+            var copy = game.copy();
+            playUntilRound(copy, 4);
+
+            assertThat(copy.getRound()).isEqualTo(4);
+            assertThat(serialize(game)).isEqualTo(before);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.powergrid.logic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class PowerPlantTest {
+
+    Map<PowerPlant, List<ResourceType>> stored = Map.of(
+            PowerPlant.P4, List.of(ResourceType.COAL, ResourceType.COAL),
+            PowerPlant.P8, List.of(ResourceType.COAL, ResourceType.COAL, ResourceType.COAL),
+            PowerPlant.P5, List.of(ResourceType.COAL, ResourceType.OIL),
+            PowerPlant.P13, List.of());
+
+    @Test
+    void maximizePowered() {
+        var production = PowerPlant.maximizePowered(stored, Map.of(ResourceType.COAL, 3, ResourceType.OIL, 1), 10);
+
+        // P8 and P13 power as many cities as P4, P5 and P13, but burn fewer resources
+        assertThat(production.getPowered()).isEqualTo(3);
+        assertThat(production.getBurned()).containsOnlyKeys(PowerPlant.P8, PowerPlant.P13);
+        assertThat(production.getResources()).containsOnly(entry(ResourceType.COAL, 3));
+    }
+
+    @Test
+    void maximizePoweredBurnsFewestResources() {
+        var production = PowerPlant.maximizePowered(stored, Map.of(ResourceType.COAL, 7, ResourceType.OIL, 1), 1);
+
+        assertThat(production.getPowered()).isEqualTo(1);
+        assertThat(production.getBurned()).containsOnlyKeys(PowerPlant.P13);
+        assertThat(production.getResources()).isEmpty();
+    }
+
+    @Test
+    void maximizePoweredHybrid() {
+        var production = PowerPlant.maximizePowered(Map.of(PowerPlant.P5, List.of(ResourceType.COAL, ResourceType.OIL, ResourceType.OIL)),
+                Map.of(ResourceType.OIL, 2), 10);
+
+        assertThat(production.getPowered()).isEqualTo(1);
+        assertThat(production.getResources()).containsOnly(entry(ResourceType.OIL, 2));
+    }
+
+    @Test
+    void maximizePoweredNone() {
+        var production = PowerPlant.maximizePowered(stored, Map.of(), 10);
+
+        assertThat(production.getPowered()).isEqualTo(1);
+        assertThat(production.getBurned()).containsOnlyKeys(PowerPlant.P13);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.powergrid.logic.map;
+
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The compact network maps are generated from the YAML sources, which are easier to edit.
+ * When a YAML source is changed, replace the lines in the compact file with the expected lines from the failing test.
+ */
+class CompactNetworkMapTest {
+
+    @Test
+    void germany() throws IOException {
+        var expected = toCompact(loadYaml("/germany.yaml"));
+
+        String actual;
+        try (var inputStream = getClass().getResourceAsStream("/germany.map")) {
+            actual = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8).lines()
+                    .filter(line -> !line.isBlank() && !line.startsWith("#"))
+                    .collect(Collectors.joining("\n"));
+        }
+
+        assertThat(actual).as("germany.map is not up to date with germany.yaml").isEqualTo(expected);
+    }
+
+    @Test
+    void read() throws IOException {
+        var map = CompactNetworkMap.read(new ByteArrayInputStream(String.join("\n",
+                "# comment",
+                "name\ttest",
+                "area\tA",
+                "area\tB",
+                "city\tX\tA",
+                "city\tY\tB",
+                "connection\tX\tY\t5").getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(map.getName()).isEqualTo("test");
+        assertThat(map.getAreas()).hasSize(2);
+        assertThat(map.getCities()).hasSize(2);
+        assertThat(map.getCity("Y").getArea()).isSameAs(map.getArea("B"));
+
+        var x = map.getCity("X");
+        var y = map.getCity("Y");
+        assertThat(map.getConnections(x)).singleElement().satisfies(connection -> {
+            assertThat(connection.getTo()).isSameAs(y);
+            assertThat(connection.getCost()).isEqualTo(5);
+        });
+        assertThat(map.getConnections(y)).singleElement().satisfies(connection -> assertThat(connection.getTo()).isSameAs(x));
+    }
+
+    private Map<String, Object> loadYaml(String resource) throws IOException {
+        var loaderOptions = new LoaderOptions();
+        loaderOptions.setMaxAliasesForCollections(1000);
+
+        try (var inputStream = getClass().getResourceAsStream(resource)) {
+            return new Yaml(loaderOptions).load(inputStream);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static String toCompact(Map<String, Object> yaml) {
+        var lines = new ArrayList<String>();
+
+        lines.add(String.join(CompactNetworkMap.SEPARATOR, "name", (String) yaml.get("name")));
+
+        ((List<Map<String, Object>>) yaml.get("areas")).forEach(area ->
+                lines.add(String.join(CompactNetworkMap.SEPARATOR, "area", name(area))));
+
+        ((List<Map<String, Object>>) yaml.get("cities")).forEach(city ->
+                lines.add(String.join(CompactNetworkMap.SEPARATOR, "city", name(city), name(city.get("area")))));
+
+        ((List<Map<String, Object>>) yaml.get("connections")).forEach(connection ->
+                lines.add(String.join(CompactNetworkMap.SEPARATOR, "connection",
+                        name(connection.get("from")), name(connection.get("to")), connection.get("cost").toString())));
+
+        return String.join("\n", lines);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String name(Object object) {
+        return (String) ((Map<String, Object>) object).get("name");
+    }
+}
@@ -25,14 +25,17 @@ import com.boardgamefiesta.domain.automa.AutomaExecutor;
 import com.boardgamefiesta.domain.automa.AutomaRequest;
 import com.boardgamefiesta.domain.table.Player;
 import com.boardgamefiesta.domain.table.Table;
+import com.boardgamefiesta.lambda.metrics.FlushMetrics;
 import com.boardgamefiesta.lambda.sqs.SQSBatchResponse;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.inject.Inject;
 import javax.inject.Named;
+import java.util.HashSet;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+@FlushMetrics
 @Named("automa")
 @Slf4j
 public class AutomaSqsHandler implements RequestHandler<SQSEvent, SQSBatchResponse> {
@@ -43,19 +46,37 @@ public class AutomaSqsHandler implements RequestHandler<SQSEvent, SQSBatchRespon
     @Override
     public SQSBatchResponse handleRequest(SQSEvent input, Context context) {
         log.info("Handling event: {} records", input.getRecords().size());
+
+        // For FIFO queues, messages of a group must not be processed after a message of the same group has failed
+        var failedGroups = new HashSet<String>();
+
         return new SQSBatchResponse(input.getRecords().stream()
                 .flatMap(message -> {
+                    var messageGroupId = getMessageGroupId(message);
+                    if (messageGroupId != null && failedGroups.contains(messageGroupId)) {
+                        return Stream.of(new SQSBatchResponse.BatchItemFailure(message.getMessageId()));
+                    }
+
                     try {
                         handleMessage(message);
                         return Stream.empty();
                     } catch (Exception e) {
                         log.error("Error handling message {}: {}", message.getMessageId(), message.getBody(), e);
+
+                        if (messageGroupId != null) {
+                            failedGroups.add(messageGroupId);
+                        }
+
                         return Stream.of(new SQSBatchResponse.BatchItemFailure(message.getMessageId()));
                     }
                 })
                 .collect(Collectors.toList()));
     }
 
+    private static String getMessageGroupId(SQSEvent.SQSMessage message) {
+        return message.getAttributes() != null ? message.getAttributes().get("MessageGroupId") : null;
+    }
+
     private void handleMessage(SQSEvent.SQSMessage message) {
         log.info("Handling message: {}", message.getMessageId());
 
@@ -0,0 +1,72 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.lambda.automa;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.ScheduledEvent;
+import com.boardgamefiesta.domain.deadline.TurnDeadlineExecutor;
+import com.boardgamefiesta.domain.table.Tables;
+import com.boardgamefiesta.lambda.metrics.FlushMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.time.Instant;
+
+/**
+ * Triggered periodically to end the turns that expired, by querying the deadline index instead of scanning tables.
+ */
+@FlushMetrics
+@Named("deadlines")
+@Slf4j
+public class TurnDeadlineHandler implements RequestHandler<ScheduledEvent, Void> {
+
+    @Inject
+    Tables tables;
+
+    @Inject
+    TurnDeadlineExecutor turnDeadlineExecutor;
+
+    @ConfigProperty(name = "bgf.deadlines.max-results", defaultValue = "500")
+    int maxResults;
+
+    @Override
+    public Void handleRequest(ScheduledEvent input, Context context) {
+        var turnDeadlines = tables.findTurnDeadlines(Instant.now(), maxResults);
+
+        var count = turnDeadlines
+                .mapToInt(turnDeadline -> {
+                    try {
+                        turnDeadlineExecutor.execute(turnDeadline.getTableId());
+                        return 1;
+                    } catch (Exception e) {
+                        // Continue with the others, the table will be picked up again next time
+                        log.error("Error forcing end of turn for table {}", turnDeadline.getTableId().getId(), e);
+                        return 0;
+                    }
+                })
+                .sum();
+
+        log.info("Handled {} expired turn deadline(s)", count);
+
+        return null;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.lambda.automa;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.ScheduledEvent;
+import com.boardgamefiesta.domain.email.TurnBasedEmailer;
+import com.boardgamefiesta.lambda.metrics.FlushMetrics;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.time.Instant;
+
+/**
+ * Triggered periodically to send the turn digest emails that are due.
+ */
+@FlushMetrics
+@Named("digests")
+public class TurnDigestHandler implements RequestHandler<ScheduledEvent, Void> {
+
+    @Inject
+    TurnBasedEmailer turnBasedEmailer;
+
+    @Override
+    public Void handleRequest(ScheduledEvent input, Context context) {
+        turnBasedEmailer.sendTurnDigests(Instant.now());
+        return null;
+    }
+}
@@ -20,6 +20,7 @@ package com.boardgamefiesta.cognito;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.boardgamefiesta.lambda.metrics.FlushMetrics;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
@@ -33,6 +34,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+@FlushMetrics
 @Named("migrateUser")
 @Slf4j
 public class MigrateUserHandler implements RequestHandler<MigrateUserEvent, MigrateUserEvent> {
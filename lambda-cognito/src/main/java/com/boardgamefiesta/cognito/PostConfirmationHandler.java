@@ -22,6 +22,7 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.boardgamefiesta.domain.user.User;
 import com.boardgamefiesta.domain.user.Users;
+import com.boardgamefiesta.lambda.metrics.FlushMetrics;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
@@ -30,6 +31,7 @@ import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminAddUse
 import javax.inject.Inject;
 import javax.inject.Named;
 
+@FlushMetrics
 @Named("postConfirmation")
 @Slf4j
 public class PostConfirmationHandler implements RequestHandler<PostConfirmationEvent, PostConfirmationEvent> {
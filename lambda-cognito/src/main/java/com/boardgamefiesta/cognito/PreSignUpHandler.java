@@ -22,12 +22,14 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.boardgamefiesta.domain.user.User;
 import com.boardgamefiesta.domain.user.Users;
+import com.boardgamefiesta.lambda.metrics.FlushMetrics;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 
+@FlushMetrics
 @Named("preSignUp")
 @Slf4j
 public class PreSignUpHandler implements RequestHandler<PreSignUpEvent, PreSignUpEvent> {
@@ -0,0 +1,249 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.lambda.metrics;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Statistic;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.step.StepMeterRegistry;
+import io.micrometer.core.instrument.step.StepRegistryConfig;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes metrics as CloudWatch embedded metric format (EMF), by writing a JSON line per meter to standard out.
+ * In Lambda these lines end up in CloudWatch Logs, which extracts the metrics from them without any API calls.
+ *
+ * <p>Values are only published when {@link #flush()} is called at the end of each invocation, or when closed.
+ * There is no background thread publishing every step, because it would not run while the execution environment
+ * is frozen between invocations, and the values would be lost when the execution environment is shut down.</p>
+ */
+public class EmfMeterRegistry extends StepMeterRegistry {
+
+    private final Config config;
+    private final FlushableClock flushableClock;
+    private final PrintStream out;
+
+    private volatile boolean flushedOnClose;
+
+    public EmfMeterRegistry(Config config, Clock clock, PrintStream out) {
+        this(config, new FlushableClock(clock, config.step()), out);
+    }
+
+    private EmfMeterRegistry(Config config, FlushableClock flushableClock, PrintStream out) {
+        super(config, flushableClock);
+        this.config = config;
+        this.flushableClock = flushableClock;
+        this.out = out;
+    }
+
+    /**
+     * Publishes the values that were recorded since the previous flush, without waiting until the end of the step.
+     */
+    public synchronized void flush() {
+        if (!config.enabled() || flushedOnClose) {
+            return;
+        }
+
+        flushableClock.skipToNextStep();
+        publish();
+    }
+
+    @Override
+    public void close() {
+        flush();
+
+        // Otherwise closing would publish the values of the last step again
+        flushedOnClose = true;
+
+        super.close();
+    }
+
+    @Override
+    protected void publish() {
+        if (flushedOnClose) {
+            return;
+        }
+
+        var timestamp = flushableClock.realWallTime();
+
+        getMeters().stream()
+                .map(meter -> toJson(meter, timestamp))
+                .flatMap(Optional::stream)
+                .forEach(out::println);
+
+        out.flush();
+    }
+
+    Optional<String> toJson(Meter meter, long timestamp) {
+        var measurements = new ArrayList<Measurement>();
+        for (var measurement : meter.measure()) {
+            if (measurement.getStatistic() == Statistic.COUNT && measurement.getValue() == 0) {
+                // Nothing happened during this step
+                return Optional.empty();
+            }
+            if (Double.isFinite(measurement.getValue())) {
+                measurements.add(measurement);
+            }
+        }
+
+        if (measurements.isEmpty()) {
+            return Optional.empty();
+        }
+
+        var id = meter.getId();
+        List<Tag> tags = id.getTags();
+
+        var json = new StringBuilder();
+        json.append("{\"_aws\":{\"Timestamp\":").append(timestamp)
+                .append(",\"CloudWatchMetrics\":[{\"Namespace\":").append(quote(config.namespace()))
+                .append(",\"Dimensions\":[[")
+                .append(tags.stream().map(tag -> quote(tag.getKey())).collect(Collectors.joining(",")))
+                .append("]],\"Metrics\":[")
+                .append(measurements.stream()
+                        .map(measurement -> "{\"Name\":" + quote(name(id, measurement)) + ",\"Unit\":" + quote(unit(id, measurement)) + "}")
+                        .collect(Collectors.joining(",")))
+                .append("]}]}");
+
+        tags.forEach(tag -> json.append(',').append(quote(tag.getKey())).append(':').append(quote(tag.getValue())));
+        measurements.forEach(measurement -> json.append(',').append(quote(name(id, measurement))).append(':').append(measurement.getValue()));
+
+        json.append('}');
+
+        return Optional.of(json.toString());
+    }
+
+    private static String name(Meter.Id id, Measurement measurement) {
+        return id.getName() + "." + measurement.getStatistic().getTagValueRepresentation();
+    }
+
+    private static String unit(Meter.Id id, Measurement measurement) {
+        var statistic = measurement.getStatistic();
+        if (statistic == Statistic.COUNT) {
+            return "Count";
+        } else if (statistic == Statistic.TOTAL_TIME || statistic == Statistic.DURATION
+                || (statistic == Statistic.MAX && id.getType() == Meter.Type.TIMER)) {
+            return "Milliseconds";
+        } else if ("bytes".equals(id.getBaseUnit())) {
+            return "Bytes";
+        }
+        return "None";
+    }
+
+    private static String quote(String str) {
+        var result = new StringBuilder(str.length() + 2).append('"');
+        for (var c : str.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                result.append('\\').append(c);
+            } else if (c < 0x20) {
+                result.append(String.format("\\u%04x", (int) c));
+            } else {
+                result.append(c);
+            }
+        }
+        return result.append('"').toString();
+    }
+
+    @Override
+    protected TimeUnit getBaseTimeUnit() {
+        return TimeUnit.MILLISECONDS;
+    }
+
+    /**
+     * Clock that can skip ahead to the start of the next step, so step meters roll over when flushing,
+     * instead of only when the step has passed in real time.
+     *
+     * <p>Monotonic time is not affected, so durations that are being measured while flushing are still correct.</p>
+     */
+    static class FlushableClock implements Clock {
+
+        private final Clock clock;
+        private final long stepMillis;
+        private final AtomicLong offsetMillis = new AtomicLong();
+
+        FlushableClock(Clock clock, Duration step) {
+            this.clock = clock;
+            this.stepMillis = step.toMillis();
+        }
+
+        @Override
+        public long wallTime() {
+            return clock.wallTime() + offsetMillis.get();
+        }
+
+        @Override
+        public long monotonicTime() {
+            return clock.monotonicTime();
+        }
+
+        long realWallTime() {
+            return clock.wallTime();
+        }
+
+        void skipToNextStep() {
+            offsetMillis.addAndGet(stepMillis - Math.floorMod(wallTime(), stepMillis));
+        }
+    }
+
+    public static class Config implements StepRegistryConfig {
+
+        private final boolean enabled;
+        private final String namespace;
+        private final Duration step;
+
+        public Config(boolean enabled, String namespace, Duration step) {
+            this.enabled = enabled;
+            this.namespace = namespace;
+            this.step = step;
+        }
+
+        @Override
+        public String prefix() {
+            return "emf";
+        }
+
+        @Override
+        public String get(String key) {
+            return null;
+        }
+
+        @Override
+        public boolean enabled() {
+            return enabled;
+        }
+
+        @Override
+        public Duration step() {
+            return step;
+        }
+
+        public String namespace() {
+            return namespace;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.lambda.metrics;
+
+import io.micrometer.core.instrument.Clock;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.enterprise.inject.Disposes;
+import javax.enterprise.inject.Produces;
+import javax.inject.Singleton;
+import java.time.Duration;
+
+/**
+ * Adds the EMF registry to the registries of the application.
+ */
+@Singleton
+class EmfMeterRegistryProducer {
+
+    @Produces
+    @Singleton
+    EmfMeterRegistry emfMeterRegistry(@ConfigProperty(name = "bgf.metrics.emf.enabled", defaultValue = "true") boolean enabled,
+                                      @ConfigProperty(name = "bgf.metrics.emf.namespace", defaultValue = "BoardGameFiesta") String namespace,
+                                      @ConfigProperty(name = "bgf.metrics.emf.step", defaultValue = "PT1M") Duration step) {
+        return new EmfMeterRegistry(new EmfMeterRegistry.Config(enabled, namespace, step), Clock.SYSTEM, System.out);
+    }
+
+    void close(@Disposes EmfMeterRegistry emfMeterRegistry) {
+        emfMeterRegistry.close();
+    }
+
+}
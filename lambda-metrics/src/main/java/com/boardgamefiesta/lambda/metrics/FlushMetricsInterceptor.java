@@ -0,0 +1,44 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.lambda.metrics;
+
+import javax.annotation.Priority;
+import javax.inject.Inject;
+import javax.interceptor.AroundInvoke;
+import javax.interceptor.Interceptor;
+import javax.interceptor.InvocationContext;
+
+@FlushMetrics
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE)
+class FlushMetricsInterceptor {
+
+    @Inject
+    EmfMeterRegistry emfMeterRegistry;
+
+    @AroundInvoke
+    Object flush(InvocationContext invocationContext) throws Exception {
+        try {
+            return invocationContext.proceed();
+        } finally {
+            // Execution environment may be frozen or shut down after returning
+            emfMeterRegistry.flush();
+        }
+    }
+}
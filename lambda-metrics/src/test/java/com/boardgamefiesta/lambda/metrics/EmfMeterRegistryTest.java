@@ -0,0 +1,149 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.lambda.metrics;
+
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmfMeterRegistryTest {
+
+    static final Duration STEP = Duration.ofMinutes(1);
+
+    MockClock clock = new MockClock();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    EmfMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        // Not enabled, so flushing does not publish
+        registry = new EmfMeterRegistry(new EmfMeterRegistry.Config(false, "Test", STEP), clock,
+                new PrintStream(out, true, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void counter() {
+        var counter = registry.counter("bgf.test", "game", "gwt");
+        counter.increment(3);
+
+        clock.add(STEP);
+
+        assertThat(registry.toJson(counter, 1000)).hasValue("{\"_aws\":{\"Timestamp\":1000,\"CloudWatchMetrics\":[{\"Namespace\":\"Test\"," +
+                "\"Dimensions\":[[\"game\"]],\"Metrics\":[{\"Name\":\"bgf.test.count\",\"Unit\":\"Count\"}]}]}," +
+                "\"game\":\"gwt\",\"bgf.test.count\":3.0}");
+    }
+
+    @Test
+    void timer() {
+        var timer = registry.timer("bgf.test");
+        timer.record(Duration.ofMillis(20));
+        timer.record(Duration.ofMillis(10));
+
+        clock.add(STEP);
+
+        assertThat(registry.toJson(timer, 1000)).hasValueSatisfying(json -> assertThat(json)
+                .contains("{\"Name\":\"bgf.test.total\",\"Unit\":\"Milliseconds\"}")
+                .contains("\"bgf.test.count\":2.0")
+                .contains("\"bgf.test.total\":30.0")
+                .contains("\"bgf.test.max\":20.0"));
+    }
+
+    @Test
+    void nothingRecordedInStep() {
+        Timer timer = registry.timer("bgf.test");
+
+        clock.add(STEP);
+
+        assertThat(registry.toJson(timer, 1000)).isEmpty();
+    }
+
+    @Test
+    void publish() {
+        registry.counter("bgf.test").increment();
+
+        clock.add(STEP);
+        registry.publish();
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains("\"bgf.test.count\":1.0").endsWith(System.lineSeparator());
+    }
+
+    @Test
+    void flush() {
+        registry = enabledRegistry();
+        var counter = registry.counter("bgf.test");
+        counter.increment();
+
+        // Within the same step
+        registry.flush();
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains("\"bgf.test.count\":1.0");
+
+        out.reset();
+        registry.flush();
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).doesNotContain("bgf.test.count");
+
+        counter.increment(2);
+        registry.flush();
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains("\"bgf.test.count\":2.0");
+    }
+
+    @Test
+    void flushTimestamp() {
+        registry = enabledRegistry();
+        registry.counter("bgf.test").increment();
+
+        registry.flush();
+
+        // Real time, not the time skipped ahead to roll over the step
+        assertThat(out.toString(StandardCharsets.UTF_8))
+                .contains("\"Timestamp\":" + clock.wallTime() + ",")
+                .doesNotContain("\"Timestamp\":" + STEP.toMillis() + ",");
+    }
+
+    @Test
+    void close() {
+        registry = enabledRegistry();
+        registry.counter("bgf.test").increment();
+
+        registry.close();
+
+        // Published once, not again by closing
+        assertThat(out.toString(StandardCharsets.UTF_8).split(System.lineSeparator()))
+                .filteredOn(line -> line.contains("bgf.test.count"))
+                .hasSize(1)
+                .allMatch(line -> line.contains("\"bgf.test.count\":1.0"));
+    }
+
+    EmfMeterRegistry enabledRegistry() {
+        return new EmfMeterRegistry(new EmfMeterRegistry.Config(true, "Test", STEP), clock,
+                new PrintStream(out, true, StandardCharsets.UTF_8));
+    }
+
+}
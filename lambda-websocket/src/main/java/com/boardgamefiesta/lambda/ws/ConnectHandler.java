@@ -24,6 +24,7 @@ import com.amazonaws.services.lambda.runtime.events.APIGatewayV2WebSocketEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayV2WebSocketResponse;
 import com.boardgamefiesta.domain.table.Table;
 import com.boardgamefiesta.domain.user.Users;
+import com.boardgamefiesta.lambda.metrics.FlushMetrics;
 import com.boardgamefiesta.lambda.ws.oidc.OidcAuthenticationException;
 import com.boardgamefiesta.lambda.ws.oidc.OidcAuthenticator;
 import com.boardgamefiesta.websocket.WebSocketConnection;
@@ -33,6 +34,7 @@ import lombok.extern.slf4j.Slf4j;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+@FlushMetrics
 @Named("ConnectHandler")
 @Slf4j
 public class ConnectHandler implements RequestHandler<APIGatewayV2WebSocketEvent, APIGatewayV2WebSocketResponse> {
@@ -63,6 +65,7 @@ public class ConnectHandler implements RequestHandler<APIGatewayV2WebSocketEvent
         }
 
         var tableId = queryParams.containsKey("table") ? Table.Id.of(queryParams.get("table")) : null;
+        var statePush = "true".equals(queryParams.get("statePush"));
 
         try {
             var principal = oidcAuthenticator.authenticate(token);
@@ -76,7 +79,7 @@ public class ConnectHandler implements RequestHandler<APIGatewayV2WebSocketEvent
                 webSocketConnections.add(WebSocketConnection.createForUser(connectionId, userId));
             } else {
                 log.info("Adding WebSocket connection: {} for table {}", connectionId, tableId);
-                webSocketConnections.add(WebSocketConnection.createForTable(connectionId, userId, tableId));
+                webSocketConnections.add(WebSocketConnection.createForTable(connectionId, userId, tableId, statePush));
             }
 
             response.setStatusCode(200);
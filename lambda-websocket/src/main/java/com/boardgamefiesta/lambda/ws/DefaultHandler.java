@@ -22,6 +22,7 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayV2WebSocketEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayV2WebSocketResponse;
+import com.boardgamefiesta.lambda.metrics.FlushMetrics;
 import com.boardgamefiesta.websocket.WebSocketConnection;
 import com.boardgamefiesta.websocket.WebSocketConnectionRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -32,6 +33,7 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import java.time.Instant;
 
+@FlushMetrics
 @Named("DefaultHandler")
 @Slf4j
 public class DefaultHandler implements RequestHandler<APIGatewayV2WebSocketEvent, APIGatewayV2WebSocketResponse> {
@@ -0,0 +1,189 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.lambda.ws.oidc;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * JWK set that is fetched from a URL and cached.
+ *
+ * <p>After the refresh period, the cached set is still used while it is fetched again in the background,
+ * so requests never wait for the fetch unless the set is expired. When a key is not found (key rotation), the set
+ * is fetched immediately, but not more often than the minimum refresh interval.</p>
+ *
+ * <p>The set can be seeded from a file, so a cold start does not have to fetch it. After each fetch the file is
+ * written, if possible.</p>
+ */
+@Slf4j
+class CachingJWKSource implements JWKSource<SecurityContext> {
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 2000;
+    private static final int READ_TIMEOUT_MILLIS = 2000;
+    private static final int SIZE_LIMIT_BYTES = 50 * 1024;
+
+    private final URL url;
+    private final Optional<Path> file;
+    private final Duration refreshAfter;
+    private final Duration expireAfter;
+    private final Duration minRefreshInterval;
+    private final Clock clock;
+    private final Executor executor;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile Cached cached;
+    private volatile Instant lastRefreshOnMiss = Instant.MIN;
+
+    CachingJWKSource(@NonNull URL url,
+                     @NonNull Optional<Path> file,
+                     @NonNull Duration refreshAfter,
+                     @NonNull Duration expireAfter,
+                     @NonNull Duration minRefreshInterval,
+                     @NonNull Clock clock,
+                     @NonNull Executor executor) {
+        if (expireAfter.compareTo(refreshAfter) <= 0) {
+            throw new IllegalArgumentException("Expire after must be after refresh after, but was: " + expireAfter);
+        }
+
+        this.url = url;
+        this.file = file;
+        this.refreshAfter = refreshAfter;
+        this.expireAfter = expireAfter;
+        this.minRefreshInterval = minRefreshInterval;
+        this.clock = clock;
+        this.executor = executor;
+
+        file.flatMap(CachingJWKSource::load).ifPresent(jwkSet -> {
+            log.debug("Seeded JWK set from file {}", file.get());
+            // Use it right away, but fetch it in the background on first use
+            cached = new Cached(jwkSet, clock.instant().minus(refreshAfter));
+        });
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
+        var now = clock.instant();
+
+        var current = cached;
+        if (current == null || !now.isBefore(current.getFetched().plus(expireAfter))) {
+            current = refresh(current);
+        } else if (!now.isBefore(current.getFetched().plus(refreshAfter))) {
+            refreshAhead();
+        }
+
+        var keys = jwkSelector.select(current.getJwkSet());
+
+        if (keys.isEmpty() && !now.isBefore(lastRefreshOnMiss.plus(minRefreshInterval))) {
+            // Probably keys were rotated. Limited, because anyone can send a token with an unknown key ID
+            lastRefreshOnMiss = now;
+            current = refresh(current);
+            keys = jwkSelector.select(current.getJwkSet());
+        }
+
+        return keys;
+    }
+
+    private void refreshAhead() {
+        if (refreshing.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    refresh(cached);
+                } catch (KeySourceException e) {
+                    log.warn("Could not refresh JWK set ahead of expiry", e);
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        }
+    }
+
+    private synchronized Cached refresh(Cached seen) throws KeySourceException {
+        if (cached != seen) {
+            // Already refreshed by another thread while waiting
+            return cached;
+        }
+
+        try {
+            log.debug("Fetching JWK set from {}", url);
+
+            var jwkSet = JWKSet.load(url, CONNECT_TIMEOUT_MILLIS, READ_TIMEOUT_MILLIS, SIZE_LIMIT_BYTES);
+            cached = new Cached(jwkSet, clock.instant());
+
+            file.ifPresent(path -> save(path, jwkSet));
+
+            return cached;
+        } catch (IOException | ParseException e) {
+            if (seen != null) {
+                // Better to continue with the keys we have, than failing all requests
+                log.warn("Could not fetch JWK set from {}, continuing with cached", url, e);
+                return seen;
+            }
+            throw new KeySourceException("Could not fetch JWK set from " + url, e);
+        }
+    }
+
+    private static Optional<JWKSet> load(Path path) {
+        if (!Files.isReadable(path)) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(JWKSet.parse(Files.readString(path, StandardCharsets.UTF_8)));
+        } catch (IOException | ParseException e) {
+            log.warn("Could not load JWK set from file {}", path, e);
+            return Optional.empty();
+        }
+    }
+
+    private static void save(Path path, JWKSet jwkSet) {
+        try {
+            Files.writeString(path, jwkSet.toString(true), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.debug("Could not save JWK set to file {}", path, e);
+        }
+    }
+
+    @Value
+    private static class Cached {
+        JWKSet jwkSet;
+        Instant fetched;
+    }
+}
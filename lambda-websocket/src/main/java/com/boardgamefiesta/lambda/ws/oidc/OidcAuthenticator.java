@@ -20,7 +20,6 @@ package com.boardgamefiesta.lambda.ws.oidc;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.jwk.source.RemoteJWKSet;
 import com.nimbusds.jose.proc.BadJOSEException;
 import com.nimbusds.jose.proc.JWSVerificationKeySelector;
 import com.nimbusds.jose.proc.SecurityContext;
@@ -34,28 +33,63 @@ import org.eclipse.microprofile.config.inject.ConfigProperty;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.net.URL;
+import java.nio.file.Path;
 import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executors;
 
 @ApplicationScoped
 public class OidcAuthenticator {
 
+    private static final Duration JWKS_MIN_REFRESH_INTERVAL = Duration.ofSeconds(30);
+
     private final String principalClaim;
+    private final Clock clock;
 
     private final ConfigurableJWTProcessor<SecurityContext> jwtProcessor;
+    private final VerifiedTokenCache verifiedTokens;
 
     // Is compatible with the configuration of the quarkus-oidc module
     @SneakyThrows
     @Inject
     public OidcAuthenticator(@ConfigProperty(name = "quarkus.oidc.auth-server-url") String authServerUrl,
                              @ConfigProperty(name = "quarkus.oidc.client-id") String clientId,
-                             @ConfigProperty(name = "quarkus.oidc.token.principal-claim") String principalClaim) {
+                             @ConfigProperty(name = "quarkus.oidc.token.principal-claim") String principalClaim,
+                             @ConfigProperty(name = "bgf.oidc.jwks-file") Optional<String> jwksFile,
+                             @ConfigProperty(name = "bgf.oidc.jwks-refresh-after", defaultValue = "PT1H") Duration jwksRefreshAfter,
+                             @ConfigProperty(name = "bgf.oidc.jwks-expire-after", defaultValue = "PT24H") Duration jwksExpireAfter,
+                             @ConfigProperty(name = "bgf.oidc.verified-token-cache-size", defaultValue = "1000") int verifiedTokenCacheSize) {
+        this(authServerUrl, clientId, principalClaim, jwksFile.map(Path::of), jwksRefreshAfter, jwksExpireAfter,
+                verifiedTokenCacheSize, Clock.systemUTC());
+    }
+
+    @SneakyThrows
+    OidcAuthenticator(String authServerUrl,
+                      String clientId,
+                      String principalClaim,
+                      Optional<Path> jwksFile,
+                      Duration jwksRefreshAfter,
+                      Duration jwksExpireAfter,
+                      int verifiedTokenCacheSize,
+                      Clock clock) {
         this.principalClaim = principalClaim;
+        this.clock = clock;
+        this.verifiedTokens = new VerifiedTokenCache(verifiedTokenCacheSize);
+
+        var jwkSource = new CachingJWKSource(new URL(authServerUrl + "/.well-known/jwks.json"), jwksFile,
+                jwksRefreshAfter, jwksExpireAfter, JWKS_MIN_REFRESH_INTERVAL, clock,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    var thread = new Thread(runnable, "jwks-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
 
         jwtProcessor = new DefaultJWTProcessor<>();
 
-        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(Set.of(JWSAlgorithm.RS256),
-                new RemoteJWKSet<>(new URL(authServerUrl + "/.well-known/jwks.json"))));
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(Set.of(JWSAlgorithm.RS256), jwkSource));
 
         jwtProcessor.setJWTClaimsSetVerifier(new DefaultJWTClaimsVerifier<>(
                 new JWTClaimsSet.Builder()
@@ -68,12 +102,17 @@ public class OidcAuthenticator {
 
     public OidcPrincipal authenticate(String token) throws OidcAuthenticationException {
         try {
-            var claims = jwtProcessor.process(token, null);
+            var claims = verifiedTokens.get(token, clock.instant()).orElse(null);
+            if (claims == null) {
+                claims = jwtProcessor.process(token, null);
+
+                verifiedTokens.put(token, claims);
+            }
+
             return new OidcPrincipal(claims.getStringClaim(principalClaim), claims);
         } catch (ParseException | BadJOSEException | JOSEException e) {
             throw new OidcAuthenticationException("Invalid token", e);
         }
     }
 
-
 }
@@ -0,0 +1,86 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.lambda.ws.oidc;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded cache of tokens that were recently verified, so a client that reconnects with the same token
+ * does not need the signature to be verified again.
+ *
+ * <p>Only a hash of the token is kept. Entries are only returned until the token expires.</p>
+ */
+class VerifiedTokenCache {
+
+    private final Map<String, JWTClaimsSet> tokens;
+
+    VerifiedTokenCache(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Max size must be >=0, but was: " + maxSize);
+        }
+
+        this.tokens = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, JWTClaimsSet> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    synchronized Optional<JWTClaimsSet> get(String token, Instant now) {
+        var hash = hash(token);
+
+        var claims = tokens.get(hash);
+        if (claims == null) {
+            return Optional.empty();
+        }
+
+        if (!now.isBefore(claims.getExpirationTime().toInstant())) {
+            tokens.remove(hash);
+            return Optional.empty();
+        }
+
+        return Optional.of(claims);
+    }
+
+    /**
+     * @param claims claims of the verified token, must have an expiration time
+     */
+    synchronized void put(String token, JWTClaimsSet claims) {
+        tokens.put(hash(token), claims);
+    }
+
+    private static String hash(String token) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.lambda.ws.oidc;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OidcAuthenticatorTest {
+
+    static final String CLIENT_ID = "client";
+    static final String PRINCIPAL_CLAIM = "cognito:username";
+
+    StubJwksServer stubJwksServer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stubJwksServer = new StubJwksServer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubJwksServer.close();
+    }
+
+    @Test
+    void fetchesJwksOnce() throws Exception {
+        var authenticator = authenticator(Optional.empty());
+
+        assertThat(authenticator.authenticate(token("alice", stubJwksServer.getUrl())).getName()).isEqualTo("alice");
+        assertThat(authenticator.authenticate(token("bob", stubJwksServer.getUrl())).getName()).isEqualTo("bob");
+
+        assertThat(stubJwksServer.getRequests()).isEqualTo(1);
+    }
+
+    @Test
+    void sameTokenAgain() throws Exception {
+        var authenticator = authenticator(Optional.empty());
+        var token = token("alice", stubJwksServer.getUrl());
+
+        var first = authenticator.authenticate(token);
+        var second = authenticator.authenticate(token);
+
+        // Claims are taken from the cache instead of verifying again
+        assertThat(second.getClaims()).isSameAs(first.getClaims());
+    }
+
+    @Test
+    void fetchesAgainWhenKeyRotated() throws Exception {
+        var authenticator = authenticator(Optional.empty());
+        authenticator.authenticate(token("alice", stubJwksServer.getUrl()));
+
+        stubJwksServer.rotate();
+
+        assertThat(authenticator.authenticate(token("alice", stubJwksServer.getUrl())).getName()).isEqualTo("alice");
+        assertThat(stubJwksServer.getRequests()).isEqualTo(2);
+    }
+
+    @Test
+    void seededFromFile(@TempDir Path tempDir) throws Exception {
+        var file = tempDir.resolve("jwks.json");
+        Files.writeString(file, stubJwksServer.jwks());
+
+        var url = stubJwksServer.getUrl();
+        var token = token("alice", url);
+        stubJwksServer.close();
+
+        var authenticator = authenticator(url, Optional.of(file));
+
+        assertThat(authenticator.authenticate(token).getName()).isEqualTo("alice");
+    }
+
+    @Test
+    void invalidIssuer() throws Exception {
+        var authenticator = authenticator(Optional.empty());
+
+        assertThatThrownBy(() -> authenticator.authenticate(token("alice", "https://example.com")))
+                .isInstanceOf(OidcAuthenticationException.class);
+    }
+
+    private OidcAuthenticator authenticator(Optional<Path> jwksFile) {
+        return authenticator(stubJwksServer.getUrl(), jwksFile);
+    }
+
+    private OidcAuthenticator authenticator(String url, Optional<Path> jwksFile) {
+        return new OidcAuthenticator(url, CLIENT_ID, PRINCIPAL_CLAIM, jwksFile,
+                Duration.ofHours(1), Duration.ofHours(24), 10, Clock.systemUTC());
+    }
+
+    private String token(String username, String issuer) throws Exception {
+        var now = Instant.now();
+        return stubJwksServer.sign(new JWTClaimsSet.Builder()
+                .subject(username)
+                .issuer(issuer)
+                .audience(CLIENT_ID)
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(Duration.ofHours(1))))
+                .claim(PRINCIPAL_CLAIM, username)
+                .build());
+    }
+}
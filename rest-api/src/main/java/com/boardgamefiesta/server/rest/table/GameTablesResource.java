@@ -19,7 +19,6 @@
 package com.boardgamefiesta.server.rest.table;
 
 import com.boardgamefiesta.domain.game.Game;
-import com.boardgamefiesta.domain.table.Player;
 import com.boardgamefiesta.domain.table.Table;
 import com.boardgamefiesta.domain.table.Tables;
 import com.boardgamefiesta.domain.user.User;
@@ -38,8 +37,6 @@ import javax.ws.rs.core.MediaType;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
-import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -75,10 +72,7 @@ public class GameTablesResource {
                 .collect(Collectors.toList());
 
         var userMap = users.findByIds(results.stream()
-                .map(Table::getPlayers)
-                .flatMap(Set::stream)
-                .map(Player::getUserId)
-                .flatMap(Optional::stream)
+                .flatMap(Table::getUserIds)
                 .distinct())
                 .collect(Collectors.toMap(User::getId, Function.identity()));
 
@@ -102,10 +96,7 @@ public class GameTablesResource {
                 .collect(Collectors.toList());
 
         var userMap = users.findByIds(results.stream()
-                .map(Table::getPlayers)
-                .flatMap(Set::stream)
-                .map(Player::getUserId)
-                .flatMap(Optional::stream)
+                .flatMap(Table::getUserIds)
                 .distinct())
                 .collect(Collectors.toMap(User::getId, Function.identity()));
 
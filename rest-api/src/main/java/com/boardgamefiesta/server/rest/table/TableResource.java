@@ -25,6 +25,7 @@ import com.boardgamefiesta.domain.rating.Rating;
 import com.boardgamefiesta.domain.rating.Ratings;
 import com.boardgamefiesta.domain.table.Player;
 import com.boardgamefiesta.domain.table.Table;
+import com.boardgamefiesta.domain.table.TableSummary;
 import com.boardgamefiesta.domain.table.Tables;
 import com.boardgamefiesta.domain.user.User;
 import com.boardgamefiesta.domain.user.Users;
@@ -48,6 +49,7 @@ import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 import java.io.InputStream;
 import java.time.Instant;
 import java.util.*;
@@ -63,6 +65,8 @@ import java.util.stream.Collectors;
 @Slf4j
 public class TableResource {
 
+    private static final String STATE_VERSION_HEADER = "X-State-Version";
+
     @Inject
     Games games;
 
@@ -82,8 +86,15 @@ public class TableResource {
     public List<TableView> getTables() {
         var currentUserId = currentUser.getId();
 
-        return tables.findActive(currentUserId)
-                .map(table -> new TableView(table, getUserMap(table), getRatingMap(table), currentUserId))
+        var results = tables.findActiveSummaries(currentUserId).collect(Collectors.toList());
+
+        var userMap = getUserMap(results);
+        var ratingMaps = new HashMap<Game.Id, Map<User.Id, Rating>>();
+
+        return results.stream()
+                .map(table -> new TableView(table, userMap,
+                        ratingMaps.computeIfAbsent(table.getGame().getId(), gameId -> getRatingMap(gameId, results)),
+                        currentUserId))
                 .collect(Collectors.toList());
     }
 
@@ -369,17 +380,17 @@ public class TableResource {
 
     @GET
     @Path("/{id}/state")
-    public Object getState(@PathParam("id") String id) {
+    public Response getState(@PathParam("id") String id) {
         var table = tables.findById(Table.Id.of(id))
                 .orElseThrow(NotFoundException::new);
 
         var state = table.getState();
+        var currentState = table.getCurrentState().get().orElseThrow();
 
-        if (state == null) {
-            throw new NotFoundException();
-        }
-
-        return new StateView(table, state, currentUser.getId());
+        // Version of the state, so clients can apply pushed changes (patches) on top of it
+        return Response.ok(new StateView(table, state, currentUser.getId()))
+                .header(STATE_VERSION_HEADER, currentState.getTimestamp().toEpochMilli())
+                .build();
     }
 
     @POST
@@ -461,15 +472,31 @@ public class TableResource {
     }
 
     private Map<User.Id, User> getUserMap(Table table) {
-        return table.getPlayers().stream()
-                .flatMap(player -> player.getUserId().flatMap(users::findById).stream())
+        return getUserMap(List.of(table));
+    }
+
+    /**
+     * Looks up all users of the given tables at once.
+     */
+    private Map<User.Id, User> getUserMap(Collection<? extends TableSummary> results) {
+        return users.findByIds(results.stream().flatMap(TableSummary::getUserIds).distinct())
                 .collect(Collectors.toMap(User::getId, Function.identity()));
     }
 
     private Map<User.Id, Rating> getRatingMap(Table table) {
-        return table.getPlayers().stream()
-                .flatMap(player -> player.getUserId().stream())
-                .map(userId -> ratings.findLatest(userId, table.getGame().getId(), Instant.now()))
+        return getRatingMap(table.getGame().getId(), List.of(table));
+    }
+
+    /**
+     * Looks up the ratings of all users of the given tables for a game at once.
+     */
+    private Map<User.Id, Rating> getRatingMap(Game.Id gameId, Collection<? extends TableSummary> results) {
+        var userIds = results.stream()
+                .filter(table -> table.getGame().getId().equals(gameId))
+                .flatMap(TableSummary::getUserIds)
+                .collect(Collectors.toSet());
+
+        return ratings.findLatest(userIds, gameId)
                 .collect(Collectors.toMap(Rating::getUserId, Function.identity()));
     }
 }
@@ -18,7 +18,7 @@
 
 package com.boardgamefiesta.server.rest.table;
 
-import com.boardgamefiesta.domain.table.Player;
+import com.boardgamefiesta.domain.coplayer.CoPlayerTracker;
 import com.boardgamefiesta.domain.table.Table;
 import com.boardgamefiesta.domain.table.Tables;
 import com.boardgamefiesta.domain.user.Friends;
@@ -33,7 +33,6 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
-import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -53,6 +52,9 @@ public class TableSuggestedPlayersResource {
     @Inject
     Tables tables;
 
+    @Inject
+    CoPlayerTracker coPlayerTracker;
+
     @Inject
     CurrentUser currentUser;
 
@@ -67,21 +69,16 @@ public class TableSuggestedPlayersResource {
                 .map(friend -> friend.getId().getOtherUserId())
                 .collect(Collectors.toSet());
 
-        var recentlyPlayedWith = tables.findAll(currentUserId, table.getGame().getId(), 10)
-                .map(Table::getPlayers).flatMap(Collection::stream)
-                .filter(Player::isPlaying)
-                .flatMap(player -> player.getUserId().stream())
-                .distinct()
+        var recentlyPlayedWith = coPlayerTracker.get(currentUserId, table.getGame().getId()).mostRecent()
                 .filter(friends::contains)
                 .filter(userId -> table.getPlayerByUserId(userId).isEmpty())
                 .limit(5)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toList());
 
-        return Stream.concat(recentlyPlayedWith.stream(), friends.stream().filter(friend -> !recentlyPlayedWith.contains(friend)))
-                .filter(userId -> table.getPlayerByUserId(userId).isEmpty())
-                .flatMap(userId -> users.findById(userId).stream())
+        return users.findByIds(Stream.concat(recentlyPlayedWith.stream(), friends.stream().filter(friend -> !recentlyPlayedWith.contains(friend)))
+                        .filter(userId -> table.getPlayerByUserId(userId).isEmpty())
+                        .limit(5))
                 .map(UserView::new)
-                .limit(5)
                 .collect(Collectors.toList());
     }
 
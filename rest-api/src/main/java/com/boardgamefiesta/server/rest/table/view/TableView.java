@@ -23,6 +23,7 @@ import com.boardgamefiesta.domain.rating.Rating;
 import com.boardgamefiesta.domain.table.Player;
 import com.boardgamefiesta.domain.table.Seat;
 import com.boardgamefiesta.domain.table.Table;
+import com.boardgamefiesta.domain.table.TableSummary;
 import com.boardgamefiesta.domain.user.User;
 import com.boardgamefiesta.server.rest.user.view.UserView;
 import lombok.Data;
@@ -88,7 +89,7 @@ public class TableView {
 
     StateView state;
 
-    public TableView(@NonNull Table table,
+    public TableView(@NonNull TableSummary table,
                      @NonNull Map<User.Id, User> userMap,
                      @NonNull Map<User.Id, Rating> ratingMap,
                      User.Id currentUserId) {
@@ -168,7 +169,12 @@ public class TableView {
         this.state = mapStateToViewIfResolved(table, currentUserId);
     }
 
-    private static StateView mapStateToViewIfResolved(Table table, User.Id currentUserId) {
+    private static StateView mapStateToViewIfResolved(TableSummary summary, User.Id currentUserId) {
+        if (!(summary instanceof Table)) {
+            return null;
+        }
+
+        var table = (Table) summary;
         if (table.getCurrentState().isResolved()) {
             return table.getCurrentState().get()
                     .map(Table.CurrentState::getState)
@@ -25,5 +25,6 @@ public class ChangeTurnBasedPreferences {
 
     Boolean sendTurnEmail;
     Boolean sendEndedEmail;
+    Boolean digestTurnEmails;
 
 }
@@ -53,8 +53,8 @@ public class FriendsResource {
 
     @GET
     public List<UserView> get() {
-        return friends.findByUserId(currentUser.getId(), 200)
-                .flatMap(friend -> users.findById(friend.getId().getOtherUserId()).stream())
+        return users.findByIds(friends.findByUserId(currentUser.getId(), 200)
+                        .map(friend -> friend.getId().getOtherUserId()))
                 .map(UserView::new)
                 .collect(Collectors.toList());
     }
@@ -50,8 +50,8 @@ public class UserFriendsResource {
 
     @GET
     public List<UserView> get(@PathParam("userId") String userId) {
-        return friends.findByUserId(User.Id.of(userId), 200)
-                .flatMap(friend -> users.findById(friend.getId().getOtherUserId()).stream())
+        return users.findByIds(friends.findByUserId(User.Id.of(userId), 200)
+                        .map(friend -> friend.getId().getOtherUserId()))
                 .map(UserView::new)
                 .collect(Collectors.toList());
     }
@@ -79,6 +79,9 @@ public class UserResource {
             if (changeEmailPreferences.getTurnBasedPreferences().getSendEndedEmail() != null) {
                 user.getEmailPreferences().getTurnBasedPreferences().setSendEndedEmail(changeEmailPreferences.getTurnBasedPreferences().getSendEndedEmail());
             }
+            if (changeEmailPreferences.getTurnBasedPreferences().getDigestTurnEmails() != null) {
+                user.getEmailPreferences().getTurnBasedPreferences().setDigestTurnEmails(changeEmailPreferences.getTurnBasedPreferences().getDigestTurnEmails());
+            }
         }
 
         users.update(user);
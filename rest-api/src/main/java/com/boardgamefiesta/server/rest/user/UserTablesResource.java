@@ -18,9 +18,10 @@
 
 package com.boardgamefiesta.server.rest.user;
 
+import com.boardgamefiesta.domain.game.Game;
 import com.boardgamefiesta.domain.rating.Rating;
 import com.boardgamefiesta.domain.rating.Ratings;
-import com.boardgamefiesta.domain.table.Table;
+import com.boardgamefiesta.domain.table.TableSummary;
 import com.boardgamefiesta.domain.table.Tables;
 import com.boardgamefiesta.domain.user.User;
 import com.boardgamefiesta.domain.user.Users;
@@ -35,10 +36,10 @@ import javax.inject.Inject;
 import javax.transaction.Transactional;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
-import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @ApplicationScoped
@@ -64,24 +65,29 @@ public class UserTablesResource {
 
     @GET
     public List<TableView> getTables(@PathParam("userId") String userIdStr) {
-        var userMap = new HashMap<User.Id, User>();
-        var ratingMap = new HashMap<User.Id, Rating>();
         var userId = User.Id.of(userIdStr);
+        var currentUserId = currentUser.getId();
 
-        return tables.findAll(userId, 10)
-                .map(table -> new TableView(table, getUserMap(table, userMap), getRatingMap(table, ratingMap), currentUser.getId()))
+        var results = tables.findAllSummaries(userId, 10).collect(Collectors.toList());
+
+        var userMap = users.findByIds(results.stream().flatMap(TableSummary::getUserIds).distinct())
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        var ratingMaps = new HashMap<Game.Id, Map<User.Id, Rating>>();
+
+        return results.stream()
+                .map(table -> new TableView(table, userMap,
+                        ratingMaps.computeIfAbsent(table.getGame().getId(), gameId -> getRatingMap(gameId, results)),
+                        currentUserId))
                 .collect(Collectors.toList());
     }
 
-    private Map<User.Id, User> getUserMap(Table table, Map<User.Id, User> userMap) {
-        table.getPlayers().forEach(player -> player.getUserId().ifPresent(userId ->
-                userMap.computeIfAbsent(userId, k -> users.findById(userId).orElse(null))));
-        return userMap;
-    }
+    private Map<User.Id, Rating> getRatingMap(Game.Id gameId, List<TableSummary> results) {
+        var userIds = results.stream()
+                .filter(table -> table.getGame().getId().equals(gameId))
+                .flatMap(TableSummary::getUserIds)
+                .collect(Collectors.toSet());
 
-    private Map<User.Id, Rating> getRatingMap(Table table, Map<User.Id, Rating> ratingMap) {
-        table.getPlayers().forEach(player -> player.getUserId().ifPresent(userId ->
-                ratingMap.computeIfAbsent(userId, k -> ratings.findLatest(userId, table.getGame().getId(), Instant.now()))));
-        return ratingMap;
+        return ratings.findLatest(userIds, gameId)
+                .collect(Collectors.toMap(Rating::getUserId, Function.identity()));
     }
 }
@@ -26,9 +26,11 @@ public class TurnBasedPreferencesView {
 
     boolean sendTurnEmail;
     boolean sendEndedEmail;
+    boolean digestTurnEmails;
 
     public TurnBasedPreferencesView(TurnBasedPreferences turnBasedPreferences) {
         sendTurnEmail = turnBasedPreferences.isSendTurnEmail();
         sendEndedEmail = turnBasedPreferences.isSendEndedEmail();
+        digestTurnEmails = turnBasedPreferences.isDigestTurnEmails();
     }
 }
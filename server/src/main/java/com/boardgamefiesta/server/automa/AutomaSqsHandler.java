@@ -47,11 +47,12 @@ class AutomaSqsHandler {
     AutomaSqsHandler(@NonNull AutomaExecutor automaExecutor,
                      @NonNull SqsClient sqsClient,
                      @ConfigProperty(name = "bgf.sqs.listen", defaultValue = "false") boolean enabled,
-                     @ConfigProperty(name = "bgf.sqs.queue-url") String queueUrl) {
+                     @ConfigProperty(name = "bgf.sqs.queue-url") String queueUrl,
+                     @ConfigProperty(name = "bgf.sqs.max-in-flight", defaultValue = "20") int maxInFlight) {
         this.automaExecutor = automaExecutor;
 
         if (enabled) {
-            listener = new SqsListener(sqsClient, queueUrl, this::processMessage);
+            listener = new SqsListener(sqsClient, queueUrl, this::processMessage, maxInFlight);
         } else {
             listener = null;
         }
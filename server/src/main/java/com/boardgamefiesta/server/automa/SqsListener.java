@@ -22,117 +22,244 @@ import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.microprofile.context.ManagedExecutor;
 import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.model.*;
 
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CountDownLatch;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.*;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
+/**
+ * Continuously receives messages from a queue and processes them concurrently, up to a maximum number of messages in flight.
+ *
+ * <p>The next receive is started while handlers are still running. Processed messages are deleted in batches,
+ * and the visibility of messages is extended for as long as their handler is running.</p>
+ *
+ * <p>Can be started again after it was stopped.</p>
+ */
 @Slf4j
 class SqsListener {
 
     public static final int VISIBILITY_TIMEOUT = 5;
+    public static final int VISIBILITY_EXTEND_INTERVAL = 3; // must be less than VISIBILITY_TIMEOUT
     public static final int WAIT_TIME_SECONDS = 20;
     public static final int MAX_NUM_MESSAGES = 10; // max 10
+    public static final int MAX_DELETE_BATCH_SIZE = 10; // max 10
+    public static final int DELETE_INTERVAL_MILLIS = 500;
+    public static final int STOP_TIMEOUT_SECONDS = 30;
 
     private final SqsClient sqsClient;
     private final String queueUrl;
     private final Consumer<Message> handler;
-    private final ManagedExecutor managedExecutor;
+    private final int maxInFlight;
 
-    private boolean running;
+    private Session session;
 
     SqsListener(@NonNull SqsClient sqsClient,
                 @NonNull String queueUrl,
-                @NonNull Consumer<Message> handler) {
+                @NonNull Consumer<Message> handler,
+                int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Max in flight must be >=1, but was: " + maxInFlight);
+        }
+
         this.sqsClient = sqsClient;
         this.queueUrl = queueUrl;
         this.handler = handler;
-        this.managedExecutor = ManagedExecutor.builder()
+        this.maxInFlight = maxInFlight;
+    }
+
+    public synchronized void start() {
+        if (session == null) {
+            log.info("Starting receive loop");
+            session = new Session();
+            session.start();
+        }
+    }
+
+    /**
+     * Stops receiving messages and waits for the handlers that are still running,
+     * so their messages can be deleted before returning.
+     */
+    public synchronized void stop() {
+        if (session != null) {
+            log.info("Stopping receive loop");
+            session.stop();
+            session = null;
+        }
+    }
+
+    private static ScheduledExecutorService newScheduledExecutor(String name) {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * State of the listener from start until stop, so a stopped loop can never interfere with a restarted one.
+     */
+    private class Session {
+
+        private final Semaphore inFlight = new Semaphore(maxInFlight);
+        private final Set<CompletableFuture<Void>> handlers = ConcurrentHashMap.newKeySet();
+        private final BlockingQueue<Message> processed = new LinkedBlockingQueue<>();
+        private final ManagedExecutor managedExecutor = ManagedExecutor.builder()
                 .maxQueued(-1)
-                .maxAsync(1)
-                .maxAsync(MAX_NUM_MESSAGES + 1) // including listener loop itself
+                .maxAsync(maxInFlight + 1) // including listener loop itself
                 .build();
-    }
+        // Separate threads, so a slow batch delete can never delay extending the visibility of messages in flight
+        private final ScheduledExecutorService visibilityExecutor = newScheduledExecutor("sqs-listener-visibility");
+        private final ScheduledExecutorService deleteExecutor = newScheduledExecutor("sqs-listener-delete");
 
-    private void listen() {
-        try {
-            log.debug("Entering receive messages loop");
-            while (running) {
-                try {
-                    var response = receive();
-
-                    if (response.hasMessages()) {
-                        var latch = new CountDownLatch(response.messages().size());
-
-                        response.messages().forEach(msg -> {
-                            if (running) {
-                                processMessage(msg)
-                                        .exceptionally(e -> null) // ignore error, always count down
-                                        .thenRun(latch::countDown);
-                            } else {
-                                latch.countDown();
+        private volatile boolean running;
+
+        void start() {
+            running = true;
+            deleteExecutor.scheduleWithFixedDelay(this::deleteProcessed,
+                    DELETE_INTERVAL_MILLIS, DELETE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            managedExecutor.submit(this::listen);
+        }
+
+        void stop() {
+            running = false;
+
+            try {
+                CompletableFuture.allOf(handlers.toArray(CompletableFuture[]::new))
+                        .get(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                log.warn("Interrupted while waiting for {} message(s) in flight", handlers.size());
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // Already logged by the handler
+            } catch (TimeoutException e) {
+                log.warn("Still {} message(s) in flight after {}s", handlers.size(), STOP_TIMEOUT_SECONDS);
+            }
+
+            // Receive loop will exit after the current receive, messages it received are not processed
+            managedExecutor.shutdown();
+            visibilityExecutor.shutdownNow();
+            deleteExecutor.shutdown();
+
+            deleteProcessed();
+        }
+
+        private void listen() {
+            try {
+                log.debug("Entering receive messages loop");
+                while (running) {
+                    // Wait until at least one handler is available, then receive as many messages as there are handlers available
+                    inFlight.acquire();
+                    var available = 1 + inFlight.drainPermits();
+
+                    var received = 0;
+                    try {
+                        var response = receive(Math.min(available, MAX_NUM_MESSAGES));
+
+                        if (response.hasMessages()) {
+                            for (var message : response.messages()) {
+                                if (running) {
+                                    processMessage(message);
+                                    received++;
+                                }
                             }
-                        });
+                        }
+                    } catch (SdkClientException e) {
+                        log.error("I/O error when receiving messages from queue", e);
+                    } catch (SqsException e) {
+                        log.error("Service error when receiving messages from queue", e);
+                    } finally {
+                        inFlight.release(available - received);
+                    }
+                }
+            } catch (InterruptedException e) {
+                log.warn("Receive messages loop interrupted");
+            } catch (Exception e) {
+                log.error("Exception in receive messages loop", e);
+            } finally {
+                log.debug("Exited receive messages loop");
+            }
+        }
+
+        private void processMessage(Message message) {
+            log.debug("Received message: {}", message);
+
+            var visibilityExtender = visibilityExecutor.scheduleAtFixedRate(() -> extendVisibility(message),
+                    VISIBILITY_EXTEND_INTERVAL, VISIBILITY_EXTEND_INTERVAL, TimeUnit.SECONDS);
 
-                        if (running) {
-                            latch.await(); // wait until all messages processed before receiving new messages
+            var future = managedExecutor
+                    .runAsync(() -> handler.accept(message))
+                    .whenComplete((result, e) -> {
+                        visibilityExtender.cancel(false);
+                        inFlight.release();
+
+                        if (e != null) {
+                            // Not deleted, so it will become visible again after the visibility timeout
+                            log.error("Error processing message: " + message, e);
+                        } else {
+                            processed.add(message);
+
+                            if (running && processed.size() >= MAX_DELETE_BATCH_SIZE) {
+                                deleteExecutor.execute(this::deleteProcessed);
+                            }
                         }
+                    });
+
+            handlers.add(future);
+            future.whenComplete((result, e) -> handlers.remove(future));
+        }
+
+        private void deleteProcessed() {
+            var batch = new ArrayList<Message>(MAX_DELETE_BATCH_SIZE);
+            while (processed.drainTo(batch, MAX_DELETE_BATCH_SIZE) > 0) {
+                try {
+                    log.debug("Deleting {} message(s) from queue", batch.size());
+                    var response = sqsClient.deleteMessageBatch(DeleteMessageBatchRequest.builder()
+                            .queueUrl(queueUrl)
+                            .entries(batch.stream()
+                                    .map(message -> DeleteMessageBatchRequestEntry.builder()
+                                            .id(message.messageId())
+                                            .receiptHandle(message.receiptHandle())
+                                            .build())
+                                    .collect(Collectors.toList()))
+                            .build());
+
+                    if (response.hasFailed()) {
+                        response.failed().forEach(failed ->
+                                log.error("Error deleting message {} from queue: {} {}", failed.id(), failed.code(), failed.message()));
                     }
-                } catch (SdkClientException e) {
-                    log.error("I/O error when receiving messages from queue", e);
-                } catch (SqsException e) {
-                    log.error("Service error when receiving messages from queue", e);
+                } catch (SdkException e) {
+                    log.error("Error deleting messages from queue", e);
                 }
+
+                batch.clear();
             }
-        } catch (InterruptedException e) {
-            log.warn("Receive messages loop interrupted");
-        } catch (Exception e) {
-            log.error("Exception in receive messages loop", e);
-        } finally {
-            log.debug("Exited receive messages loop");
         }
     }
 
-    private ReceiveMessageResponse receive() {
+    private ReceiveMessageResponse receive(int maxNumberOfMessages) {
         return sqsClient.receiveMessage(ReceiveMessageRequest.builder()
                 .queueUrl(queueUrl)
-                .maxNumberOfMessages(MAX_NUM_MESSAGES)
+                .maxNumberOfMessages(maxNumberOfMessages)
                 .visibilityTimeout(VISIBILITY_TIMEOUT)
                 .waitTimeSeconds(WAIT_TIME_SECONDS)
                 .build());
     }
 
-    private CompletableFuture<Void> processMessage(Message message) {
-        log.debug("Received message: {}", message);
-        return managedExecutor
-                .runAsync(() -> handler.accept(message))
-                .exceptionally(e -> {
-                    log.error("Error processing message: " + message, e);
-                    throw new RuntimeException("Exception in message handler", e);
-                })
-                .thenRun(() -> {
-                    log.debug("Deleting message {} from queue", message.messageId());
-                    sqsClient.deleteMessage(DeleteMessageRequest.builder()
-                            .queueUrl(queueUrl)
-                            .receiptHandle(message.receiptHandle())
-                            .build());
-                });
-    }
-
-    public void start() {
-        if (!running) {
-            log.info("Starting receive loop");
-            running = true;
-            managedExecutor.submit(this::listen);
-        }
-    }
-
-    public void stop() {
-        if (running) {
-            log.info("Stopping receive loop");
-            running = false;
+    private void extendVisibility(Message message) {
+        try {
+            log.debug("Extending visibility of message {}", message.messageId());
+            sqsClient.changeMessageVisibility(ChangeMessageVisibilityRequest.builder()
+                    .queueUrl(queueUrl)
+                    .receiptHandle(message.receiptHandle())
+                    .visibilityTimeout(VISIBILITY_TIMEOUT)
+                    .build());
+        } catch (SdkException e) {
+            log.error("Error extending visibility of message {}", message.messageId(), e);
         }
     }
 
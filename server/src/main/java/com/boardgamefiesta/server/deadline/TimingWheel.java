@@ -0,0 +1,191 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.server.deadline;
+
+import lombok.NonNull;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical timing wheel that keeps one deadline per key.
+ *
+ * <p>Scheduling, rescheduling and cancelling are O(1). Each level has the same number of slots, and a slot of a level
+ * spans a whole revolution of the level below. Deadlines that are further away are kept in a higher level and moved
+ * down (cascaded) when their slot comes up, so advancing the wheel never has to look at deadlines that are not due.</p>
+ *
+ * <p>Deadlines beyond the range of the highest level are kept in the farthest slot of that level, and placed again
+ * when it comes up.</p>
+ */
+class TimingWheel<K> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long[] ticksPerSlot;
+    private final List<List<Set<Entry<K>>>> levels;
+
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+    private final Set<Entry<K>> expired = new HashSet<>();
+
+    private long currentTick;
+
+    TimingWheel(@NonNull Duration tick, int wheelSize, int numberOfLevels, @NonNull Instant start) {
+        if (tick.toMillis() < 1) {
+            throw new IllegalArgumentException("Tick must be >=1ms, but was: " + tick);
+        }
+        if (wheelSize < 2) {
+            throw new IllegalArgumentException("Wheel size must be >=2, but was: " + wheelSize);
+        }
+        if (numberOfLevels < 1) {
+            throw new IllegalArgumentException("Number of levels must be >=1, but was: " + numberOfLevels);
+        }
+
+        this.tickMillis = tick.toMillis();
+        this.wheelSize = wheelSize;
+        this.ticksPerSlot = new long[numberOfLevels];
+        this.levels = new ArrayList<>(numberOfLevels);
+
+        var span = 1L;
+        for (var level = 0; level < numberOfLevels; level++) {
+            ticksPerSlot[level] = span;
+            span = Math.multiplyExact(span, wheelSize);
+
+            var slots = new ArrayList<Set<Entry<K>>>(wheelSize);
+            for (var slot = 0; slot < wheelSize; slot++) {
+                slots.add(new HashSet<>());
+            }
+            levels.add(slots);
+        }
+
+        this.currentTick = Math.floorDiv(start.toEpochMilli(), tickMillis);
+    }
+
+    /**
+     * Schedules the deadline for the key, replacing the deadline that was scheduled before for that key.
+     */
+    synchronized void schedule(@NonNull K key, @NonNull Instant deadline) {
+        cancel(key);
+
+        // Round up, so it never expires before the deadline
+        var entry = new Entry<>(key, -Math.floorDiv(-deadline.toEpochMilli(), tickMillis));
+        entries.put(key, entry);
+        place(entry);
+    }
+
+    synchronized boolean cancel(@NonNull K key) {
+        var entry = entries.remove(key);
+        if (entry != null) {
+            entry.slot.remove(entry);
+            return true;
+        }
+        return false;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Advances the wheel up to the given time.
+     *
+     * @return keys of which the deadline has expired, which are removed from the wheel
+     */
+    synchronized List<K> advance(@NonNull Instant now) {
+        var result = new ArrayList<K>();
+
+        expire(expired, result);
+
+        var targetTick = Math.floorDiv(now.toEpochMilli(), tickMillis);
+        while (currentTick < targetTick) {
+            currentTick++;
+
+            // From the highest level down, because cascading a level can fill the slot of a lower level that is due now
+            for (var level = levels.size() - 1; level > 0; level--) {
+                if (currentTick % ticksPerSlot[level] == 0) {
+                    cascade(slot(level, currentTick));
+                }
+            }
+
+            expire(slot(0, currentTick), result);
+            expire(expired, result);
+        }
+
+        return result;
+    }
+
+    private void place(Entry<K> entry) {
+        if (entry.tick <= currentTick) {
+            entry.slot = expired;
+        } else {
+            var level = 0;
+            while (level < levels.size() - 1
+                    && entry.tick / ticksPerSlot[level] - currentTick / ticksPerSlot[level] >= wheelSize) {
+                level++;
+            }
+
+            if (entry.tick / ticksPerSlot[level] - currentTick / ticksPerSlot[level] < wheelSize) {
+                entry.slot = slot(level, entry.tick);
+            } else {
+                // Beyond range of the highest level
+                entry.slot = slot(level, currentTick + (wheelSize - 1) * ticksPerSlot[level]);
+            }
+        }
+
+        entry.slot.add(entry);
+    }
+
+    private void cascade(Set<Entry<K>> slot) {
+        if (!slot.isEmpty()) {
+            var cascading = new ArrayList<>(slot);
+            slot.clear();
+            cascading.forEach(this::place);
+        }
+    }
+
+    private void expire(Set<Entry<K>> slot, List<K> result) {
+        if (!slot.isEmpty()) {
+            slot.forEach(entry -> {
+                entries.remove(entry.key);
+                result.add(entry.key);
+            });
+            slot.clear();
+        }
+    }
+
+    private Set<Entry<K>> slot(int level, long tick) {
+        return levels.get(level).get((int) ((tick / ticksPerSlot[level]) % wheelSize));
+    }
+
+    private static final class Entry<K> {
+        private final K key;
+        private final long tick;
+        private Set<Entry<K>> slot;
+
+        private Entry(K key, long tick) {
+            this.key = key;
+            this.tick = tick;
+        }
+    }
+}
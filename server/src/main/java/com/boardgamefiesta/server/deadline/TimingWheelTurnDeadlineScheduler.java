@@ -0,0 +1,156 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.server.deadline;
+
+import com.boardgamefiesta.domain.deadline.TurnDeadlineExecutor;
+import com.boardgamefiesta.domain.deadline.TurnDeadlineScheduler;
+import com.boardgamefiesta.domain.table.Table;
+import com.boardgamefiesta.domain.table.Tables;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires turn deadlines from memory, so expired turns are ended without scanning tables.
+ *
+ * <p>On startup the deadlines that are coming up are loaded from the index, because deadlines of tables that were
+ * changed through another instance, or before a restart, are not known in memory.</p>
+ */
+@ApplicationScoped
+@Slf4j
+class TimingWheelTurnDeadlineScheduler implements TurnDeadlineScheduler {
+
+    private static final Duration TICK = Duration.ofSeconds(1);
+    private static final int WHEEL_SIZE = 64;
+    private static final int NUMBER_OF_LEVELS = 4; // 64^4 seconds is about 194 days
+
+    private final TurnDeadlineExecutor turnDeadlineExecutor;
+    private final Tables tables;
+    private final boolean enabled;
+    private final Duration preloadHorizon;
+    private final int preloadMaxResults;
+
+    private final TimingWheel<Table.Id> timingWheel = new TimingWheel<>(TICK, WHEEL_SIZE, NUMBER_OF_LEVELS, Instant.now());
+
+    private ScheduledExecutorService scheduledExecutor;
+    private ManagedExecutor managedExecutor;
+
+    @Inject
+    TimingWheelTurnDeadlineScheduler(@NonNull TurnDeadlineExecutor turnDeadlineExecutor,
+                                     @NonNull Tables tables,
+                                     @ConfigProperty(name = "bgf.deadlines.enabled", defaultValue = "false") boolean enabled,
+                                     @ConfigProperty(name = "bgf.deadlines.preload-horizon", defaultValue = "PT24H") Duration preloadHorizon,
+                                     @ConfigProperty(name = "bgf.deadlines.preload-max-results", defaultValue = "100000") int preloadMaxResults) {
+        this.turnDeadlineExecutor = turnDeadlineExecutor;
+        this.tables = tables;
+        this.enabled = enabled;
+        this.preloadHorizon = preloadHorizon;
+        this.preloadMaxResults = preloadMaxResults;
+    }
+
+    public void init(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        managedExecutor = ManagedExecutor.builder()
+                .maxQueued(-1)
+                .maxAsync(1) // Tables are processed one at a time, to not compete with requests
+                .build();
+        scheduledExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "turn-deadline-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        scheduledExecutor.execute(this::preload);
+        scheduledExecutor.scheduleAtFixedRate(this::advance, TICK.toMillis(), TICK.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void destroy(@Observes ShutdownEvent event) {
+        if (scheduledExecutor != null) {
+            scheduledExecutor.shutdownNow();
+        }
+        if (managedExecutor != null) {
+            managedExecutor.shutdownNow();
+        }
+    }
+
+    @Override
+    public void schedule(Table.Id tableId, Instant deadline) {
+        if (enabled) {
+            timingWheel.schedule(tableId, deadline);
+        }
+    }
+
+    @Override
+    public void cancel(Table.Id tableId) {
+        if (enabled) {
+            timingWheel.cancel(tableId);
+        }
+    }
+
+    private void preload() {
+        try {
+            tables.findTurnDeadlines(Instant.now().plus(preloadHorizon), preloadMaxResults)
+                    .forEach(turnDeadline -> timingWheel.schedule(turnDeadline.getTableId(), turnDeadline.getDeadline()));
+
+            log.info("Loaded turn deadlines, {} scheduled", timingWheel.size());
+        } catch (RuntimeException e) {
+            log.error("Error loading turn deadlines", e);
+        }
+    }
+
+    private void advance() {
+        try {
+            var expired = timingWheel.advance(Instant.now());
+
+            if (!expired.isEmpty()) {
+                log.debug("{} turn deadline(s) expired", expired.size());
+
+                expired.forEach(tableId -> managedExecutor.runAsync(() -> execute(tableId)));
+            }
+        } catch (RuntimeException e) {
+            // Must not throw, or the scheduled executor will stop advancing
+            log.error("Error advancing turn deadlines", e);
+        }
+    }
+
+    private void execute(Table.Id tableId) {
+        try {
+            turnDeadlineExecutor.execute(tableId)
+                    .ifPresent(deadline -> timingWheel.schedule(tableId, deadline));
+        } catch (RuntimeException e) {
+            log.error("Error forcing end of turn for table {}", tableId.getId(), e);
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.server.email;
+
+import com.boardgamefiesta.domain.email.TurnBasedEmailer;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically sends the turn digest emails that are due, like the scheduled Lambda function does in AWS.
+ */
+@ApplicationScoped
+@Slf4j
+class TurnDigestFlusher {
+
+    private final TurnBasedEmailer turnBasedEmailer;
+    private final boolean enabled;
+    private final Duration interval;
+
+    private ScheduledExecutorService scheduledExecutor;
+
+    @Inject
+    TurnDigestFlusher(@NonNull TurnBasedEmailer turnBasedEmailer,
+                      @ConfigProperty(name = "bgf.email.turn-digests.enabled", defaultValue = "false") boolean enabled,
+                      @ConfigProperty(name = "bgf.email.turn-digests.interval", defaultValue = "PT5M") Duration interval) {
+        this.turnBasedEmailer = turnBasedEmailer;
+        this.enabled = enabled;
+        this.interval = interval;
+    }
+
+    public void init(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        scheduledExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "turn-digest-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        scheduledExecutor.scheduleWithFixedDelay(this::flush, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void destroy(@Observes ShutdownEvent event) {
+        if (scheduledExecutor != null) {
+            scheduledExecutor.shutdownNow();
+        }
+    }
+
+    private void flush() {
+        try {
+            turnBasedEmailer.sendTurnDigests(Instant.now());
+        } catch (RuntimeException e) {
+            // Must not throw, otherwise the next runs are suppressed
+            log.error("Error sending turn digests", e);
+        }
+    }
+}
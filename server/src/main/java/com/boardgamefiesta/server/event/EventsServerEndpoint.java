@@ -52,12 +52,11 @@ public class EventsServerEndpoint {
             session.close(new CloseReason(CloseReason.CloseCodes.VIOLATED_POLICY, "WebSockets not enabled"));
         }
 
-        CurrentUser.getUserId(session, users).ifPresent(userId -> {
-            sender.registerUser(userId, session);
-        });
+        var userId = CurrentUser.getUserId(session, users);
+        userId.ifPresent(id -> sender.registerUser(id, session));
 
         getTableId(session).ifPresent(tableId ->
-                sender.registerTable(tableId, session));
+                sender.registerTable(tableId, session, isStatePush(session) ? userId.orElse(null) : null));
     }
 
     @OnClose
@@ -74,6 +73,11 @@ public class EventsServerEndpoint {
         onClose(session);
     }
 
+    private static boolean isStatePush(Session session) {
+        var param = session.getRequestParameterMap().get("statePush");
+        return param != null && param.contains("true");
+    }
+
     private static Optional<Table.Id> getTableId(Session session) {
         var param = session.getRequestParameterMap().get("table");
         return param != null && !param.isEmpty() ? Optional.of(Table.Id.of(param.get(0))) : Optional.empty();
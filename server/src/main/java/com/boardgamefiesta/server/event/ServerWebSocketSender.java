@@ -20,17 +20,24 @@ package com.boardgamefiesta.server.event;
 
 import com.boardgamefiesta.domain.table.Table;
 import com.boardgamefiesta.domain.user.User;
+import com.boardgamefiesta.websocket.StatePush;
 import com.boardgamefiesta.websocket.WebSocketSender;
 import com.boardgamefiesta.websocket.WebSocketServerEvent;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import javax.enterprise.context.ApplicationScoped;
+import javax.websocket.CloseReason;
 import javax.websocket.Session;
-import java.util.Comparator;
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @ApplicationScoped
 @Slf4j
@@ -39,42 +46,60 @@ public class ServerWebSocketSender implements WebSocketSender {
     private static final Map<User.Id, Set<Session>> USER_SESSIONS = new ConcurrentHashMap<>();
     private static final Map<Table.Id, Set<Session>> TABLE_SESSIONS = new ConcurrentHashMap<>();
 
+    private static final String STATE_PUSH_USER_ID = "bgf.statePushUserId";
+    private static final String OUTBOUND = "bgf.outbound";
+
+    @ConfigProperty(name = "bgf.ws.server.max-queued-messages", defaultValue = "100")
+    int maxQueuedMessages;
+
+    @ConfigProperty(name = "bgf.ws.server.slow-consumer-policy", defaultValue = "CLOSE")
+    SlowConsumerPolicy slowConsumerPolicy;
+
     @Override
-    public void sendToTable(Table.Id tableId, WebSocketServerEvent event) {
+    public void sendToTable(Table.Id tableId, List<WebSocketServerEvent> events, Optional<StatePush> statePush) {
         var sessions = TABLE_SESSIONS.get(tableId);
         if (sessions != null) {
-            var data = event.toJSON();
+            var data = WebSocketServerEvent.toJSON(events, Optional.empty(), Optional.empty());
 
             log.debug("Sending to {} sessions: {}", sessions.size(), data);
 
-            sessions.forEach(session -> session.getAsyncRemote().sendObject(data));
+            sessions.forEach(session -> {
+                var statePushUserId = Optional.ofNullable((User.Id) session.getUserProperties().get(STATE_PUSH_USER_ID));
+                send(session, statePush.isPresent() && statePushUserId.isPresent()
+                        ? WebSocketServerEvent.toJSON(events, statePush, statePushUserId)
+                        : data);
+            });
         }
     }
 
     @Override
-    public void sendToUser(User.Id userId, WebSocketServerEvent event) {
+    public void sendToUser(User.Id userId, List<WebSocketServerEvent> events) {
         var sessions = USER_SESSIONS.get(userId);
         if (sessions != null) {
-            var data = event.toJSON();
+            var data = WebSocketServerEvent.toJSON(events, Optional.empty(), Optional.empty());
 
             log.debug("Sending to {} sessions: {}", sessions.size(), data);
 
-            sessions.forEach(session -> session.getAsyncRemote().sendObject(data));
+            sessions.forEach(session -> send(session, data));
+        }
+    }
+
+    /**
+     * Only queues the message, so the calling (game) thread never waits for the client.
+     */
+    private void send(Session session, String data) {
+        var outbound = (Outbound) session.getUserProperties().get(OUTBOUND);
+        if (outbound != null) {
+            outbound.send(data);
         }
     }
 
     void registerUser(User.Id userId, Session session) {
         log.debug("Register WebSocket connection {} for user {} from: {}", session.getId(), userId.getId(), session.getUserProperties());
 
-        USER_SESSIONS.compute(userId, (k, sessions) -> {
-            if (sessions == null) {
-                sessions = new TreeSet<>(Comparator.comparing(Session::getId));
-            }
-
-            sessions.add(session);
+        session.getUserProperties().computeIfAbsent(OUTBOUND, k -> new Outbound(session));
 
-            return sessions;
-        });
+        USER_SESSIONS.computeIfAbsent(userId, k -> ConcurrentHashMap.newKeySet()).add(session);
     }
 
     void unregisterUser(User.Id userId, Session session) {
@@ -92,12 +117,19 @@ public class ServerWebSocketSender implements WebSocketSender {
         });
     }
 
-    void registerTable(Table.Id tableId, Session session) {
+    void registerTable(Table.Id tableId, Session session, User.Id statePushUserId) {
         log.debug("Register WebSocket connection {} for table {} from: {}", session.getId(), tableId.getId(), session.getUserProperties());
 
+        if (statePushUserId != null) {
+            session.getUserProperties().put(STATE_PUSH_USER_ID, statePushUserId);
+        }
+
+        session.getUserProperties().computeIfAbsent(OUTBOUND, k -> new Outbound(session));
+
+        // Adding to the set must happen while the mapping cannot be removed concurrently
         TABLE_SESSIONS.compute(tableId, (key, sessions) -> {
             if (sessions == null) {
-                sessions = new TreeSet<>(Comparator.comparing(Session::getId));
+                sessions = ConcurrentHashMap.newKeySet();
             }
 
             sessions.add(session);
@@ -106,7 +138,6 @@ public class ServerWebSocketSender implements WebSocketSender {
         });
     }
 
-
     public void unregisterTable(Table.Id tableId, Session session) {
         log.debug("Unregister WebSocket connection {} for table {} from: {}", session.getId(), tableId.getId(), session.getUserProperties());
 
@@ -121,4 +152,83 @@ public class ServerWebSocketSender implements WebSocketSender {
             return sessions;
         });
     }
+
+    public enum SlowConsumerPolicy {
+        /**
+         * Drop messages that do not fit in the queue. Client may miss events.
+         */
+        DROP,
+        /**
+         * Close the connection when the queue is full. Client is expected to reconnect and refresh.
+         */
+        CLOSE
+    }
+
+    /**
+     * Bounded queue of outbound messages for a session, sent one at a time.
+     * The next message is sent from the completion callback, which runs on the IO thread of the server.
+     */
+    private final class Outbound {
+
+        private final Session session;
+        private final Queue<String> queue = new ArrayBlockingQueue<>(maxQueuedMessages);
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private Outbound(Session session) {
+            this.session = session;
+        }
+
+        void send(String data) {
+            if (!queue.offer(data)) {
+                slowConsumer();
+                return;
+            }
+            drain();
+        }
+
+        private void drain() {
+            while (!queue.isEmpty() && sending.compareAndSet(false, true)) {
+                var data = queue.poll();
+                if (data == null) {
+                    sending.set(false);
+                    continue;
+                }
+
+                if (!session.isOpen()) {
+                    queue.clear();
+                    sending.set(false);
+                    return;
+                }
+
+                session.getAsyncRemote().sendText(data, result -> {
+                    sending.set(false);
+
+                    if (result.isOK()) {
+                        drain();
+                    } else {
+                        log.debug("Could not send to WebSocket connection {}", session.getId(), result.getException());
+                        queue.clear();
+                    }
+                });
+                return;
+            }
+        }
+
+        private void slowConsumer() {
+            switch (slowConsumerPolicy) {
+                case DROP:
+                    log.warn("WebSocket connection {} is too slow, dropping message", session.getId());
+                    break;
+                case CLOSE:
+                    log.warn("WebSocket connection {} is too slow, closing", session.getId());
+                    queue.clear();
+                    try {
+                        session.close(new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER, "Too slow"));
+                    } catch (IOException e) {
+                        log.debug("Could not close WebSocket connection {}", session.getId(), e);
+                    }
+                    break;
+            }
+        }
+    }
 }
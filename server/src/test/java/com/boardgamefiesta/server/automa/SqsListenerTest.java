@@ -0,0 +1,242 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.server.automa;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.*;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SqsListenerTest {
+
+    static final String QUEUE_URL = "https://sqs.eu-west-1.amazonaws.com/123456789012/automa.fifo";
+    static final long TIMEOUT_MILLIS = 5000;
+
+    @Mock
+    SqsClient sqsClient;
+
+    BlockingQueue<List<Message>> responses = new LinkedBlockingQueue<>();
+
+    SqsListener sqsListener;
+
+    @BeforeEach
+    void setUp() {
+        // Simulates a short long poll: returns the next response if any, or no messages after a while
+        lenient().when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class))).thenAnswer(invocation -> {
+            var messages = responses.poll(50, TimeUnit.MILLISECONDS);
+            return messages != null
+                    ? ReceiveMessageResponse.builder().messages(messages).build()
+                    : ReceiveMessageResponse.builder().build();
+        });
+        lenient().when(sqsClient.deleteMessageBatch(any(DeleteMessageBatchRequest.class)))
+                .thenReturn(DeleteMessageBatchResponse.builder().build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (sqsListener != null) {
+            sqsListener.stop();
+        }
+    }
+
+    @Test
+    void maxInFlight() throws InterruptedException {
+        var started = new Semaphore(0);
+        var release = new CountDownLatch(1);
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+
+        sqsListener = listener(message -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            started.release();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+        }, 2);
+
+        responses.add(messages(0, 2));
+        sqsListener.start();
+
+        assertThat(started.tryAcquire(2, TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+
+        // No handlers available, so must not receive again until a handler completes
+        responses.add(messages(2, 3));
+        verify(sqsClient, after(500).times(1)).receiveMessage(any(ReceiveMessageRequest.class));
+
+        release.countDown();
+
+        assertThat(started.tryAcquire(1, TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(maxRunning.get()).isEqualTo(2);
+
+        var captor = ArgumentCaptor.forClass(ReceiveMessageRequest.class);
+        verify(sqsClient, atLeast(2)).receiveMessage(captor.capture());
+        assertThat(captor.getAllValues().get(0).maxNumberOfMessages()).isEqualTo(2);
+        assertThat(captor.getAllValues()).allSatisfy(request -> assertThat(request.maxNumberOfMessages()).isBetween(1, 2));
+    }
+
+    @Test
+    void deletesInBatches() {
+        sqsListener = listener(message -> {
+        }, 15);
+
+        responses.add(messages(0, 10));
+        responses.add(messages(10, 15));
+        sqsListener.start();
+
+        verify(sqsClient, timeout(TIMEOUT_MILLIS).atLeast(2)).deleteMessageBatch(any(DeleteMessageBatchRequest.class));
+        sqsListener.stop();
+
+        var captor = ArgumentCaptor.forClass(DeleteMessageBatchRequest.class);
+        verify(sqsClient, atLeast(2)).deleteMessageBatch(captor.capture());
+        assertThat(captor.getAllValues()).allSatisfy(request -> {
+            assertThat(request.queueUrl()).isEqualTo(QUEUE_URL);
+            assertThat(request.entries()).hasSizeBetween(1, SqsListener.MAX_DELETE_BATCH_SIZE);
+        });
+        assertThat(captor.getAllValues().stream()
+                .flatMap(request -> request.entries().stream())
+                .map(DeleteMessageBatchRequestEntry::receiptHandle))
+                .containsExactlyInAnyOrderElementsOf(receiptHandles(0, 15));
+    }
+
+    @Test
+    void doesNotDeleteFailedMessages() {
+        sqsListener = listener(message -> {
+            if (message.messageId().equals("1")) {
+                throw new IllegalStateException();
+            }
+        }, 2);
+
+        responses.add(messages(0, 2));
+        sqsListener.start();
+
+        verify(sqsClient, timeout(TIMEOUT_MILLIS)).deleteMessageBatch(any(DeleteMessageBatchRequest.class));
+        sqsListener.stop();
+
+        var captor = ArgumentCaptor.forClass(DeleteMessageBatchRequest.class);
+        verify(sqsClient, atLeastOnce()).deleteMessageBatch(captor.capture());
+        assertThat(captor.getAllValues().stream()
+                .flatMap(request -> request.entries().stream())
+                .map(DeleteMessageBatchRequestEntry::receiptHandle))
+                .containsExactly("receipt-0");
+    }
+
+    @Test
+    void extendsVisibilityWhileProcessing() throws InterruptedException {
+        var release = new CountDownLatch(1);
+        sqsListener = listener(message -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 1);
+
+        responses.add(messages(0, 1));
+        sqsListener.start();
+
+        var captor = ArgumentCaptor.forClass(ChangeMessageVisibilityRequest.class);
+        verify(sqsClient, timeout(SqsListener.VISIBILITY_EXTEND_INTERVAL * 1000L + TIMEOUT_MILLIS))
+                .changeMessageVisibility(captor.capture());
+        assertThat(captor.getValue().receiptHandle()).isEqualTo("receipt-0");
+        assertThat(captor.getValue().visibilityTimeout()).isEqualTo(SqsListener.VISIBILITY_TIMEOUT);
+
+        release.countDown();
+        verify(sqsClient, timeout(TIMEOUT_MILLIS)).deleteMessageBatch(any(DeleteMessageBatchRequest.class));
+
+        // No longer extended after the handler completed
+        clearInvocations(sqsClient);
+        verify(sqsClient, after(SqsListener.VISIBILITY_EXTEND_INTERVAL * 1000L + 500).never())
+                .changeMessageVisibility(any(ChangeMessageVisibilityRequest.class));
+    }
+
+    @Test
+    void stopWaitsForHandlersAndCanBeRestarted() throws InterruptedException {
+        var started = new CountDownLatch(1);
+        var handled = new LinkedBlockingQueue<String>();
+        sqsListener = listener(message -> {
+            started.countDown();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            handled.add(message.messageId());
+        }, 1);
+
+        responses.add(messages(0, 1));
+        sqsListener.start();
+        assertThat(started.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+
+        sqsListener.stop();
+
+        // Message in flight was processed and deleted before stop returned
+        assertThat(handled).containsExactly("0");
+        var captor = ArgumentCaptor.forClass(DeleteMessageBatchRequest.class);
+        verify(sqsClient).deleteMessageBatch(captor.capture());
+        assertThat(captor.getValue().entries()).extracting(DeleteMessageBatchRequestEntry::receiptHandle)
+                .containsExactly("receipt-0");
+
+        responses.add(messages(1, 2));
+        sqsListener.start();
+
+        assertThat(handled.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isEqualTo("0");
+        assertThat(handled.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isEqualTo("1");
+    }
+
+    private SqsListener listener(Consumer<Message> handler, int maxInFlight) {
+        return new SqsListener(sqsClient, QUEUE_URL, handler, maxInFlight);
+    }
+
+    private static List<Message> messages(int from, int to) {
+        return IntStream.range(from, to)
+                .mapToObj(i -> Message.builder()
+                        .messageId(Integer.toString(i))
+                        .receiptHandle("receipt-" + i)
+                        .body("{}")
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> receiptHandles(int from, int to) {
+        return IntStream.range(from, to)
+                .mapToObj(i -> "receipt-" + i)
+                .collect(Collectors.toList());
+    }
+}
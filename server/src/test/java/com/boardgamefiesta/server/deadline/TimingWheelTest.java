@@ -0,0 +1,110 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.server.deadline;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    static final Instant START = Instant.parse("2022-04-01T12:00:00Z");
+
+    TimingWheel<String> timingWheel;
+
+    @BeforeEach
+    void setUp() {
+        timingWheel = new TimingWheel<>(Duration.ofSeconds(1), 8, 3, START);
+    }
+
+    @Test
+    void expiresAtDeadline() {
+        timingWheel.schedule("a", START.plusSeconds(5));
+
+        assertThat(timingWheel.advance(START.plusSeconds(4))).isEmpty();
+        assertThat(timingWheel.advance(START.plusSeconds(5))).containsExactly("a");
+        assertThat(timingWheel.size()).isZero();
+    }
+
+    @Test
+    void neverExpiresBeforeDeadline() {
+        timingWheel.schedule("a", START.plusMillis(5500));
+
+        assertThat(timingWheel.advance(START.plusMillis(5999))).isEmpty();
+        assertThat(timingWheel.advance(START.plusSeconds(6))).containsExactly("a");
+    }
+
+    @Test
+    void cascadesFromHigherLevels() {
+        timingWheel.schedule("a", START.plusSeconds(100)); // level 2
+        timingWheel.schedule("b", START.plusSeconds(20)); // level 1
+
+        assertThat(timingWheel.advance(START.plusSeconds(19))).isEmpty();
+        assertThat(timingWheel.advance(START.plusSeconds(20))).containsExactly("b");
+        assertThat(timingWheel.advance(START.plusSeconds(99))).isEmpty();
+        assertThat(timingWheel.advance(START.plusSeconds(100))).containsExactly("a");
+    }
+
+    @Test
+    void beyondRange() {
+        timingWheel.schedule("a", START.plusSeconds(1000)); // range is 8^3 = 512 seconds
+
+        assertThat(timingWheel.advance(START.plusSeconds(999))).isEmpty();
+        assertThat(timingWheel.advance(START.plusSeconds(1000))).containsExactly("a");
+    }
+
+    @Test
+    void reschedule() {
+        timingWheel.schedule("a", START.plusSeconds(5));
+        timingWheel.schedule("a", START.plusSeconds(50));
+
+        assertThat(timingWheel.size()).isEqualTo(1);
+        assertThat(timingWheel.advance(START.plusSeconds(49))).isEmpty();
+        assertThat(timingWheel.advance(START.plusSeconds(50))).containsExactly("a");
+    }
+
+    @Test
+    void cancel() {
+        timingWheel.schedule("a", START.plusSeconds(5));
+
+        assertThat(timingWheel.cancel("a")).isTrue();
+        assertThat(timingWheel.cancel("a")).isFalse();
+        assertThat(timingWheel.advance(START.plusSeconds(10))).isEmpty();
+    }
+
+    @Test
+    void alreadyExpired() {
+        timingWheel.schedule("a", START.minusSeconds(5));
+
+        assertThat(timingWheel.advance(START)).containsExactly("a");
+    }
+
+    @Test
+    void skipsAhead() {
+        timingWheel.schedule("a", START.plusSeconds(3));
+        timingWheel.schedule("b", START.plusSeconds(300));
+
+        assertThat(timingWheel.advance(START.plusSeconds(400))).containsExactlyInAnyOrder("a", "b");
+    }
+
+}
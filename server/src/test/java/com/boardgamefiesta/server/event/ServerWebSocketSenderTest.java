@@ -0,0 +1,191 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.server.event;
+
+import com.boardgamefiesta.domain.user.User;
+import com.boardgamefiesta.websocket.WebSocketServerEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.websocket.CloseReason;
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServerWebSocketSenderTest {
+
+    static final User.Id USER_ID = User.Id.of("user");
+
+    @Mock
+    Session session;
+
+    @Mock
+    RemoteEndpoint.Async async;
+
+    Map<String, Object> userProperties = new HashMap<>();
+
+    /**
+     * Messages that were handed to the client, in order, with their completion handlers.
+     */
+    List<String> sent = new ArrayList<>();
+    List<SendHandler> pending = new ArrayList<>();
+
+    ServerWebSocketSender sender = new ServerWebSocketSender();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(session.getUserProperties()).thenReturn(userProperties);
+        lenient().when(session.getAsyncRemote()).thenReturn(async);
+        lenient().when(session.isOpen()).thenReturn(true);
+        lenient().doAnswer(invocation -> {
+            sent.add(invocation.getArgument(0));
+            pending.add(invocation.getArgument(1));
+            return null;
+        }).when(async).sendText(anyString(), any(SendHandler.class));
+
+        sender.maxQueuedMessages = 2;
+    }
+
+    @AfterEach
+    void tearDown() {
+        sender.unregisterUser(USER_ID, session);
+    }
+
+    @Test
+    void sendsOneAtATime() {
+        sender.slowConsumerPolicy = ServerWebSocketSender.SlowConsumerPolicy.CLOSE;
+        sender.registerUser(USER_ID, session);
+
+        send("1");
+        send("2");
+        send("3");
+
+        // Next message is only sent when the previous one completed
+        assertThat(sent).containsExactly(json("1"));
+
+        complete();
+        assertThat(sent).containsExactly(json("1"), json("2"));
+
+        complete();
+        complete();
+        assertThat(sent).containsExactly(json("1"), json("2"), json("3"));
+        assertThat(pending).isEmpty();
+    }
+
+    @Test
+    void dropsWhenQueueIsFull() throws IOException {
+        sender.slowConsumerPolicy = ServerWebSocketSender.SlowConsumerPolicy.DROP;
+        sender.registerUser(USER_ID, session);
+
+        send("1"); // in flight
+        send("2");
+        send("3");
+        send("4"); // queue is full
+
+        complete();
+        complete();
+        complete();
+
+        assertThat(sent).containsExactly(json("1"), json("2"), json("3"));
+        verify(session, never()).close(any(CloseReason.class));
+
+        // Continues normally after the client caught up
+        send("5");
+        assertThat(sent).containsExactly(json("1"), json("2"), json("3"), json("5"));
+    }
+
+    @Test
+    void closesWhenQueueIsFull() throws IOException {
+        sender.slowConsumerPolicy = ServerWebSocketSender.SlowConsumerPolicy.CLOSE;
+        sender.registerUser(USER_ID, session);
+
+        send("1"); // in flight
+        send("2");
+        send("3");
+        send("4"); // queue is full
+
+        var closeReason = ArgumentCaptor.forClass(CloseReason.class);
+        verify(session).close(closeReason.capture());
+        assertThat(closeReason.getValue().getCloseCode()).isEqualTo(CloseReason.CloseCodes.TRY_AGAIN_LATER);
+
+        // Queued messages are discarded
+        complete();
+        assertThat(sent).containsExactly(json("1"));
+    }
+
+    @Test
+    void discardsQueueWhenSendFails() {
+        sender.slowConsumerPolicy = ServerWebSocketSender.SlowConsumerPolicy.CLOSE;
+        sender.registerUser(USER_ID, session);
+
+        send("1");
+        send("2");
+
+        pending.remove(0).onResult(new SendResult(new IOException("Broken pipe")));
+
+        assertThat(sent).containsExactly(json("1"));
+    }
+
+    @Test
+    void discardsWhenClosed() {
+        sender.slowConsumerPolicy = ServerWebSocketSender.SlowConsumerPolicy.CLOSE;
+        sender.registerUser(USER_ID, session);
+
+        send("1");
+        send("2");
+
+        when(session.isOpen()).thenReturn(false);
+        complete();
+
+        assertThat(sent).containsExactly(json("1"));
+    }
+
+    private void send(String tableId) {
+        sender.sendToUser(USER_ID, List.of(event(tableId)));
+    }
+
+    private void complete() {
+        pending.remove(0).onResult(new SendResult());
+    }
+
+    private static String json(String tableId) {
+        return event(tableId).toJSON();
+    }
+
+    private static WebSocketServerEvent event(String tableId) {
+        return new WebSocketServerEvent(WebSocketServerEvent.Type.STATE_CHANGED, tableId, null);
+    }
+}
@@ -21,69 +21,122 @@ package com.boardgamefiesta.domain.automa;
 import com.boardgamefiesta.domain.DomainService;
 import com.boardgamefiesta.domain.table.Player;
 import com.boardgamefiesta.domain.table.Table;
+import com.boardgamefiesta.domain.table.TableUpdater;
 import com.boardgamefiesta.domain.table.Tables;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.transaction.Transactional;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
 
 @ApplicationScoped
 @Slf4j
 public class AutomaExecutor implements DomainService {
 
-    public static final int MAX_RETRIES = 30;
-
     private final Tables tables;
+    private final int maxTurns;
+    private final Duration timeBudget;
 
     @Inject
-    AutomaExecutor(@NonNull Tables tables) {
+    AutomaExecutor(@NonNull Tables tables,
+                   @ConfigProperty(name = "bgf.automa.max-turns", defaultValue = "50") int maxTurns,
+                   @ConfigProperty(name = "bgf.automa.time-budget", defaultValue = "PT5S") Duration timeBudget) {
         this.tables = tables;
+        this.maxTurns = maxTurns;
+        this.timeBudget = timeBudget;
     }
 
     @Transactional(Transactional.TxType.REQUIRES_NEW)
     public void execute(Table.Id tableId, Player.Id playerId) {
         try {
-            var retries = 0;
-            do {
+            var found = TableUpdater.update(tables, tableId, "automa", table -> {
                 log.debug("Executing for table {} and player {}", tableId.getId(), playerId.getId());
 
-                var table = tables.findById(tableId)
-                        .orElseThrow(() -> new IllegalArgumentException("Table not found: " + tableId.getId()));
-
                 if (table.getStatus() != Table.Status.STARTED) {
-                    return;
+                    return false;
                 }
 
                 var player = table.getPlayerById(playerId)
                         .orElseThrow(() -> new IllegalArgumentException("Player not found: " + playerId.getId()));
 
                 if (player.getType() != Player.Type.COMPUTER) {
-                    return;
+                    return false;
                 }
 
-                if (!table.getCurrentPlayers().contains(player)) {
-                    return;
+                // Requests are coalesced per table, so continue with any other computer player that is current
+                var current = table.getCurrentPlayers().contains(player)
+                        ? Optional.of(player)
+                        : nextComputerPlayer(table);
+
+                if (current.isEmpty()) {
+                    return false;
                 }
 
-                table.executeAutoma(player);
+                var turns = executeConsecutive(table, current.get());
 
-                try {
-                    tables.update(table);
-                    return;
-                } catch (Tables.ConcurrentModificationException e) {
-                    if (retries >= MAX_RETRIES) {
-                        throw new RuntimeException("Executor failed after " + retries + " retries. Table id " + table.getId().getId() + ", version " + table.getVersion(), e);
-                    }
+                log.debug("Executed {} consecutive computer turn(s) for table {}", turns, tableId.getId());
+                return true;
+            });
 
-                    retries++;
-                }
-            } while (true);
+            if (!found) {
+                throw new IllegalArgumentException("Table not found: " + tableId.getId());
+            }
         } catch (RuntimeException e) {
             log.error("Error executing request", e);
             throw e;
         }
     }
 
+    /**
+     * Keeps executing turns on the loaded table for as long as a computer player is current,
+     * so a chain of computer turns only needs one load and one save.
+     *
+     * <p>When the budget is exhausted, the remaining turns are picked up from the queue,
+     * because the state changes will cause a new request to be scheduled.</p>
+     *
+     * <p>When a turn fails after other turns were already executed, the chain stops at the failing turn,
+     * so the turns that were already executed are still saved.</p>
+     *
+     * @return number of turns executed
+     */
+    private int executeConsecutive(Table table, Player player) {
+        var deadline = Instant.now().plus(timeBudget);
+
+        var turns = 0;
+        var next = Optional.of(player);
+        do {
+            try {
+                table.executeAutoma(next.get());
+            } catch (RuntimeException e) {
+                if (turns == 0) {
+                    throw e;
+                }
+
+                log.error("Error executing turn for table {} and player {}, keeping {} turn(s) already executed",
+                        table.getId().getId(), next.get().getId().getId(), turns, e);
+                break;
+            }
+            turns++;
+
+            next = nextComputerPlayer(table);
+        } while (next.isPresent() && turns < maxTurns && Instant.now().isBefore(deadline));
+
+        return turns;
+    }
+
+    private static Optional<Player> nextComputerPlayer(Table table) {
+        if (table.getStatus() != Table.Status.STARTED) {
+            return Optional.empty();
+        }
+
+        return table.getCurrentPlayers().stream()
+                .filter(player -> player.getType() == Player.Type.COMPUTER)
+                .findAny();
+    }
+
 }
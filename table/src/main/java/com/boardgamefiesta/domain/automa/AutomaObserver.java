@@ -20,6 +20,7 @@ package com.boardgamefiesta.domain.automa;
 
 import com.boardgamefiesta.domain.table.Player;
 import com.boardgamefiesta.domain.table.Table;
+import io.micrometer.core.annotation.Timed;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
@@ -41,16 +42,17 @@ class AutomaObserver {
         this.automaSchedulers = automaSchedulers;
     }
 
+    @Timed("bgf.observer")
     void stateChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) Table.StateChanged event) {
-        automaSchedulers.forEach(automaScheduler -> {
-            var table = event.getTable().get();
-
-            if (table.getStatus() == Table.Status.STARTED) {
-                table.getCurrentPlayers().stream()
-                        .filter(player -> player.getType() == Player.Type.COMPUTER)
-                        .forEach(player -> automaScheduler.schedule(table.getId(), player.getId()));
-            }
-        });
+        var table = event.getTable().get();
+
+        if (table.getStatus() == Table.Status.STARTED) {
+            // Only one request per table, because the executor will execute all computer players that are current
+            table.getCurrentPlayers().stream()
+                    .filter(player -> player.getType() == Player.Type.COMPUTER)
+                    .findAny()
+                    .ifPresent(player -> automaSchedulers.forEach(automaScheduler -> automaScheduler.schedule(table, player)));
+        }
     }
 
 }
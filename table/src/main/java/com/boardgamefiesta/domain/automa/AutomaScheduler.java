@@ -34,6 +34,8 @@ import java.util.Optional;
 @Slf4j
 class AutomaScheduler {
 
+    private static final String FIFO_SUFFIX = ".fifo";
+
     private final SqsClient sqsClient;
     private final String queueUrl;
 
@@ -44,16 +46,25 @@ class AutomaScheduler {
         this.queueUrl = queueUrl.orElse(null);
     }
 
-    public void schedule(Table.Id tableId, Player.Id playerId) {
+    public void schedule(Table table, Player player) {
         if (queueUrl == null) {
             throw new IllegalStateException("SQS queue URL not configured!");
         }
 
-        // Send to external queue so it is persisted and can be picked by a Lambda
-        sqsClient.sendMessage(SendMessageRequest.builder()
+        var request = SendMessageRequest.builder()
                 .queueUrl(queueUrl)
-                .messageBody(new AutomaRequest(tableId.getId(), playerId.getId()).toJSON())
-                .build());
+                .messageBody(new AutomaRequest(table.getId().getId(), player.getId().getId()).toJSON());
+
+        if (queueUrl.endsWith(FIFO_SUFFIX)) {
+            // One message group per table, so the computer turns of a table are processed serially by one consumer.
+            // Deduplicated on the version that was changed, so multiple state changes in one transaction
+            // result in only one request
+            request.messageGroupId(table.getId().getId())
+                    .messageDeduplicationId(table.getId().getId() + "-" + table.getVersion());
+        }
+
+        // Send to external queue so it is persisted and can be picked by a Lambda
+        sqsClient.sendMessage(request.build());
     }
 
 }
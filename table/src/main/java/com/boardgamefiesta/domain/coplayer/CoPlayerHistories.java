@@ -0,0 +1,34 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.domain.coplayer;
+
+import com.boardgamefiesta.domain.Repository;
+import com.boardgamefiesta.domain.game.Game;
+import com.boardgamefiesta.domain.user.User;
+import lombok.NonNull;
+
+import java.util.Optional;
+
+public interface CoPlayerHistories extends Repository {
+
+    Optional<CoPlayerHistory> find(@NonNull User.Id userId, @NonNull Game.Id gameId);
+
+    void put(@NonNull CoPlayerHistory coPlayerHistory);
+
+}
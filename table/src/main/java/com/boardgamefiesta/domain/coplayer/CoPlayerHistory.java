@@ -0,0 +1,78 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.domain.coplayer;
+
+import com.boardgamefiesta.domain.game.Game;
+import com.boardgamefiesta.domain.user.User;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Users that a user recently played a game with, and when they last played together.
+ */
+@Value
+public class CoPlayerHistory {
+
+    static final int MAX_SIZE = 50;
+
+    @NonNull User.Id userId;
+    @NonNull Game.Id gameId;
+    @NonNull Map<User.Id, Instant> lastPlayed;
+
+    public static CoPlayerHistory empty(@NonNull User.Id userId, @NonNull Game.Id gameId) {
+        return new CoPlayerHistory(userId, gameId, Collections.emptyMap());
+    }
+
+    /**
+     * @return new history that includes the given users, keeping only the most recent ones
+     */
+    public CoPlayerHistory played(@NonNull Collection<User.Id> userIds, @NonNull Instant timestamp) {
+        var result = new HashMap<>(lastPlayed);
+        userIds.stream()
+                .filter(otherUserId -> !otherUserId.equals(userId))
+                .forEach(otherUserId -> result.merge(otherUserId, timestamp, (a, b) -> a.isAfter(b) ? a : b));
+
+        if (result.size() <= MAX_SIZE) {
+            return new CoPlayerHistory(userId, gameId, Collections.unmodifiableMap(result));
+        }
+
+        return new CoPlayerHistory(userId, gameId, result.entrySet().stream()
+                .sorted(Map.Entry.<User.Id, Instant>comparingByValue().reversed())
+                .limit(MAX_SIZE)
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue)));
+    }
+
+    /**
+     * @return users ordered by most recently played with first
+     */
+    public Stream<User.Id> mostRecent() {
+        return lastPlayed.entrySet().stream()
+                .sorted(Map.Entry.<User.Id, Instant>comparingByValue().reversed()
+                        .thenComparing(entry -> entry.getKey().getId()))
+                .map(Map.Entry::getKey);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.domain.coplayer;
+
+import com.boardgamefiesta.domain.game.Game;
+import com.boardgamefiesta.domain.table.Player;
+import com.boardgamefiesta.domain.table.Table;
+import com.boardgamefiesta.domain.table.Tables;
+import com.boardgamefiesta.domain.user.User;
+import io.micrometer.core.annotation.Timed;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
+import java.time.Instant;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the users that each user recently played with, so they can be suggested without loading tables.
+ */
+@ApplicationScoped
+@Slf4j
+public class CoPlayerTracker {
+
+    private static final int BACKFILL_MAX_TABLES = 10;
+
+    private final Tables tables;
+    private final CoPlayerHistories coPlayerHistories;
+
+    @Inject
+    public CoPlayerTracker(@NonNull Tables tables, @NonNull CoPlayerHistories coPlayerHistories) {
+        this.tables = tables;
+        this.coPlayerHistories = coPlayerHistories;
+    }
+
+    @Timed("bgf.observer")
+    public void tableStarted(@Observes(during = TransactionPhase.AFTER_SUCCESS) Table.Started event) {
+        try {
+            var table = event.getTable().get();
+
+            played(table, table.getStarted());
+        } catch (RuntimeException e) {
+            log.error("Error while tracking co-players after: {}", event, e);
+        }
+    }
+
+    @Timed("bgf.observer")
+    public void tableEnded(@Observes(during = TransactionPhase.AFTER_SUCCESS) Table.Ended event) {
+        try {
+            played(event.getTable().get(), event.getTimestamp());
+        } catch (RuntimeException e) {
+            log.error("Error while tracking co-players after: {}", event, e);
+        }
+    }
+
+    /**
+     * Users that have not played since the history was introduced, get one derived from their last tables.
+     *
+     * <p>A derived history is not stored here, so reading does not write. It is stored when the user plays next.</p>
+     */
+    public CoPlayerHistory get(@NonNull User.Id userId, @NonNull Game.Id gameId) {
+        return coPlayerHistories.find(userId, gameId)
+                .orElseGet(() -> tables.findAll(userId, gameId, BACKFILL_MAX_TABLES)
+                        .reduce(CoPlayerHistory.empty(userId, gameId),
+                                (history, table) -> history.played(userIdsPlaying(table), table.getUpdated()),
+                                (a, b) -> b));
+    }
+
+    private void played(Table table, Instant timestamp) {
+        var userIds = userIdsPlaying(table);
+
+        // Concurrent updates of the same history may lose an entry, which is acceptable for suggestions
+        userIds.forEach(userId -> coPlayerHistories.put(get(userId, table.getGame().getId())
+                .played(userIds, timestamp)));
+    }
+
+    private static Set<User.Id> userIdsPlaying(Table table) {
+        return table.getPlayers().stream()
+                .filter(Player::isPlaying)
+                .flatMap(player -> player.getUserId().stream())
+                .collect(Collectors.toSet());
+    }
+}
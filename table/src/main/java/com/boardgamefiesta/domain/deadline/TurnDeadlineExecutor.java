@@ -0,0 +1,92 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.domain.deadline;
+
+import com.boardgamefiesta.domain.DomainService;
+import com.boardgamefiesta.domain.table.Player;
+import com.boardgamefiesta.domain.table.Table;
+import com.boardgamefiesta.domain.table.TableUpdater;
+import com.boardgamefiesta.domain.table.Tables;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.transaction.Transactional;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Forces the end of the turn of players that exceeded the turn limit.
+ */
+@ApplicationScoped
+@Slf4j
+public class TurnDeadlineExecutor implements DomainService {
+
+    private final Tables tables;
+
+    @Inject
+    TurnDeadlineExecutor(@NonNull Tables tables) {
+        this.tables = tables;
+    }
+
+    /**
+     * @return the turn deadline of the table if it has not expired yet, so it can be scheduled again
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public Optional<Instant> execute(Table.Id tableId) {
+        var pending = new AtomicReference<Instant>();
+
+        TableUpdater.update(tables, tableId, "deadline", table -> {
+            pending.set(null);
+
+            if (table.getStatus() != Table.Status.STARTED) {
+                return false;
+            }
+
+            // Deadline may have moved since it was scheduled, so check again
+            var expired = table.getCurrentPlayers().stream()
+                    .filter(Player::isUser)
+                    .filter(Player::isAfterTurnLimit)
+                    .collect(Collectors.toList());
+
+            if (expired.isEmpty()) {
+                // Executed before the turn limit, e.g. because the scheduled deadline was not precise enough
+                table.getTurnDeadline().ifPresent(pending::set);
+                return false;
+            }
+
+            log.debug("Forcing end of turn of {} player(s) in table {}", expired.size(), tableId.getId());
+
+            for (var player : expired) {
+                // Ending one turn may already have ended or restarted the turn of another player
+                if (player.isTurn() && player.isAfterTurnLimit()) {
+                    table.forceEndTurn(player);
+                }
+            }
+
+            return true;
+        });
+
+        return Optional.ofNullable(pending.get());
+    }
+
+}
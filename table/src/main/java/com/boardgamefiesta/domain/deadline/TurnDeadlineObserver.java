@@ -0,0 +1,61 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.domain.deadline;
+
+import com.boardgamefiesta.domain.table.Table;
+import io.micrometer.core.annotation.Timed;
+import lombok.NonNull;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.enterprise.inject.Any;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+
+@ApplicationScoped
+class TurnDeadlineObserver {
+
+    private final Instance<TurnDeadlineScheduler> turnDeadlineSchedulers;
+
+    @Inject
+    TurnDeadlineObserver(@Any @NonNull Instance<TurnDeadlineScheduler> turnDeadlineSchedulers) {
+        this.turnDeadlineSchedulers = turnDeadlineSchedulers;
+    }
+
+    @Timed("bgf.observer")
+    void stateChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) Table.StateChanged event) {
+        if (turnDeadlineSchedulers.isUnsatisfied()) {
+            // Avoid resolving the table when nothing is interested
+            return;
+        }
+
+        var table = event.getTable().get();
+
+        table.getTurnDeadline().ifPresentOrElse(
+                deadline -> turnDeadlineSchedulers.forEach(scheduler -> scheduler.schedule(table.getId(), deadline)),
+                () -> turnDeadlineSchedulers.forEach(scheduler -> scheduler.cancel(table.getId())));
+    }
+
+    @Timed("bgf.observer")
+    void abandoned(@Observes(during = TransactionPhase.AFTER_SUCCESS) Table.Abandoned event) {
+        turnDeadlineSchedulers.forEach(scheduler -> scheduler.cancel(event.getTableId()));
+    }
+
+}
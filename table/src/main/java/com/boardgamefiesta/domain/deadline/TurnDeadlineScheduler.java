@@ -0,0 +1,37 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.domain.deadline;
+
+import com.boardgamefiesta.domain.table.Table;
+
+import java.time.Instant;
+
+/**
+ * Keeps track of the current turn deadline of each table, and executes {@link TurnDeadlineExecutor} when it expires.
+ */
+public interface TurnDeadlineScheduler {
+
+    /**
+     * Schedules the deadline of a table, replacing any deadline that was scheduled before for that table.
+     */
+    void schedule(Table.Id tableId, Instant deadline);
+
+    void cancel(Table.Id tableId);
+
+}
@@ -20,6 +20,7 @@ package com.boardgamefiesta.domain.rating;
 
 import com.boardgamefiesta.domain.table.Table;
 import com.boardgamefiesta.domain.table.Tables;
+import io.micrometer.core.annotation.Timed;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
@@ -48,6 +49,7 @@ public class RatingAdjuster {
         this.ratings = ratings;
     }
 
+    @Timed("bgf.observer")
     public void tableEnded(@Observes(during = TransactionPhase.AFTER_SUCCESS) Table.Ended event) {
         try {
             var table = event.getTable().get();
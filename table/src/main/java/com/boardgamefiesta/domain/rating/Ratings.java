@@ -36,6 +36,12 @@ public interface Ratings extends Repository {
 
     Rating findLatest(User.Id userId, Game.Id gameId, Instant before);
 
+    /**
+     * Finds the latest rating of each user at once, or the initial rating if a user has none.
+     * The returned ratings only have a rating value and timestamp, not the table or the deltas.
+     */
+    Stream<Rating> findLatest(Collection<User.Id> userIds, Game.Id gameId);
+
     void addAll(Collection<Rating> ratings);
 
     Stream<Ranking> findRanking(Game.Id gameId, int maxResults);
@@ -210,6 +210,18 @@ public class Player implements Entity {
         endTurn();
     }
 
+    /**
+     * Ends the turn after the turn limit, when it was not forced by another player,
+     * so it does not count towards kicking the player.
+     */
+    public void endTurnAfterTurnLimit() {
+        if (!canForceEndTurn()) {
+            throw new CannotForceEndTurn();
+        }
+
+        endTurn();
+    }
+
     private boolean canForceEndTurn() {
         return isAfterTurnLimit();
     }
@@ -39,7 +39,7 @@ import java.util.stream.Stream;
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
 @Builder(toBuilder = true)
 @ToString(doNotUseGetters = true)
-public class Table implements AggregateRoot {
+public class Table implements AggregateRoot, TableSummary {
 
     private static final Duration RETENTION_NEW = Duration.of(2, ChronoUnit.DAYS);
     private static final Duration RETENTION_AFTER_ENDED = Duration.of(365 * 5, ChronoUnit.DAYS);
@@ -277,7 +277,7 @@ public class Table implements AggregateRoot {
 
         checkTurn(player);
 
-        runStateChange(state -> state.perform(player.asPlayer(), action, RANDOM));
+        runStateChange(state -> game.perform(state, player.asPlayer(), action, RANDOM));
     }
 
     public void executeAutoma(Player player) {
@@ -302,18 +302,28 @@ public class Table implements AggregateRoot {
         var currentState = this.currentState.get().orElseThrow(NotStarted::new);
         var state = currentState.getState();
 
-        var historicState = HistoricState.from(currentState);
+        var historicState = HistoricState.from(currentState, game.snapshot(state));
 
-        InGameEventListener eventListener = event -> log.add(new LogEntry(this, event));
+        // Only add to the log when the change succeeds
+        var logEntries = new ArrayList<LogEntry>();
+        InGameEventListener eventListener = event -> logEntries.add(new LogEntry(this, event));
         state.addEventListener(eventListener);
         try {
             change.accept(state);
-        } catch (InGameException e) {
-            throw new InGameError(game.getId(), e);
+        } catch (RuntimeException e) {
+            // State may have been changed partially, so continue from the state before the change
+            currentState.restore(game.snapshot(historicState.getState()));
+
+            if (e instanceof InGameException) {
+                throw new InGameError(game.getId(), (InGameException) e);
+            }
+            throw e;
         } finally {
             state.removeEventListener(eventListener);
         }
 
+        logEntries.forEach(log::add);
+
         currentState.next(state, historicState);
         historicStates.add(historicState);
 
@@ -419,8 +429,19 @@ public class Table implements AggregateRoot {
     }
 
     private void afterStateChange() {
+        afterStateChange(false);
+    }
+
+    /**
+     * @param replaced whether the state was replaced by another one, for which the scores are not known
+     */
+    private void afterStateChange(boolean replaced) {
         final State state = getState();
 
+        // Always poll, to reset the tracking
+        var changedScores = state.pollChangedScores()
+                .filter(players -> !replaced);
+
         if (status == Status.STARTED) {
             var newCurrentPlayers = state.getCurrentPlayers().stream()
                     .map(com.boardgamefiesta.api.domain.Player::getName)
@@ -451,7 +472,7 @@ public class Table implements AggregateRoot {
             end();
         } else {
             progress = state.getProgress();
-            assignScores();
+            assignScores(changedScores);
         }
     }
 
@@ -467,12 +488,23 @@ public class Table implements AggregateRoot {
     }
 
     private void assignScores() {
+        assignScores(Optional.empty());
+    }
+
+    /**
+     * @param changedScores players whose score may have changed, or empty to calculate the scores of all players
+     */
+    private void assignScores(Optional<Set<com.boardgamefiesta.api.domain.Player>> changedScores) {
         var state = getState();
 
         var winner = status == Status.ENDED ? state.getRanking().get(0) : null;
 
         for (Player player : players) {
             if (player.isPlaying()) {
+                if (player.getScore().isPresent() && changedScores.isPresent() && !changedScores.get().contains(player.asPlayer())) {
+                    continue;
+                }
+
                 var score = state.getScore(player.asPlayer());
                 player.assignScore(score, winner != null && winner.getName().equals(player.getId().getId()));
             } else {
@@ -543,20 +575,6 @@ public class Table implements AggregateRoot {
         updated = Instant.now();
     }
 
-    public boolean canStart() {
-        return status == Status.NEW && playersThatAccepted().count() >= game.getMinNumberOfPlayers();
-    }
-
-    public Optional<Player> getPlayerByUserId(User.Id userId) {
-        return players.stream()
-                .filter(player -> userId.equals(player.getUserId().orElse(null)))
-                .findAny();
-    }
-
-    public Set<Player> getCurrentPlayers() {
-        return players.stream().filter(Player::isTurn).collect(Collectors.toSet());
-    }
-
     public State getState() {
         return currentState.get().orElseThrow(NotStarted::new).getState();
     }
@@ -648,10 +666,28 @@ public class Table implements AggregateRoot {
                 .filter(Player::isActive)
                 .orElseThrow(NotPlayer::new);
 
-        var userId = player.getUserId().orElseThrow();
-
         player.forceEndTurn();
 
+        forceEndTurn(forcingPlayer, player);
+    }
+
+    /**
+     * Forces the end of the turn of a player that exceeded the turn limit, when no other player is around to do it.
+     *
+     * <p>Does not count towards kicking the player, because it was not forced by another player.</p>
+     */
+    public void forceEndTurn(@NonNull Player player) {
+        checkStarted();
+        checkPlayer(player);
+
+        player.endTurnAfterTurnLimit();
+
+        forceEndTurn(player, player);
+    }
+
+    private void forceEndTurn(Player forcingPlayer, Player player) {
+        var userId = player.getUserId().orElseThrow();
+
         log.add(new LogEntry(forcingPlayer, LogEntry.Type.FORCE_END_TURN, List.of(userId.getId())));
 
         runStateChange(state -> state.forceEndTurn(player.asPlayer(), RANDOM));
@@ -792,9 +828,9 @@ public class Table implements AggregateRoot {
 
         log.add(new LogEntry(player, LogEntry.Type.UNDO));
 
-        currentState.revertTo(previous);
+        currentState.revertTo(previous, game.snapshot(previous.getState()));
 
-        afterStateChange();
+        afterStateChange(true);
     }
 
     public boolean canUndo() {
@@ -807,6 +843,22 @@ public class Table implements AggregateRoot {
         return status != Status.ENDED && status != Status.ABANDONED;
     }
 
+    /**
+     * Earliest turn limit of the human players that currently have a turn.
+     * Computer players are not included, because they are executed by the automa.
+     */
+    public Optional<Instant> getTurnDeadline() {
+        if (status != Status.STARTED) {
+            return Optional.empty();
+        }
+
+        return players.stream()
+                .filter(Player::isTurn)
+                .filter(Player::isUser)
+                .flatMap(player -> player.getTurnLimit().stream())
+                .min(Comparator.naturalOrder());
+    }
+
     public boolean hasComputerPlayers() {
         return players.stream().anyMatch(player -> player.getType() == Player.Type.COMPUTER);
     }
@@ -815,11 +867,6 @@ public class Table implements AggregateRoot {
         return players.stream().filter(player -> player.getType() == Player.Type.USER).count() > 1;
     }
 
-    public boolean canJoin(User.Id userId) {
-        return status == Status.NEW && visibility == Visibility.PUBLIC
-                && !isPlayer(userId) && players.size() < maxNumberOfPlayers;
-    }
-
     public void changeType(Type type) {
         checkNew();
 
@@ -881,13 +928,6 @@ public class Table implements AggregateRoot {
                 .orElse(Collections.emptyList());
     }
 
-    public boolean canLeave(User.Id userId) {
-        return (status == Status.NEW || status == Status.STARTED)
-                && getPlayerByUserId(userId)
-                .map(Player::isPlaying)
-                .orElse(false);
-    }
-
     public boolean canJoin() {
         return status == Status.NEW
                 && visibility == Visibility.PUBLIC
@@ -962,9 +1002,9 @@ public class Table implements AggregateRoot {
 
         var currentState = this.currentState.get().orElseThrow(NotStarted::new);
 
-        currentState.revertTo(historicState);
+        currentState.revertTo(historicState, game.snapshot(historicState.getState()));
 
-        afterStateChange();
+        afterStateChange(true);
     }
 
     public enum Status {
@@ -1165,18 +1205,34 @@ public class Table implements AggregateRoot {
 
         public void next(State state, HistoricState previous) {
             this.state = state;
-            this.timestamp = Instant.now();
+            this.timestamp = nextTimestamp();
             this.previous = Lazy.of(Optional.of(previous));
             this.changed = true;
         }
 
-        public void revertTo(HistoricState historicState) {
-            this.state = historicState.getState();
+        /**
+         * @param state snapshot of the state of the historic state, because the current state will be changed afterwards
+         */
+        public void revertTo(HistoricState historicState, State state) {
+            this.state = state;
             this.previous = historicState.getPrevious();
-            this.timestamp = Instant.now();
+            this.timestamp = nextTimestamp();
             this.changed = true;
         }
 
+        /**
+         * @param state snapshot of the state before a change that failed
+         */
+        void restore(State state) {
+            this.state = state;
+        }
+
+        private Instant nextTimestamp() {
+            // Timestamps are used as key with millisecond precision, and must be unique, even when multiple changes are made at once
+            var now = Instant.now();
+            return timestamp == null || timestamp.toEpochMilli() < now.toEpochMilli() ? now : timestamp.plusMillis(1);
+        }
+
         public boolean canUndo() {
             return state.canUndo() && previous.get().isPresent();
         }
@@ -1194,10 +1250,13 @@ public class Table implements AggregateRoot {
         protected State state;
         protected Instant timestamp;
         protected Lazy<Optional<HistoricState>> previous;
+        protected boolean changed; // was a current state that was never saved
 
-        public static HistoricState from(CurrentState currentState) {
-            // TODO Clone state to prevent it from being modified after this (and wrap in immutable?)
-            return new HistoricState(currentState.state, currentState.timestamp, currentState.previous);
+        /**
+         * @param state snapshot of the state of the current state, because the current state will be changed afterwards
+         */
+        public static HistoricState from(CurrentState currentState, State state) {
+            return new HistoricState(state, currentState.timestamp, currentState.previous, currentState.changed);
         }
     }
 
@@ -1248,7 +1307,7 @@ public class Table implements AggregateRoot {
                 .seats(seats)
                 .players(new HashSet<>(Collections.singleton(ownerPlayer)))
                 .log(new Log()) // TODO Add in game events of historic state to log?
-                .currentState(Lazy.of(Optional.of(CurrentState.initial(state))))
+                .currentState(Lazy.of(Optional.of(CurrentState.initial(game.snapshot(state)))))
                 .historicStates(new HistoricStates())
                 .minNumberOfPlayers(numberOfPlayers)
                 .maxNumberOfPlayers(numberOfPlayers)
@@ -1259,7 +1318,7 @@ public class Table implements AggregateRoot {
 
         new Created(Lazy.of(newTable), newTable.getId()).fire();
 
-        newTable.afterStateChange();
+        newTable.afterStateChange(true);
 
         return newTable;
     }
@@ -1402,15 +1461,41 @@ public class Table implements AggregateRoot {
         }
     }
 
+    /**
+     * Keeps the most recent historic states in memory, and tracks the ones that were never saved
+     * because multiple changes were made to a table before saving, until {@link #flush()} is called.
+     */
     public static class HistoricStates {
 
+        private static final int MAX_SIZE = 20;
+
         private final SortedMap<Instant, HistoricState> historicStates = new TreeMap<>();
+        private final List<HistoricState> changed = new ArrayList<>();
 
         protected final void add(HistoricState historicState) {
             if (historicStates.containsKey(historicState.timestamp)) {
                 throw new IllegalStateException("timestamp already exists: " + historicState.timestamp);
             }
             historicStates.put(historicState.timestamp, historicState);
+
+            if (historicStates.size() > MAX_SIZE) {
+                historicStates.remove(historicStates.firstKey());
+            }
+
+            if (historicState.changed) {
+                changed.add(historicState);
+            }
+        }
+
+        /**
+         * @return historic states that were never saved, in order
+         */
+        public List<HistoricState> getChanged() {
+            return Collections.unmodifiableList(changed);
+        }
+
+        public void flush() {
+            changed.clear();
         }
 
         public Optional<HistoricState> at(Instant timestamp) {
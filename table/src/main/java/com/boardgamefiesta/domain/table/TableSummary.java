@@ -0,0 +1,105 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.domain.table;
+
+import com.boardgamefiesta.domain.game.Game;
+import com.boardgamefiesta.domain.user.User;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Read model of a table, with everything that is needed to list it, but without the state or log.
+ * A {@link Table} is also a summary of itself.
+ */
+public interface TableSummary {
+
+    Table.Id getId();
+
+    Game getGame();
+
+    Table.Type getType();
+
+    Table.Mode getMode();
+
+    Table.Visibility getVisibility();
+
+    Table.Status getStatus();
+
+    int getProgress();
+
+    Options getOptions();
+
+    Instant getCreated();
+
+    Instant getStarted();
+
+    Instant getEnded();
+
+    User.Id getOwnerId();
+
+    List<Seat> getSeats();
+
+    Set<Player> getPlayers();
+
+    int getMinNumberOfPlayers();
+
+    int getMaxNumberOfPlayers();
+
+    boolean isAutoStart();
+
+    default Optional<Player> getPlayerByUserId(User.Id userId) {
+        return getPlayers().stream()
+                .filter(player -> userId.equals(player.getUserId().orElse(null)))
+                .findAny();
+    }
+
+    default Set<Player> getCurrentPlayers() {
+        return getPlayers().stream().filter(Player::isTurn).collect(Collectors.toSet());
+    }
+
+    /**
+     * @return ids of the users at this table, including players that left
+     */
+    default Stream<User.Id> getUserIds() {
+        return getPlayers().stream().flatMap(player -> player.getUserId().stream());
+    }
+
+    default boolean canStart() {
+        return getStatus() == Table.Status.NEW
+                && getPlayers().stream().filter(player -> player.getStatus() == Player.Status.ACCEPTED).count()
+                >= getGame().getMinNumberOfPlayers();
+    }
+
+    default boolean canJoin(User.Id userId) {
+        return getStatus() == Table.Status.NEW && getVisibility() == Table.Visibility.PUBLIC
+                && getPlayerByUserId(userId).isEmpty() && getPlayers().size() < getMaxNumberOfPlayers();
+    }
+
+    default boolean canLeave(User.Id userId) {
+        return (getStatus() == Table.Status.NEW || getStatus() == Table.Status.STARTED)
+                && getPlayerByUserId(userId)
+                .map(Player::isPlaying)
+                .orElse(false);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.domain.table;
+
+import io.micrometer.core.instrument.Metrics;
+import lombok.NonNull;
+
+import java.util.function.Predicate;
+
+/**
+ * Changes a table and saves it, starting over with a freshly loaded table when it was modified concurrently.
+ */
+public final class TableUpdater {
+
+    public static final int MAX_RETRIES = 30;
+
+    private TableUpdater() {
+    }
+
+    /**
+     * @param operation name of the operation, used as tag of the retries metric
+     * @param change    changes the table and returns whether it must be saved
+     * @return <code>false</code> if the table was not found
+     */
+    public static boolean update(@NonNull Tables tables, @NonNull Table.Id tableId, @NonNull String operation, @NonNull Predicate<Table> change) {
+        var retries = 0;
+        do {
+            var table = tables.findById(tableId).orElse(null);
+
+            if (table == null) {
+                return false;
+            }
+
+            if (!change.test(table)) {
+                return true;
+            }
+
+            try {
+                tables.update(table);
+                return true;
+            } catch (Tables.ConcurrentModificationException e) {
+                if (retries >= MAX_RETRIES) {
+                    throw new RuntimeException("Update failed after " + retries + " retries. Table id " + tableId.getId() + ", version " + table.getVersion(), e);
+                }
+
+                Metrics.counter("bgf.concurrent.modification.retries", "operation", operation).increment();
+                retries++;
+            }
+        } while (true);
+    }
+
+}
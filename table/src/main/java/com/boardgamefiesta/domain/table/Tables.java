@@ -23,6 +23,7 @@ import com.boardgamefiesta.domain.Repository;
 import com.boardgamefiesta.domain.game.Game;
 import com.boardgamefiesta.domain.user.User;
 import lombok.NonNull;
+import lombok.Value;
 
 import java.time.Instant;
 import java.util.Optional;
@@ -37,6 +38,11 @@ public interface Tables extends Repository {
 
     Optional<Table> findById(Table.Id id);
 
+    /**
+     * Finds multiple tables at once. Tables that do not exist (anymore) are skipped.
+     */
+    Stream<Table> findByIds(@NonNull Stream<Table.Id> ids);
+
     void add(Table table);
 
     void update(Table table) throws ConcurrentModificationException;
@@ -45,6 +51,16 @@ public interface Tables extends Repository {
 
     Stream<Table> findAll(@NonNull User.Id userId, int maxResults);
 
+    /**
+     * Same tables as {@link #findActive(User.Id)}, as summaries for listing.
+     */
+    Stream<TableSummary> findActiveSummaries(@NonNull User.Id userId);
+
+    /**
+     * Same tables as {@link #findAll(User.Id, int)}, as summaries for listing.
+     */
+    Stream<TableSummary> findAllSummaries(@NonNull User.Id userId, int maxResults);
+
     Stream<Table> findAll(@NonNull User.Id userId, @NonNull Game.Id gameId, int maxResults);
 
     Stream<Table> findStarted(@NonNull Game.Id gameId, int maxResults, @NonNull Instant from, @NonNull Instant to);
@@ -61,6 +77,17 @@ public interface Tables extends Repository {
 
     Stream<LogEntry> findLogEntries(@NonNull Table.Id tableId, @NonNull Instant since, @NonNull Instant before, int limit);
 
+    /**
+     * Finds the tables with a turn deadline before the given timestamp, earliest first.
+     */
+    Stream<TurnDeadline> findTurnDeadlines(@NonNull Instant before, int maxResults);
+
+    @Value
+    class TurnDeadline {
+        @NonNull Table.Id tableId;
+        @NonNull Instant deadline;
+    }
+
     final class ExceedsMaxActiveGames extends AggregateRoot.InvalidCommandException {
         public ExceedsMaxActiveGames() {
             super("EXCEEDS_MAX_ACTIVE_GAMES");
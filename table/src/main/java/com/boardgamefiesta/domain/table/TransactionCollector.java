@@ -0,0 +1,106 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.domain.table;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.enterprise.inject.Instance;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Collects side effects of domain events (e.g. notifications) until the current transaction is committed,
+ * so they can be sent at once, or sends them immediately if there is no transaction.
+ *
+ * <p>Side effects are dropped if the transaction will not commit (e.g. marked for rollback).</p>
+ *
+ * @param <T> container that side effects are collected in, one per transaction
+ */
+@Slf4j
+public class TransactionCollector<T> {
+
+    private final Supplier<T> factory;
+    private final Consumer<T> sender;
+
+    public TransactionCollector(@NonNull Supplier<T> factory, @NonNull Consumer<T> sender) {
+        this.factory = factory;
+        this.sender = sender;
+    }
+
+    public void collect(@NonNull Instance<TransactionSynchronizationRegistry> transactionSynchronizationRegistry,
+                        @NonNull Consumer<T> collector) {
+        if (!transactionSynchronizationRegistry.isResolvable()) {
+            sendImmediately(collector);
+            return;
+        }
+
+        var registry = transactionSynchronizationRegistry.get();
+        var status = registry.getTransactionStatus();
+        if (status == Status.STATUS_NO_TRANSACTION) {
+            sendImmediately(collector);
+            return;
+        }
+
+        if (status != Status.STATUS_ACTIVE) {
+            log.debug("Dropping side effect, because transaction status is {}", status);
+            return;
+        }
+
+        // This collector itself is the key, so multiple collectors can be active in the same transaction
+        @SuppressWarnings("unchecked")
+        var collected = (T) registry.getResource(this);
+        if (collected == null) {
+            var created = factory.get();
+            registry.putResource(this, created);
+            registry.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == Status.STATUS_COMMITTED) {
+                        send(created);
+                    }
+                }
+            });
+            collected = created;
+        }
+        collector.accept(collected);
+    }
+
+    private void sendImmediately(Consumer<T> collector) {
+        var immediate = factory.get();
+        collector.accept(immediate);
+        send(immediate);
+    }
+
+    private void send(T collected) {
+        try {
+            sender.accept(collected);
+        } catch (RuntimeException e) {
+            log.error("Could not send {}", collected.getClass().getSimpleName(), e);
+        }
+    }
+
+}
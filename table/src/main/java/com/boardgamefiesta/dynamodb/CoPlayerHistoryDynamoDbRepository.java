@@ -0,0 +1,102 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.dynamodb;
+
+import com.boardgamefiesta.domain.coplayer.CoPlayerHistories;
+import com.boardgamefiesta.domain.coplayer.CoPlayerHistory;
+import com.boardgamefiesta.domain.game.Game;
+import com.boardgamefiesta.domain.user.User;
+import lombok.NonNull;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * PK=User#<ID>
+ * SK=CoPlayers#<GameID>
+ * <p>
+ * One item per user and game, holding the user ids and last played timestamps, so it can be read at once.
+ */
+@ApplicationScoped
+public class CoPlayerHistoryDynamoDbRepository implements CoPlayerHistories {
+
+    private static final String PK = "PK";
+    private static final String SK = "SK";
+
+    private static final String USER_PREFIX = "User#";
+    private static final String CO_PLAYERS_PREFIX = "CoPlayers#";
+
+    private static final String CO_PLAYERS = "CoPlayers";
+
+    private final DynamoDbClient client;
+    private final DynamoDbConfiguration config;
+
+    @Inject
+    public CoPlayerHistoryDynamoDbRepository(@NonNull DynamoDbClient client,
+                                             @NonNull DynamoDbConfiguration config) {
+        this.client = client;
+        this.config = config;
+    }
+
+    @Override
+    public Optional<CoPlayerHistory> find(@NonNull User.Id userId, @NonNull Game.Id gameId) {
+        var response = client.getItem(GetItemRequest.builder()
+                .tableName(config.tableName())
+                .key(key(userId, gameId))
+                .build());
+
+        if (!response.hasItem() || response.item().isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new CoPlayerHistory(userId, gameId, Item.of(response.item()).getMap(CO_PLAYERS).entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(
+                        entry -> User.Id.of(entry.getKey()),
+                        entry -> Instant.parse(entry.getValue().s())))));
+    }
+
+    @Override
+    public void put(@NonNull CoPlayerHistory coPlayerHistory) {
+        client.putItem(PutItemRequest.builder()
+                .tableName(config.tableName())
+                .item(new Item()
+                        .setString(PK, USER_PREFIX + coPlayerHistory.getUserId().getId())
+                        .setString(SK, CO_PLAYERS_PREFIX + coPlayerHistory.getGameId().getId())
+                        .set(CO_PLAYERS, Item.map(coPlayerHistory.getLastPlayed().entrySet().stream()
+                                .collect(Collectors.toMap(
+                                        entry -> entry.getKey().getId(),
+                                        entry -> Item.s(entry.getValue())))))
+                        .asMap())
+                .build());
+    }
+
+    private static Map<String, AttributeValue> key(User.Id userId, Game.Id gameId) {
+        return Map.of(
+                PK, Item.s(USER_PREFIX + userId.getId()),
+                SK, Item.s(CO_PLAYERS_PREFIX + gameId.getId()));
+    }
+}
@@ -178,6 +178,40 @@ public class RatingDynamoDbRepositoryV2 implements Ratings {
                 .orElse(Rating.initial(userId, gameId));
     }
 
+    @Override
+    public Stream<Rating> findLatest(Collection<User.Id> userIds, Game.Id gameId) {
+        // The ranking items always hold the latest rating of a user, and can be batch-get by key
+        var latest = Chunked.stream(userIds.stream().distinct(), BatchGetItems.MAX_KEYS)
+                .flatMap(chunk -> BatchGetItems.batchGetItems(client, config.tableName(), KeysAndAttributes.builder()
+                        .keys(chunk
+                                .map(userId -> Map.of(
+                                        PK, Item.s(USER_PREFIX + userId.getId()),
+                                        SK, Item.s(RATING_PREFIX + gameId.getId())))
+                                .collect(Collectors.toList()))
+                        .build()).stream())
+                .map(Item::of)
+                .map(this::mapToLatestRating)
+                .collect(Collectors.toMap(Rating::getUserId, Function.identity()));
+
+        var now = Instant.now();
+        return userIds.stream()
+                .distinct()
+                .map(userId -> latest.containsKey(userId) ? latest.get(userId) : findLatest(userId, gameId, now));
+    }
+
+    private Rating mapToLatestRating(Item item) {
+        var pk = item.getString(PK).split("#");
+        var sk = item.getString(SK).split("#");
+        var gsi1sk = item.getString(GSI1SK).split("#");
+        return Rating.builder()
+                .userId(User.Id.of(pk[1]))
+                .gameId(Game.Id.fromString(sk[1]))
+                .rating(Integer.parseInt(gsi1sk[1]))
+                .timestamp(Instant.parse(gsi1sk[2]))
+                .deltas(Collections.emptyMap())
+                .build();
+    }
+
     @Override
     public void addAll(Collection<Rating> ratings) {
         client.batchWriteItem(BatchWriteItemRequest.builder()
@@ -23,11 +23,16 @@ import com.boardgamefiesta.api.domain.PlayerColor;
 import com.boardgamefiesta.api.domain.State;
 import com.boardgamefiesta.domain.Repository;
 import com.boardgamefiesta.domain.game.Game;
+import com.boardgamefiesta.domain.game.GameMetrics;
 import com.boardgamefiesta.domain.game.Games;
 import com.boardgamefiesta.domain.table.*;
 import com.boardgamefiesta.domain.user.User;
 import com.boardgamefiesta.dynamodb.json.DynamoDbJson;
 import com.boardgamefiesta.dynamodb.json.DynamoDbJsonGenerator;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import lombok.Builder;
 import lombok.NonNull;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
@@ -39,6 +44,7 @@ import javax.inject.Inject;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -71,12 +77,18 @@ public class TableDynamoDbRepositoryV2 implements Tables {
     private static final String STATE_PREFIX = "State#";
     private static final String GAME_PREFIX = "Game#";
     private static final String LOG_PREFIX = "Log#";
+    private static final String DEADLINE_PREFIX = "Deadline#";
 
     private static final String VERSION = "Version";
     private static final String TTL = "TTL";
 
     private static final int MAX_BATCH_WRITE_SIZE = 25;
-    private static final int MAX_BATCH_GET_ITEM_SIZE = 100;
+    /**
+     * Attributes of a Table# item that are needed for a summary, besides what is in the index keys.
+     */
+    private static final List<String> SUMMARY_ATTRIBUTES = List.of(PK, "Type", "Mode", "Visibility", "Status",
+            "Progress", "Options", "Created", "Started", "Ended", "OwnerId", "Players", "Seats",
+            "MinNumberOfPlayers", "MaxNumberOfPlayers", "AutoStart");
     private static final Table.Id MAX_TABLE_ID = Table.Id.of("ffffffff-ffff-ffff-ffff-ffffffffffff");
     private static final DateTimeFormatter TIMESTAMP_SECS_FORMATTER = new DateTimeFormatterBuilder()
             .parseStrict()
@@ -104,6 +116,16 @@ public class TableDynamoDbRepositoryV2 implements Tables {
         return GAME_PREFIX + gameId.getId() + "#" + Math.abs(tableId.hashCode()) % config.writeGameIdShards();
     }
 
+    private String shardedDeadlineGSIPK(Table.Id tableId) {
+        return DEADLINE_PREFIX + Math.abs(tableId.hashCode()) % config.writeGameIdShards();
+    }
+
+    private static String deadlineGSISK(Table.Id tableId, Instant deadline) {
+        // Rounded up to whole seconds, so a deadline loaded from the index never expires before the actual turn limit
+        var seconds = deadline.truncatedTo(ChronoUnit.SECONDS);
+        return DEADLINE_PREFIX + TIMESTAMP_SECS_FORMATTER.format(seconds.isBefore(deadline) ? seconds.plusSeconds(1) : seconds) + "#" + tableId.getId();
+    }
+
     @Override
     public Optional<Table> findById(Table.Id id) {
         log.debug("findById: {}", id);
@@ -160,6 +182,8 @@ public class TableDynamoDbRepositoryV2 implements Tables {
                                                 .build())
                                         .build()),
 
+                        changedHistoricStates(table),
+
                         table.getCurrentState().get().stream()
                                 .map(currentState -> WriteRequest.builder()
                                         .putRequest(PutRequest.builder()
@@ -182,6 +206,22 @@ public class TableDynamoDbRepositoryV2 implements Tables {
                         client.batchWriteItem(BatchWriteItemRequest.builder()
                                 .requestItems(Map.of(config.tableName(), chunk))
                                 .build()));
+
+        table.getHistoricStates().flush();
+    }
+
+    /**
+     * Historic states that were never saved, because multiple changes were made to the table before saving.
+     */
+    private Stream<WriteRequest> changedHistoricStates(Table table) {
+        return table.getHistoricStates().getChanged().stream()
+                .map(historicState -> WriteRequest.builder()
+                        .putRequest(PutRequest.builder()
+                                .item(mapItemFromState(table.getId(),
+                                        table.getGame(), historicState.getState(), historicState.getTimestamp(),
+                                        historicState.getPrevious().get().map(Table.HistoricState::getTimestamp)))
+                                .build())
+                        .build());
     }
 
     private Item mapItemFromLogEntry(LogEntry logEntry, Table.Id tableId) {
@@ -200,14 +240,6 @@ public class TableDynamoDbRepositoryV2 implements Tables {
 
     @Override
     public void update(Table table) {
-        if (table.getCurrentState().isResolved()) {
-            table.getCurrentState().get()
-                    .filter(Table.CurrentState::isChanged)
-                    .ifPresent(currentState -> addState(table.getId(),
-                            table.getGame(), currentState.getState(), currentState.getTimestamp(),
-                            currentState.getPrevious().get().map(Table.HistoricState::getTimestamp)));
-        }
-
         var updateItem = new UpdateItem()
                 .setInt(VERSION, table.getVersion() + 1)
                 .setEnum("Type", table.getType())
@@ -262,41 +294,94 @@ public class TableDynamoDbRepositoryV2 implements Tables {
             updateItem.setString(GSI3PK, shardedGameGSIPK(table.getGame().getId(), table.getId()));
             updateItem.setString(GSI3SK, GSISK.fromTable(table));
         } else {
-            updateItem.remove(GSI3PK, GSI3SK);
+            // GSI3 is not used by started tables for finding open tables, so it is overloaded for the turn deadline
+            table.getTurnDeadline().ifPresentOrElse(deadline -> {
+                updateItem.setString(GSI3PK, shardedDeadlineGSIPK(table.getId()));
+                updateItem.setString(GSI3SK, deadlineGSISK(table.getId(), deadline));
+            }, () -> updateItem.remove(GSI3PK, GSI3SK));
         }
 
         updateItem.expressionAttributeValue(":ExpectedVersion", Item.n(table.getVersion()));
 
-        var request = UpdateItemRequest.builder()
-                .tableName(config.tableName())
-                .key(Map.of(
-                        PK, Item.s(TABLE_PREFIX + table.getId().getId()),
-                        SK, Item.s(TABLE_PREFIX + table.getId().getId())
-                ))
-                .conditionExpression(VERSION + "=:ExpectedVersion")
-                .updateExpression(updateItem.getUpdateExpression())
-                .expressionAttributeNames(updateItem.getExpressionAttributeNames())
-                .expressionAttributeValues(updateItem.getExpressionAttributeValues())
-                .build();
-
-        try {
-            client.updateItem(request);
-        } catch (ConditionalCheckFailedException e) {
-            throw new Repository.ConcurrentModificationException(e);
+        var key = Map.of(
+                PK, Item.s(TABLE_PREFIX + table.getId().getId()),
+                SK, Item.s(TABLE_PREFIX + table.getId().getId())
+        );
+
+        var changedCurrentState = table.getCurrentState().isResolved()
+                ? table.getCurrentState().get().filter(Table.CurrentState::isChanged)
+                : Optional.<Table.CurrentState>empty();
+
+        if (changedCurrentState.isPresent()) {
+            // The latest state item is considered the current state, so it must only be written when the version check succeeds
+            var currentState = changedCurrentState.get();
+            var request = TransactWriteItemsRequest.builder()
+                    .transactItems(TransactWriteItem.builder()
+                                    .update(Update.builder()
+                                            .tableName(config.tableName())
+                                            .key(key)
+                                            .conditionExpression(VERSION + "=:ExpectedVersion")
+                                            .updateExpression(updateItem.getUpdateExpression())
+                                            .expressionAttributeNames(updateItem.getExpressionAttributeNames())
+                                            .expressionAttributeValues(updateItem.getExpressionAttributeValues())
+                                            .build())
+                                    .build(),
+                            TransactWriteItem.builder()
+                                    .put(Put.builder()
+                                            .tableName(config.tableName())
+                                            .item(mapItemFromState(table.getId(),
+                                                    table.getGame(), currentState.getState(), currentState.getTimestamp(),
+                                                    currentState.getPrevious().get().map(Table.HistoricState::getTimestamp)))
+                                            .build())
+                                    .build())
+                    .build();
+
+            try {
+                client.transactWriteItems(request);
+            } catch (TransactionCanceledException e) {
+                if (e.hasCancellationReasons() && e.cancellationReasons().stream()
+                        .map(CancellationReason::code)
+                        .anyMatch(code -> "ConditionalCheckFailed".equals(code) || "TransactionConflict".equals(code))) {
+                    Metrics.counter("bgf.repository.concurrent.modifications", "entity", "table").increment();
+                    throw new Repository.ConcurrentModificationException(e);
+                }
+                throw e;
+            }
+        } else {
+            var request = UpdateItemRequest.builder()
+                    .tableName(config.tableName())
+                    .key(key)
+                    .conditionExpression(VERSION + "=:ExpectedVersion")
+                    .updateExpression(updateItem.getUpdateExpression())
+                    .expressionAttributeNames(updateItem.getExpressionAttributeNames())
+                    .expressionAttributeValues(updateItem.getExpressionAttributeValues())
+                    .build();
+
+            try {
+                client.updateItem(request);
+            } catch (ConditionalCheckFailedException e) {
+                Metrics.counter("bgf.repository.concurrent.modifications", "entity", "table").increment();
+                throw new Repository.ConcurrentModificationException(e);
+            }
         }
 
+        // Historic states are older than the current state, so they can never shadow it
+        addHistoricStates(table);
+
         updatePlayerItems(table);
 
         addLogEntries(table);
     }
 
-    private void addState(@NonNull Table.Id tableId,
-                          @NonNull Game game, @NonNull State state, @NonNull Instant timestamp,
-                          @NonNull Optional<Instant> previousTimestamp) {
-        client.putItem(PutItemRequest.builder()
-                .tableName(config.tableName())
-                .item(mapItemFromState(tableId, game, state, timestamp, previousTimestamp))
-                .build());
+    private void addHistoricStates(Table table) {
+        changedHistoricStates(table)
+                .collect(Chunked.chunked(MAX_BATCH_WRITE_SIZE))
+                .forEach(writeRequests ->
+                        client.batchWriteItem(BatchWriteItemRequest.builder()
+                                .requestItems(Map.of(config.tableName(), writeRequests))
+                                .build()));
+
+        table.getHistoricStates().flush();
     }
 
     private void addLogEntries(Table table) {
@@ -371,6 +456,39 @@ public class TableDynamoDbRepositoryV2 implements Tables {
                 .limit(maxResults));
     }
 
+    @Override
+    public Stream<TableSummary> findActiveSummaries(@NonNull User.Id userId) {
+        return findSummaries(client.queryPaginator(QueryRequest.builder()
+                        .tableName(config.tableName())
+                        .indexName(GSI2)
+                        .scanIndexForward(false)
+                        .keyConditionExpression(GSI2PK + "=:GSI2PK AND begins_with(" + GSI2SK + ",:GSI2SK)")
+                        .expressionAttributeValues(Map.of(
+                                ":GSI2PK", Item.s(USER_PREFIX + userId.getId()),
+                                ":GSI2SK", Item.s(TABLE_PREFIX)
+                        ))
+                        .build())
+                .items().stream()
+                .map(item -> GSISK.parse(item.get(GSI2SK).s())));
+    }
+
+    @Override
+    public Stream<TableSummary> findAllSummaries(@NonNull User.Id userId, int maxResults) {
+        return findSummaries(client.queryPaginator(QueryRequest.builder()
+                        .tableName(config.tableName())
+                        .indexName(GSI1)
+                        .scanIndexForward(false)
+                        .keyConditionExpression(GSI1PK + "=:GSI1PK AND begins_with(" + GSI1SK + ",:GSI1SK)")
+                        .expressionAttributeValues(Map.of(
+                                ":GSI1PK", Item.s(USER_PREFIX + userId.getId()),
+                                ":GSI1SK", Item.s(TABLE_PREFIX)
+                        ))
+                        .build())
+                .items().stream()
+                .map(item -> GSISK.parse(item.get(GSI1SK).s()))
+                .limit(maxResults));
+    }
+
     @Override
     public Stream<Table> findAll(@NonNull User.Id userId, Game.Id gameId, int maxResults) {
         return findByIds(client.queryPaginator(QueryRequest.builder()
@@ -498,6 +616,43 @@ public class TableDynamoDbRepositoryV2 implements Tables {
                 .limit(maxResults));
     }
 
+    @Override
+    public Stream<TurnDeadline> findTurnDeadlines(@NonNull Instant before, int maxResults) {
+        if (maxResults < 1) {
+            throw new IllegalArgumentException("Max results must be >=1, but was: " + maxResults);
+        }
+
+        var gsi3skTo = DEADLINE_PREFIX + TIMESTAMP_SECS_FORMATTER.format(before);
+
+        return IntStream.range(0, config.readGameIdShards())
+                // Scatter
+                .parallel()
+                .mapToObj(shard -> client.queryPaginator(QueryRequest.builder()
+                                .tableName(config.tableName())
+                                .indexName(GSI3)
+                                .keyConditionExpression(GSI3PK + "=:GSI3PK AND " + GSI3SK + " BETWEEN :GSI3SKFrom AND :GSI3SKTo")
+                                .expressionAttributeValues(Map.of(
+                                        ":GSI3PK", Item.s(DEADLINE_PREFIX + shard),
+                                        ":GSI3SKFrom", Item.s(DEADLINE_PREFIX),
+                                        ":GSI3SKTo", Item.s(gsi3skTo)
+                                ))
+                                .limit(maxResults)
+                                .build())
+                        .stream()
+                        .filter(QueryResponse::hasItems)
+                        .flatMap(response -> response.items().stream())
+                        .limit(maxResults))
+                // Gather
+                .flatMap(Function.identity())
+                .map(item -> item.get(GSI3SK).s())
+                .sorted()
+                .limit(maxResults)
+                .map(gsi3sk -> {
+                    var parts = gsi3sk.split("#");
+                    return new TurnDeadline(Table.Id.of(parts[2]), Instant.from(TIMESTAMP_SECS_FORMATTER.parse(parts[1])));
+                });
+    }
+
     @Override
     public Stream<Table> findEndedWithHumanPlayers(@NonNull Game.Id gameId, int maxResults, @NonNull Instant from, @NonNull Instant to, boolean ascending) {
         return findEndedWithHumanPlayers(gameId, maxResults, from, to, ascending, MAX_TABLE_ID);
@@ -557,32 +712,62 @@ public class TableDynamoDbRepositoryV2 implements Tables {
     /**
      * @return guarantees same order as input
      */
-    private Stream<Table> findByIds(Stream<Table.Id> ids) {
-        return Chunked.stream(ids, MAX_BATCH_GET_ITEM_SIZE)
+    @Override
+    public Stream<Table> findByIds(@NonNull Stream<Table.Id> ids) {
+        return Chunked.stream(ids, BatchGetItems.MAX_KEYS)
                 .map(chunk -> chunk
                         .map(id -> Map.of(
                                 PK, Item.s(TABLE_PREFIX + id.getId()),
                                 SK, Item.s(TABLE_PREFIX + id.getId())))
                         .collect(Collectors.toList()))
                 .flatMap(keys -> {
-                    var response = client.batchGetItem(BatchGetItemRequest.builder()
-                            .requestItems(Map.of(config.tableName(),
-                                    KeysAndAttributes.builder()
-                                            .keys(keys)
-                                            .build()))
-                            .build());
-
-                    if (response.hasResponses()) {
-                        var items = response.responses().get(config.tableName()).stream()
-                                .collect(Collectors.toMap(item -> item.get(PK).s(), Function.identity()));
-                        return keys.stream()
-                                .map(key -> key.get(PK).s())
-                                .map(items::get)
-                                .map(Item::of)
-                                .map(Collections::singletonList)
-                                .map(this::mapToTable);
-                    }
-                    return Stream.empty();
+                    var items = BatchGetItems.batchGetItems(client, config.tableName(), KeysAndAttributes.builder()
+                                    .keys(keys)
+                                    .build())
+                            .stream()
+                            .collect(Collectors.toMap(item -> item.get(PK).s(), Function.identity()));
+
+                    return keys.stream()
+                            .map(key -> key.get(PK).s())
+                            .filter(items::containsKey)
+                            .map(items::get)
+                            .map(Item::of)
+                            .map(Collections::singletonList)
+                            .map(this::mapToTable);
+                });
+    }
+
+    /**
+     * Table id and game are taken from the index keys. Only the other attributes of the Table# items are read,
+     * and no aggregates are reconstructed.
+     *
+     * @return guarantees same order as input
+     */
+    private Stream<TableSummary> findSummaries(Stream<GSISK> keys) {
+        var projectionExpression = SUMMARY_ATTRIBUTES.stream()
+                .map(name -> "#" + name)
+                .collect(Collectors.joining(","));
+        var expressionAttributeNames = SUMMARY_ATTRIBUTES.stream()
+                .collect(Collectors.toMap(name -> "#" + name, Function.identity()));
+
+        return Chunked.stream(keys, BatchGetItems.MAX_KEYS)
+                .map(chunk -> chunk.collect(Collectors.toList()))
+                .flatMap(chunk -> {
+                    var items = BatchGetItems.batchGetItems(client, config.tableName(), KeysAndAttributes.builder()
+                                    .keys(chunk.stream()
+                                            .map(key -> Map.of(
+                                                    PK, Item.s(TABLE_PREFIX + key.getTableId().getId()),
+                                                    SK, Item.s(TABLE_PREFIX + key.getTableId().getId())))
+                                            .collect(Collectors.toList()))
+                                    .projectionExpression(projectionExpression)
+                                    .expressionAttributeNames(expressionAttributeNames)
+                                    .build())
+                            .stream()
+                            .collect(Collectors.toMap(item -> item.get(PK).s(), Function.identity()));
+
+                    return chunk.stream()
+                            .filter(key -> items.containsKey(TABLE_PREFIX + key.getTableId().getId()))
+                            .map(key -> mapToSummary(key, Item.of(items.get(TABLE_PREFIX + key.getTableId().getId()))));
                 });
     }
 
@@ -671,6 +856,11 @@ public class TableDynamoDbRepositoryV2 implements Tables {
         if (table.getStatus() == Table.Status.NEW && table.canJoin()) {
             item.setString(GSI3PK, shardedGameGSIPK(table.getGame().getId(), table.getId()));
             item.setString(GSI3SK, GSISK.fromTable(table));
+        } else {
+            table.getTurnDeadline().ifPresent(deadline -> {
+                item.setString(GSI3PK, shardedDeadlineGSIPK(table.getId()));
+                item.setString(GSI3SK, deadlineGSISK(table.getId(), deadline));
+            });
         }
 
         item.setString(GSI4PK, shardedGameGSIPK(table.getGame().getId(), table.getId()));
@@ -736,16 +926,25 @@ public class TableDynamoDbRepositoryV2 implements Tables {
                                                          Optional<Instant> previousTimestamp) {
         var stateSerializer = game.getProvider().getStateSerializer();
 
-        AttributeValue serialized;
-        if (stateSerializer.isJsonGeneratorSupported()) {
-            var jsonGenerator = new DynamoDbJsonGenerator();
-            stateSerializer.serialize(state, jsonGenerator);
-            serialized = jsonGenerator.getAttributeValue();
-        } else {
-            serialized = DynamoDbJson.toJson(jsonBuilderFactory -> stateSerializer.serialize(state, jsonBuilderFactory));
-        }
+        var serialized = GameMetrics.timer(game.getId(), "serialize").record(() -> {
+            if (stateSerializer.isJsonGeneratorSupported()) {
+                var jsonGenerator = new DynamoDbJsonGenerator();
+                stateSerializer.serialize(state, jsonGenerator);
+                return jsonGenerator.getAttributeValue();
+            } else {
+                return DynamoDbJson.toJson(jsonBuilderFactory -> stateSerializer.serialize(state, jsonBuilderFactory));
+            }
+        });
+
+        var item = mapItemFromState(tableId, timestamp, previousTimestamp, serialized);
 
-        return mapItemFromState(tableId, timestamp, previousTimestamp, serialized);
+        DistributionSummary.builder("bgf.table.state.size")
+                .baseUnit(BaseUnits.BYTES)
+                .tag("game", game.getId().getId())
+                .register(Metrics.globalRegistry)
+                .record(Item.sizeOf(item));
+
+        return item;
     }
 
     private static Map<String, AttributeValue> mapItemFromState(Table.Id tableId,
@@ -809,13 +1008,7 @@ public class TableDynamoDbRepositoryV2 implements Tables {
 
         var id = Table.Id.of(item.getString(PK).replace(TABLE_PREFIX, ""));
 
-        var players = item.get("Players").l().stream()
-                .map(this::mapToPlayer)
-                .collect(Collectors.toCollection(TrackingSet::new));
-        players.flush(); // Consider everything added up until now to be unchanged
-
-        var playerMap = players.stream()
-                .collect(Collectors.toMap(Player::getId, Function.identity()));
+        var players = mapToPlayers(item);
 
         var game = games.get(Game.Id.fromString(item.getString("GameId")));
 
@@ -834,10 +1027,7 @@ public class TableDynamoDbRepositoryV2 implements Tables {
                 .started(item.getOptionalInstant("Started").orElse(null))
                 .ended(item.getOptionalInstant("Ended").orElse(null))
                 .ownerId(User.Id.of(item.getString("OwnerId")))
-                .seats(item.getOptionalNotNull("Seats")
-                        .map(seats -> seats.l().stream().map(seat -> mapToSeat(seat, playerMap)))
-                        .orElseGet(() -> players.stream().map(Seat::fromPlayer))
-                        .collect(Collectors.toCollection(ArrayList::new)))
+                .seats(mapToSeats(item, players))
                 .players(players)
                 .currentState(items.size() > 1
                         ? Lazy.of(Optional.of(mapToCurrentState(id, items.get(1), game)))
@@ -859,6 +1049,49 @@ public class TableDynamoDbRepositoryV2 implements Tables {
                 .build();
     }
 
+    private TableSummary mapToSummary(GSISK key, Item item) {
+        var game = games.get(key.getGameId());
+        var players = mapToPlayers(item);
+
+        return Summary.builder()
+                .id(key.getTableId())
+                .game(game)
+                .type(item.getEnum("Type", Table.Type.class))
+                .mode(item.getEnum("Mode", Table.Mode.class))
+                .visibility(item.getOptionalEnum("Visibility", Table.Visibility.class).orElse(Table.Visibility.PRIVATE))
+                .status(item.getEnum("Status", Table.Status.class))
+                .progress(item.getOptionalInt("Progress").orElse(0))
+                .options(mapToOptions(item.get("Options")))
+                .created(item.getInstant("Created"))
+                .started(item.getOptionalInstant("Started").orElse(null))
+                .ended(item.getOptionalInstant("Ended").orElse(null))
+                .ownerId(User.Id.of(item.getString("OwnerId")))
+                .seats(Collections.unmodifiableList(mapToSeats(item, players)))
+                .players(Collections.unmodifiableSet(players))
+                .minNumberOfPlayers(item.getOptionalInt("MinNumberOfPlayers").orElse(game.getMinNumberOfPlayers()))
+                .maxNumberOfPlayers(item.getOptionalInt("MaxNumberOfPlayers").orElse(game.getMaxNumberOfPlayers()))
+                .autoStart(item.getOptionalBoolean("AutoStart").orElse(false))
+                .build();
+    }
+
+    private TrackingSet<Player> mapToPlayers(Item item) {
+        var players = item.get("Players").l().stream()
+                .map(this::mapToPlayer)
+                .collect(Collectors.toCollection(TrackingSet::new));
+        players.flush(); // Consider everything added up until now to be unchanged
+        return players;
+    }
+
+    private List<Seat> mapToSeats(Item item, Set<Player> players) {
+        var playerMap = players.stream()
+                .collect(Collectors.toMap(Player::getId, Function.identity()));
+
+        return item.getOptionalNotNull("Seats")
+                .map(seats -> seats.l().stream().map(seat -> mapToSeat(seat, playerMap)))
+                .orElseGet(() -> players.stream().map(Seat::fromPlayer))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
     private Table.HistoricState mapToHistoricState(Table.Id tableId, Item item, Game game) {
         return Table.HistoricState.builder()
                 .state(mapToState(game, item.get("State")))
@@ -1007,7 +1240,8 @@ public class TableDynamoDbRepositoryV2 implements Tables {
     }
 
     private State mapToState(Game game, AttributeValue attributeValue) {
-        return DynamoDbJson.fromJson(attributeValue, game.getProvider().getStateDeserializer()::deserialize);
+        return GameMetrics.timer(game.getId(), "deserialize")
+                .record(() -> DynamoDbJson.fromJson(attributeValue, game.getProvider().getStateDeserializer()::deserialize));
     }
 
     private Options mapToOptions(AttributeValue attributeValue) {
@@ -1087,6 +1321,28 @@ public class TableDynamoDbRepositoryV2 implements Tables {
                 .map(item -> Table.Id.of(item.get(PK).s().replace(TABLE_PREFIX, "")));
     }
 
+    @Value
+    @Builder
+    private static class Summary implements TableSummary {
+        @NonNull Table.Id id;
+        @NonNull Game game;
+        @NonNull Table.Type type;
+        @NonNull Table.Mode mode;
+        @NonNull Table.Visibility visibility;
+        @NonNull Table.Status status;
+        int progress;
+        @NonNull Options options;
+        @NonNull Instant created;
+        Instant started;
+        Instant ended;
+        @NonNull User.Id ownerId;
+        @NonNull List<Seat> seats;
+        @NonNull Set<Player> players;
+        int minNumberOfPlayers;
+        int maxNumberOfPlayers;
+        boolean autoStart;
+    }
+
     @Value
     private static class GSISK {
 
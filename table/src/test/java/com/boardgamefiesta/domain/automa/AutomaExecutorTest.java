@@ -0,0 +1,153 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.domain.automa;
+
+import com.boardgamefiesta.api.domain.Options;
+import com.boardgamefiesta.api.domain.PlayerColor;
+import com.boardgamefiesta.api.domain.State;
+import com.boardgamefiesta.domain.game.Game;
+import com.boardgamefiesta.domain.table.*;
+import com.boardgamefiesta.domain.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.enterprise.inject.spi.BeanManager;
+import javax.enterprise.inject.spi.CDI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AutomaExecutorTest {
+
+    static final Table.Id TABLE_ID = Table.Id.fromString("T");
+
+    @Mock
+    CDI<Object> cdi;
+
+    @Mock
+    BeanManager beanManager;
+
+    @Mock
+    Tables tables;
+
+    @Mock
+    Game game;
+
+    @Mock
+    State state, snapshot1, snapshot2, restored;
+
+    User.Id ownerId = User.Id.of("owner");
+
+    Player owner = Player.builder()
+            .id(Player.Id.of("owner"))
+            .type(Player.Type.USER)
+            .status(Player.Status.ACCEPTED)
+            .userId(ownerId)
+            .color(PlayerColor.RED)
+            .created(Instant.now())
+            .updated(Instant.now())
+            .build();
+
+    Player computerA = Player.builder()
+            .id(Player.Id.of("computerA"))
+            .type(Player.Type.COMPUTER)
+            .status(Player.Status.ACCEPTED)
+            .color(PlayerColor.BLUE)
+            .created(Instant.now())
+            .updated(Instant.now())
+            .turn(true)
+            .build();
+
+    Player computerB = Player.builder()
+            .id(Player.Id.of("computerB"))
+            .type(Player.Type.COMPUTER)
+            .status(Player.Status.ACCEPTED)
+            .color(PlayerColor.GREEN)
+            .created(Instant.now())
+            .updated(Instant.now())
+            .build();
+
+    AutomaExecutor automaExecutor;
+
+    @BeforeEach
+    void setUp() {
+        when(cdi.getBeanManager()).thenReturn(beanManager);
+        CDI.setCDIProvider(() -> cdi);
+
+        automaExecutor = new AutomaExecutor(tables, 50, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void failingTurnAfterOtherTurns() {
+        var table = Table.builder()
+                .id(TABLE_ID)
+                .type(Table.Type.TURN_BASED)
+                .mode(Table.Mode.NORMAL)
+                .visibility(Table.Visibility.PRIVATE)
+                .game(game)
+                .options(new Options(Collections.emptyMap()))
+                .created(Instant.now())
+                .started(Instant.now())
+                .updated(Instant.now())
+                .seats(new ArrayList<>(List.of(Seat.fromPlayer(owner), Seat.fromPlayer(computerA), Seat.fromPlayer(computerB))))
+                .players(new HashSet<>(Set.of(owner, computerA, computerB)))
+                .ownerId(ownerId)
+                .status(Table.Status.STARTED)
+                .log(new Log())
+                .currentState(Lazy.of(Optional.of(Table.CurrentState.builder()
+                        .state(state)
+                        .timestamp(Instant.now())
+                        .previous(Lazy.of(Optional.empty()))
+                        .changed(false)
+                        .build())))
+                .historicStates(new Table.HistoricStates())
+                .build();
+
+        when(tables.findById(TABLE_ID)).thenReturn(Optional.of(table));
+        when(game.getId()).thenReturn(Game.Id.fromString("game"));
+        when(state.getCurrentPlayers()).thenReturn(Set.of(computerB.asPlayer()));
+        when(game.snapshot(state)).thenReturn(snapshot1, snapshot2);
+        when(game.snapshot(snapshot2)).thenReturn(restored);
+        // First turn succeeds, second turn fails after partially changing the state
+        doNothing()
+                .doThrow(new IllegalStateException())
+                .when(game).executeAutoma(eq(state), any(), any());
+
+        automaExecutor.execute(TABLE_ID, computerA.getId());
+
+        verify(game, times(2)).executeAutoma(eq(state), any(), any());
+
+        // Turn that was already executed is kept and saved
+        verify(tables).update(table);
+        assertThat(computerA.isTurn()).isFalse();
+        assertThat(computerB.isTurn()).isTrue();
+
+        // Continues from a copy of the state before the failing turn
+        assertThat(table.getState()).isSameAs(restored);
+    }
+}
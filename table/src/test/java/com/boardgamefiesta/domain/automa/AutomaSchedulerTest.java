@@ -0,0 +1,86 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.domain.automa;
+
+import com.boardgamefiesta.domain.table.Player;
+import com.boardgamefiesta.domain.table.Table;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AutomaSchedulerTest {
+
+    static final String FIFO_QUEUE_URL = "https://sqs.eu-west-1.amazonaws.com/123456789012/automa.fifo";
+    static final String STANDARD_QUEUE_URL = "https://sqs.eu-west-1.amazonaws.com/123456789012/automa";
+
+    @Mock
+    SqsClient sqsClient;
+
+    @Mock
+    Table table;
+
+    @Mock
+    Player player;
+
+    @BeforeEach
+    void setUp() {
+        when(table.getId()).thenReturn(Table.Id.fromString("T"));
+        when(player.getId()).thenReturn(Player.Id.of("P"));
+    }
+
+    @Test
+    void fifo() {
+        when(table.getVersion()).thenReturn(7);
+
+        new AutomaScheduler(sqsClient, Optional.of(FIFO_QUEUE_URL)).schedule(table, player);
+
+        var request = sentRequest();
+        assertThat(request.queueUrl()).isEqualTo(FIFO_QUEUE_URL);
+        assertThat(request.messageGroupId()).isEqualTo("T");
+        assertThat(request.messageDeduplicationId()).isEqualTo("T-7");
+    }
+
+    @Test
+    void standard() {
+        new AutomaScheduler(sqsClient, Optional.of(STANDARD_QUEUE_URL)).schedule(table, player);
+
+        var request = sentRequest();
+        assertThat(request.queueUrl()).isEqualTo(STANDARD_QUEUE_URL);
+        assertThat(request.messageGroupId()).isNull();
+        assertThat(request.messageDeduplicationId()).isNull();
+    }
+
+    private SendMessageRequest sentRequest() {
+        var captor = ArgumentCaptor.forClass(SendMessageRequest.class);
+        verify(sqsClient).sendMessage(captor.capture());
+        return captor.getValue();
+    }
+}
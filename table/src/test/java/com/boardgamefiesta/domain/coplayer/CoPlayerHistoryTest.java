@@ -0,0 +1,68 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.domain.coplayer;
+
+import com.boardgamefiesta.domain.game.Game;
+import com.boardgamefiesta.domain.user.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoPlayerHistoryTest {
+
+    static final User.Id USER_A = User.Id.of("A");
+    static final User.Id USER_B = User.Id.of("B");
+    static final User.Id USER_C = User.Id.of("C");
+    static final Game.Id GAME_ID = Game.Id.fromString("gwt");
+    static final Instant T1 = Instant.parse("2022-03-01T12:00:00Z");
+    static final Instant T2 = T1.plusSeconds(60);
+
+    @Test
+    void played() {
+        var history = CoPlayerHistory.empty(USER_A, GAME_ID)
+                .played(List.of(USER_A, USER_B, USER_C), T1)
+                .played(List.of(USER_A, USER_C), T2);
+
+        assertThat(history.getLastPlayed()).doesNotContainKey(USER_A);
+        assertThat(history.mostRecent()).containsExactly(USER_C, USER_B);
+    }
+
+    @Test
+    void keepsLatestTimestamp() {
+        var history = CoPlayerHistory.empty(USER_A, GAME_ID)
+                .played(List.of(USER_B), T2)
+                .played(List.of(USER_B), T1);
+
+        assertThat(history.getLastPlayed()).containsEntry(USER_B, T2);
+    }
+
+    @Test
+    void keepsMostRecent() {
+        var history = CoPlayerHistory.empty(USER_A, GAME_ID);
+        for (int i = 0; i <= CoPlayerHistory.MAX_SIZE; i++) {
+            history = history.played(List.of(User.Id.of("U" + i)), T1.plusSeconds(i));
+        }
+
+        assertThat(history.getLastPlayed()).hasSize(CoPlayerHistory.MAX_SIZE)
+                .doesNotContainKey(User.Id.of("U0"));
+    }
+}
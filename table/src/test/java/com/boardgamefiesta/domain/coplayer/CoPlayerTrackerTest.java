@@ -0,0 +1,127 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.domain.coplayer;
+
+import com.boardgamefiesta.domain.game.Game;
+import com.boardgamefiesta.domain.table.Lazy;
+import com.boardgamefiesta.domain.table.Player;
+import com.boardgamefiesta.domain.table.Table;
+import com.boardgamefiesta.domain.table.Tables;
+import com.boardgamefiesta.domain.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.boardgamefiesta.domain.coplayer.CoPlayerHistoryTest.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CoPlayerTrackerTest {
+
+    @Mock
+    Tables tables;
+
+    @Mock
+    CoPlayerHistories coPlayerHistories;
+
+    @Mock
+    Game game;
+
+    CoPlayerTracker coPlayerTracker;
+
+    @BeforeEach
+    void setUp() {
+        coPlayerTracker = new CoPlayerTracker(tables, coPlayerHistories);
+    }
+
+    @Test
+    void getStored() {
+        var stored = CoPlayerHistory.empty(USER_A, GAME_ID).played(List.of(USER_B), T1);
+        when(coPlayerHistories.find(USER_A, GAME_ID)).thenReturn(Optional.of(stored));
+
+        assertThat(coPlayerTracker.get(USER_A, GAME_ID)).isEqualTo(stored);
+
+        verifyNoInteractions(tables);
+    }
+
+    @Test
+    void getBackfillDoesNotWrite() {
+        var table = table(T1, USER_A, USER_B);
+        when(coPlayerHistories.find(USER_A, GAME_ID)).thenReturn(Optional.empty());
+        when(tables.findAll(USER_A, GAME_ID, 10)).thenReturn(Stream.of(table));
+
+        var history = coPlayerTracker.get(USER_A, GAME_ID);
+
+        assertThat(history.getLastPlayed()).containsOnlyKeys(USER_B);
+        verify(coPlayerHistories, never()).put(any());
+    }
+
+    @Test
+    void tableEndedBackfills() {
+        var previous = table(T1, USER_A, USER_C);
+        var table = table(T2, USER_A, USER_B);
+        when(table.getGame()).thenReturn(game);
+        when(game.getId()).thenReturn(GAME_ID);
+
+        var storedB = CoPlayerHistory.empty(USER_B, GAME_ID);
+        when(coPlayerHistories.find(USER_A, GAME_ID)).thenReturn(Optional.empty());
+        when(coPlayerHistories.find(USER_B, GAME_ID)).thenReturn(Optional.of(storedB));
+        when(tables.findAll(eq(USER_A), eq(GAME_ID), anyInt())).thenReturn(Stream.of(previous));
+
+        coPlayerTracker.tableEnded(new Table.Ended(Lazy.of(table), Table.Id.fromString("T"), T2));
+
+        var captor = ArgumentCaptor.forClass(CoPlayerHistory.class);
+        verify(coPlayerHistories, times(2)).put(captor.capture());
+        assertThat(captor.getAllValues()).anySatisfy(history -> {
+            assertThat(history.getUserId()).isEqualTo(USER_A);
+            assertThat(history.getLastPlayed()).containsEntry(USER_B, T2).containsEntry(USER_C, T1);
+        }).anySatisfy(history -> {
+            assertThat(history.getUserId()).isEqualTo(USER_B);
+            assertThat(history.getLastPlayed()).containsOnlyKeys(USER_A);
+        });
+        verify(tables, never()).findAll(eq(USER_B), any(Game.Id.class), anyInt());
+    }
+
+    private static Table table(Instant updated, User.Id... userIds) {
+        var table = mock(Table.class);
+        var players = Stream.of(userIds)
+                .map(userId -> {
+                    var player = mock(Player.class);
+                    when(player.isPlaying()).thenReturn(true);
+                    when(player.getUserId()).thenReturn(Optional.of(userId));
+                    return player;
+                })
+                .collect(Collectors.toSet());
+        when(table.getPlayers()).thenReturn(players);
+        lenient().when(table.getUpdated()).thenReturn(updated);
+        return table;
+    }
+}
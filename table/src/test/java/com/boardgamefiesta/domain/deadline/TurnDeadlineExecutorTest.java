@@ -0,0 +1,102 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.domain.deadline;
+
+import com.boardgamefiesta.domain.table.Player;
+import com.boardgamefiesta.domain.table.Table;
+import com.boardgamefiesta.domain.table.Tables;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TurnDeadlineExecutorTest {
+
+    static final Table.Id TABLE_ID = Table.Id.fromString("T");
+
+    @Mock
+    Tables tables;
+
+    @Mock
+    Table table;
+
+    @Mock
+    Player player;
+
+    TurnDeadlineExecutor turnDeadlineExecutor;
+
+    @BeforeEach
+    void setUp() {
+        when(tables.findById(TABLE_ID)).thenReturn(Optional.of(table));
+
+        turnDeadlineExecutor = new TurnDeadlineExecutor(tables);
+    }
+
+    @Test
+    void expired() {
+        when(table.getStatus()).thenReturn(Table.Status.STARTED);
+        when(table.getCurrentPlayers()).thenReturn(Set.of(player));
+        when(player.isUser()).thenReturn(true);
+        when(player.isAfterTurnLimit()).thenReturn(true);
+        when(player.isTurn()).thenReturn(true);
+
+        var pending = turnDeadlineExecutor.execute(TABLE_ID);
+
+        verify(table).forceEndTurn(player);
+        verify(tables).update(table);
+        assertThat(pending).isEmpty();
+    }
+
+    @Test
+    void notExpiredYet() {
+        var turnLimit = Instant.now().plusMillis(500);
+        when(table.getStatus()).thenReturn(Table.Status.STARTED);
+        when(table.getCurrentPlayers()).thenReturn(Set.of(player));
+        when(player.isUser()).thenReturn(true);
+        when(player.isAfterTurnLimit()).thenReturn(false);
+        when(table.getTurnDeadline()).thenReturn(Optional.of(turnLimit));
+
+        var pending = turnDeadlineExecutor.execute(TABLE_ID);
+
+        // Must be scheduled again, or the turn would never be ended
+        assertThat(pending).contains(turnLimit);
+        verify(table, never()).forceEndTurn(any(Player.class));
+        verify(tables, never()).update(any());
+    }
+
+    @Test
+    void notStarted() {
+        when(table.getStatus()).thenReturn(Table.Status.ENDED);
+
+        var pending = turnDeadlineExecutor.execute(TABLE_ID);
+
+        assertThat(pending).isEmpty();
+        verify(tables, never()).update(any());
+    }
+}
@@ -38,8 +38,11 @@ import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
 
@@ -109,6 +112,8 @@ class TableTest {
 
             when(currentMinus2.getCurrentPlayers()).thenReturn(Collections.singleton(currentPlayer));
 
+            lenient().when(game.snapshot(any(State.class))).then(returnsFirstArg());
+
             var currentMinus2HistoricState = Table.HistoricState.builder()
                     .state(currentMinus2)
                     .timestamp(T_MINUS_2)
@@ -164,6 +169,98 @@ class TableTest {
             assertThat(table.getCurrentState().get().get().getTimestamp()).isAfterOrEqualTo(beforePerform);
             assertThat(table.getCurrentState().get().get().isChanged()).isTrue();
         }
+
+        @Test
+        void multipleChangesBeforeSaving() {
+            when(currentState.getCurrentPlayers()).thenReturn(Collections.singleton(playerA.asPlayer()));
+            when(game.snapshot(currentState)).thenReturn(currentMinus1);
+
+            var previousHistoricState = Table.HistoricState.builder()
+                    .state(currentMinus2)
+                    .timestamp(T_MINUS_1)
+                    .previous(Lazy.of(Optional.empty()))
+                    .build();
+
+            var table = Table.builder()
+                    .id(Table.Id.of("tableId"))
+                    .type(Table.Type.REALTIME)
+                    .mode(Table.Mode.NORMAL)
+                    .visibility(Table.Visibility.PRIVATE)
+                    .game(game)
+                    .options(new Options(Collections.emptyMap()))
+                    .created(Instant.now())
+                    .updated(Instant.now())
+                    .seats(new ArrayList<>(List.of(Seat.fromPlayer(playerA), Seat.fromPlayer(playerB))))
+                    .players(new HashSet<>(Set.of(playerA, playerB)))
+                    .ownerId(userId1)
+                    .status(Table.Status.STARTED)
+                    .log(new Log())
+                    .currentState(Lazy.of(Optional.of(Table.CurrentState.builder()
+                            .state(currentState)
+                            .timestamp(T)
+                            .previous(Lazy.of(Optional.of(previousHistoricState)))
+                            .changed(false)
+                            .build())))
+                    .historicStates(new Table.HistoricStates())
+                    .build();
+
+            table.perform(playerA, action);
+            table.perform(playerA, action);
+
+            // Only the state after the first change was never saved
+            var changed = table.getHistoricStates().getChanged();
+            assertThat(changed).hasSize(1);
+            assertThat(changed.get(0).getState()).isSameAs(currentMinus1);
+            assertThat(changed.get(0).getTimestamp()).isAfter(T);
+            assertThat(changed.get(0).getPrevious().get().orElseThrow().getTimestamp()).isEqualTo(T);
+
+            var current = table.getCurrentState().get().orElseThrow();
+            assertThat(current.getState()).isSameAs(currentState);
+            assertThat(current.getTimestamp()).isAfter(changed.get(0).getTimestamp());
+            assertThat(current.getPrevious().get()).containsSame(changed.get(0));
+
+            table.getHistoricStates().flush();
+            assertThat(table.getHistoricStates().getChanged()).isEmpty();
+        }
+
+        @Test
+        void failedChange() {
+            when(game.snapshot(currentState)).thenReturn(currentMinus1);
+            when(game.snapshot(currentMinus1)).thenReturn(currentMinus2);
+            doThrow(new IllegalStateException()).when(game).perform(eq(currentState), any(), eq(action), any());
+
+            var table = Table.builder()
+                    .id(Table.Id.of("tableId"))
+                    .type(Table.Type.REALTIME)
+                    .mode(Table.Mode.NORMAL)
+                    .visibility(Table.Visibility.PRIVATE)
+                    .game(game)
+                    .options(new Options(Collections.emptyMap()))
+                    .created(Instant.now())
+                    .updated(Instant.now())
+                    .seats(new ArrayList<>(List.of(Seat.fromPlayer(playerA), Seat.fromPlayer(playerB))))
+                    .players(new HashSet<>(Set.of(playerA, playerB)))
+                    .ownerId(userId1)
+                    .status(Table.Status.STARTED)
+                    .log(new Log())
+                    .currentState(Lazy.of(Optional.of(Table.CurrentState.builder()
+                            .state(currentState)
+                            .timestamp(T)
+                            .previous(Lazy.of(Optional.empty()))
+                            .changed(false)
+                            .build())))
+                    .historicStates(new Table.HistoricStates())
+                    .build();
+
+            assertThatThrownBy(() -> table.perform(playerA, action)).isInstanceOf(IllegalStateException.class);
+
+            // Continues from a copy of the state before the change, which may have been changed partially
+            var current = table.getCurrentState().get().orElseThrow();
+            assertThat(current.getState()).isSameAs(currentMinus2);
+            assertThat(current.getTimestamp()).isEqualTo(T);
+            assertThat(current.isChanged()).isFalse();
+            assertThat(table.getHistoricStates().getChanged()).isEmpty();
+        }
     }
 
     @Nested
@@ -195,6 +292,7 @@ class TableTest {
             lenient().when(provider.getMaxNumberOfPlayers()).thenReturn(4);
             lenient().when(provider.getSupportedColors()).thenReturn(Set.of(PlayerColor.BLUE, PlayerColor.YELLOW, PlayerColor.GREEN, PlayerColor.RED));
             lenient().when(provider.start(anySet(), any(Options.class), any(InGameEventListener.class), any(Random.class))).thenReturn(initialState);
+            lenient().when(provider.snapshot(any(State.class))).then(returnsFirstArg());
         }
 
         @Test
@@ -288,4 +386,124 @@ class TableTest {
 
         // TODO After fork(), join() should assign unfilled seat (if available, else error)
     }
-}
\ No newline at end of file
+
+    @Nested
+    class TurnDeadline {
+
+        @Mock
+        Game game;
+
+        @Mock
+        State state;
+
+        User.Id userId1 = User.Id.of("userA");
+        User.Id userId2 = User.Id.of("userB");
+
+        Instant turnLimit = Instant.now().minusSeconds(1);
+
+        Player playerA = Player.builder()
+                .id(Player.Id.of("playerA"))
+                .status(Player.Status.ACCEPTED)
+                .created(Instant.now())
+                .updated(Instant.now())
+                .type(Player.Type.USER)
+                .userId(userId1)
+                .color(PlayerColor.RED)
+                .turn(true)
+                .turnLimit(turnLimit)
+                .build();
+
+        Player playerB = Player.builder()
+                .id(Player.Id.of("playerB"))
+                .status(Player.Status.ACCEPTED)
+                .created(Instant.now())
+                .updated(Instant.now())
+                .type(Player.Type.USER)
+                .userId(userId2)
+                .color(PlayerColor.BLUE)
+                .build();
+
+        Player computer = Player.builder()
+                .id(Player.Id.of("computer"))
+                .status(Player.Status.ACCEPTED)
+                .created(Instant.now())
+                .updated(Instant.now())
+                .type(Player.Type.COMPUTER)
+                .color(PlayerColor.GREEN)
+                .turn(true)
+                .turnLimit(turnLimit.minusSeconds(60))
+                .build();
+
+        @Test
+        void turnDeadline() {
+            var table = table(Table.Status.STARTED);
+
+            // Computer players never exceed the turn limit
+            assertThat(table.getTurnDeadline()).contains(turnLimit);
+        }
+
+        @Test
+        void noTurnDeadlineWhenNotStarted() {
+            var table = table(Table.Status.ENDED);
+
+            assertThat(table.getTurnDeadline()).isEmpty();
+        }
+
+        @Test
+        void forceEndTurnAfterTurnLimit() {
+            lenient().when(game.snapshot(any(State.class))).then(returnsFirstArg());
+            when(game.getId()).thenReturn(Game.Id.fromString("test"));
+            when(state.getCurrentPlayers()).thenReturn(Set.of(playerB.asPlayer(), computer.asPlayer()));
+
+            var table = table(Table.Status.STARTED);
+
+            table.forceEndTurn(playerA);
+
+            assertThat(playerA.isTurn()).isFalse();
+            assertThat(playerA.getForceEndTurns()).isZero();
+            assertThat(playerB.isTurn()).isTrue();
+            assertThat(table.getTurnDeadline()).isEqualTo(playerB.getTurnLimit());
+            assertThat(table.getLog().stream())
+                    .anyMatch(logEntry -> logEntry.getType() == LogEntry.Type.FORCE_END_TURN);
+        }
+
+        @Test
+        void forceEndTurnBeforeTurnLimit() {
+            var notExpired = playerA.toBuilder().turnLimit(Instant.now().plusSeconds(60)).build();
+            var table = table(Table.Status.STARTED, notExpired);
+
+            assertThatThrownBy(() -> table.forceEndTurn(notExpired)).isInstanceOf(Player.CannotForceEndTurn.class);
+            assertThat(notExpired.isTurn()).isTrue();
+        }
+
+        private Table table(Table.Status status) {
+            return table(status, playerA);
+        }
+
+        private Table table(Table.Status status, Player first) {
+            return Table.builder()
+                    .id(Table.Id.of("tableId"))
+                    .type(Table.Type.TURN_BASED)
+                    .mode(Table.Mode.NORMAL)
+                    .visibility(Table.Visibility.PRIVATE)
+                    .game(game)
+                    .options(new Options(Collections.emptyMap()))
+                    .created(Instant.now())
+                    .started(Instant.now())
+                    .updated(Instant.now())
+                    .seats(new ArrayList<>(List.of(Seat.fromPlayer(first), Seat.fromPlayer(playerB), Seat.fromPlayer(computer))))
+                    .players(new HashSet<>(Set.of(first, playerB, computer)))
+                    .ownerId(userId1)
+                    .status(status)
+                    .log(new Log())
+                    .currentState(Lazy.of(Optional.of(Table.CurrentState.builder()
+                            .state(state)
+                            .timestamp(T)
+                            .previous(Lazy.of(Optional.empty()))
+                            .changed(false)
+                            .build())))
+                    .historicStates(new Table.HistoricStates())
+                    .build();
+        }
+    }
+}
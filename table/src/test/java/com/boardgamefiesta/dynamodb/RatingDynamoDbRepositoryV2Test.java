@@ -30,6 +30,7 @@ import org.junit.jupiter.api.Test;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -85,6 +86,26 @@ class RatingDynamoDbRepositoryV2Test extends BaseDynamoDbRepositoryTest {
                 ranking(USER_ID_A, 1016));
     }
 
+    @Test
+    void latestOfMultipleUsers() {
+        var userIdC = User.Id.of("C" + UUID.randomUUID().toString());
+
+        repository.addAll(List.of(
+                rating(USER_ID_A, TABLE_ID_A, 0, 1016),
+                rating(USER_ID_B, TABLE_ID_A, 0, 984)));
+        repository.addAll(List.of(
+                rating(USER_ID_A, TABLE_ID_B, 1, 1032),
+                rating(USER_ID_B, TABLE_ID_B, 1, 968)));
+
+        var latest = repository.findLatest(List.of(USER_ID_A, USER_ID_B, userIdC), GAME_ID)
+                .collect(Collectors.toMap(Rating::getUserId, Rating::getRating));
+
+        assertThat(latest).containsExactlyInAnyOrderEntriesOf(Map.of(
+                USER_ID_A, 1032,
+                USER_ID_B, 968,
+                userIdC, Rating.initial(userIdC, GAME_ID).getRating()));
+    }
+
     private static Ranking ranking(User.Id userId, int rating) {
         return Ranking.builder().gameId(GAME_ID).userId(userId).rating(rating).build();
     }
@@ -21,7 +21,9 @@ package com.boardgamefiesta.dynamodb;
 import com.boardgamefiesta.api.domain.Options;
 import com.boardgamefiesta.domain.game.Game;
 import com.boardgamefiesta.domain.game.Games;
+import com.boardgamefiesta.domain.table.Seat;
 import com.boardgamefiesta.domain.table.Table;
+import com.boardgamefiesta.domain.table.TableSummary;
 import com.boardgamefiesta.domain.table.Tables;
 import com.boardgamefiesta.domain.user.User;
 import org.junit.jupiter.api.BeforeEach;
@@ -34,6 +36,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import javax.enterprise.inject.spi.BeanManager;
 import javax.enterprise.inject.spi.CDI;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.UUID;
@@ -98,6 +101,22 @@ class TableDynamoDbRepositoryV2Test extends BaseDynamoDbRepositoryTest {
             assertThat(repository.findAll(userA.getId(), GAME_ID, 10)).extracting(Table::getId).contains(table.getId());
             assertThat(repository.findEndedWithHumanPlayers(GAME_ID, 10, Tables.MIN_TIMESTAMP, Tables.MAX_TIMESTAMP, false)).extracting(Table::getId).doesNotContain(table.getId());
         }
+
+        @Test
+        void summaries() {
+            var table = Table.create(game, Table.Type.REALTIME, Table.Mode.NORMAL, userA, new Options(Collections.emptyMap()));
+            table.invite(userB);
+            repository.add(table);
+
+            var actual = repository.findActiveSummaries(userA.getId())
+                    .filter(summary -> summary.getId().equals(table.getId()))
+                    .findAny().orElseThrow();
+            assertThat(actual).isEqualToComparingOnlyGivenFields(table, "id", "game", "type", "mode", "visibility", "status", "options", "created", "ownerId", "minNumberOfPlayers", "maxNumberOfPlayers");
+            assertThat(actual.getPlayers()).hasSize(2);
+            assertThat(actual.getSeats()).extracting(Seat::getPlayerId).containsExactlyElementsOf(table.getSeats().stream().map(Seat::getPlayerId).collect(Collectors.toList()));
+
+            assertThat(repository.findAllSummaries(userB.getId(), 10)).extracting(TableSummary::getId).contains(table.getId());
+        }
     }
 
     @Nested
@@ -206,6 +225,55 @@ class TableDynamoDbRepositoryV2Test extends BaseDynamoDbRepositoryTest {
         // TODO Abandoned tables should only be visible in user's recent tables
     }
 
+    @Nested
+    class TurnDeadlines {
+
+        @Test
+        void roundedUpToSeconds() {
+            var table = Table.create(game, Table.Type.REALTIME, Table.Mode.NORMAL, userA, new Options(Collections.emptyMap()));
+            repository.add(table);
+
+            table = repository.findById(table.getId()).orElseThrow();
+            table.invite(userB);
+            table.acceptInvite(userB);
+            table.start();
+            repository.update(table);
+
+            var turnDeadline = table.getTurnDeadline().orElseThrow();
+            var tableId = table.getId();
+
+            var actual = repository.findTurnDeadlines(turnDeadline.plusSeconds(2), 1000)
+                    .filter(deadline -> deadline.getTableId().equals(tableId))
+                    .findAny().orElseThrow();
+
+            // Must never expire before the actual turn limit
+            assertThat(actual.getDeadline()).isAfterOrEqualTo(turnDeadline);
+            assertThat(actual.getDeadline()).isBefore(turnDeadline.plusSeconds(1));
+        }
+
+        @Test
+        void removedWhenEnded() {
+            var table = Table.create(game, Table.Type.REALTIME, Table.Mode.NORMAL, userA, new Options(Collections.emptyMap()));
+            repository.add(table);
+
+            table = repository.findById(table.getId()).orElseThrow();
+            table.invite(userB);
+            table.acceptInvite(userB);
+            table.start();
+            repository.update(table);
+
+            table = repository.findById(table.getId()).orElseThrow();
+            repository.update(table = table.toBuilder()
+                    .status(Table.Status.ENDED)
+                    .ended(Instant.now())
+                    .build());
+
+            var tableId = table.getId();
+            assertThat(repository.findTurnDeadlines(Instant.now().plus(Duration.ofDays(1)), 1000))
+                    .noneMatch(deadline -> deadline.getTableId().equals(tableId));
+        }
+    }
+
     @Nested
     class FindEndedByGameId {
         @Test
@@ -35,4 +35,12 @@ public class TurnBasedPreferences {
     @Builder.Default
     boolean sendEndedEmail = true;
 
+    /**
+     * Receive one email for all turns that began within a period, instead of one email per turn.
+     */
+    @Getter
+    @Setter
+    @Builder.Default
+    boolean digestTurnEmails = false;
+
 }
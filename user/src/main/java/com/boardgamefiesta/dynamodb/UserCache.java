@@ -0,0 +1,109 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.dynamodb;
+
+import com.boardgamefiesta.domain.user.User;
+import lombok.NonNull;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Process-wide cache of identity lookups that happen on every authenticated request.
+ *
+ * <p>The mapping from Cognito username to user id practically never changes, so it is kept until evicted.
+ * User items are only kept for a short time, because other instances may update them. Items are cached instead of
+ * {@link User} objects, because users are mutable and every caller must get its own copy.</p>
+ */
+class UserCache {
+
+    private final Duration ttl;
+
+    private final Map<String, User.Id> cognitoUsernames;
+    private final Map<User.Id, CachedItem> items;
+
+    UserCache(int maxSize, @NonNull Duration ttl) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Max size must be >=0, but was: " + maxSize);
+        }
+
+        this.ttl = ttl;
+
+        this.cognitoUsernames = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, User.Id> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.items = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<User.Id, CachedItem> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    synchronized Optional<User.Id> getIdByCognitoUsername(String cognitoUsername) {
+        return Optional.ofNullable(cognitoUsernames.get(cognitoUsername));
+    }
+
+    synchronized void putIdByCognitoUsername(String cognitoUsername, User.Id id) {
+        cognitoUsernames.put(cognitoUsername, id);
+    }
+
+    synchronized Optional<Map<String, AttributeValue>> getItem(User.Id id, Instant now) {
+        var cachedItem = items.get(id);
+        if (cachedItem == null) {
+            return Optional.empty();
+        }
+        if (!now.isBefore(cachedItem.expires)) {
+            items.remove(id);
+            return Optional.empty();
+        }
+        return Optional.of(cachedItem.item);
+    }
+
+    synchronized void putItem(User.Id id, Map<String, AttributeValue> item, Instant now) {
+        if (!ttl.isZero()) {
+            items.put(id, new CachedItem(item, now.plus(ttl)));
+        }
+    }
+
+    /**
+     * Must be called after a user is written, so the next lookup reflects the new version, username and deleted state.
+     */
+    synchronized void invalidate(User.Id id) {
+        items.remove(id);
+        cognitoUsernames.values().removeIf(id::equals);
+    }
+
+    private static final class CachedItem {
+        private final Map<String, AttributeValue> item;
+        private final Instant expires;
+
+        private CachedItem(Map<String, AttributeValue> item, Instant expires) {
+            this.item = item;
+            this.expires = expires;
+        }
+    }
+}
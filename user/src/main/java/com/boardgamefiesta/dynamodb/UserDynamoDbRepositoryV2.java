@@ -20,17 +20,23 @@ package com.boardgamefiesta.dynamodb;
 
 import com.boardgamefiesta.api.domain.PlayerColor;
 import com.boardgamefiesta.domain.user.*;
+import io.micrometer.core.instrument.Metrics;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.*;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -73,20 +79,37 @@ public class UserDynamoDbRepositoryV2 implements Users {
 
     private static final String VERSION = "Version";
 
-    private static final int MAX_BATCH_GET_ITEM_SIZE = 100;
+    private static final int DEFAULT_CACHE_MAX_SIZE = 10000;
+    private static final Duration DEFAULT_CACHE_TTL = Duration.ofSeconds(5);
 
     private final DynamoDbClient client;
     private final DynamoDbConfiguration config;
+    private final UserCache cache;
 
-    @Inject
     public UserDynamoDbRepositoryV2(@NonNull DynamoDbClient client,
                                     @NonNull DynamoDbConfiguration config) {
+        this(client, config, DEFAULT_CACHE_MAX_SIZE, DEFAULT_CACHE_TTL);
+    }
+
+    @Inject
+    public UserDynamoDbRepositoryV2(@NonNull DynamoDbClient client,
+                                    @NonNull DynamoDbConfiguration config,
+                                    @ConfigProperty(name = "bgf.users.cache.max-size", defaultValue = "10000") int cacheMaxSize,
+                                    @ConfigProperty(name = "bgf.users.cache.ttl", defaultValue = "PT5S") Duration cacheTtl) {
         this.client = client;
         this.config = config;
+        this.cache = new UserCache(cacheMaxSize, cacheTtl);
     }
 
     @Override
     public Optional<User> findById(User.Id id) {
+        var now = Instant.now();
+
+        var cached = cache.getItem(id, now);
+        if (cached.isPresent()) {
+            return cached.map(Item::of).map(this::mapToUser);
+        }
+
         var response = client.query(QueryRequest.builder()
                 .tableName(config.tableName())
                 .keyConditionExpression(PK + "=:PK AND " + SK + "=:SK")
@@ -97,37 +120,51 @@ public class UserDynamoDbRepositoryV2 implements Users {
                 .build());
 
         if (response.hasItems() && !response.items().isEmpty()) {
-            return Optional.of(mapToUser(Item.of(response.items().get(0))));
+            var item = response.items().get(0);
+            cache.putItem(id, item, now);
+            return Optional.of(mapToUser(Item.of(item)));
         }
         return Optional.empty();
     }
 
+    /**
+     * @return same order as input, without users that do not exist
+     */
     @Override
     public Stream<User> findByIds(Stream<User.Id> ids) {
-        return Chunked.stream(ids, MAX_BATCH_GET_ITEM_SIZE)
-                .map(chunk -> chunk
-                        .map(id -> Map.of(
-                                PK, Item.s(USER_PREFIX + id.getId()),
-                                SK, Item.s(USER_PREFIX + id.getId())))
-                        .collect(Collectors.toList()))
-                .flatMap(keys -> {
-                    var response = client.batchGetItem(BatchGetItemRequest.builder()
-                            .requestItems(Map.of(config.tableName(),
-                                    KeysAndAttributes.builder()
-                                            .keys(keys)
-                                            .build()))
-                            .build());
-
-                    if (response.hasResponses()) {
-                        var items = response.responses().get(config.tableName()).stream()
-                                .collect(Collectors.toMap(item -> item.get(PK).s(), Function.identity()));
-                        return keys.stream()
-                                .map(key -> key.get(PK).s())
-                                .map(items::get)
-                                .map(Item::of)
-                                .map(this::mapToUser);
+        var now = Instant.now();
+
+        return Chunked.stream(ids, BatchGetItems.MAX_KEYS)
+                .map(chunk -> chunk.collect(Collectors.toList()))
+                .flatMap(chunk -> {
+                    var items = new HashMap<User.Id, Map<String, AttributeValue>>();
+
+                    // BatchGetItem does not accept duplicate keys
+                    var missing = new LinkedHashSet<User.Id>();
+                    for (var id : chunk) {
+                        cache.getItem(id, now).ifPresentOrElse(item -> items.put(id, item), () -> missing.add(id));
+                    }
+
+                    if (!missing.isEmpty()) {
+                        BatchGetItems.batchGetItems(client, config.tableName(), KeysAndAttributes.builder()
+                                        .keys(missing.stream()
+                                                .map(id -> Map.of(
+                                                        PK, Item.s(USER_PREFIX + id.getId()),
+                                                        SK, Item.s(USER_PREFIX + id.getId())))
+                                                .collect(Collectors.toList()))
+                                        .build())
+                                .forEach(item -> {
+                                    var id = User.Id.of(item.get(PK).s().replace(USER_PREFIX, ""));
+                                    cache.putItem(id, item, now);
+                                    items.put(id, item);
+                                });
                     }
-                    return Stream.empty();
+
+                    return chunk.stream()
+                            .map(items::get)
+                            .filter(Objects::nonNull)
+                            .map(Item::of)
+                            .map(this::mapToUser);
                 });
     }
 
@@ -166,6 +203,7 @@ public class UserDynamoDbRepositoryV2 implements Users {
         return TurnBasedPreferences.builder()
                 .sendTurnEmail(attributeValue.getBoolean("SendTurnEmail"))
                 .sendEndedEmail(attributeValue.getBoolean("SendEndedEmail"))
+                .digestTurnEmails(attributeValue.getOptionalBoolean("DigestTurnEmails").orElse(false))
                 .build();
     }
 
@@ -179,7 +217,7 @@ public class UserDynamoDbRepositoryV2 implements Users {
 
     @Override
     public Stream<User> findByUsernameStartsWith(String username, int maxResults) {
-        return client.queryPaginator(QueryRequest.builder()
+        var ids = client.queryPaginator(QueryRequest.builder()
                 .tableName(config.tableName())
                 .indexName(GSI1)
                 .keyConditionExpression(GSI1PK + "=:PK AND begins_with(" + GSI1SK + ",:SK)")
@@ -190,8 +228,11 @@ public class UserDynamoDbRepositoryV2 implements Users {
                 .limit(maxResults)
                 .build())
                 .items().stream()
+                .limit(maxResults)
                 .map(item -> User.Id.of(item.get(PK).s().replace(USER_PREFIX, "")))
-                .flatMap(id -> this.findById(id).stream());
+                .collect(Collectors.toList());
+
+        return findByIds(ids.stream());
     }
 
     @Override
@@ -236,6 +277,11 @@ public class UserDynamoDbRepositoryV2 implements Users {
 
     @Override
     public Optional<User.Id> findIdByCognitoUsername(String cognitoUsername) {
+        var cached = cache.getIdByCognitoUsername(cognitoUsername);
+        if (cached.isPresent()) {
+            return cached;
+        }
+
         var response = client.query(QueryRequest.builder()
                 .tableName(config.tableName())
                 .indexName(GSI3)
@@ -249,6 +295,7 @@ public class UserDynamoDbRepositoryV2 implements Users {
         if (response.hasItems() && !response.items().isEmpty()) {
             var item = response.items().get(0);
             var userId = User.Id.of(item.get(PK).s().replace(USER_PREFIX, ""));
+            cache.putIdByCognitoUsername(cognitoUsername, userId);
             return Optional.of(userId);
         }
         return Optional.empty();
@@ -287,10 +334,14 @@ public class UserDynamoDbRepositoryV2 implements Users {
                     .setString(GSI3SK, USER_PREFIX + user.getCognitoUsername());
         }
 
-        client.putItem(PutItemRequest.builder()
-                .tableName(config.tableName())
-                .item(item.asMap())
-                .build());
+        try {
+            client.putItem(PutItemRequest.builder()
+                    .tableName(config.tableName())
+                    .item(item.asMap())
+                    .build());
+        } finally {
+            cache.invalidate(user.getId());
+        }
     }
 
     private AttributeValue mapFromEmailPreferences(EmailPreferences emailPreferences) {
@@ -304,6 +355,7 @@ public class UserDynamoDbRepositoryV2 implements Users {
         return new Item()
                 .setBoolean("SendTurnEmail", turnBasedPreferences.isSendTurnEmail())
                 .setBoolean("SendEndedEmail", turnBasedPreferences.isSendEndedEmail())
+                .setBoolean("DigestTurnEmails", turnBasedPreferences.isDigestTurnEmails())
                 .asAttributeValue();
     }
 
@@ -364,7 +416,11 @@ public class UserDynamoDbRepositoryV2 implements Users {
                     .expressionAttributeValues(updateItem.getExpressionAttributeValues())
                     .build());
         } catch (ConditionalCheckFailedException e) {
+            Metrics.counter("bgf.repository.concurrent.modifications", "entity", "user").increment();
             throw new ConcurrentModificationException(e);
+        } finally {
+            // Also when the update failed, so a retry does not read the same stale version from the cache
+            cache.invalidate(user.getId());
         }
     }
 
@@ -0,0 +1,70 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.dynamodb;
+
+import com.boardgamefiesta.domain.user.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserCacheTest {
+
+    static final User.Id USER_ID = User.Id.of("a");
+    static final Instant NOW = Instant.parse("2022-03-01T12:00:00Z");
+
+    UserCache cache = new UserCache(2, Duration.ofSeconds(5));
+
+    @Test
+    void itemExpires() {
+        var item = Map.of("PK", Item.s("User#a"));
+        cache.putItem(USER_ID, item, NOW);
+
+        assertThat(cache.getItem(USER_ID, NOW.plusSeconds(4))).contains(item);
+        assertThat(cache.getItem(USER_ID, NOW.plusSeconds(5))).isEmpty();
+    }
+
+    @Test
+    void invalidate() {
+        cache.putItem(USER_ID, Map.of("PK", Item.s("User#a")), NOW);
+        cache.putIdByCognitoUsername("cognitoUser1", USER_ID);
+        cache.putIdByCognitoUsername("cognitoUser2", User.Id.of("b"));
+
+        cache.invalidate(USER_ID);
+
+        assertThat(cache.getItem(USER_ID, NOW)).isEmpty();
+        assertThat(cache.getIdByCognitoUsername("cognitoUser1")).isEmpty();
+        assertThat(cache.getIdByCognitoUsername("cognitoUser2")).contains(User.Id.of("b"));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        cache.putIdByCognitoUsername("cognitoUser1", User.Id.of("a"));
+        cache.putIdByCognitoUsername("cognitoUser2", User.Id.of("b"));
+        cache.getIdByCognitoUsername("cognitoUser1");
+        cache.putIdByCognitoUsername("cognitoUser3", User.Id.of("c"));
+
+        assertThat(cache.getIdByCognitoUsername("cognitoUser1")).isPresent();
+        assertThat(cache.getIdByCognitoUsername("cognitoUser2")).isEmpty();
+    }
+
+}
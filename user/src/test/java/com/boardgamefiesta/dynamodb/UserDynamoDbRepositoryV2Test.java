@@ -27,6 +27,7 @@ import org.junit.jupiter.api.Test;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -148,4 +149,25 @@ class UserDynamoDbRepositoryV2Test extends BaseDynamoDbRepositoryTest {
 
         assertThat(users).hasSize(2);
     }
-}
\ No newline at end of file
+
+    @Test
+    void findByIds() {
+        repository.add(User.builder().id(USER_ID_A)
+                .username("wEtGoS")
+                .cognitoUsername("cognitoUser1")
+                .email("wetgos@boardgamefiesta.com")
+                .build());
+
+        repository.add(User.builder().id(USER_ID_B)
+                .username("sJeRoNnEkE")
+                .cognitoUsername("cognitoUser2")
+                .email("sjeronneke@boardgamefiesta.com")
+                .build());
+
+        var users = repository.findByIds(Stream.of(USER_ID_B, User.Id.of(UUID.randomUUID().toString()), USER_ID_A, USER_ID_B))
+                .map(User::getId)
+                .collect(Collectors.toList());
+
+        assertThat(users).containsExactly(USER_ID_B, USER_ID_A, USER_ID_B);
+    }
+}
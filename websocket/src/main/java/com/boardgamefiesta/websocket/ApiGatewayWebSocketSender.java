@@ -20,6 +20,8 @@ package com.boardgamefiesta.websocket;
 
 import com.boardgamefiesta.domain.table.Table;
 import com.boardgamefiesta.domain.user.User;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
@@ -29,12 +31,20 @@ import software.amazon.awssdk.services.apigatewaymanagementapi.ApiGatewayManagem
 import software.amazon.awssdk.services.apigatewaymanagementapi.model.GoneException;
 import software.amazon.awssdk.services.apigatewaymanagementapi.model.PostToConnectionRequest;
 
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 @ApplicationScoped
@@ -45,14 +55,38 @@ public class ApiGatewayWebSocketSender implements WebSocketSender {
 
     private final ApiGatewayManagementApiClient apiGatewayManagementApiClient;
 
+    /**
+     * Connections are posted to in parallel, bounded by the number of threads,
+     * so the time to send an event is not the sum of the round trips of all connections.
+     */
+    private final ExecutorService executorService;
+
     @Inject
     public ApiGatewayWebSocketSender(@NonNull WebSocketConnectionRepository webSocketConnections,
-                                     @NonNull @ConfigProperty(name = "bgf.ws.connections-endpoint") Optional<String> connectionsEndpoint) {
+                                     @NonNull @ConfigProperty(name = "bgf.ws.connections-endpoint") Optional<String> connectionsEndpoint,
+                                     @ConfigProperty(name = "bgf.ws.max-concurrency", defaultValue = "10") int maxConcurrency) {
+        this(webSocketConnections, createClient(connectionsEndpoint), maxConcurrency);
+    }
+
+    ApiGatewayWebSocketSender(@NonNull WebSocketConnectionRepository webSocketConnections,
+                              @NonNull ApiGatewayManagementApiClient apiGatewayManagementApiClient,
+                              int maxConcurrency) {
         this.webSocketConnections = webSocketConnections;
+        this.apiGatewayManagementApiClient = apiGatewayManagementApiClient;
+
+        var threadNumber = new AtomicInteger();
+        // Daemon threads, so they do not prevent shutdown
+        executorService = Executors.newFixedThreadPool(maxConcurrency, runnable -> {
+            var thread = new Thread(runnable, "ws-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 
+    private static ApiGatewayManagementApiClient createClient(Optional<String> connectionsEndpoint) {
         var clientBuilder = ApiGatewayManagementApiClient.builder();
 
-        apiGatewayManagementApiClient = connectionsEndpoint
+        return connectionsEndpoint
                 .map(URI::create)
                 .map(uri -> {
                     log.info("Overriding WebSocket API Gateway endpoint: {}", uri);
@@ -64,55 +98,107 @@ public class ApiGatewayWebSocketSender implements WebSocketSender {
                 }).build();
     }
 
+    @PreDestroy
+    void destroy() {
+        executorService.shutdown();
+    }
+
     @Override
-    public void sendToTable(Table.Id tableId, WebSocketServerEvent event) {
-        var data = event.toJSON();
+    public void sendToTable(Table.Id tableId, List<WebSocketServerEvent> events, Optional<StatePush> statePush) {
+        var data = WebSocketServerEvent.toJSON(events, Optional.empty(), Optional.empty());
 
         log.debug("Sending message to table {}: {}", tableId.getId(), data);
 
-        var connectionIds = webSocketConnections.findByTableId(tableId)
-                .collect(Collectors.toList());
+        var sdkBytes = SdkBytes.fromString(data, StandardCharsets.UTF_8);
+
+        var messages = webSocketConnections.findTableConnectionsByTableId(tableId)
+                .collect(Collectors.toMap(WebSocketConnectionRepository.TableConnection::getId, connection -> statePush.isPresent() && connection.getStatePushUserId().isPresent()
+                        ? SdkBytes.fromString(WebSocketServerEvent.toJSON(events, statePush, connection.getStatePushUserId()), StandardCharsets.UTF_8)
+                        : sdkBytes, (a, b) -> a, LinkedHashMap::new));
 
-        if (connectionIds.isEmpty()) {
+        if (messages.isEmpty()) {
             log.debug("No connections found for table: {}", tableId.getId());
         }
 
-        sendToConnections(data, connectionIds);
+        sendToConnections(messages);
     }
 
     @Override
-    public void sendToUser(User.Id userId, WebSocketServerEvent event) {
-        var data = event.toJSON();
+    public void sendToUser(User.Id userId, List<WebSocketServerEvent> events) {
+        var data = WebSocketServerEvent.toJSON(events, Optional.empty(), Optional.empty());
 
         log.debug("Sending message to user {}: {}", userId.getId(), data);
 
-        var connectionIds = webSocketConnections.findByUserId(userId)
-                .collect(Collectors.toList());
+        var sdkBytes = SdkBytes.fromString(data, StandardCharsets.UTF_8);
+
+        var messages = webSocketConnections.findByUserId(userId)
+                .collect(Collectors.toMap(connectionId -> connectionId, connectionId -> sdkBytes, (a, b) -> a, LinkedHashMap::new));
 
-        if (connectionIds.isEmpty()) {
+        if (messages.isEmpty()) {
             log.debug("No connections found for user: {}", userId.getId());
         }
 
-        sendToConnections(data, connectionIds);
+        sendToConnections(messages);
     }
 
-    private void sendToConnections(String data, List<String> connectionIds) {
-        var sdkBytes = SdkBytes.fromString(data, StandardCharsets.UTF_8);
+    private void sendToConnections(Map<String, SdkBytes> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
 
-        connectionIds.forEach(connectionId -> {
-            try {
-                log.debug("Sending message to connection {}: {}", connectionId, data);
-
-                apiGatewayManagementApiClient.postToConnection(PostToConnectionRequest.builder()
-                        .connectionId(connectionId)
-                        .data(sdkBytes)
-                        .build());
-            } catch (GoneException e) {
-                // Ignore
-            } catch (SdkException e) {
-                log.error("Could not send to WebSocket connection: {}", connectionId, e);
-            }
-        });
+        var start = System.nanoTime();
+        var gone = new AtomicInteger();
+        var failed = new AtomicInteger();
+
+        if (messages.size() == 1) {
+            messages.forEach((connectionId, sdkBytes) -> sendToConnection(connectionId, sdkBytes, gone, failed));
+        } else {
+            // Must wait for all to complete, because Lambda may freeze after returning
+            CompletableFuture.allOf(messages.entrySet().stream()
+                            .map(entry -> CompletableFuture.runAsync(() -> sendToConnection(entry.getKey(), entry.getValue(), gone, failed), executorService))
+                            .toArray(CompletableFuture[]::new))
+                    .join();
+        }
+
+        var duration = System.nanoTime() - start;
+
+        Timer.builder("bgf.ws.send")
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry)
+                .record(duration, TimeUnit.NANOSECONDS);
+        Metrics.counter("bgf.ws.connections", "outcome", "sent").increment(messages.size() - gone.get() - failed.get());
+        Metrics.counter("bgf.ws.connections", "outcome", "gone").increment(gone.get());
+        Metrics.counter("bgf.ws.connections", "outcome", "failed").increment(failed.get());
+
+        log.debug("Sent message to {} connections in {} ms ({} gone, {} failed)",
+                messages.size(), duration / 1_000_000, gone.get(), failed.get());
+    }
+
+    private void sendToConnection(String connectionId, SdkBytes sdkBytes, AtomicInteger gone, AtomicInteger failed) {
+        try {
+            log.debug("Sending message to connection: {}", connectionId);
+
+            apiGatewayManagementApiClient.postToConnection(PostToConnectionRequest.builder()
+                    .connectionId(connectionId)
+                    .data(sdkBytes)
+                    .build());
+        } catch (GoneException e) {
+            gone.incrementAndGet();
+            removeConnection(connectionId);
+        } catch (SdkException e) {
+            failed.incrementAndGet();
+            log.error("Could not send to WebSocket connection: {}", connectionId, e);
+        }
+    }
+
+    private void removeConnection(String connectionId) {
+        // Client disconnected without the $disconnect route being called, so clean up or it will be tried again on every event
+        try {
+            log.debug("Removing gone WebSocket connection: {}", connectionId);
+            webSocketConnections.remove(connectionId);
+        } catch (SdkException e) {
+            log.warn("Could not remove gone WebSocket connection: {}", connectionId, e);
+        }
     }
 
 }
@@ -0,0 +1,143 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.websocket;
+
+import com.boardgamefiesta.api.domain.Player;
+import com.boardgamefiesta.api.domain.State;
+import com.boardgamefiesta.api.query.ViewMapper;
+import com.boardgamefiesta.domain.table.Table;
+import com.boardgamefiesta.domain.user.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.NonNull;
+
+import javax.json.Json;
+import javax.json.JsonValue;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Message that pushes the new state of a table to connections that opted in, so clients do not have to fetch the
+ * table and state again after every change.
+ *
+ * <p>The view is rendered at most once per viewer. When the view of the state that clients saw last is still in memory,
+ * only a JSON Patch (RFC 6902) against that version is sent. Clients that are not at the base version must fetch
+ * the state again.</p>
+ *
+ * <p>Views are serialized with the same {@link ObjectMapper} as the REST API uses for the state, so a patch applied
+ * to the state fetched from the REST API results in exactly the pushed version.</p>
+ */
+public class StatePush {
+
+    private final ObjectMapper objectMapper;
+    private final Table table;
+    private final ViewMapper<State> viewMapper;
+    private final Table.CurrentState currentState;
+    private final Optional<Table.HistoricState> base;
+
+    private final Map<Optional<Player>, String> messages = new ConcurrentHashMap<>();
+
+    private StatePush(ObjectMapper objectMapper, Table table, Table.CurrentState currentState) {
+        this.objectMapper = objectMapper;
+        this.table = table;
+        this.viewMapper = table.getGame().getProvider().getViewMapper();
+        this.currentState = currentState;
+        this.base = findBase(currentState);
+    }
+
+    public static Optional<StatePush> of(@NonNull ObjectMapper objectMapper, @NonNull Table table) {
+        return table.getCurrentState().get().map(currentState -> new StatePush(objectMapper, table, currentState));
+    }
+
+    /**
+     * Version of a state as known to clients.
+     */
+    public static long version(Table.CurrentState currentState) {
+        return currentState.getTimestamp().toEpochMilli();
+    }
+
+    public String toJSON(User.Id userId) {
+        var viewer = table.getPlayerByUserId(userId)
+                .map(com.boardgamefiesta.domain.table.Player::asPlayer);
+
+        return messages.computeIfAbsent(viewer, this::render);
+    }
+
+    private String render(Optional<Player> viewer) {
+        var view = renderView(currentState.getState(), viewer.orElse(null));
+
+        var writer = new StringWriter();
+        try (var generator = Json.createGenerator(writer)) {
+            generator.writeStartObject()
+                    .write("type", WebSocketServerEvent.Type.STATE.name())
+                    .write("tableId", table.getId().getId())
+                    .write("version", version(currentState));
+
+            base.ifPresentOrElse(historicState -> generator
+                            .write("baseVersion", historicState.getTimestamp().toEpochMilli())
+                            .write("patch", Json.createDiff(renderView(historicState.getState(), viewer.orElse(null)).asJsonObject(), view.asJsonObject()).toJsonArray()),
+                    () -> generator.write("view", view));
+
+            generator.writeEnd();
+        }
+        return writer.toString();
+    }
+
+    private JsonValue renderView(State state, Player viewer) {
+        String json;
+        if (viewMapper.isJsonGeneratorSupported()) {
+            var writer = new StringWriter();
+            try (var generator = Json.createGenerator(writer)) {
+                viewMapper.serialize(state, viewer, generator);
+            }
+            json = writer.toString();
+        } else {
+            try {
+                json = objectMapper.writeValueAsString(viewMapper.toView(state, viewer));
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        try (var reader = Json.createReader(new StringReader(json))) {
+            return reader.readValue();
+        }
+    }
+
+    /**
+     * Finds the last state that was saved before this change, which is the version clients have seen.
+     * Only considers historic states that are still in memory, to avoid loading from the database.
+     */
+    private static Optional<Table.HistoricState> findBase(Table.CurrentState currentState) {
+        var previous = currentState.getPrevious();
+        while (previous.isResolved() && previous.get().isPresent()) {
+            var historicState = previous.get().get();
+            if (!historicState.isChanged()) {
+                return Optional.of(historicState);
+            }
+            previous = historicState.getPrevious();
+        }
+        return Optional.empty();
+    }
+
+}
@@ -41,6 +41,9 @@ public class WebSocketConnection {
 
     Table.Id tableId;
 
+    @Getter
+    boolean statePush;
+
     @Getter
     @NonNull
     Status status;
@@ -63,11 +66,12 @@ public class WebSocketConnection {
                 .build();
     }
 
-    public static WebSocketConnection createForTable(String id, User.Id userId, Table.Id tableId) {
+    public static WebSocketConnection createForTable(String id, User.Id userId, Table.Id tableId, boolean statePush) {
         return WebSocketConnection.builder()
                 .id(id)
                 .userId(userId)
                 .tableId(tableId)
+                .statePush(statePush)
                 .status(Status.ACTIVE)
                 .created(Instant.now())
                 .updated(Instant.now())
@@ -24,6 +24,7 @@ import com.boardgamefiesta.dynamodb.DynamoDbConfiguration;
 import com.boardgamefiesta.dynamodb.Item;
 import com.boardgamefiesta.dynamodb.UpdateItem;
 import lombok.NonNull;
+import lombok.Value;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.*;
 
@@ -51,6 +52,8 @@ import java.util.stream.Stream;
  * GSI3: by Table ID (optional)
  * GSI3PK=Table#<ID>
  * GSI3SK=WebSocket#<ID>
+ * or, if the connection opted in to state pushes:
+ * GSI3SK=WebSocket#<ID>#User#<ID>
  */
 @ApplicationScoped
 public class WebSocketConnectionRepository {
@@ -108,7 +111,8 @@ public class WebSocketConnectionRepository {
 
         webSocketConnection.getTableId().ifPresent(tableId -> {
             item.setString(GSI3PK, TABLE_PREFIX + tableId.getId());
-            item.setString(GSI3SK, WEB_SOCKET_PREFIX + webSocketConnection.getId());
+            item.setString(GSI3SK, WEB_SOCKET_PREFIX + webSocketConnection.getId()
+                    + (webSocketConnection.isStatePush() ? "#" + USER_PREFIX + webSocketConnection.getUserId().getId() : ""));
         });
 
         client.putItem(PutItemRequest.builder()
@@ -182,6 +186,10 @@ public class WebSocketConnectionRepository {
     }
 
     public Stream<String> findByTableId(Table.Id tableId) {
+        return findTableConnectionsByTableId(tableId).map(TableConnection::getId);
+    }
+
+    public Stream<TableConnection> findTableConnectionsByTableId(Table.Id tableId) {
         return client.queryPaginator(QueryRequest.builder()
                 .tableName(config.tableName())
                 .indexName(GSI3)
@@ -193,7 +201,7 @@ public class WebSocketConnectionRepository {
                 .build())
                 .items().stream()
                 .map(Item::of)
-                .map(item -> item.get(GSI3SK).s().replace(WEB_SOCKET_PREFIX, ""));
+                .map(item -> mapToTableConnection(item.getString(GSI3SK)));
     }
 
     public Stream<String> findByUserId(User.Id userId) {
@@ -216,10 +224,26 @@ public class WebSocketConnectionRepository {
                 .id(item.getString(PK).replace(WEB_SOCKET_PREFIX, ""))
                 .userId(User.Id.fromString(item.getString(GSI1PK).replace(USER_PREFIX, "")))
                 .tableId(item.getOptionalString(GSI3PK).map(gsi3pk -> Table.Id.of(gsi3pk.replace(TABLE_PREFIX, ""))).orElse(null))
+                .statePush(item.getOptionalString(GSI3SK).map(gsi3sk -> gsi3sk.contains("#" + USER_PREFIX)).orElse(false))
                 .status(item.getEnum("Status", WebSocketConnection.Status.class))
                 .created(item.getInstant("Created"))
                 .updated(item.getInstant("Updated"))
                 .build();
     }
 
+    private TableConnection mapToTableConnection(String gsi3sk) {
+        var parts = gsi3sk.substring(WEB_SOCKET_PREFIX.length()).split("#" + USER_PREFIX, 2);
+        return new TableConnection(parts[0], parts.length > 1 ? User.Id.fromString(parts[1]) : null);
+    }
+
+    @Value
+    public static class TableConnection {
+        String id;
+        User.Id statePushUserId;
+
+        public Optional<User.Id> getStatePushUserId() {
+            return Optional.ofNullable(statePushUserId);
+        }
+    }
+
 }
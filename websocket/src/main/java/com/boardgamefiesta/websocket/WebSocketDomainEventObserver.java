@@ -20,61 +20,81 @@ package com.boardgamefiesta.websocket;
 
 import com.boardgamefiesta.domain.table.Player;
 import com.boardgamefiesta.domain.table.Table;
+import com.boardgamefiesta.domain.table.TransactionCollector;
 import com.boardgamefiesta.domain.user.Friend;
 import com.boardgamefiesta.domain.user.User;
-import lombok.extern.slf4j.Slf4j;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
-import javax.enterprise.event.TransactionPhase;
 import javax.enterprise.inject.Any;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.util.function.Consumer;
 
 @ApplicationScoped
-@Slf4j
 class WebSocketDomainEventObserver {
 
     @Inject
     @Any
     Instance<WebSocketSender> senders;
 
-    void accepted(@Observes(during = TransactionPhase.AFTER_SUCCESS) Table.Accepted event) {
+    @Inject
+    Instance<TransactionSynchronizationRegistry> transactionSynchronizationRegistry;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    private final TransactionCollector<WebSocketNotifications> notifications = new TransactionCollector<>(
+            WebSocketNotifications::new, collected -> collected.send(senders, objectMapper));
+
+    @Timed("bgf.observer")
+    void accepted(@Observes Table.Accepted event) {
         notifyTable(event.getTableId(), new WebSocketServerEvent(WebSocketServerEvent.Type.ACCEPTED, event.getTableId().getId(), event.getUserId().getId()));
 
         var table = event.getTable().get();
         notifyOtherPlayers(event.getUserId(), table, new WebSocketServerEvent(WebSocketServerEvent.Type.ACCEPTED, event.getTableId().getId(), event.getUserId().getId()));
     }
 
-    void rejected(@Observes(during = TransactionPhase.AFTER_SUCCESS) Table.Rejected event) {
+    @Timed("bgf.observer")
+    void rejected(@Observes Table.Rejected event) {
         notifyTable(event.getTableId(), new WebSocketServerEvent(WebSocketServerEvent.Type.REJECTED, event.getTableId().getId(), event.getUserId().getId()));
 
         var table = event.getTable().get();
         notifyOtherPlayers(event.getUserId(), table, new WebSocketServerEvent(WebSocketServerEvent.Type.REJECTED, event.getTableId().getId(), event.getUserId().getId()));
     }
 
-    void started(@Observes(during = TransactionPhase.AFTER_SUCCESS) Table.Started event) {
+    @Timed("bgf.observer")
+    void started(@Observes Table.Started event) {
         notifyTable(event.getTableId(), new WebSocketServerEvent(WebSocketServerEvent.Type.STARTED, event.getTableId().getId(), null));
 
         var table = event.getTable().get();
         notifyOtherPlayers(null, table, new WebSocketServerEvent(WebSocketServerEvent.Type.STARTED, event.getTableId().getId(), null));
     }
 
-    void ended(@Observes(during = TransactionPhase.AFTER_SUCCESS) Table.Ended event) {
+    @Timed("bgf.observer")
+    void ended(@Observes Table.Ended event) {
         notifyTable(event.getTableId(), new WebSocketServerEvent(WebSocketServerEvent.Type.ENDED, event.getTableId().getId(), null));
 
         var table = event.getTable().get();
         notifyOtherPlayers(null, table, new WebSocketServerEvent(WebSocketServerEvent.Type.ENDED, event.getTableId().getId(), null));
     }
 
-    void stateChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) Table.StateChanged event) {
-        notifyTable(event.getTableId(), new WebSocketServerEvent(WebSocketServerEvent.Type.STATE_CHANGED, event.getTableId().getId(), null));
+    @Timed("bgf.observer")
+    void stateChanged(@Observes Table.StateChanged event) {
+        collect(notifications -> {
+            notifications.pushState(event.getTableId(), event.getTable());
+            notifications.notifyTable(event.getTableId(), new WebSocketServerEvent(WebSocketServerEvent.Type.STATE_CHANGED, event.getTableId().getId(), null));
+        });
 
         var table = event.getTable().get();
         notifyOtherPlayers(null, table, new WebSocketServerEvent(WebSocketServerEvent.Type.STATE_CHANGED, event.getTableId().getId(), null));
     }
 
-    void invited(@Observes(during = TransactionPhase.AFTER_SUCCESS) Table.Invited event) {
+    @Timed("bgf.observer")
+    void invited(@Observes Table.Invited event) {
         notifyTable(event.getTableId(), new WebSocketServerEvent(WebSocketServerEvent.Type.INVITED, event.getTableId().getId(), event.getUserId().getId()));
 
         var table = event.getTable().get();
@@ -82,7 +102,8 @@ class WebSocketDomainEventObserver {
         notifyOtherPlayers(event.getUserId(), table, new WebSocketServerEvent(WebSocketServerEvent.Type.INVITED, table.getId().getId(), event.getUserId().getId()));
     }
 
-    void uninvited(@Observes(during = TransactionPhase.AFTER_SUCCESS) Table.Kicked event) {
+    @Timed("bgf.observer")
+    void uninvited(@Observes Table.Kicked event) {
         notifyTable(event.getTableId(), new WebSocketServerEvent(WebSocketServerEvent.Type.UNINVITED, event.getTableId().getId(), event.getUserId().getId()));
 
         var table = event.getTable().get();
@@ -90,15 +111,18 @@ class WebSocketDomainEventObserver {
         notifyOtherPlayers(event.getUserId(), table, new WebSocketServerEvent(WebSocketServerEvent.Type.UNINVITED, table.getId().getId(), event.getUserId().getId()));
     }
 
-    void joined(@Observes(during = TransactionPhase.AFTER_SUCCESS) Table.Joined event) {
+    @Timed("bgf.observer")
+    void joined(@Observes Table.Joined event) {
         notifyTable(event.getTableId(), new WebSocketServerEvent(WebSocketServerEvent.Type.JOINED, event.getTableId().getId(), event.getUserId().getId()));
     }
 
-    void visibilityChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) Table.VisibilityChanged event) {
+    @Timed("bgf.observer")
+    void visibilityChanged(@Observes Table.VisibilityChanged event) {
         notifyTable(event.getTableId(), new WebSocketServerEvent(WebSocketServerEvent.Type.VISIBILITY_CHANGED, event.getTableId().getId(), null));
     }
 
-    void left(@Observes(during = TransactionPhase.AFTER_SUCCESS) Table.Left event) {
+    @Timed("bgf.observer")
+    void left(@Observes Table.Left event) {
         notifyTable(event.getTableId(), new WebSocketServerEvent(WebSocketServerEvent.Type.LEFT, event.getTableId().getId(), event.getUserId().getId()));
 
         var table = event.getTable().get();
@@ -106,29 +130,34 @@ class WebSocketDomainEventObserver {
         notifyOtherPlayers(event.getUserId(), table, new WebSocketServerEvent(WebSocketServerEvent.Type.LEFT, event.getTableId().getId(), event.getUserId().getId()));
     }
 
-    void abandoned(@Observes(during = TransactionPhase.AFTER_SUCCESS) Table.Abandoned event) {
+    @Timed("bgf.observer")
+    void abandoned(@Observes Table.Abandoned event) {
         notifyTable(event.getTableId(), new WebSocketServerEvent(WebSocketServerEvent.Type.ABANDONED, event.getTableId().getId(), null));
 
         var table = event.getTable().get();
         notifyOtherPlayers(null, table, new WebSocketServerEvent(WebSocketServerEvent.Type.ABANDONED, event.getTableId().getId(), null));
     }
 
-    void proposedToLeave(@Observes(during = TransactionPhase.AFTER_SUCCESS) Table.ProposedToLeave event) {
+    @Timed("bgf.observer")
+    void proposedToLeave(@Observes Table.ProposedToLeave event) {
         notifyTable(event.getTableId(), new WebSocketServerEvent(WebSocketServerEvent.Type.PROPOSED_TO_LEAVE, event.getTableId().getId(), event.getUserId().getId()));
     }
 
-    void agreedToLeave(@Observes(during = TransactionPhase.AFTER_SUCCESS) Table.AgreedToLeave event) {
+    @Timed("bgf.observer")
+    void agreedToLeave(@Observes Table.AgreedToLeave event) {
         notifyTable(event.getTableId(), new WebSocketServerEvent(WebSocketServerEvent.Type.AGREED_TO_LEAVE, event.getTableId().getId(), event.getUserId().getId()));
     }
 
-    void kicked(@Observes(during = TransactionPhase.AFTER_SUCCESS) Table.Kicked event) {
+    @Timed("bgf.observer")
+    void kicked(@Observes Table.Kicked event) {
         notifyTable(event.getTableId(), new WebSocketServerEvent(WebSocketServerEvent.Type.KICKED, event.getTableId().getId(), event.getUserId().getId()));
 
         var table = event.getTable().get();
         notifyOtherPlayers(null, table, new WebSocketServerEvent(WebSocketServerEvent.Type.KICKED, event.getTableId().getId(), event.getUserId().getId()));
     }
 
-    void optionsChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) Table.OptionsChanged event) {
+    @Timed("bgf.observer")
+    void optionsChanged(@Observes Table.OptionsChanged event) {
         notifyTable(event.getTableId(), new WebSocketServerEvent(WebSocketServerEvent.Type.OPTIONS_CHANGED, event.getTableId().getId(), null));
 
         // TODO Is this actually needed?
@@ -136,7 +165,8 @@ class WebSocketDomainEventObserver {
         notifyOtherPlayers(null, table, new WebSocketServerEvent(WebSocketServerEvent.Type.OPTIONS_CHANGED, event.getTableId().getId(), null));
     }
 
-    void computerAdded(@Observes(during = TransactionPhase.AFTER_SUCCESS) Table.ComputerAdded event) {
+    @Timed("bgf.observer")
+    void computerAdded(@Observes Table.ComputerAdded event) {
         notifyTable(event.getTableId(), new WebSocketServerEvent(WebSocketServerEvent.Type.COMPUTER_ADDED, event.getTableId().getId(), null));
 
         // TODO Is this actually needed?
@@ -144,28 +174,24 @@ class WebSocketDomainEventObserver {
         notifyOtherPlayers(null, table, new WebSocketServerEvent(WebSocketServerEvent.Type.COMPUTER_ADDED, event.getTableId().getId(), null));
     }
 
-    void addedAsFriend(@Observes(during = TransactionPhase.AFTER_SUCCESS) Friend.Started event) {
+    @Timed("bgf.observer")
+    void addedAsFriend(@Observes Friend.Started event) {
         notifyUser(event.getId().getOtherUserId(), new WebSocketServerEvent(WebSocketServerEvent.Type.ADDED_AS_FRIEND, null, event.getId().getUserId().getId()));
     }
 
     private void notifyTable(Table.Id tableId, WebSocketServerEvent event) {
-        if (log.isDebugEnabled()) {
-            log.debug("Notifying table {} through {} senders of: {}", tableId.getId(), senders.stream().count(), event);
-        }
-        senders.forEach(sender -> {
-            log.debug("Notifying table {} through sender {} of: {}", tableId.getId(), sender, event);
-            sender.sendToTable(tableId, event);
-        });
+        collect(notifications -> notifications.notifyTable(tableId, event));
     }
 
     private void notifyUser(User.Id userId, WebSocketServerEvent event) {
-        if (log.isDebugEnabled()) {
-            log.debug("Notifying user {} through {} senders of: {}", userId.getId(), senders.stream().count(), event);
-        }
-        senders.forEach(sender -> {
-            log.debug("Notifying user {} through sender {} of: {}", userId.getId(), sender, event);
-            sender.sendToUser(userId, event);
-        });
+        collect(notifications -> notifications.notifyUser(userId, event));
+    }
+
+    /**
+     * Collects notifications until the current transaction is committed, so they can be coalesced per recipient.
+     */
+    private void collect(Consumer<WebSocketNotifications> collector) {
+        notifications.collect(transactionSynchronizationRegistry, collector);
     }
 
     private void notifyOtherPlayers(User.Id currentUserId, Table table, WebSocketServerEvent event) {
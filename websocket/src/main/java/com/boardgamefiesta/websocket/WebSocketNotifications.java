@@ -0,0 +1,70 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.websocket;
+
+import com.boardgamefiesta.domain.table.Lazy;
+import com.boardgamefiesta.domain.table.Table;
+import com.boardgamefiesta.domain.user.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.enterprise.inject.Instance;
+import java.util.*;
+
+/**
+ * Events to send over WebSocket, coalesced per recipient, with duplicates suppressed,
+ * so each recipient gets one message containing all events.
+ */
+@Slf4j
+class WebSocketNotifications {
+
+    private final Map<Table.Id, Set<WebSocketServerEvent>> tables = new LinkedHashMap<>();
+    private final Map<Table.Id, Lazy<Table>> statePushes = new HashMap<>();
+    private final Map<User.Id, Set<WebSocketServerEvent>> users = new LinkedHashMap<>();
+
+    void notifyTable(Table.Id tableId, WebSocketServerEvent event) {
+        tables.computeIfAbsent(tableId, k -> new LinkedHashSet<>()).add(event);
+    }
+
+    void pushState(Table.Id tableId, Lazy<Table> table) {
+        statePushes.put(tableId, table);
+    }
+
+    void notifyUser(User.Id userId, WebSocketServerEvent event) {
+        users.computeIfAbsent(userId, k -> new LinkedHashSet<>()).add(event);
+    }
+
+    void send(Instance<WebSocketSender> senders, ObjectMapper objectMapper) {
+        tables.forEach((tableId, events) -> {
+            var statePush = Optional.ofNullable(statePushes.get(tableId))
+                    .map(Lazy::get)
+                    .flatMap(table -> StatePush.of(objectMapper, table));
+
+            senders.forEach(sender -> {
+                log.debug("Notifying table {} through sender {} of: {}", tableId.getId(), sender, events);
+                sender.sendToTable(tableId, new ArrayList<>(events), statePush);
+            });
+        });
+
+        users.forEach((userId, events) -> senders.forEach(sender -> {
+            log.debug("Notifying user {} through sender {} of: {}", userId.getId(), sender, events);
+            sender.sendToUser(userId, new ArrayList<>(events));
+        }));
+    }
+}
@@ -21,8 +21,15 @@ package com.boardgamefiesta.websocket;
 import com.boardgamefiesta.domain.table.Table;
 import com.boardgamefiesta.domain.user.User;
 
+import java.util.List;
+import java.util.Optional;
+
 public interface WebSocketSender {
-    void sendToTable(Table.Id tableId, WebSocketServerEvent event);
+    /**
+     * Sends the events to all connections of the table.
+     * Connections that opted in to state pushes get the state instead of the {@link WebSocketServerEvent.Type#STATE_CHANGED} event.
+     */
+    void sendToTable(Table.Id tableId, List<WebSocketServerEvent> events, Optional<StatePush> statePush);
 
-    void sendToUser(User.Id userId, WebSocketServerEvent event);
+    void sendToUser(User.Id userId, List<WebSocketServerEvent> events);
 }
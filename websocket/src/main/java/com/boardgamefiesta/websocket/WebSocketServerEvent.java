@@ -18,10 +18,15 @@
 
 package com.boardgamefiesta.websocket;
 
+import com.boardgamefiesta.domain.user.User;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -40,6 +45,25 @@ public class WebSocketServerEvent {
     }
 
 
+    /**
+     * Coalesced events are sent as a single message. A single event is sent as an object, as it always was,
+     * so only clients that receive multiple events at once have to handle an array.
+     */
+    public static String toJSON(List<String> events) {
+        if (events.size() == 1) {
+            return events.get(0);
+        }
+        return "[" + String.join(",", events) + "]";
+    }
+
+    public static String toJSON(List<WebSocketServerEvent> events, Optional<StatePush> statePush, Optional<User.Id> statePushUserId) {
+        return toJSON(events.stream()
+                .map(event -> event.type == Type.STATE_CHANGED && statePush.isPresent() && statePushUserId.isPresent()
+                        ? statePush.get().toJSON(statePushUserId.get())
+                        : event.toJSON())
+                .collect(Collectors.toList()));
+    }
+
     public enum Type {
         STARTED,
         ENDED,
@@ -47,6 +71,7 @@ public class WebSocketServerEvent {
         ACCEPTED,
         REJECTED,
         STATE_CHANGED,
+        STATE,
         UNINVITED,
         LEFT,
         PROPOSED_TO_LEAVE,
@@ -0,0 +1,101 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.websocket;
+
+import com.boardgamefiesta.domain.table.Table;
+import com.boardgamefiesta.domain.user.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.apigatewaymanagementapi.ApiGatewayManagementApiClient;
+import software.amazon.awssdk.services.apigatewaymanagementapi.model.GoneException;
+import software.amazon.awssdk.services.apigatewaymanagementapi.model.PostToConnectionRequest;
+import software.amazon.awssdk.services.apigatewaymanagementapi.model.PostToConnectionResponse;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ApiGatewayWebSocketSenderTest {
+
+    static final Table.Id TABLE_ID = Table.Id.fromString("T");
+    static final User.Id USER_ID = User.Id.of("user");
+    static final List<WebSocketServerEvent> EVENTS = List.of(
+            new WebSocketServerEvent(WebSocketServerEvent.Type.STATE_CHANGED, TABLE_ID.getId(), null));
+
+    @Mock
+    WebSocketConnectionRepository webSocketConnections;
+
+    @Mock
+    ApiGatewayManagementApiClient apiGatewayManagementApiClient;
+
+    ApiGatewayWebSocketSender sender;
+
+    @BeforeEach
+    void setUp() {
+        when(apiGatewayManagementApiClient.postToConnection(any(PostToConnectionRequest.class))).thenAnswer(invocation -> {
+            var request = invocation.getArgument(0, PostToConnectionRequest.class);
+            switch (request.connectionId()) {
+                case "gone":
+                    throw GoneException.builder().message("Gone").build();
+                case "failed":
+                    throw SdkClientException.create("Connection reset");
+                default:
+                    return PostToConnectionResponse.builder().build();
+            }
+        });
+
+        sender = new ApiGatewayWebSocketSender(webSocketConnections, apiGatewayManagementApiClient, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sender.destroy();
+    }
+
+    @Test
+    void prunesGoneConnection() {
+        when(webSocketConnections.findTableConnectionsByTableId(TABLE_ID))
+                .thenAnswer(invocation -> Stream.of(new WebSocketConnectionRepository.TableConnection("gone", null)));
+
+        sender.sendToTable(TABLE_ID, EVENTS, Optional.empty());
+
+        verify(webSocketConnections).remove("gone");
+    }
+
+    @Test
+    void prunesOnlyGoneConnections() {
+        when(webSocketConnections.findByUserId(USER_ID)).thenAnswer(invocation -> Stream.of("connected", "gone", "failed"));
+
+        sender.sendToUser(USER_ID, EVENTS);
+
+        verify(apiGatewayManagementApiClient, times(3)).postToConnection(any(PostToConnectionRequest.class));
+        verify(webSocketConnections).remove("gone");
+        verify(webSocketConnections, never()).remove("connected");
+        verify(webSocketConnections, never()).remove("failed");
+    }
+}
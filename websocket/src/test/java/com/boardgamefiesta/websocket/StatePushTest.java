@@ -0,0 +1,192 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.websocket;
+
+import com.boardgamefiesta.api.domain.State;
+import com.boardgamefiesta.api.query.ViewMapper;
+import com.boardgamefiesta.api.spi.GameProvider;
+import com.boardgamefiesta.domain.game.Game;
+import com.boardgamefiesta.domain.table.Lazy;
+import com.boardgamefiesta.domain.table.Table;
+import com.boardgamefiesta.domain.user.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import java.io.StringReader;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StatePushTest {
+
+    static final Instant T0 = Instant.parse("2022-04-01T12:00:00.100Z");
+    static final Instant T1 = T0.plusMillis(1);
+    static final Instant T2 = T1.plusMillis(1);
+
+    static final User.Id USER_ID = User.Id.of("user");
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    Table table;
+
+    @Mock
+    Game game;
+
+    @Mock
+    GameProvider<State> provider;
+
+    @Mock
+    ViewMapper<State> viewMapper;
+
+    @Mock
+    State state0, state1, state2;
+
+    @BeforeEach
+    void setUp() {
+        when(table.getId()).thenReturn(Table.Id.fromString("T"));
+        when(table.getGame()).thenReturn(game);
+        when(game.getProvider()).thenReturn(provider);
+        when(provider.getViewMapper()).thenReturn(viewMapper);
+    }
+
+    @Test
+    void noBase() {
+        when(table.getCurrentState()).thenReturn(Lazy.of(Optional.of(currentState(state2, T2, Lazy.of(Optional.empty())))));
+        when(viewMapper.toView(state2, null)).thenReturn(view(2, "x"));
+
+        var message = parse(StatePush.of(objectMapper, table).orElseThrow().toJSON(USER_ID));
+
+        assertThat(message.getString("type")).isEqualTo("STATE");
+        assertThat(message.getJsonNumber("version").longValue()).isEqualTo(T2.toEpochMilli());
+        assertThat(message.containsKey("baseVersion")).isFalse();
+        assertThat(message.containsKey("patch")).isFalse();
+        assertThat(message.getJsonObject("view")).isEqualTo(rest(view(2, "x")));
+    }
+
+    @Test
+    void patchAgainstLastSavedState() {
+        var saved = historicState(state1, T1, false, Lazy.of(Optional.empty()));
+        when(table.getCurrentState()).thenReturn(Lazy.of(Optional.of(currentState(state2, T2, Lazy.of(Optional.of(saved))))));
+        when(viewMapper.toView(state1, null)).thenReturn(view(1, null));
+        when(viewMapper.toView(state2, null)).thenReturn(view(2, "x"));
+
+        var message = parse(StatePush.of(objectMapper, table).orElseThrow().toJSON(USER_ID));
+
+        assertThat(message.getJsonNumber("version").longValue()).isEqualTo(T2.toEpochMilli());
+        assertThat(message.getJsonNumber("baseVersion").longValue()).isEqualTo(T1.toEpochMilli());
+        assertThat(message.containsKey("view")).isFalse();
+
+        // Applied to the state as returned by the REST API, results in the state as the REST API would return it
+        var patch = Json.createPatch(message.getJsonArray("patch"));
+        assertThat(patch.apply(rest(view(1, null)))).isEqualTo(rest(view(2, "x")));
+    }
+
+    @Test
+    void skipsStatesThatWereNeverSaved() {
+        var saved = historicState(state0, T0, false, Lazy.of(Optional.empty()));
+        var neverSaved = historicState(state1, T1, true, Lazy.of(Optional.of(saved)));
+        when(table.getCurrentState()).thenReturn(Lazy.of(Optional.of(currentState(state2, T2, Lazy.of(Optional.of(neverSaved))))));
+        when(viewMapper.toView(state0, null)).thenReturn(view(0, null));
+        when(viewMapper.toView(state2, null)).thenReturn(view(2, "x"));
+
+        var message = parse(StatePush.of(objectMapper, table).orElseThrow().toJSON(USER_ID));
+
+        assertThat(message.getJsonNumber("baseVersion").longValue()).isEqualTo(T0.toEpochMilli());
+        var patch = Json.createPatch(message.getJsonArray("patch"));
+        assertThat(patch.apply(rest(view(0, null)))).isEqualTo(rest(view(2, "x")));
+    }
+
+    @Test
+    void noBaseWhenNotInMemory() {
+        when(table.getCurrentState()).thenReturn(Lazy.of(Optional.of(currentState(state2, T2,
+                Lazy.defer(() -> {
+                    throw new AssertionError("must not load previous state");
+                })))));
+        when(viewMapper.toView(state2, null)).thenReturn(view(2, "x"));
+
+        var message = parse(StatePush.of(objectMapper, table).orElseThrow().toJSON(USER_ID));
+
+        assertThat(message.containsKey("baseVersion")).isFalse();
+        assertThat(message.getJsonObject("view")).isEqualTo(rest(view(2, "x")));
+    }
+
+    @Test
+    void rendersOncePerViewer() {
+        when(table.getCurrentState()).thenReturn(Lazy.of(Optional.of(currentState(state2, T2, Lazy.of(Optional.empty())))));
+        when(viewMapper.toView(state2, null)).thenReturn(view(2, "x"));
+
+        var statePush = StatePush.of(objectMapper, table).orElseThrow();
+
+        assertThat(statePush.toJSON(USER_ID)).isSameAs(statePush.toJSON(User.Id.of("other")));
+    }
+
+    private static Table.CurrentState currentState(State state, Instant timestamp, Lazy<Optional<Table.HistoricState>> previous) {
+        return Table.CurrentState.builder()
+                .state(state)
+                .timestamp(timestamp)
+                .previous(previous)
+                .changed(true)
+                .build();
+    }
+
+    private static Table.HistoricState historicState(State state, Instant timestamp, boolean changed, Lazy<Optional<Table.HistoricState>> previous) {
+        return Table.HistoricState.builder()
+                .state(state)
+                .timestamp(timestamp)
+                .changed(changed)
+                .previous(previous)
+                .build();
+    }
+
+    private static Map<String, Object> view(int a, String b) {
+        var view = new HashMap<String, Object>();
+        view.put("a", a);
+        view.put("b", b);
+        return view;
+    }
+
+    /**
+     * Serializes the view the same way as the REST API does.
+     */
+    private JsonObject rest(Object view) {
+        try {
+            return parse(objectMapper.writeValueAsString(view));
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static JsonObject parse(String json) {
+        try (var reader = Json.createReader(new StringReader(json))) {
+            return reader.readObject();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.websocket;
+
+import com.boardgamefiesta.domain.table.Lazy;
+import com.boardgamefiesta.domain.table.Table;
+import com.boardgamefiesta.domain.user.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.enterprise.inject.Instance;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebSocketDomainEventObserverTest {
+
+    static final Table.Id TABLE_ID = Table.Id.fromString("T");
+    static final User.Id USER_A = User.Id.of("A");
+    static final User.Id USER_B = User.Id.of("B");
+
+    @Mock
+    Instance<WebSocketSender> senders;
+
+    @Mock
+    Instance<TransactionSynchronizationRegistry> transactionSynchronizationRegistry;
+
+    @Mock
+    WebSocketSender sender;
+
+    @Mock
+    Table table;
+
+    FakeTransactionSynchronizationRegistry registry = new FakeTransactionSynchronizationRegistry();
+
+    WebSocketDomainEventObserver observer;
+
+    @BeforeEach
+    void setUp() {
+        lenient().doCallRealMethod().when(senders).forEach(any());
+        lenient().when(senders.iterator()).thenAnswer(invocation -> List.of(sender).iterator());
+        lenient().when(transactionSynchronizationRegistry.isResolvable()).thenReturn(true);
+        lenient().when(transactionSynchronizationRegistry.get()).thenReturn(registry);
+
+        observer = new WebSocketDomainEventObserver();
+        observer.senders = senders;
+        observer.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+        observer.objectMapper = new ObjectMapper();
+    }
+
+    @Test
+    void coalescesUntilCommitted() {
+        registry.status = Status.STATUS_ACTIVE;
+
+        observer.joined(new Table.Joined(Lazy.of(table), TABLE_ID, USER_A));
+        observer.joined(new Table.Joined(Lazy.of(table), TABLE_ID, USER_B));
+        observer.joined(new Table.Joined(Lazy.of(table), TABLE_ID, USER_A));
+
+        verifyNoInteractions(sender);
+        assertThat(registry.synchronizations).hasSize(1);
+
+        registry.complete(Status.STATUS_COMMITTED);
+
+        verify(sender).sendToTable(TABLE_ID, List.of(
+                new WebSocketServerEvent(WebSocketServerEvent.Type.JOINED, TABLE_ID.getId(), USER_A.getId()),
+                new WebSocketServerEvent(WebSocketServerEvent.Type.JOINED, TABLE_ID.getId(), USER_B.getId())), Optional.empty());
+        verifyNoMoreInteractions(sender);
+    }
+
+    @Test
+    void dropsWhenRolledBack() {
+        registry.status = Status.STATUS_ACTIVE;
+
+        observer.joined(new Table.Joined(Lazy.of(table), TABLE_ID, USER_A));
+
+        registry.complete(Status.STATUS_ROLLEDBACK);
+
+        verifyNoInteractions(sender);
+    }
+
+    @Test
+    void dropsWhenMarkedForRollback() {
+        registry.status = Status.STATUS_MARKED_ROLLBACK;
+
+        observer.joined(new Table.Joined(Lazy.of(table), TABLE_ID, USER_A));
+
+        assertThat(registry.synchronizations).isEmpty();
+        verifyNoInteractions(sender);
+    }
+
+    @Test
+    void sendsImmediatelyWithoutTransaction() {
+        registry.status = Status.STATUS_NO_TRANSACTION;
+
+        observer.joined(new Table.Joined(Lazy.of(table), TABLE_ID, USER_A));
+
+        verify(sender).sendToTable(TABLE_ID, List.of(
+                new WebSocketServerEvent(WebSocketServerEvent.Type.JOINED, TABLE_ID.getId(), USER_A.getId())), Optional.empty());
+        assertThat(registry.synchronizations).isEmpty();
+    }
+
+    static class FakeTransactionSynchronizationRegistry implements TransactionSynchronizationRegistry {
+
+        int status;
+        final Map<Object, Object> resources = new HashMap<>();
+        final List<Synchronization> synchronizations = new ArrayList<>();
+
+        void complete(int status) {
+            synchronizations.forEach(Synchronization::beforeCompletion);
+            this.status = status;
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+        }
+
+        @Override
+        public Object getTransactionKey() {
+            return this;
+        }
+
+        @Override
+        public void putResource(Object key, Object value) {
+            resources.put(key, value);
+        }
+
+        @Override
+        public Object getResource(Object key) {
+            return resources.get(key);
+        }
+
+        @Override
+        public void registerInterposedSynchronization(Synchronization sync) {
+            synchronizations.add(sync);
+        }
+
+        @Override
+        public int getTransactionStatus() {
+            return status;
+        }
+
+        @Override
+        public void setRollbackOnly() {
+            status = Status.STATUS_MARKED_ROLLBACK;
+        }
+
+        @Override
+        public boolean getRollbackOnly() {
+            return status == Status.STATUS_MARKED_ROLLBACK;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Board Game Fiesta
+ * Copyright (C)  2022 Tom Wetjens <tomwetjens@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.boardgamefiesta.websocket;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebSocketServerEventTest {
+
+    @Test
+    void singleEventIsObject() {
+        var json = WebSocketServerEvent.toJSON(List.of(
+                new WebSocketServerEvent(WebSocketServerEvent.Type.STATE_CHANGED, "T", null)), Optional.empty(), Optional.empty());
+
+        assertThat(json).isEqualTo("{\"type\":\"STATE_CHANGED\",\"tableId\":\"T\",\"userId\":\"null\"}");
+    }
+
+    @Test
+    void multipleEventsAreArray() {
+        var json = WebSocketServerEvent.toJSON(List.of(
+                new WebSocketServerEvent(WebSocketServerEvent.Type.JOINED, "T", "A"),
+                new WebSocketServerEvent(WebSocketServerEvent.Type.STATE_CHANGED, "T", null)), Optional.empty(), Optional.empty());
+
+        assertThat(json).isEqualTo("[{\"type\":\"JOINED\",\"tableId\":\"T\",\"userId\":\"A\"}," +
+                "{\"type\":\"STATE_CHANGED\",\"tableId\":\"T\",\"userId\":\"null\"}]");
+    }
+}